@@ -0,0 +1,117 @@
+package com.eainde.form_forge.admission;
+
+import com.eainde.form_forge.exception.AdmissionRejectedException;
+
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounds the number of expensive form generations running at the same time, so that a few very large forms
+ * cannot occupy every worker thread while cheap forms wait behind them.
+ * <p>
+ * A generation whose estimated cost (see {@link GenerationCostEstimator}) is below the heavy threshold runs
+ * immediately and never waits. A heavy generation needs one of {@code maxConcurrentHeavy} permits: it waits
+ * up to {@code queueTimeout} for one, in arrival order, as long as fewer than {@code maxQueuedHeavy} others are
+ * already waiting. Otherwise it is rejected with an {@link AdmissionRejectedException} carrying the policy's
+ * retry delay, before any generation work has been done.
+ */
+public class AdmissionController {
+
+    private final AdmissionPolicy policy;
+    private final Semaphore heavyPermits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder admittedLight = new LongAdder();
+    private final LongAdder admittedHeavy = new LongAdder();
+    private final LongAdder queuedHeavy = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public AdmissionController(AdmissionPolicy policy) {
+        this.policy = policy;
+        this.heavyPermits = new Semaphore(policy.maxConcurrentHeavy(), true);
+    }
+
+    public AdmissionPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Estimates the cost of generating a form and runs the generation if it is admitted.
+     *
+     * @param formClass       The @JsonForm-annotated class.
+     * @param dynamicMetadata The dynamic metadata the form is generated with.
+     * @param generation      The generation to run.
+     * @return The result of the generation.
+     * @throws AdmissionRejectedException if the generation is heavy and no permit became available.
+     */
+    public <T> T admit(Class<?> formClass, Map<String, Map<String, Object>> dynamicMetadata, Supplier<T> generation) {
+        return admit(GenerationCostEstimator.estimate(formClass, dynamicMetadata), generation);
+    }
+
+    /**
+     * Runs work of the given estimated cost if it is admitted.
+     *
+     * @param cost       The estimated cost of the work.
+     * @param generation The work to run.
+     * @return The result of the work.
+     * @throws AdmissionRejectedException if the work is heavy and no permit became available.
+     */
+    public <T> T admit(long cost, Supplier<T> generation) {
+        if (cost < policy.heavyCostThreshold()) {
+            admittedLight.increment();
+            return generation.get();
+        }
+        // A free permit is taken directly only if nobody is waiting, so queued generations keep their order.
+        if (heavyPermits.hasQueuedThreads() || !heavyPermits.tryAcquire()) {
+            awaitPermit(cost);
+        }
+        admittedHeavy.increment();
+        try {
+            return generation.get();
+        } finally {
+            heavyPermits.release();
+        }
+    }
+
+    private void awaitPermit(long cost) {
+        if (waiting.incrementAndGet() > policy.maxQueuedHeavy()) {
+            waiting.decrementAndGet();
+            rejectedFull.increment();
+            throw rejected("Too many expensive forms are queued (cost " + cost + ")");
+        }
+        queuedHeavy.increment();
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = heavyPermits.tryAcquire(policy.queueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+            waitNanos.add(System.nanoTime() - start);
+        }
+        if (!acquired) {
+            rejectedTimeout.increment();
+            throw rejected("No capacity for an expensive form within " + policy.queueTimeout().toMillis() + " ms (cost " + cost + ")");
+        }
+    }
+
+    private AdmissionRejectedException rejected(String message) {
+        return new AdmissionRejectedException(message, policy.retryAfter());
+    }
+
+    /**
+     * @return A snapshot of the admission counters.
+     */
+    public AdmissionStats stats() {
+        return new AdmissionStats(admittedLight.sum(), admittedHeavy.sum(), queuedHeavy.sum(), rejectedFull.sum(),
+                rejectedTimeout.sum(), policy.maxConcurrentHeavy() - heavyPermits.availablePermits(), waiting.get(),
+                waitNanos.sum());
+    }
+}
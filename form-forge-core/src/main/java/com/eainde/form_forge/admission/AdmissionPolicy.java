@@ -0,0 +1,34 @@
+package com.eainde.form_forge.admission;
+
+import java.time.Duration;
+
+/**
+ * Settings of an {@link AdmissionController}.
+ *
+ * @param heavyCostThreshold Generations with an estimated cost at or above this are heavy and need a permit;
+ *                           cheaper ones are admitted immediately.
+ * @param maxConcurrentHeavy The maximum number of heavy generations running at the same time.
+ * @param maxQueuedHeavy     The maximum number of heavy generations waiting for a permit; beyond that they
+ *                           are rejected without waiting.
+ * @param queueTimeout       How long a heavy generation waits for a permit before it is rejected.
+ * @param retryAfter         The delay suggested to rejected clients.
+ */
+public record AdmissionPolicy(long heavyCostThreshold, int maxConcurrentHeavy, int maxQueuedHeavy,
+                              Duration queueTimeout, Duration retryAfter) {
+
+    /**
+     * The policy used when none is configured explicitly.
+     */
+    public static final AdmissionPolicy DEFAULTS = new AdmissionPolicy(5_000, 2, 8, Duration.ofMillis(500), Duration.ofSeconds(2));
+
+    public AdmissionPolicy {
+        if (heavyCostThreshold < 1 || maxConcurrentHeavy < 1 || maxQueuedHeavy < 0) {
+            throw new IllegalArgumentException("Admission limits must be positive: threshold=" + heavyCostThreshold
+                    + ", concurrent=" + maxConcurrentHeavy + ", queued=" + maxQueuedHeavy);
+        }
+        if (queueTimeout.isNegative() || retryAfter.isNegative()) {
+            throw new IllegalArgumentException("Admission durations must not be negative: queueTimeout=" + queueTimeout
+                    + ", retryAfter=" + retryAfter);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.eainde.form_forge.admission;
+
+/**
+ * A snapshot of the decisions of an {@link AdmissionController}. Counters are cumulative since startup.
+ *
+ * @param admittedLight   Generations admitted immediately because they were below the heavy threshold.
+ * @param admittedHeavy   Heavy generations admitted, immediately or after waiting.
+ * @param queuedHeavy     Heavy generations that had to wait for a permit (admitted or not).
+ * @param rejectedFull    Heavy generations rejected because the wait queue was full.
+ * @param rejectedTimeout Heavy generations rejected because no permit became free in time.
+ * @param activeHeavy     Heavy generations running now.
+ * @param waitingHeavy    Heavy generations waiting for a permit now.
+ * @param totalWaitNanos  The total time heavy generations spent waiting for a permit.
+ */
+public record AdmissionStats(long admittedLight, long admittedHeavy, long queuedHeavy, long rejectedFull,
+                             long rejectedTimeout, int activeHeavy, int waitingHeavy, long totalWaitNanos) {
+}
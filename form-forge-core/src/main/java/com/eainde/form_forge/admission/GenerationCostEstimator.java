@@ -0,0 +1,94 @@
+package com.eainde.form_forge.admission;
+
+import com.eainde.form_forge.metadata.DynamicSectionSpec;
+import com.eainde.form_forge.metadata.FieldMetadata;
+import com.eainde.form_forge.metadata.FormClassMetadata;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estimates the cost of generating a form before generating it, from the cached class metadata and the
+ * item counts of the dynamic metadata.
+ * <p>
+ * The cost is the number of fields, groups and dynamic-section items the generator would process: every
+ * annotated field counts once, a group adds the cost of its class, and a dynamic section adds one plus the
+ * cost of its item class for each item of the generated page. Nested dynamic sections multiply accordingly.
+ * A recursive group or item class is counted once, as the generator emits a reference for it. The estimate
+ * only reads the size of each section's "data" list, so it is cheap even for sections with many items.
+ */
+public final class GenerationCostEstimator {
+
+    private GenerationCostEstimator() {
+    }
+
+    /**
+     * @param formClass       The @JsonForm-annotated class.
+     * @param dynamicMetadata The dynamic metadata the form will be generated with, or null.
+     * @return The estimated number of processed fields, saturated at {@link Long#MAX_VALUE}.
+     */
+    public static long estimate(Class<?> formClass, Map<String, Map<String, Object>> dynamicMetadata) {
+        return estimate(formClass, dynamicMetadata, true);
+    }
+
+    /**
+     * @param formClass       The @JsonForm-annotated class.
+     * @param dynamicMetadata The dynamic metadata the form will be generated with, or null.
+     * @param paginated       false to count every item of paginated sections, as for
+     *                        {@link com.eainde.form_forge.service.JsonFormGenerator#generateUnpaginated}.
+     * @return The estimated number of processed fields, saturated at {@link Long#MAX_VALUE}.
+     */
+    public static long estimate(Class<?> formClass, Map<String, Map<String, Object>> dynamicMetadata, boolean paginated) {
+        Map<String, Map<String, Object>> metadata = dynamicMetadata != null ? dynamicMetadata : Map.of();
+        return cost(FormClassMetadata.of(formClass), metadata, paginated, new HashSet<>());
+    }
+
+    private static long cost(FormClassMetadata type, Map<String, Map<String, Object>> metadata, boolean paginated,
+                             Set<FormClassMetadata> path) {
+        if (!path.add(type)) {
+            return 0;
+        }
+        long cost = 0;
+        for (FieldMetadata field : type.fields()) {
+            if (field.group() != null) {
+                cost = add(cost, 1 + cost(FormClassMetadata.of(field.type()), metadata, paginated, path));
+            } else if (field.field() != null) {
+                cost = add(cost, 1);
+            } else if (field.dynamicSection() != null) {
+                long items = pageItems(field.name(), field.dynamicSection(), metadata, paginated);
+                long itemCost = items == 0 ? 0 : 1 + cost(FormClassMetadata.of(field.dynamicSection().itemDto()), metadata, paginated, path);
+                cost = add(cost, add(1, multiply(items, itemCost)));
+            }
+        }
+        path.remove(type);
+        return cost;
+    }
+
+    /**
+     * @return The number of items of the first page of a dynamic section, honoring a "pageSize" override
+     * in its metadata the same way the generator does, or of all its items if it is not paginated.
+     */
+    private static long pageItems(String placeholderFieldName, DynamicSectionSpec section, Map<String, Map<String, Object>> metadata,
+                                  boolean paginated) {
+        Map<String, Object> sectionData = metadata.get(placeholderFieldName);
+        if (sectionData == null || !(sectionData.get("data") instanceof List<?> items)) {
+            return 0;
+        }
+        if (!paginated) {
+            return items.size();
+        }
+        int pageSize = sectionData.get("pageSize") instanceof Number size ? size.intValue() : section.pageSize();
+        return pageSize > 0 ? Math.min(items.size(), pageSize) : items.size();
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        return b != 0 && a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+}
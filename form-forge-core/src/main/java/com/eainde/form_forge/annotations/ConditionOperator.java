@@ -0,0 +1,9 @@
+package com.eainde.form_forge.annotations;
+
+/**
+ * Defines how the conditions of a @JsonFormRule are combined.
+ */
+public enum ConditionOperator {
+    AND,
+    OR
+}
@@ -0,0 +1,51 @@
+package com.eainde.form_forge.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A single schema-based condition of a compound @JsonFormRule. The condition holds when the value of
+ * {@link #field()} satisfies every constraint that is set; {@link #not()} inverts the result.
+ * <p>
+ * Example: {@code @JsonFormCondition(field = "country", enumValues = {"US", "CA"})}
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+public @interface JsonFormCondition {
+
+    /**
+     * The name of the field in the root form class whose value is checked.
+     */
+    String field();
+
+    /**
+     * The exact value the field must have, parsed based on the type of the field.
+     */
+    String expectedValue() default "";
+
+    /**
+     * The values the field may have, parsed based on the type of the field.
+     */
+    String[] enumValues() default {};
+
+    /**
+     * The inclusive lower bound of a numeric field.
+     */
+    double minimum() default Double.NaN;
+
+    /**
+     * The inclusive upper bound of a numeric field.
+     */
+    double maximum() default Double.NaN;
+
+    /**
+     * A regular expression a string field must match.
+     */
+    String pattern() default "";
+
+    /**
+     * Whether the condition is negated.
+     */
+    boolean not() default false;
+}
@@ -39,5 +39,13 @@ public @interface JsonFormDynamicSection {
      * to prevent potential naming conflicts with other fields.
      */
     String propertyKeyPrefix() default "";
+
+    /**
+     * The maximum number of items generated per response. When the data has more items, the
+     * response carries a cursor for this section and the remaining items are fetched page by page
+     * with {@code JsonFormGenerator#generateSectionPage}. The default of 0 generates all items at once.
+     * The dynamic metadata of the section may override this with a "pageSize" entry.
+     */
+    int pageSize() default 0;
 }
 
@@ -67,5 +67,12 @@ public @interface JsonFormField {
      * A regex pattern for string validation.
      */
     String pattern() default "";
+
+    /**
+     * The name of a shared option dictionary that lists the allowed values of the field, see
+     * {@link com.eainde.form_forge.dictionary.OptionDictionaryRegistry}. The form emits the dictionary once
+     * in its {@code $defs}, and the field refers to it.
+     */
+    String dictionary() default "";
 }
 
@@ -11,6 +11,16 @@ import java.lang.annotation.Target;
  * Defines a rule for a UI schema element, allowing for conditional
  * showing, hiding, enabling, or disabling of a form field.
  * This should be placed on a field that also has @JsonFormField.
+ * <p>
+ * A simple rule compares one field with {@link #expectedValue()}. A compound rule lists
+ * {@link #conditions()} instead, combined with {@link #operator()}, e.g. "country in {US, CA}
+ * and isBusinessAccount":
+ * <pre>
+ * &#64;JsonFormRule(effect = RuleEffect.SHOW, conditions = {
+ *         &#64;JsonFormCondition(field = "country", enumValues = {"US", "CA"}),
+ *         &#64;JsonFormCondition(field = "isBusinessAccount", expectedValue = "true")
+ * })
+ * </pre>
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
@@ -23,12 +33,23 @@ public @interface JsonFormRule {
 
     /**
      * The name of the field in the same class whose value will be checked.
+     * Ignored when {@link #conditions()} is not empty.
      */
-    String conditionField();
+    String conditionField() default "";
 
     /**
      * The expected value of the conditionField for the rule to be active.
      * The value will be parsed based on the type of the conditionField (e.g., "true" for boolean, "123" for integer).
      */
-    String expectedValue();
+    String expectedValue() default "";
+
+    /**
+     * The conditions of a compound rule. When not empty, they replace conditionField and expectedValue.
+     */
+    JsonFormCondition[] conditions() default {};
+
+    /**
+     * How the conditions of a compound rule are combined.
+     */
+    ConditionOperator operator() default ConditionOperator.AND;
 }
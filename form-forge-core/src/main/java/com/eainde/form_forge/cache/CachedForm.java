@@ -0,0 +1,82 @@
+package com.eainde.form_forge.cache;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A generated form response held by the {@link FormResponseCache}, serialized once and served as bytes.
+ * The body is never modified after creation, so it can be written to any number of responses concurrently.
+ */
+public final class CachedForm {
+
+    private final FormCacheKey key;
+    private final Set<String> metadataKeys;
+    private final Set<String> dictionaries;
+    private final byte[] body;
+    private final String hash;
+    private final Instant createdAt;
+    private final long loadNanos;
+    private final AtomicLong hits = new AtomicLong();
+
+    CachedForm(FormCacheKey key, Set<String> metadataKeys, Set<String> dictionaries, byte[] body, String hash, long loadNanos) {
+        this.key = key;
+        this.metadataKeys = metadataKeys;
+        this.dictionaries = dictionaries;
+        this.body = body;
+        this.hash = hash;
+        this.createdAt = Instant.now();
+        this.loadNanos = loadNanos;
+    }
+
+    public FormCacheKey key() {
+        return key;
+    }
+
+    /**
+     * @return The top-level keys of the dynamic metadata the form was generated with.
+     */
+    public Set<String> metadataKeys() {
+        return metadataKeys;
+    }
+
+    /**
+     * @return The names of the option dictionaries the form contains.
+     */
+    public Set<String> dictionaries() {
+        return dictionaries;
+    }
+
+    /**
+     * @return The serialized JSON response. The array is shared and must not be modified.
+     */
+    public byte[] body() {
+        return body;
+    }
+
+    /**
+     * @return The SHA-256 of the body as lowercase hex, usable as an entity tag.
+     */
+    public String hash() {
+        return hash;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return The time it took to generate and serialize the form, in nanoseconds.
+     */
+    public long loadNanos() {
+        return loadNanos;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    void recordHit() {
+        hits.incrementAndGet();
+    }
+}
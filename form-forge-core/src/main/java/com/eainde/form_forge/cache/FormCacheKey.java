@@ -0,0 +1,21 @@
+package com.eainde.form_forge.cache;
+
+import java.util.List;
+
+/**
+ * Identifies one cached variant of a form.
+ *
+ * @param formClass   The @JsonForm-annotated class.
+ * @param tenant      The tenant the form was generated for.
+ * @param fingerprint The SHA-256 of the dynamic metadata, in canonical (key-sorted) JSON form, as lowercase hex.
+ * @param paths       The field paths the form was restricted to, sorted and without duplicates; empty for the whole form.
+ */
+public record FormCacheKey(Class<?> formClass, String tenant, String fingerprint, List<String> paths) {
+
+    /**
+     * Creates the key of a whole form.
+     */
+    public FormCacheKey(Class<?> formClass, String tenant, String fingerprint) {
+        this(formClass, tenant, fingerprint, List.of());
+    }
+}
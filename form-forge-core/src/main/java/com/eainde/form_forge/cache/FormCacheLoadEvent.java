@@ -0,0 +1,29 @@
+package com.eainde.form_forge.cache;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event for a form generated and serialized on a cache miss, including any wait for
+ * admission. The generation itself is recorded as a nested {@code com.eainde.formforge.FormGeneration} event
+ * on the same thread.
+ * <p>
+ * Enabled by default above 10 ms, without stack traces; {@code form-forge.jfc} configures it.
+ */
+@Name(FormCacheLoadEvent.NAME)
+@Label("Form Cache Load")
+@Category({"Form Forge", "Cache"})
+@Description("A form generated and serialized for the response cache")
+@StackTrace(false)
+@Threshold("10 ms")
+final class FormCacheLoadEvent extends Event {
+
+    static final String NAME = "com.eainde.formforge.FormCacheLoad";
+
+    @Label("Form Class")
+    Class<?> formClass;
+
+    @Label("Bytes")
+    @Description("The size of the serialized form")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,25 @@
+package com.eainde.form_forge.cache;
+
+/**
+ * A snapshot of the counters of a {@link FormResponseCache}. Counters are cumulative since startup.
+ *
+ * @param entries        The number of cached forms.
+ * @param bytes          The total size of the cached bodies.
+ * @param hits           Requests served from the cache.
+ * @param misses         Requests that were not served from the cache.
+ * @param coalesced      Misses that waited for an identical generation started by another request.
+ * @param evictions      Entries removed to stay within the maximum size.
+ * @param invalidations  Entries removed by invalidation.
+ * @param totalLoadNanos The total time spent generating and serializing forms.
+ */
+public record FormCacheStats(int entries, long bytes, long hits, long misses, long coalesced, long evictions,
+                             long invalidations, long totalLoadNanos) {
+
+    /**
+     * @return The average time of a generation in milliseconds, or 0 if there were none.
+     */
+    public double averageLoadMillis() {
+        long loads = misses - coalesced;
+        return loads <= 0 ? 0 : totalLoadNanos / 1_000_000.0 / loads;
+    }
+}
@@ -0,0 +1,417 @@
+package com.eainde.form_forge.cache;
+
+import com.eainde.form_forge.exception.FormGenerationTimeoutException;
+import com.eainde.form_forge.exception.JsonFormGenerationException;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caches generated forms as serialized JSON, keyed by form class, tenant and a fingerprint of the
+ * dynamic metadata, and by the field paths of partial forms, so that repeated requests for the same form variant skip generation and serialization.
+ * <p>
+ * Reads never block. Invalidation removes the matching entries one by one with atomic map operations:
+ * requests running concurrently are served either the old entry or a freshly generated one, and nothing
+ * is rebuilt eagerly. A form that was being generated while a matching invalidation ran is returned to its
+ * caller but not cached, so an invalidation cannot be undone by a generation that started before it.
+ * <p>
+ * The cache holds at most {@code maxEntries} forms; when it grows beyond that, the least recently used
+ * entry is evicted. The order of use is kept in an access-ordered map, guarded by a lock that every change
+ * to the entries takes, so an eviction removes its eldest entry without scanning. A hit only moves its entry
+ * to the end of that order if the lock is free, so reads still never wait; under contention the order
+ * is approximate.
+ * <p>
+ * Concurrent misses for the same form class, metadata fingerprint and field paths are coalesced, whatever their tenant:
+ * the first caller generates the form and the others wait up to {@code coalesceTimeout} for its result and
+ * then cache it under their own key. If the generation fails, every waiting caller gets the same exception
+ * and nothing is cached, so the next request tries again. Whether an invalidation matches a generation in
+ * flight is only known from its result, so every invalidation is recorded on the generations in flight and
+ * checked against each caller's form when it completes: a caller that joined after a matching invalidation
+ * starts a fresh generation, and generations that do not match are unaffected.
+ */
+public class FormResponseCache {
+
+    /**
+     * The time a caller waits for a coalesced generation when none is configured explicitly.
+     */
+    public static final Duration DEFAULT_COALESCE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper canonicalMapper;
+    private final int maxEntries;
+    private final Duration coalesceTimeout;
+    private final ConcurrentHashMap<FormCacheKey, CachedForm> entries = new ConcurrentHashMap<>();
+    /**
+     * The entries from least to most recently used; changed together with {@link #entries} under {@link #lock}.
+     */
+    private final LinkedHashMap<FormCacheKey, CachedForm> recency = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentHashMap<FlightKey, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Set<Flight> activeFlights = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+
+    /**
+     * The key under which concurrent generations are coalesced; the tenant does not affect the generated form.
+     */
+    private record FlightKey(Class<?> formClass, String fingerprint, List<String> paths) {
+    }
+
+    /**
+     * One generation and its callers. It stays active, and records the invalidations that run, until every
+     * caller has cached its form and checked it against them.
+     */
+    private static final class Flight {
+        final CompletableFuture<LoadedForm> result = new CompletableFuture<>();
+        final List<Predicate<CachedForm>> invalidations = new CopyOnWriteArrayList<>();
+        final AtomicInteger callers = new AtomicInteger(1);
+
+        /**
+         * @return Whether the caller joined; false if every caller has already left the flight.
+         */
+        boolean join() {
+            for (int count = callers.get(); count > 0; count = callers.get()) {
+                if (callers.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return Whether any of the invalidations recorded from index {@code from} until {@code to} (exclusive)
+         * matches the form.
+         */
+        boolean invalidated(CachedForm form, int from, int to) {
+            for (int i = from; i < Math.min(to, invalidations.size()); i++) {
+                if (invalidations.get(i).test(form)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The result of one generation, shared by all callers that coalesced on it.
+     */
+    private record LoadedForm(byte[] body, String hash, long loadNanos, Set<String> dictionaries) {
+    }
+
+    /**
+     * @param objectMapper The mapper used to serialize the cached responses.
+     * @param maxEntries   The maximum number of cached forms.
+     */
+    public FormResponseCache(ObjectMapper objectMapper, int maxEntries) {
+        this(objectMapper, maxEntries, DEFAULT_COALESCE_TIMEOUT);
+    }
+
+    /**
+     * @param objectMapper    The mapper used to serialize the cached responses.
+     * @param maxEntries      The maximum number of cached forms.
+     * @param coalesceTimeout How long a caller waits for an identical generation started by another caller.
+     */
+    public FormResponseCache(ObjectMapper objectMapper, int maxEntries, Duration coalesceTimeout) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("The maximum number of cached forms must be positive: " + maxEntries);
+        }
+        if (coalesceTimeout.isNegative()) {
+            throw new IllegalArgumentException("The coalesce timeout must not be negative: " + coalesceTimeout);
+        }
+        this.objectMapper = objectMapper;
+        this.canonicalMapper = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.maxEntries = maxEntries;
+        this.coalesceTimeout = coalesceTimeout;
+    }
+
+    /**
+     * Returns the cached form for a class, tenant and dynamic metadata, generating and caching it on a miss.
+     *
+     * @param formClass       The @JsonForm-annotated class.
+     * @param tenant          The tenant the form is generated for.
+     * @param dynamicMetadata The dynamic metadata passed to the generator; part of the cache key.
+     * @param generator       Generates the form on a miss, unless an identical generation is already running.
+     * @return The cached form.
+     * @throws FormGenerationTimeoutException if an identical generation did not finish within the coalesce timeout.
+     */
+    public CachedForm get(Class<?> formClass, String tenant, Map<String, Map<String, Object>> dynamicMetadata,
+                          Supplier<JsonFormResponse> generator) {
+        return get(formClass, tenant, dynamicMetadata, null, generator);
+    }
+
+    /**
+     * Returns the cached form restricted to some field paths, generating and caching it on a miss. The paths
+     * are part of the cache key regardless of their order; partial forms are invalidated with their whole form.
+     *
+     * @param paths     The field paths passed to the generator, or null or empty for the whole form.
+     * @param generator Generates the form restricted to the paths on a miss.
+     * @see #get(Class, String, Map, Supplier)
+     */
+    public CachedForm get(Class<?> formClass, String tenant, Map<String, Map<String, Object>> dynamicMetadata,
+                          Collection<String> paths, Supplier<JsonFormResponse> generator) {
+        Map<String, Map<String, Object>> metadata = dynamicMetadata != null ? dynamicMetadata : Map.of();
+        String fingerprint = sha256(canonicalJson(metadata));
+        List<String> sortedPaths = paths != null ? List.copyOf(new TreeSet<>(paths)) : List.of();
+        FormCacheKey key = new FormCacheKey(formClass, tenant, fingerprint, sortedPaths);
+        CachedForm cached = entries.get(key);
+        if (cached != null) {
+            hits.increment();
+            cached.recordHit();
+            touch(key);
+            return cached;
+        }
+
+        misses.increment();
+        FlightKey flightKey = new FlightKey(formClass, fingerprint, sortedPaths);
+        Flight flight = new Flight();
+        activeFlights.add(flight);
+        Flight running = inFlight.putIfAbsent(flightKey, flight);
+        while (running != null && !running.join()) {
+            inFlight.remove(flightKey, running);
+            running = inFlight.putIfAbsent(flightKey, flight);
+        }
+        int joinedAt = 0;
+        LoadedForm loaded;
+        if (running == null) {
+            try {
+                loaded = load(formClass, generator);
+                flight.result.complete(loaded);
+            } catch (RuntimeException | Error e) {
+                flight.result.completeExceptionally(e);
+                leave(flight);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, flight);
+            }
+        } else {
+            activeFlights.remove(flight);
+            flight = running;
+            joinedAt = flight.invalidations.size();
+            coalesced.increment();
+            try {
+                loaded = await(flight, formClass);
+            } catch (RuntimeException | Error e) {
+                leave(flight);
+                throw e;
+            }
+        }
+
+        CachedForm form = new CachedForm(key, Set.copyOf(metadata.keySet()), loaded.dictionaries(), loaded.body(),
+                loaded.hash(), loaded.loadNanos());
+        if (flight.invalidated(form, 0, joinedAt)) {
+            // The caller joined after an invalidation of its form; the shared result is stale for it.
+            inFlight.remove(flightKey, flight);
+            leave(flight);
+            return get(formClass, tenant, dynamicMetadata, paths, generator);
+        }
+        store(form);
+        if (flight.invalidated(form, joinedAt, Integer.MAX_VALUE)) {
+            // A matching invalidation ran while generating; the result may be stale, so it is not kept.
+            remove(form);
+        }
+        leave(flight);
+        return form;
+    }
+
+    private void leave(Flight flight) {
+        if (flight.callers.decrementAndGet() == 0) {
+            activeFlights.remove(flight);
+        }
+    }
+
+    private LoadedForm load(Class<?> formClass, Supplier<JsonFormResponse> generator) {
+        FormCacheLoadEvent event = new FormCacheLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        byte[] body;
+        Set<String> dictionaries;
+        try {
+            JsonFormResponse response = generator.get();
+            dictionaries = response.getSchema() != null && response.getSchema().getDefs() != null
+                    ? Set.copyOf(response.getSchema().getDefs().keySet()) : Set.of();
+            body = objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize form " + formClass.getName(), e);
+        }
+        long elapsed = System.nanoTime() - start;
+        event.end();
+        if (event.shouldCommit()) {
+            event.formClass = formClass;
+            event.bytes = body.length;
+            event.commit();
+        }
+        loadNanos.add(elapsed);
+        return new LoadedForm(body, sha256(body), elapsed, dictionaries);
+    }
+
+    /**
+     * Waits for a generation started by another caller and rethrows its failure unchanged.
+     */
+    private LoadedForm await(Flight running, Class<?> formClass) {
+        try {
+            return running.result.get(coalesceTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new JsonFormGenerationException("Failed to generate form " + formClass.getName(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new FormGenerationTimeoutException("Timed out after " + coalesceTimeout.toMillis()
+                    + " ms waiting for the generation of form " + formClass.getName(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JsonFormGenerationException("Interrupted while waiting for the generation of form " + formClass.getName(), e);
+        }
+    }
+
+    /**
+     * Removes all entries matching every given criterion; a null criterion matches everything.
+     *
+     * @param formClass   The form class, by fully qualified or simple name.
+     * @param tenant      The tenant.
+     * @param metadataKey A top-level key of the dynamic metadata (e.g., the field whose options changed).
+     * @return The number of removed entries.
+     */
+    public int invalidate(String formClass, String tenant, String metadataKey) {
+        return invalidate(form -> (formClass == null || formClass.equals(form.key().formClass().getName())
+                        || formClass.equals(form.key().formClass().getSimpleName()))
+                && (tenant == null || tenant.equals(form.key().tenant()))
+                && (metadataKey == null || form.metadataKeys().contains(metadataKey)));
+    }
+
+    /**
+     * Removes the entries of all forms that use an option dictionary, e.g. when it was replaced.
+     *
+     * @return The number of removed entries.
+     */
+    public int invalidateDictionary(String dictionary) {
+        return invalidate(form -> form.dictionaries().contains(dictionary));
+    }
+
+    /**
+     * Removes all entries matching a predicate.
+     *
+     * @return The number of removed entries.
+     */
+    public int invalidate(Predicate<CachedForm> predicate) {
+        // Generations in flight may produce matching forms; their callers check them against the predicate.
+        for (Flight flight : activeFlights) {
+            flight.invalidations.add(predicate);
+        }
+        int removed = 0;
+        for (CachedForm form : entries.values()) {
+            if (predicate.test(form) && remove(form)) {
+                removed++;
+            }
+        }
+        invalidations.add(removed);
+        return removed;
+    }
+
+    /**
+     * @return The cached forms, in no particular order.
+     */
+    public List<CachedForm> entries() {
+        return List.copyOf(entries.values());
+    }
+
+    public FormCacheStats stats() {
+        long bytes = 0;
+        int count = 0;
+        for (CachedForm form : entries.values()) {
+            bytes += form.body().length;
+            count++;
+        }
+        return new FormCacheStats(count, bytes, hits.sum(), misses.sum(), coalesced.sum(), evictions.sum(), invalidations.sum(),
+                loadNanos.sum());
+    }
+
+    /**
+     * Caches a form as the most recently used entry, evicting the least recently used ones beyond the maximum.
+     */
+    private void store(CachedForm form) {
+        lock.lock();
+        try {
+            entries.put(form.key(), form);
+            recency.put(form.key(), form);
+            Iterator<CachedForm> eldest = recency.values().iterator();
+            while (recency.size() > maxEntries) {
+                CachedForm evicted = eldest.next();
+                eldest.remove();
+                entries.remove(evicted.key(), evicted);
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Whether the form was still cached.
+     */
+    private boolean remove(CachedForm form) {
+        lock.lock();
+        try {
+            if (!entries.remove(form.key(), form)) {
+                return false;
+            }
+            recency.remove(form.key());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks an entry as the most recently used, unless another thread holds the lock.
+     */
+    private void touch(FormCacheKey key) {
+        if (lock.tryLock()) {
+            try {
+                recency.get(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private byte[] canonicalJson(Map<String, Map<String, Object>> metadata) {
+        try {
+            return canonicalMapper.writeValueAsBytes(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Dynamic metadata cannot be serialized for the cache key", e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
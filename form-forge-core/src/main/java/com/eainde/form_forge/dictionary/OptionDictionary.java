@@ -0,0 +1,74 @@
+package com.eainde.form_forge.dictionary;
+
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.models.schema.SchemaOption;
+
+import java.util.*;
+
+/**
+ * A named, versioned list of options shared by any number of fields and forms, such as countries or
+ * departments. A form emits each dictionary its fields use once, in the {@code $defs} of its root schema,
+ * and the fields refer to it with {@code "$ref": "#/$defs/<name>"}.
+ * <p>
+ * The version identifies the content: a dictionary with other options must have another version, because
+ * clients and caches treat dictionaries with equal name and version as equal.
+ *
+ * @param name    The name of the dictionary; it is used as a JSON pointer segment and must not contain '/' or '~'.
+ * @param version The version of the dictionary's content, e.g. a revision number or a content hash.
+ * @param options The options in display order, with unique values.
+ */
+public record OptionDictionary(String name, String version, List<Option> options) {
+
+    /**
+     * One option of a dictionary.
+     *
+     * @param value The value stored in the form data.
+     * @param title The display name of the value.
+     */
+    public record Option(String value, String title) {
+
+        public Option {
+            Objects.requireNonNull(value, "value");
+            Objects.requireNonNull(title, "title");
+        }
+    }
+
+    public OptionDictionary {
+        if (name == null || name.isBlank() || name.contains("/") || name.contains("~")) {
+            throw new IllegalArgumentException("Invalid dictionary name: '" + name + "'");
+        }
+        if (version == null || version.isBlank()) {
+            throw new IllegalArgumentException("Dictionary '" + name + "' has no version");
+        }
+        options = List.copyOf(options);
+        Set<String> values = new HashSet<>();
+        for (Option option : options) {
+            if (!values.add(option.value())) {
+                throw new IllegalArgumentException("Dictionary '" + name + "' has duplicate value '" + option.value() + "'");
+            }
+        }
+    }
+
+    /**
+     * Creates a dictionary from its display names keyed by value, in the map's iteration order.
+     */
+    public static OptionDictionary of(String name, String version, Map<String, String> titlesByValue) {
+        List<Option> options = new ArrayList<>(titlesByValue.size());
+        titlesByValue.forEach((value, title) -> options.add(new Option(value, title)));
+        return new OptionDictionary(name, version, options);
+    }
+
+    /**
+     * @return The dictionary as it appears in the {@code $defs} of a form.
+     */
+    public SchemaDictionary toDefinition() {
+        List<SchemaOption> schemaOptions = new ArrayList<>(options.size());
+        for (Option option : options) {
+            schemaOptions.add(new SchemaOption(option.value(), option.title()));
+        }
+        SchemaDictionary definition = new SchemaDictionary();
+        definition.setOneOf(schemaOptions);
+        definition.setVersion(version);
+        return definition;
+    }
+}
@@ -0,0 +1,73 @@
+package com.eainde.form_forge.dictionary;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * The option dictionaries known to a {@link com.eainde.form_forge.service.JsonFormGenerator}, by name.
+ * Fields refer to a dictionary by name, with {@code @JsonFormField(dictionary = "...")} or the
+ * "dictionary" key of the dynamic metadata, and the generator resolves the name when the form is generated.
+ * <p>
+ * Dictionaries can be registered, replaced and removed at any time. Listeners are told the name of every
+ * dictionary that changed, so that caches of forms using it can be invalidated; the form-forge auto-configuration
+ * connects the response cache and the blueprint service this way.
+ * The registry is safe for concurrent use.
+ */
+public class OptionDictionaryRegistry {
+
+    private final Map<String, OptionDictionary> dictionaries = new ConcurrentHashMap<>();
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a dictionary, replacing the one with the same name. Listeners are notified unless the registered
+     * dictionary is equal to the new one.
+     */
+    public void register(OptionDictionary dictionary) {
+        OptionDictionary previous = dictionaries.put(dictionary.name(), dictionary);
+        if (!dictionary.equals(previous)) {
+            notifyListeners(dictionary.name());
+        }
+    }
+
+    /**
+     * Removes a dictionary; fields that refer to it are generated without options afterwards.
+     *
+     * @return true if the dictionary was registered.
+     */
+    public boolean remove(String name) {
+        if (dictionaries.remove(name) == null) {
+            return false;
+        }
+        notifyListeners(name);
+        return true;
+    }
+
+    /**
+     * @return The dictionary with the given name, or null.
+     */
+    public OptionDictionary get(String name) {
+        return dictionaries.get(name);
+    }
+
+    /**
+     * @return The registered dictionaries, in no particular order.
+     */
+    public Collection<OptionDictionary> dictionaries() {
+        return List.copyOf(dictionaries.values());
+    }
+
+    /**
+     * Registers a listener that receives the name of every dictionary that is added, replaced or removed.
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(Objects.requireNonNull(listener, "listener"));
+    }
+
+    private void notifyListeners(String name) {
+        for (Consumer<String> listener : listeners) {
+            listener.accept(name);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.eainde.form_forge.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when an expensive form generation is shed because too many are already running or waiting.
+ * The caller should retry after {@link #getRetryAfter()}.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
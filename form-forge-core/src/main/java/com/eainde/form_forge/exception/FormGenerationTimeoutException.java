@@ -0,0 +1,11 @@
+package com.eainde.form_forge.exception;
+
+/**
+ * Thrown when a caller gives up waiting for a form that is being generated by another caller.
+ */
+public class FormGenerationTimeoutException extends JsonFormGenerationException {
+
+    public FormGenerationTimeoutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,24 @@
+package com.eainde.form_forge.exception;
+
+import java.util.List;
+
+/**
+ * Thrown when dynamic metadata does not fit the form it was built for, e.g. because it names a field the form
+ * does not have or a rule cannot be parsed. All problems found are reported at once.
+ */
+public class InvalidDynamicMetadataException extends JsonFormGenerationException {
+
+    private final List<String> problems;
+
+    public InvalidDynamicMetadataException(Class<?> formClass, List<String> problems) {
+        super("Invalid dynamic metadata for " + formClass.getName() + ":\n - " + String.join("\n - ", problems));
+        this.problems = List.copyOf(problems);
+    }
+
+    /**
+     * @return One message per problem found.
+     */
+    public List<String> getProblems() {
+        return problems;
+    }
+}
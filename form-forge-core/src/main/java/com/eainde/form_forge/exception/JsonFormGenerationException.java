@@ -0,0 +1,16 @@
+package com.eainde.form_forge.exception;
+
+/**
+ * Thrown when a form cannot be generated from an annotated class, for example because the
+ * class structure or the supplied dynamic metadata exceeds the configured generation limits.
+ */
+public class JsonFormGenerationException extends RuntimeException {
+
+    public JsonFormGenerationException(String message) {
+        super(message);
+    }
+
+    public JsonFormGenerationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,134 @@
+package com.eainde.form_forge.export;
+
+import com.eainde.form_forge.annotations.JsonForm;
+import com.eainde.form_forge.service.JsonFormGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Exports forms from the command line, typically from a build step:
+ * <pre>
+ * java -cp &lt;application classpath&gt; com.eainde.form_forge.export.StaticFormExportCli \
+ *     [--parallelism=N] &lt;output-dir&gt; &lt;class-or-package&gt;...
+ * </pre>
+ * A package argument selects every @JsonForm class in that package and its subpackages. No option dictionaries
+ * are registered, so forms that use one are skipped like those with dynamic sections. Skipped forms are
+ * reported on standard error; the exit status is 2 for a usage error and 1 for a failed export.
+ */
+public final class StaticFormExportCli {
+
+    private static final String PARALLELISM_OPTION = "--parallelism=";
+    private static final String CLASS_SUFFIX = ".class";
+
+    private StaticFormExportCli() {
+    }
+
+    public static void main(String[] args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        if (!arguments.isEmpty() && arguments.get(0).startsWith(PARALLELISM_OPTION)) {
+            try {
+                parallelism = Integer.parseInt(arguments.remove(0).substring(PARALLELISM_OPTION.length()));
+            } catch (NumberFormatException e) {
+                usage("invalid parallelism");
+            }
+        }
+        if (arguments.size() < 2) {
+            usage("an output directory and at least one class or package are required");
+        }
+        Path directory = Path.of(arguments.get(0));
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        try {
+            Set<Class<?>> formClasses = new LinkedHashSet<>();
+            for (String name : arguments.subList(1, arguments.size())) {
+                formClasses.addAll(resolve(name, classLoader));
+            }
+            StaticFormManifest manifest = new StaticFormExporter(new JsonFormGenerator(), new ObjectMapper(), parallelism)
+                    .export(formClasses, directory);
+            manifest.skipped().forEach((formClass, reason) -> System.err.println("Skipped " + formClass + ": " + reason));
+            System.out.println("Exported " + manifest.forms().size() + " forms to " + directory.toAbsolutePath());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Form export failed: " + e);
+            System.exit(1);
+        }
+    }
+
+    private static void usage(String problem) {
+        System.err.println("Error: " + problem);
+        System.err.println("Usage: StaticFormExportCli [--parallelism=N] <output-dir> <class-or-package>...");
+        System.exit(2);
+    }
+
+    /**
+     * @return The named class, or the @JsonForm classes in the named package.
+     */
+    private static Collection<Class<?>> resolve(String name, ClassLoader classLoader) throws IOException {
+        try {
+            return List.of(Class.forName(name, false, classLoader));
+        } catch (ClassNotFoundException e) {
+            Collection<Class<?>> formClasses = findFormClasses(name, classLoader);
+            if (formClasses.isEmpty()) {
+                throw new IllegalArgumentException("Neither a class nor a package with @JsonForm classes: " + name);
+            }
+            return formClasses;
+        }
+    }
+
+    /**
+     * Scans the directories and jars of the class path that contain the package.
+     */
+    private static Collection<Class<?>> findFormClasses(String packageName, ClassLoader classLoader) throws IOException {
+        String packagePath = packageName.replace('.', '/');
+        Set<String> classNames = new TreeSet<>();
+        Enumeration<URL> roots = classLoader.getResources(packagePath);
+        while (roots.hasMoreElements()) {
+            URL root = roots.nextElement();
+            if ("file".equals(root.getProtocol())) {
+                Path rootDirectory;
+                try {
+                    rootDirectory = Path.of(root.toURI());
+                } catch (URISyntaxException e) {
+                    throw new IOException("Invalid class path entry: " + root, e);
+                }
+                try (Stream<Path> files = Files.walk(rootDirectory)) {
+                    files.map(file -> rootDirectory.relativize(file).toString().replace('\\', '/'))
+                            .filter(file -> file.endsWith(CLASS_SUFFIX))
+                            .forEach(file -> classNames.add(packagePath + "/" + file));
+                }
+            } else if ("jar".equals(root.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) root.openConnection();
+                connection.setUseCaches(false);
+                try (JarFile jar = connection.getJarFile()) {
+                    for (JarEntry entry : Collections.list(jar.entries())) {
+                        if (entry.getName().startsWith(packagePath + "/") && entry.getName().endsWith(CLASS_SUFFIX)) {
+                            classNames.add(entry.getName());
+                        }
+                    }
+                }
+            }
+        }
+        List<Class<?>> formClasses = new ArrayList<>();
+        for (String classFile : classNames) {
+            String className = classFile.substring(0, classFile.length() - CLASS_SUFFIX.length()).replace('/', '.');
+            try {
+                Class<?> type = Class.forName(className, false, classLoader);
+                if (type.isAnnotationPresent(JsonForm.class)) {
+                    formClasses.add(type);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                System.err.println("Skipped " + className + ": cannot be loaded (" + e + ")");
+            }
+        }
+        return formClasses;
+    }
+}
@@ -0,0 +1,227 @@
+package com.eainde.form_forge.export;
+
+import com.eainde.form_forge.metadata.FieldMetadata;
+import com.eainde.form_forge.metadata.FormClassMetadata;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.service.FormCodeDigest;
+import com.eainde.form_forge.service.JsonFormGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-generates forms that need no dynamic metadata into files, so that they can be served without generating
+ * or serializing anything at runtime, see {@link StaticFormStore}.
+ * <p>
+ * Each form is generated without dynamic metadata and written as {@code <class>-<version>.json} and a
+ * gzip-compressed {@code .json.gz} copy, where the version is the SHA-256 of the JSON. The forms are exported
+ * in parallel on a dedicated fork-join pool. Every file is written to a temporary file first and moved into
+ * place, and the {@value #MANIFEST} listing the exported forms is written last, so a store never sees a
+ * partially written export. Each form records the {@link FormCodeDigest} of the code it was generated with, so
+ * that a store does not serve it to code that would generate it differently.
+ * <p>
+ * A form is skipped, with the reason recorded in the manifest, if a dynamic section is reachable from its class,
+ * since its items only exist with dynamic metadata, or if it refers to an option dictionary that is not
+ * registered with the generator, or if the code it depends on cannot be read, since its digest is then unknown.
+ */
+public class StaticFormExporter {
+
+    /**
+     * The name of the manifest file in the export directory.
+     */
+    public static final String MANIFEST = "manifest.json";
+
+    private static final int VERSION_PREFIX_LENGTH = 16;
+
+    private final JsonFormGenerator generator;
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+
+    /**
+     * Exports with one thread per available processor.
+     */
+    public StaticFormExporter(JsonFormGenerator generator, ObjectMapper objectMapper) {
+        this(generator, objectMapper, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param generator    The generator the forms are generated with.
+     * @param objectMapper The mapper the forms are written with.
+     * @param parallelism  The number of forms generated at the same time.
+     */
+    public StaticFormExporter(JsonFormGenerator generator, ObjectMapper objectMapper, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+        this.generator = generator;
+        this.objectMapper = objectMapper;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Exports the forms into a directory, which is created if needed, and writes its manifest.
+     *
+     * @param formClasses The @JsonForm classes to export.
+     * @param directory   The export directory.
+     * @return The written manifest.
+     * @throws IOException If a file could not be written.
+     */
+    public StaticFormManifest export(Collection<Class<?>> formClasses, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        List<Class<?>> ordered = new ArrayList<>(new LinkedHashSet<>(formClasses));
+        ordered.sort(Comparator.comparing(Class::getName));
+
+        List<ForkJoinTask<Object>> tasks = new ArrayList<>(ordered.size());
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Class<?> formClass : ordered) {
+                tasks.add(pool.submit(() -> exportForm(formClass, directory)));
+            }
+            Map<String, StaticFormFile> forms = new LinkedHashMap<>();
+            Map<String, String> skipped = new LinkedHashMap<>();
+            for (int i = 0; i < ordered.size(); i++) {
+                Object result;
+                try {
+                    result = tasks.get(i).join();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof StaticFormFile file) {
+                    forms.put(file.formClass(), file);
+                } else {
+                    skipped.put(ordered.get(i).getName(), (String) result);
+                }
+            }
+            StaticFormManifest manifest = new StaticFormManifest(forms, skipped);
+            writeAtomically(directory, MANIFEST, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(manifest), false);
+            return manifest;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * @return The exported form, or the reason it was skipped.
+     */
+    private Object exportForm(Class<?> formClass, Path directory) {
+        String dynamicSection = findDynamicSection(formClass);
+        if (dynamicSection != null) {
+            return "has a dynamic section: " + dynamicSection;
+        }
+        String codeDigest = FormCodeDigest.of(formClass, generator);
+        if (codeDigest == null) {
+            return "the code it depends on cannot be read";
+        }
+        JsonFormResponse form = generator.generate(formClass, Map.of());
+        Set<String> unknownDictionaries = unknownDictionaries(form);
+        if (!unknownDictionaries.isEmpty()) {
+            return "uses unregistered option dictionaries: " + String.join(", ", unknownDictionaries);
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(form);
+            String version = sha256(json);
+            String baseName = formClass.getName() + "-" + version.substring(0, VERSION_PREFIX_LENGTH);
+            String file = baseName + ".json";
+            String gzipFile = file + ".gz";
+            writeAtomically(directory, file, json, false);
+            long gzipSize = writeAtomically(directory, gzipFile, json, true);
+            return new StaticFormFile(formClass.getName(), version, codeDigest, file, json.length, gzipFile, gzipSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return The first field with a dynamic section reachable from the class, as "Type.field", or null.
+     */
+    private static String findDynamicSection(Class<?> formClass) {
+        Deque<FormClassMetadata> pending = new ArrayDeque<>();
+        Set<FormClassMetadata> visited = new HashSet<>();
+        pending.push(FormClassMetadata.of(formClass));
+        while (!pending.isEmpty()) {
+            FormClassMetadata type = pending.pop();
+            if (!visited.add(type)) {
+                continue;
+            }
+            for (FieldMetadata field : type.fields()) {
+                if (field.group() != null) {
+                    pending.push(FormClassMetadata.of(field.type()));
+                } else if (field.field() == null && field.dynamicSection() != null) {
+                    return type.type().getSimpleName() + "." + field.name();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The dictionaries in the form's "$defs" that the generator could not resolve.
+     */
+    private static Set<String> unknownDictionaries(JsonFormResponse form) {
+        Map<String, SchemaNode> defs = form.getSchema().getDefs();
+        Set<String> unknown = new TreeSet<>();
+        if (defs != null) {
+            defs.forEach((name, node) -> {
+                if (node instanceof SchemaDictionary dictionary && dictionary.getVersion() == null) {
+                    unknown.add(name);
+                }
+            });
+        }
+        return unknown;
+    }
+
+    /**
+     * Writes a file through a temporary file in the same directory, which is then moved over it.
+     *
+     * @return The size of the written file.
+     */
+    private static long writeAtomically(Path directory, String name, byte[] content, boolean gzip) throws IOException {
+        // Unlike Files.createTempFile, keeps the default permissions, so the server can read what a build wrote.
+        Path temp = directory.resolve(name + "." + UUID.randomUUID() + ".tmp");
+        try {
+            OutputStream file = Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try (OutputStream out = gzip ? new BestGzipOutputStream(file) : file) {
+                out.write(content);
+            }
+            long size = Files.size(temp);
+            Files.move(temp, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Compresses at the best level: files are compressed once per export but sent many times.
+     */
+    private static final class BestGzipOutputStream extends GZIPOutputStream {
+
+        BestGzipOutputStream(OutputStream out) throws IOException {
+            super(out);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
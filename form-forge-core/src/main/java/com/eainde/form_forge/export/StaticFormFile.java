@@ -0,0 +1,18 @@
+package com.eainde.form_forge.export;
+
+/**
+ * One pre-generated form in a {@link StaticFormManifest}. Both files are named after the form's version, so a
+ * new export never overwrites a file that is being served.
+ *
+ * @param formClass  The fully qualified name of the @JsonForm class.
+ * @param version    The SHA-256 of the form's JSON, used as its entity tag.
+ * @param codeDigest The {@link com.eainde.form_forge.service.FormCodeDigest} of the form at export time; the
+ *                   form is only served by code with the same digest.
+ * @param file       The name of the JSON file, relative to the export directory.
+ * @param size       The size of the JSON file in bytes.
+ * @param gzipFile   The name of the gzip-compressed copy of the JSON file.
+ * @param gzipSize   The size of the compressed copy in bytes.
+ */
+public record StaticFormFile(String formClass, String version, String codeDigest, String file, long size,
+                             String gzipFile, long gzipSize) {
+}
@@ -0,0 +1,12 @@
+package com.eainde.form_forge.export;
+
+import java.util.Map;
+
+/**
+ * The contents of an export directory, written to its {@value StaticFormExporter#MANIFEST} file.
+ *
+ * @param forms   The exported forms by the fully qualified name of their class.
+ * @param skipped The classes that were not exported, with the reason.
+ */
+public record StaticFormManifest(Map<String, StaticFormFile> forms, Map<String, String> skipped) {
+}
@@ -0,0 +1,162 @@
+package com.eainde.form_forge.export;
+
+import com.eainde.form_forge.service.FormCodeDigest;
+import com.eainde.form_forge.service.JsonFormGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The forms of an export directory written by {@link StaticFormExporter}, read from its manifest once.
+ * <p>
+ * The files are sent with {@link FileChannel#transferTo}, which lets the operating system copy them to the
+ * target channel, e.g. a socket, without passing their bytes through the heap. Servers that support sending
+ * files themselves, such as Tomcat's sendfile, can use {@link #path} instead.
+ * <p>
+ * A form is only served if the {@link FormCodeDigest} recorded at export time equals the digest of its class in
+ * the running application, i.e. if its classes, the form-forge code and its option dictionaries are unchanged.
+ * Any other form is refused as if it had not been exported, so clients fall back to generating it.
+ * The store is immutable and safe for concurrent use; a new export is picked up by opening a new store.
+ */
+public final class StaticFormStore {
+
+    private static final System.Logger LOGGER = System.getLogger(StaticFormStore.class.getName());
+
+    private final Path directory;
+    private final Map<String, StaticFormFile> forms;
+    private final Map<String, String> refused;
+
+    private StaticFormStore(Path directory, Map<String, StaticFormFile> forms, Map<String, String> refused) {
+        this.directory = directory;
+        this.forms = forms;
+        this.refused = refused;
+    }
+
+    /**
+     * Opens an export directory for a generator without option dictionaries, like the one of
+     * {@link StaticFormExportCli}.
+     *
+     * @see #open(Path, ObjectMapper, JsonFormGenerator)
+     */
+    public static StaticFormStore open(Path directory, ObjectMapper objectMapper) throws IOException {
+        return open(directory, objectMapper, new JsonFormGenerator());
+    }
+
+    /**
+     * Reads the manifest of an export directory, checks that the files it lists exist with their sizes and
+     * refuses the forms whose code digest differs from the running code's.
+     *
+     * @param generator The generator the application generates forms with, whose option dictionaries are part
+     *                  of the digest.
+     * @throws IOException If the manifest cannot be read or a listed file is missing or has another size.
+     */
+    public static StaticFormStore open(Path directory, ObjectMapper objectMapper, JsonFormGenerator generator) throws IOException {
+        StaticFormManifest manifest = objectMapper.readValue(directory.resolve(StaticFormExporter.MANIFEST).toFile(),
+                StaticFormManifest.class);
+        Map<String, StaticFormFile> forms = new LinkedHashMap<>();
+        Map<String, String> refused = new LinkedHashMap<>();
+        for (StaticFormFile form : manifest.forms().values()) {
+            checkSize(directory.resolve(form.file()), form.size());
+            checkSize(directory.resolve(form.gzipFile()), form.gzipSize());
+            String reason = refusal(form, generator);
+            if (reason == null) {
+                forms.put(form.formClass(), form);
+            } else {
+                refused.put(form.formClass(), reason);
+                LOGGER.log(System.Logger.Level.WARNING, "Not serving the static form of '" + form.formClass()
+                        + "' from " + directory + ": " + reason);
+            }
+        }
+        return new StaticFormStore(directory, Map.copyOf(forms), Map.copyOf(refused));
+    }
+
+    /**
+     * @return Why the form must not be served, or null if its code digest matches the running code.
+     */
+    private static String refusal(StaticFormFile form, JsonFormGenerator generator) {
+        if (form.codeDigest() == null) {
+            return "the manifest records no code digest";
+        }
+        Class<?> formClass;
+        try {
+            formClass = Class.forName(form.formClass(), false, classLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return "the class cannot be loaded (" + e + ")";
+        }
+        String codeDigest = FormCodeDigest.of(formClass, generator);
+        if (codeDigest == null) {
+            return "the code it depends on cannot be read";
+        }
+        return codeDigest.equals(form.codeDigest()) ? null
+                : "it was exported from other code (code digest " + form.codeDigest() + ", running " + codeDigest + ")";
+    }
+
+    private static ClassLoader classLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : StaticFormStore.class.getClassLoader();
+    }
+
+    private static void checkSize(Path file, long expected) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchFileException(file.toString(), null, "listed in the manifest but missing");
+        }
+        long size = Files.size(file);
+        if (size != expected) {
+            throw new IOException(file + " has " + size + " bytes instead of the " + expected + " listed in the manifest");
+        }
+    }
+
+    /**
+     * @return The exported form of a class, or null if it was not exported or is refused.
+     */
+    public StaticFormFile find(Class<?> formClass) {
+        return forms.get(formClass.getName());
+    }
+
+    /**
+     * @return The served forms by the fully qualified name of their class.
+     */
+    public Map<String, StaticFormFile> forms() {
+        return forms;
+    }
+
+    /**
+     * @return The exported forms that are not served, by the fully qualified name of their class, with the reason.
+     */
+    public Map<String, String> refused() {
+        return refused;
+    }
+
+    /**
+     * @param gzip Whether to return the compressed copy.
+     * @return The absolute path of one of the form's files.
+     */
+    public Path path(StaticFormFile form, boolean gzip) {
+        return directory.resolve(gzip ? form.gzipFile() : form.file()).toAbsolutePath();
+    }
+
+    /**
+     * Sends one of the form's files to a channel.
+     *
+     * @param gzip Whether to send the compressed copy.
+     * @return The number of bytes sent.
+     */
+    public long transferTo(StaticFormFile form, boolean gzip, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(form, gzip), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.eainde.form_forge.metadata;
+
+import com.eainde.form_forge.annotations.JsonFormCondition;
+
+import java.util.List;
+
+/**
+ * The resolved form of a {@link JsonFormCondition} annotation. Unset constraints are null.
+ */
+public record ConditionSpec(String field, String expectedValue, List<String> enumValues, Double minimum,
+                            Double maximum, String pattern, boolean negated) {
+
+    static ConditionSpec of(JsonFormCondition annotation) {
+        return new ConditionSpec(
+                annotation.field(),
+                annotation.expectedValue().isEmpty() ? null : annotation.expectedValue(),
+                annotation.enumValues().length == 0 ? null : List.of(annotation.enumValues()),
+                Double.isNaN(annotation.minimum()) ? null : annotation.minimum(),
+                Double.isNaN(annotation.maximum()) ? null : annotation.maximum(),
+                annotation.pattern().isEmpty() ? null : annotation.pattern(),
+                annotation.not());
+    }
+}
@@ -0,0 +1,15 @@
+package com.eainde.form_forge.metadata;
+
+import com.eainde.form_forge.annotations.JsonFormDynamicSection;
+
+/**
+ * The resolved form of a {@link JsonFormDynamicSection} annotation.
+ */
+public record DynamicSectionSpec(Class<?> itemDto, String propertyKeyField, String labelField, String propertyKeyPrefix,
+                                 int pageSize) {
+
+    static DynamicSectionSpec of(JsonFormDynamicSection annotation) {
+        return new DynamicSectionSpec(annotation.itemDto(), annotation.propertyKeyField(), annotation.labelField(),
+                annotation.propertyKeyPrefix(), annotation.pageSize());
+    }
+}
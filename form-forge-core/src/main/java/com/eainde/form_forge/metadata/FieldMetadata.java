@@ -0,0 +1,16 @@
+package com.eainde.form_forge.metadata;
+
+/**
+ * The form-relevant metadata of a single field. At most one of {@code field}, {@code group} and
+ * {@code dynamicSection} drives how the field is generated, in the order group, field, dynamic section.
+ *
+ * @param name           The field name, used as the property key in the schema.
+ * @param type           The declared Java type of the field.
+ * @param field          The resolved @JsonFormField, or null.
+ * @param group          The resolved @JsonFormGroup, or null.
+ * @param dynamicSection The resolved @JsonFormDynamicSection, or null.
+ * @param rule           The resolved @JsonFormRule, or null.
+ */
+public record FieldMetadata(String name, Class<?> type, FieldSpec field, GroupSpec group,
+                            DynamicSectionSpec dynamicSection, RuleSpec rule) {
+}
@@ -0,0 +1,17 @@
+package com.eainde.form_forge.metadata;
+
+import com.eainde.form_forge.annotations.JsonFormField;
+import com.eainde.form_forge.models.uischema.UiControlType;
+
+/**
+ * The resolved form of a {@link JsonFormField} annotation.
+ */
+public record FieldSpec(String label, String description, boolean required, UiControlType controlType,
+                        String options, String format, int minLength, int maxLength, String pattern, String dictionary) {
+
+    static FieldSpec of(JsonFormField annotation) {
+        return new FieldSpec(annotation.label(), annotation.description(), annotation.required(), annotation.controlType(),
+                annotation.options(), annotation.format(), annotation.minLength(), annotation.maxLength(), annotation.pattern(),
+                annotation.dictionary());
+    }
+}
@@ -0,0 +1,118 @@
+package com.eainde.form_forge.metadata;
+
+import com.eainde.form_forge.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * The form annotations of a class, resolved once and cached per class.
+ * <p>
+ * The cache is a {@link ClassValue}, so the metadata is stored alongside the {@link Class} itself and
+ * becomes unreachable together with it when its class loader is unloaded. Fields are collected from the
+ * whole class hierarchy: superclass fields come first, and each class contributes its fields in the order
+ * reported by {@link Class#getDeclaredFields()}. A field that hides a superclass field keeps the
+ * superclass field's position. Static and synthetic fields are ignored.
+ */
+public final class FormClassMetadata {
+
+    private static final ClassValue<FormClassMetadata> CACHE = new ClassValue<>() {
+        @Override
+        protected FormClassMetadata computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final FormSpec form;
+    private final List<FieldMetadata> fields;
+    private final Map<String, FieldMetadata> fieldsByName;
+
+    private FormClassMetadata(Class<?> type, FormSpec form, List<FieldMetadata> fields, Map<String, FieldMetadata> fieldsByName) {
+        this.type = type;
+        this.form = form;
+        this.fields = fields;
+        this.fieldsByName = fieldsByName;
+    }
+
+    /**
+     * Returns the cached metadata of a class, resolving it on first access.
+     *
+     * @param type The class to inspect.
+     * @return The metadata of the class.
+     */
+    public static FormClassMetadata of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+
+    /**
+     * @return The resolved @JsonForm annotation, or null if the class is not annotated.
+     */
+    public FormSpec form() {
+        return form;
+    }
+
+    /**
+     * @return The custom layout declared by the class's @JsonForm, or null for the default layout.
+     */
+    public LayoutSpec layout() {
+        return form != null ? form.layout() : null;
+    }
+
+    /**
+     * @return All fields of the class hierarchy in deterministic order.
+     */
+    public List<FieldMetadata> fields() {
+        return fields;
+    }
+
+    /**
+     * Looks up a field of the class hierarchy by name.
+     *
+     * @param name The field name.
+     * @return The field metadata, or null if there is no such field.
+     */
+    public FieldMetadata field(String name) {
+        return fieldsByName.get(name);
+    }
+
+    private static FormClassMetadata resolve(Class<?> type) {
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+
+        Map<String, FieldMetadata> byName = new LinkedHashMap<>();
+        for (Class<?> declaringClass : hierarchy) {
+            for (Field field : declaringClass.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) || field.isSynthetic()) {
+                    continue;
+                }
+                byName.put(field.getName(), resolveField(field));
+            }
+        }
+
+        JsonForm formAnnotation = type.getAnnotation(JsonForm.class);
+        FormSpec form = formAnnotation != null ? FormSpec.of(formAnnotation) : null;
+        return new FormClassMetadata(type, form, List.copyOf(byName.values()), Collections.unmodifiableMap(byName));
+    }
+
+    private static FieldMetadata resolveField(Field field) {
+        JsonFormField fieldAnnotation = field.getAnnotation(JsonFormField.class);
+        JsonFormGroup groupAnnotation = field.getAnnotation(JsonFormGroup.class);
+        JsonFormDynamicSection dynamicSectionAnnotation = field.getAnnotation(JsonFormDynamicSection.class);
+        JsonFormRule ruleAnnotation = field.getAnnotation(JsonFormRule.class);
+        return new FieldMetadata(
+                field.getName(),
+                field.getType(),
+                fieldAnnotation != null ? FieldSpec.of(fieldAnnotation) : null,
+                groupAnnotation != null ? GroupSpec.of(groupAnnotation) : null,
+                dynamicSectionAnnotation != null ? DynamicSectionSpec.of(dynamicSectionAnnotation) : null,
+                ruleAnnotation != null ? RuleSpec.of(ruleAnnotation) : null);
+    }
+}
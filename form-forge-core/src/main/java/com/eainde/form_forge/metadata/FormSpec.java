@@ -0,0 +1,17 @@
+package com.eainde.form_forge.metadata;
+
+import com.eainde.form_forge.annotations.JsonForm;
+
+/**
+ * The resolved form of a {@link JsonForm} annotation.
+ *
+ * @param title       The title of the form.
+ * @param description The description of the form.
+ * @param layout      The custom layout of the form, or null for the default vertical layout.
+ */
+public record FormSpec(String title, String description, LayoutSpec layout) {
+
+    static FormSpec of(JsonForm annotation) {
+        return new FormSpec(annotation.title(), annotation.description(), LayoutSpec.of(annotation.layout()));
+    }
+}
@@ -0,0 +1,16 @@
+package com.eainde.form_forge.metadata;
+
+import com.eainde.form_forge.annotations.JsonFormGroup;
+
+/**
+ * The resolved form of a {@link JsonFormGroup} annotation.
+ *
+ * @param label  The label of the group.
+ * @param layout The custom layout declared on the group, or null if none is declared.
+ */
+public record GroupSpec(String label, LayoutSpec layout) {
+
+    static GroupSpec of(JsonFormGroup annotation) {
+        return new GroupSpec(annotation.label(), LayoutSpec.of(annotation.layout()));
+    }
+}
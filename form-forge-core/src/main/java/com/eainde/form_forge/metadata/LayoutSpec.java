@@ -0,0 +1,42 @@
+package com.eainde.form_forge.metadata;
+
+import com.eainde.form_forge.annotations.Layout;
+import com.eainde.form_forge.annotations.LayoutItem;
+import com.eainde.form_forge.annotations.LayoutType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The resolved form of a {@link Layout} annotation.
+ *
+ * @param items The layout containers in declaration order.
+ */
+public record LayoutSpec(List<Item> items) {
+
+    /**
+     * The resolved form of a {@link LayoutItem} annotation.
+     *
+     * @param type   The type of layout container to create.
+     * @param fields The names of the fields placed inside the container.
+     */
+    public record Item(LayoutType type, List<String> fields) {
+    }
+
+    /**
+     * Resolves a {@link Layout} annotation.
+     *
+     * @param layout The annotation, may be null.
+     * @return The resolved layout, or null if the annotation is absent or declares no items.
+     */
+    static LayoutSpec of(Layout layout) {
+        if (layout == null || layout.value().length == 0) {
+            return null;
+        }
+        List<Item> items = new ArrayList<>(layout.value().length);
+        for (LayoutItem item : layout.value()) {
+            items.add(new Item(item.type(), List.of(item.fields())));
+        }
+        return new LayoutSpec(List.copyOf(items));
+    }
+}
@@ -0,0 +1,26 @@
+package com.eainde.form_forge.metadata;
+
+import com.eainde.form_forge.annotations.ConditionOperator;
+import com.eainde.form_forge.annotations.JsonFormCondition;
+import com.eainde.form_forge.annotations.JsonFormRule;
+import com.eainde.form_forge.models.uischema.RuleEffect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The resolved form of a {@link JsonFormRule} annotation. A simple rule has a condition field and
+ * an expected value; a compound rule has a non-empty list of conditions combined with an operator.
+ */
+public record RuleSpec(RuleEffect effect, String conditionField, String expectedValue,
+                       List<ConditionSpec> conditions, ConditionOperator operator) {
+
+    static RuleSpec of(JsonFormRule annotation) {
+        List<ConditionSpec> conditions = new ArrayList<>(annotation.conditions().length);
+        for (JsonFormCondition condition : annotation.conditions()) {
+            conditions.add(ConditionSpec.of(condition));
+        }
+        return new RuleSpec(annotation.effect(), annotation.conditionField(), annotation.expectedValue(),
+                List.copyOf(conditions), annotation.operator());
+    }
+}
@@ -0,0 +1,43 @@
+package com.eainde.form_forge.models;
+
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.models.uischema.UiSchemaLayoutElement;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A later page of a paginated dynamic section. The fragments slot into the form that issued the cursor:
+ * {@code properties} are added to the properties of the schema object at {@code scope}, and
+ * {@code elements} are appended to the UI elements after the section's previous items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DynamicSectionPage {
+
+    /**
+     * The scope of the section's placeholder field, identifying the section this page belongs to.
+     */
+    private ScopePath section;
+
+    /**
+     * The scope of the object whose schema receives the item properties.
+     */
+    private ScopePath scope;
+
+    private Map<String, SchemaNode> properties;
+    private List<UiSchemaLayoutElement> elements;
+
+    /**
+     * The cursors for the next page of this section and of any paginated sections nested in its items.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> cursors;
+}
@@ -2,10 +2,13 @@ package com.eainde.form_forge.models;
 
 import com.eainde.form_forge.models.schema.JsonSchema;
 import com.eainde.form_forge.models.uischema.UiSchema;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 /**
  * The final response object containing both the JSON Schema and UI Schema.
  * This object can be directly serialized to JSON to be consumed by the frontend.
@@ -16,4 +19,16 @@ import lombok.NoArgsConstructor;
 public class JsonFormResponse {
     private JsonSchema schema;
     private UiSchema uischema;
+
+    /**
+     * The continuation cursors of paginated dynamic sections that have more items than were generated,
+     * keyed by the scope of the section's placeholder field (e.g., "#/properties/employees").
+     * Absent when every section is complete.
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> cursors;
+
+    public JsonFormResponse(JsonSchema schema, UiSchema uischema) {
+        this(schema, uischema, null);
+    }
 }
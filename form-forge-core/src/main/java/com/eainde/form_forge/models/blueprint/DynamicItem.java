@@ -0,0 +1,47 @@
+package com.eainde.form_forge.models.blueprint;
+
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.uischema.UiSchemaGroupElement;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One item of a dynamic section in a {@link DynamicPayload}. Items that match their section's template only
+ * carry their key and label; others carry their generated schema and UI group in full.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DynamicItem {
+
+    /**
+     * The property key of the item in the schema of the section's parent object.
+     */
+    private String key;
+
+    /**
+     * The item's label, replacing the template's; null if the item is sent in full.
+     */
+    private String label;
+
+    /**
+     * The item's schema if it is sent in full.
+     */
+    private SchemaNode schema;
+
+    /**
+     * The item's UI group if it is sent in full and has one.
+     */
+    private UiSchemaGroupElement group;
+
+    public static DynamicItem templated(String key, String label) {
+        return new DynamicItem(key, label, null, null);
+    }
+
+    public static DynamicItem full(String key, SchemaNode schema, UiSchemaGroupElement group) {
+        return new DynamicItem(key, null, schema, group);
+    }
+}
@@ -0,0 +1,58 @@
+package com.eainde.form_forge.models.blueprint;
+
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.uischema.UiSchemaElement;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The per-request part of a form: everything that differs from its {@link FormBlueprint}. Merging the two
+ * yields the same form as generating it with the request's dynamic metadata.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class DynamicPayload {
+
+    /**
+     * The {@link FormBlueprint#getVersion() version} of the blueprint this payload applies to.
+     */
+    private String blueprint;
+
+    /**
+     * The items of each dynamic section, keyed by the scope of the section's placeholder field, in UI order.
+     */
+    private Map<String, List<DynamicItem>> sections = new LinkedHashMap<>();
+
+    /**
+     * Schema properties that replace the property at the same scope, e.g. a field with dynamic "enum" values.
+     */
+    private Map<String, SchemaNode> properties = new LinkedHashMap<>();
+
+    /**
+     * UI controls that replace the control with the same scope, e.g. a control with a dynamic label or rule.
+     */
+    private Map<String, UiSchemaElement> controls = new LinkedHashMap<>();
+
+    /**
+     * The option dictionaries of the form ({@code $defs} of the root schema), if they differ from the blueprint's;
+     * they replace the blueprint's definitions. Absent when the blueprint's definitions apply, and sent with the
+     * last part of a streamed form.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, SchemaNode> definitions;
+
+    /**
+     * The continuation cursors of paginated dynamic sections, as in the full response.
+     */
+    private Map<String, String> cursors = new LinkedHashMap<>();
+
+    public DynamicPayload(String blueprint) {
+        this.blueprint = blueprint;
+    }
+}
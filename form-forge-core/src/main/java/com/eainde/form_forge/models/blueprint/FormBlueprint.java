@@ -0,0 +1,36 @@
+package com.eainde.form_forge.models.blueprint;
+
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.uischema.UiSchema;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The static part of a form: the schema and UI schema generated without dynamic metadata, plus the
+ * insertion points and item templates of its dynamic sections. A blueprint only changes when the form's
+ * classes change, so clients fetch it once per {@link #version} and combine it with a {@link DynamicPayload}
+ * per request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FormBlueprint {
+
+    /**
+     * The SHA-256 of the blueprint's content as lowercase hex; payloads name the blueprint they apply to.
+     */
+    private String version;
+
+    private JsonSchema schema;
+    private UiSchema uischema;
+
+    /**
+     * The dynamic sections outside of dynamic-section items, in document order.
+     */
+    private List<SectionSlot> sections;
+}
@@ -0,0 +1,56 @@
+package com.eainde.form_forge.models.blueprint;
+
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.models.uischema.UiSchemaGroupElement;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Where the items of a dynamic section go in a {@link FormBlueprint}, and the template they are built from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SectionSlot {
+
+    /**
+     * The scope of the section's placeholder field. Item schemas are added to the properties of the
+     * object at its parent scope.
+     */
+    private ScopePath section;
+
+    /**
+     * The path to the UI element list receiving the item groups: each number is an index into the
+     * {@code elements} of the previous level, starting at the UI schema's {@code elements}. Empty for the
+     * UI schema's own elements; null if the section's items have no UI (recursive item types).
+     */
+    private List<Integer> container;
+
+    /**
+     * The position in the container list at which the item groups are inserted, as a contiguous block.
+     */
+    private Integer index;
+
+    /**
+     * The scope of the template item. Scopes at or below it, in controls and rule conditions of the template,
+     * are rebased onto the scope of each item.
+     */
+    private ScopePath templateScope;
+
+    /**
+     * The schema of the template item, or null if the items cannot be built from a template and are
+     * always sent in full.
+     */
+    private JsonSchema itemSchema;
+
+    /**
+     * The UI group of the template item, or null together with {@link #itemSchema}.
+     */
+    private UiSchemaGroupElement itemGroup;
+}
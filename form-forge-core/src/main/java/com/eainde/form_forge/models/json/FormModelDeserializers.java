@@ -0,0 +1,49 @@
+package com.eainde.form_forge.models.json;
+
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.schema.SchemaReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Jackson deserializers for the parts of the model that bean deserialization cannot read on its own, so that
+ * a serialized form or blueprint can be read back, e.g. from a {@link com.eainde.form_forge.store.BlueprintStore}.
+ * The other model classes are read through their setters.
+ */
+public final class FormModelDeserializers {
+
+    private FormModelDeserializers() {
+    }
+
+    /**
+     * Reads a schema property, which carries no type id, by its shape: an object with "properties" is a
+     * {@link JsonSchema}, an object with nothing but "$ref" is a {@link SchemaReference}, and anything else is
+     * a {@link SchemaProperty}. Option dictionaries only occur in "$defs", which is read separately.
+     */
+    public static final class SchemaNodeDeserializer extends StdDeserializer<SchemaNode> {
+
+        public SchemaNodeDeserializer() {
+            super(SchemaNode.class);
+        }
+
+        @Override
+        public SchemaNode deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonNode tree = parser.readValueAsTree();
+            Class<? extends SchemaNode> type;
+            if (tree.has("properties")) {
+                type = JsonSchema.class;
+            } else if (tree.size() == 1 && tree.has("$ref")) {
+                type = SchemaReference.class;
+            } else {
+                type = SchemaProperty.class;
+            }
+            return context.readTreeAsValue(tree, type);
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package com.eainde.form_forge.models.json;
+
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.schema.SchemaOption;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.schema.SchemaReference;
+import com.eainde.form_forge.models.uischema.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dedicated Jackson serializers for the schema and UI schema models, attached to the model classes with
+ * {@code @JsonSerialize}. They write the same JSON as Jackson's bean serialization of the annotated models
+ * (property order, with renamed properties last; {@code NON_NULL} inclusion; the {@code type} ids of the UI
+ * elements where the declared type calls for them), but without per-property reflection and inclusion checks,
+ * and with pre-encoded property names. Nested schema nodes, UI elements and conditions are written directly;
+ * values of other types, such as control options and condition constants, are left to the provider.
+ * <p>
+ * {@link SerializationFeature#ORDER_MAP_ENTRIES_BY_KEYS} is honoured for the schema properties.
+ */
+public final class FormModelSerializers {
+
+    private static final SerializedString TYPE = new SerializedString("type");
+    private static final SerializedString TITLE = new SerializedString("title");
+    private static final SerializedString DESCRIPTION = new SerializedString("description");
+    private static final SerializedString PROPERTIES = new SerializedString("properties");
+    private static final SerializedString REQUIRED = new SerializedString("required");
+    private static final SerializedString FORMAT = new SerializedString("format");
+    private static final SerializedString MIN_LENGTH = new SerializedString("minLength");
+    private static final SerializedString MAX_LENGTH = new SerializedString("maxLength");
+    private static final SerializedString ENUM = new SerializedString("enum");
+    private static final SerializedString REF = new SerializedString("$ref");
+    private static final SerializedString DEFS = new SerializedString("$defs");
+    private static final SerializedString ONE_OF = new SerializedString("oneOf");
+    private static final SerializedString VERSION = new SerializedString("x-version");
+    private static final SerializedString ELEMENTS = new SerializedString("elements");
+    private static final SerializedString SCOPE = new SerializedString("scope");
+    private static final SerializedString LABEL = new SerializedString("label");
+    private static final SerializedString OPTIONS = new SerializedString("options");
+    private static final SerializedString RULE = new SerializedString("rule");
+    private static final SerializedString EFFECT = new SerializedString("effect");
+    private static final SerializedString CONDITION = new SerializedString("condition");
+    private static final SerializedString SCHEMA = new SerializedString("schema");
+    private static final SerializedString FAIL_WHEN_UNDEFINED = new SerializedString("failWhenUndefined");
+    private static final SerializedString CONDITIONS = new SerializedString("conditions");
+    private static final SerializedString CONST = new SerializedString("const");
+    private static final SerializedString MINIMUM = new SerializedString("minimum");
+    private static final SerializedString MAXIMUM = new SerializedString("maximum");
+    private static final SerializedString PATTERN = new SerializedString("pattern");
+    private static final SerializedString NOT = new SerializedString("not");
+
+    // The type ids declared by @JsonSubTypes on UiSchemaLayoutElement.
+    private static final SerializedString CONTROL_TYPE = new SerializedString("Control");
+    private static final SerializedString GROUP_TYPE = new SerializedString("Group");
+    private static final SerializedString HORIZONTAL_LAYOUT_TYPE = new SerializedString("HorizontalLayout");
+    private static final SerializedString VERTICAL_LAYOUT_TYPE = new SerializedString("VerticalLayout");
+
+    private static final JsonSchemaSerializer JSON_SCHEMA = new JsonSchemaSerializer();
+    private static final SchemaPropertySerializer SCHEMA_PROPERTY = new SchemaPropertySerializer();
+    private static final SchemaReferenceSerializer SCHEMA_REFERENCE = new SchemaReferenceSerializer();
+    private static final SchemaDictionarySerializer SCHEMA_DICTIONARY = new SchemaDictionarySerializer();
+    private static final ControlSerializer CONTROL = new ControlSerializer();
+    private static final GroupSerializer GROUP = new GroupSerializer();
+    private static final HorizontalLayoutSerializer HORIZONTAL_LAYOUT = new HorizontalLayoutSerializer();
+    private static final VerticalLayoutSerializer VERTICAL_LAYOUT = new VerticalLayoutSerializer();
+    private static final RuleSerializer RULE_SERIALIZER = new RuleSerializer();
+    private static final ConditionSerializer CONDITION_SERIALIZER = new ConditionSerializer();
+    private static final ConditionSchemaSerializer CONDITION_SCHEMA = new ConditionSchemaSerializer();
+
+    private FormModelSerializers() {
+    }
+
+    public static final class JsonSchemaSerializer extends StdSerializer<JsonSchema> {
+
+        public JsonSchemaSerializer() {
+            super(JsonSchema.class);
+        }
+
+        @Override
+        public void serialize(JsonSchema value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeString(gen, TYPE, value.getType());
+            writeString(gen, TITLE, value.getTitle());
+            writeString(gen, DESCRIPTION, value.getDescription());
+            if (value.getProperties() != null) {
+                gen.writeFieldName(PROPERTIES);
+                writeProperties(value.getProperties(), gen, provider);
+            }
+            writeStrings(gen, REQUIRED, value.getRequired());
+            if (value.getDefs() != null) {
+                gen.writeFieldName(DEFS);
+                writeProperties(value.getDefs(), gen, provider);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class SchemaPropertySerializer extends StdSerializer<SchemaProperty> {
+
+        public SchemaPropertySerializer() {
+            super(SchemaProperty.class);
+        }
+
+        @Override
+        public void serialize(SchemaProperty value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeString(gen, TYPE, value.getType());
+            writeString(gen, TITLE, value.getTitle());
+            writeString(gen, DESCRIPTION, value.getDescription());
+            writeString(gen, FORMAT, value.getFormat());
+            if (value.getMinLength() != null) {
+                gen.writeFieldName(MIN_LENGTH);
+                gen.writeNumber(value.getMinLength());
+            }
+            if (value.getMaxLength() != null) {
+                gen.writeFieldName(MAX_LENGTH);
+                gen.writeNumber(value.getMaxLength());
+            }
+            writeOptions(gen, value.getOneOf());
+            writeStrings(gen, ENUM, value.getEnumValues());
+            writeString(gen, REF, value.getRef());
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class SchemaDictionarySerializer extends StdSerializer<SchemaDictionary> {
+
+        public SchemaDictionarySerializer() {
+            super(SchemaDictionary.class);
+        }
+
+        @Override
+        public void serialize(SchemaDictionary value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeString(gen, TYPE, value.getType());
+            writeOptions(gen, value.getOneOf());
+            writeString(gen, VERSION, value.getVersion());
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Writes {@code $ref} even if it is null, as the model has no inclusion rule.
+     */
+    public static final class SchemaReferenceSerializer extends StdSerializer<SchemaReference> {
+
+        public SchemaReferenceSerializer() {
+            super(SchemaReference.class);
+        }
+
+        @Override
+        public void serialize(SchemaReference value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(REF);
+            if (value.getRef() != null) {
+                gen.writeString(value.getRef());
+            } else {
+                gen.writeNull();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class UiSchemaSerializer extends StdSerializer<UiSchema> {
+
+        public UiSchemaSerializer() {
+            super(UiSchema.class);
+        }
+
+        @Override
+        public void serialize(UiSchema value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            if (value.getType() != null) {
+                gen.writeFieldName(TYPE);
+                gen.writeString(value.getType().getTypeValue());
+            }
+            if (value.getElements() != null) {
+                gen.writeFieldName(ELEMENTS);
+                writeElements(value.getElements(), gen, provider);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    /**
+     * Base of the UI element serializers. Like the bean serializer, {@link #serialize} writes no type id, which
+     * Jackson only asks for where the declared type is a {@link UiSchemaLayoutElement}; element lists of the
+     * models are written by {@link #writeTyped} with the pre-encoded id.
+     */
+    private abstract static class LayoutElementSerializer<T extends UiSchemaLayoutElement> extends StdSerializer<T> {
+
+        private final SerializableString typeId;
+
+        LayoutElementSerializer(Class<T> type, SerializableString typeId) {
+            super(type);
+            this.typeId = typeId;
+        }
+
+        abstract void writeFields(T value, JsonGenerator gen, SerializerProvider provider) throws IOException;
+
+        @Override
+        public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeFields(value, gen, provider);
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(T value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer) throws IOException {
+            WritableTypeId typeIdDef = typeSer.writeTypePrefix(gen, typeSer.typeId(value, JsonToken.START_OBJECT));
+            writeFields(value, gen, provider);
+            typeSer.writeTypeSuffix(gen, typeIdDef);
+        }
+
+        void writeTyped(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(TYPE);
+            gen.writeString(typeId);
+            writeFields(value, gen, provider);
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class ControlSerializer extends LayoutElementSerializer<UiSchemaElement> {
+
+        public ControlSerializer() {
+            super(UiSchemaElement.class, CONTROL_TYPE);
+        }
+
+        @Override
+        void writeFields(UiSchemaElement value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (value.getScope() != null) {
+                gen.writeFieldName(SCOPE);
+                gen.writeString(value.getScope().toString());
+            }
+            writeString(gen, LABEL, value.getLabel());
+            if (value.getOptions() != null) {
+                gen.writeFieldName(OPTIONS);
+                provider.defaultSerializeValue(value.getOptions(), gen);
+            }
+            if (value.getRule() != null) {
+                gen.writeFieldName(RULE);
+                RULE_SERIALIZER.serialize(value.getRule(), gen, provider);
+            }
+        }
+    }
+
+    /**
+     * Writes {@code label} and {@code elements} even if they are null, as the model has no inclusion rule.
+     */
+    public static final class GroupSerializer extends LayoutElementSerializer<UiSchemaGroupElement> {
+
+        public GroupSerializer() {
+            super(UiSchemaGroupElement.class, GROUP_TYPE);
+        }
+
+        @Override
+        void writeFields(UiSchemaGroupElement value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(LABEL);
+            if (value.getLabel() != null) {
+                gen.writeString(value.getLabel());
+            } else {
+                gen.writeNull();
+            }
+            gen.writeFieldName(ELEMENTS);
+            writeElements(value.getElements(), gen, provider);
+        }
+    }
+
+    public static final class HorizontalLayoutSerializer extends LayoutElementSerializer<UiSchemaHorizontalLayoutElement> {
+
+        public HorizontalLayoutSerializer() {
+            super(UiSchemaHorizontalLayoutElement.class, HORIZONTAL_LAYOUT_TYPE);
+        }
+
+        @Override
+        void writeFields(UiSchemaHorizontalLayoutElement value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(ELEMENTS);
+            writeElements(value.getElements(), gen, provider);
+        }
+    }
+
+    public static final class VerticalLayoutSerializer extends LayoutElementSerializer<UiSchemaVerticalLayoutElement> {
+
+        public VerticalLayoutSerializer() {
+            super(UiSchemaVerticalLayoutElement.class, VERTICAL_LAYOUT_TYPE);
+        }
+
+        @Override
+        void writeFields(UiSchemaVerticalLayoutElement value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeFieldName(ELEMENTS);
+            writeElements(value.getElements(), gen, provider);
+        }
+    }
+
+    public static final class RuleSerializer extends StdSerializer<Rule> {
+
+        public RuleSerializer() {
+            super(Rule.class);
+        }
+
+        @Override
+        public void serialize(Rule value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            if (value.getEffect() != null) {
+                gen.writeFieldName(EFFECT);
+                gen.writeString(value.getEffect().getValue());
+            }
+            if (value.getCondition() != null) {
+                gen.writeFieldName(CONDITION);
+                CONDITION_SERIALIZER.serialize(value.getCondition(), gen, provider);
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class ConditionSerializer extends StdSerializer<Condition> {
+
+        public ConditionSerializer() {
+            super(Condition.class);
+        }
+
+        @Override
+        public void serialize(Condition value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeString(gen, TYPE, value.getType());
+            if (value.getScope() != null) {
+                gen.writeFieldName(SCOPE);
+                gen.writeString(value.getScope().toString());
+            }
+            if (value.getSchema() != null) {
+                gen.writeFieldName(SCHEMA);
+                CONDITION_SCHEMA.serialize(value.getSchema(), gen, provider);
+            }
+            if (value.getFailWhenUndefined() != null) {
+                gen.writeFieldName(FAIL_WHEN_UNDEFINED);
+                gen.writeBoolean(value.getFailWhenUndefined());
+            }
+            List<Condition> conditions = value.getConditions();
+            if (conditions != null) {
+                gen.writeFieldName(CONDITIONS);
+                gen.writeStartArray(conditions, conditions.size());
+                for (Condition condition : conditions) {
+                    if (condition != null) {
+                        serialize(condition, gen, provider);
+                    } else {
+                        provider.defaultSerializeNull(gen);
+                    }
+                }
+                gen.writeEndArray();
+            }
+            gen.writeEndObject();
+        }
+    }
+
+    public static final class ConditionSchemaSerializer extends StdSerializer<ConditionSchema> {
+
+        public ConditionSchemaSerializer() {
+            super(ConditionSchema.class);
+        }
+
+        @Override
+        public void serialize(ConditionSchema value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeValue(gen, MINIMUM, value.getMinimum(), provider);
+            writeValue(gen, MAXIMUM, value.getMaximum(), provider);
+            writeString(gen, PATTERN, value.getPattern());
+            if (value.getNot() != null) {
+                gen.writeFieldName(NOT);
+                serialize(value.getNot(), gen, provider);
+            }
+            // Jackson orders the properties renamed with @JsonProperty after the others.
+            writeValue(gen, CONST, value.getConstantValue(), provider);
+            writeValue(gen, ENUM, value.getEnumValues(), provider);
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+
+    private static void writeStrings(JsonGenerator gen, SerializableString name, List<String> values) throws IOException {
+        if (values == null) {
+            return;
+        }
+        gen.writeFieldName(name);
+        gen.writeStartArray(values, values.size());
+        for (String value : values) {
+            if (value != null) {
+                gen.writeString(value);
+            } else {
+                gen.writeNull();
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeOptions(JsonGenerator gen, List<SchemaOption> options) throws IOException {
+        if (options == null) {
+            return;
+        }
+        gen.writeFieldName(ONE_OF);
+        gen.writeStartArray(options, options.size());
+        for (SchemaOption option : options) {
+            gen.writeStartObject(option);
+            writeString(gen, CONST, option.getValue());
+            writeString(gen, TITLE, option.getTitle());
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeValue(JsonGenerator gen, SerializableString name, Object value, SerializerProvider provider) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            provider.defaultSerializeValue(value, gen);
+        }
+    }
+
+    private static void writeProperties(Map<String, SchemaNode> properties, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (provider.isEnabled(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS) && !(properties instanceof TreeMap)) {
+            properties = new TreeMap<>(properties);
+        }
+        gen.writeStartObject(properties);
+        for (Map.Entry<String, SchemaNode> entry : properties.entrySet()) {
+            gen.writeFieldName(entry.getKey());
+            SchemaNode node = entry.getValue();
+            if (node instanceof JsonSchema schema) {
+                JSON_SCHEMA.serialize(schema, gen, provider);
+            } else if (node instanceof SchemaProperty property) {
+                SCHEMA_PROPERTY.serialize(property, gen, provider);
+            } else if (node instanceof SchemaReference reference) {
+                SCHEMA_REFERENCE.serialize(reference, gen, provider);
+            } else if (node instanceof SchemaDictionary dictionary) {
+                SCHEMA_DICTIONARY.serialize(dictionary, gen, provider);
+            } else if (node != null) {
+                provider.defaultSerializeValue(node, gen);
+            } else {
+                provider.defaultSerializeNull(gen);
+            }
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeElements(List<UiSchemaLayoutElement> elements, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (elements == null) {
+            provider.defaultSerializeNull(gen);
+            return;
+        }
+        gen.writeStartArray(elements, elements.size());
+        for (UiSchemaLayoutElement element : elements) {
+            if (element instanceof UiSchemaElement control) {
+                CONTROL.writeTyped(control, gen, provider);
+            } else if (element instanceof UiSchemaGroupElement group) {
+                GROUP.writeTyped(group, gen, provider);
+            } else if (element instanceof UiSchemaHorizontalLayoutElement layout) {
+                HORIZONTAL_LAYOUT.writeTyped(layout, gen, provider);
+            } else if (element instanceof UiSchemaVerticalLayoutElement layout) {
+                VERTICAL_LAYOUT.writeTyped(layout, gen, provider);
+            } else if (element != null) {
+                // Other subclasses keep Jackson's handling, including their type id.
+                provider.findTypedValueSerializer(element.getClass(), true, null).serialize(element, gen, provider);
+            } else {
+                provider.defaultSerializeNull(gen);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,65 @@
+package com.eainde.form_forge.models.schema;
+
+import com.eainde.form_forge.models.json.FormModelDeserializers;
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents the main JSON Schema structure.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = FormModelSerializers.JsonSchemaSerializer.class)
+public class JsonSchema implements SchemaNode{
+    private String type = "object";
+    private String title;
+    private String description;
+    @JsonDeserialize(as = LinkedHashMap.class, contentUsing = FormModelDeserializers.SchemaNodeDeserializer.class)
+    private Map<String, SchemaNode> properties = new HashMap<>();
+    private List<String> required;
+    /**
+     * The option dictionaries referenced by fields of the form, by name. Only set on the root schema.
+     */
+    @JsonProperty("$defs")
+    @JsonDeserialize(as = TreeMap.class, contentAs = SchemaDictionary.class)
+    private Map<String, SchemaNode> defs;
+
+    /**
+     * Creates a deep copy of a schema. The copied maps are of the same kind as the originals and are filled
+     * in their iteration order, so the copy iterates, and is serialized, in the same order.
+     */
+    public JsonSchema(JsonSchema other) {
+        this.type = other.type;
+        this.title = other.title;
+        this.description = other.description;
+        this.properties = other.properties != null ? copyNodes(other.properties) : null;
+        this.required = other.required != null ? new ArrayList<>(other.required) : null;
+        this.defs = other.defs != null ? copyNodes(other.defs) : null;
+    }
+
+    @Override
+    public JsonSchema copy() {
+        return new JsonSchema(this);
+    }
+
+    private static Map<String, SchemaNode> copyNodes(Map<String, SchemaNode> nodes) {
+        // Not new HashMap<>(nodes), which presizes the table and can change the iteration order.
+        Map<String, SchemaNode> copy = nodes instanceof TreeMap<String, SchemaNode> sorted ? new TreeMap<>(sorted.comparator())
+                : nodes instanceof LinkedHashMap ? new LinkedHashMap<>() : new HashMap<>();
+        nodes.forEach((key, node) -> copy.put(key, node.copy()));
+        return copy;
+    }
+}
@@ -0,0 +1,47 @@
+package com.eainde.form_forge.models.schema;
+
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The definition of a shared option dictionary in the {@code $defs} of a form's root schema. Fields that
+ * use the dictionary refer to it with a {@code $ref} instead of listing its options themselves.
+ * The {@code x-version} annotation carries the dictionary's version, so that clients can cache it by
+ * name and version independently of the forms that use it.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = FormModelSerializers.SchemaDictionarySerializer.class)
+public class SchemaDictionary implements SchemaNode {
+    private String type = "string";
+    private List<SchemaOption> oneOf;
+    @JsonProperty("x-version")
+    private String version;
+
+    /**
+     * Creates a deep copy of a dictionary definition.
+     */
+    public SchemaDictionary(SchemaDictionary other) {
+        this.type = other.type;
+        if (other.oneOf != null) {
+            this.oneOf = new ArrayList<>(other.oneOf.size());
+            for (SchemaOption option : other.oneOf) {
+                this.oneOf.add(new SchemaOption(option));
+            }
+        }
+        this.version = other.version;
+    }
+
+    @Override
+    public SchemaDictionary copy() {
+        return new SchemaDictionary(this);
+    }
+}
@@ -9,4 +9,9 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.NONE)
 public interface SchemaNode {
+
+    /**
+     * @return A deep copy of this node that shares no mutable state with it.
+     */
+    SchemaNode copy();
 }
@@ -0,0 +1,31 @@
+package com.eainde.form_forge.models.schema;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One allowed value of a field with a display name, emitted as a {@code oneOf} entry
+ * ({@code {"const": "DE", "title": "Germany"}}), which JSON Forms renders as a labelled option.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"const", "title"})
+public class SchemaOption {
+    @JsonProperty("const")
+    private String value;
+    private String title;
+
+    /**
+     * Creates a copy of an option.
+     */
+    public SchemaOption(SchemaOption other) {
+        this.value = other.value;
+        this.title = other.title;
+    }
+}
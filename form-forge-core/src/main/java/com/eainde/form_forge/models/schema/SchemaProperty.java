@@ -0,0 +1,64 @@
+package com.eainde.form_forge.models.schema;
+
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a simple property within a JSON Schema (e.g., string, number, boolean).
+ * Implements SchemaNode to be part of the polymorphic properties map.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = FormModelSerializers.SchemaPropertySerializer.class)
+public class SchemaProperty implements SchemaNode {
+    private String type;
+    private String title;
+    private String description;
+    private String format;
+    private Integer minLength;
+    private Integer maxLength;
+    /**
+     * The allowed values with display names, used instead of {@link #enumValues} when names are known.
+     */
+    private List<SchemaOption> oneOf;
+    @JsonProperty("enum")
+    private List<String> enumValues;
+    /**
+     * A reference to a shared option dictionary in the root schema's {@code $defs} (e.g., "#/$defs/countries").
+     */
+    @JsonProperty("$ref")
+    private String ref;
+
+    /**
+     * Creates a deep copy of a property.
+     */
+    public SchemaProperty(SchemaProperty other) {
+        this.type = other.type;
+        this.title = other.title;
+        this.description = other.description;
+        this.format = other.format;
+        this.minLength = other.minLength;
+        this.maxLength = other.maxLength;
+        if (other.oneOf != null) {
+            this.oneOf = new ArrayList<>(other.oneOf.size());
+            for (SchemaOption option : other.oneOf) {
+                this.oneOf.add(new SchemaOption(option));
+            }
+        }
+        this.enumValues = other.enumValues != null ? new ArrayList<>(other.enumValues) : null;
+        this.ref = other.ref;
+    }
+
+    @Override
+    public SchemaProperty copy() {
+        return new SchemaProperty(this);
+    }
+}
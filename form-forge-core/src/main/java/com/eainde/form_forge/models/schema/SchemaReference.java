@@ -0,0 +1,34 @@
+package com.eainde.form_forge.models.schema;
+
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a JSON Schema '$ref' to another node of the same schema.
+ * It is emitted in place of a nested object whose type is already being generated higher up
+ * in the tree, so that self-referencing DTOs produce a finite schema.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonSerialize(using = FormModelSerializers.SchemaReferenceSerializer.class)
+public class SchemaReference implements SchemaNode {
+    @JsonProperty("$ref")
+    private String ref;
+
+    /**
+     * Creates a copy of a reference.
+     */
+    public SchemaReference(SchemaReference other) {
+        this.ref = other.ref;
+    }
+
+    @Override
+    public SchemaReference copy() {
+        return new SchemaReference(this);
+    }
+}
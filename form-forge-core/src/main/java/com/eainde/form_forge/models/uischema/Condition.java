@@ -0,0 +1,83 @@
+package com.eainde.form_forge.models.uischema;
+
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the Condition part of a Rule, following the JSON Forms condition types:
+ * <ul>
+ *     <li>schema-based: {@code {"scope": ..., "schema": {...}}}, holding when the value at the scope
+ *     validates against the schema;</li>
+ *     <li>composite: {@code {"type": "AND" | "OR", "conditions": [...]}}.</li>
+ * </ul>
+ * Negation is expressed inside the schema with {@code "not"}.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = FormModelSerializers.ConditionSerializer.class)
+public class Condition {
+    public static final String AND = "AND";
+    public static final String OR = "OR";
+
+    private String type;
+    private ScopePath scope;
+    private ConditionSchema schema;
+    private Boolean failWhenUndefined;
+    private List<Condition> conditions;
+
+    /**
+     * Creates a deep copy of a condition.
+     */
+    public Condition(Condition other) {
+        this.type = other.type;
+        this.scope = other.scope;
+        this.schema = other.schema != null ? new ConditionSchema(other.schema) : null;
+        this.failWhenUndefined = other.failWhenUndefined;
+        if (other.conditions != null) {
+            this.conditions = new ArrayList<>(other.conditions.size());
+            for (Condition condition : other.conditions) {
+                this.conditions.add(new Condition(condition));
+            }
+        }
+    }
+
+    /**
+     * Creates a schema-based condition that fails when the scope has no value.
+     */
+    public static Condition schemaBased(ScopePath scope, ConditionSchema schema) {
+        Condition condition = new Condition();
+        condition.setScope(scope);
+        condition.setSchema(schema);
+        condition.setFailWhenUndefined(true);
+        return condition;
+    }
+
+    /**
+     * Creates a composite condition.
+     *
+     * @param type       {@link #AND} or {@link #OR}.
+     * @param conditions The combined conditions.
+     */
+    public static Condition composite(String type, List<Condition> conditions) {
+        Condition condition = new Condition();
+        condition.setType(type);
+        condition.setConditions(conditions);
+        return condition;
+    }
+
+    /**
+     * @return True if this is an AND or OR condition.
+     */
+    @JsonIgnore
+    public boolean isComposite() {
+        return AND.equals(type) || OR.equals(type);
+    }
+}
@@ -0,0 +1,56 @@
+package com.eainde.form_forge.models.uischema;
+
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the 'schema' part of a Condition, which typically contains a 'const' value.
+ * It may also restrict the value with 'enum', 'minimum', 'maximum' or 'pattern', or negate
+ * another schema with 'not'.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = FormModelSerializers.ConditionSchemaSerializer.class)
+public class ConditionSchema {
+    @JsonProperty("const")
+    private Object constantValue;
+    @JsonProperty("enum")
+    private List<Object> enumValues;
+    private Number minimum;
+    private Number maximum;
+    private String pattern;
+    private ConditionSchema not;
+
+    public ConditionSchema(Object constantValue) {
+        this.constantValue = constantValue;
+    }
+
+    /**
+     * Creates a deep copy of a schema. The constant and enum values are scalars and are shared.
+     */
+    public ConditionSchema(ConditionSchema other) {
+        this.constantValue = other.constantValue;
+        this.enumValues = other.enumValues != null ? new ArrayList<>(other.enumValues) : null;
+        this.minimum = other.minimum;
+        this.maximum = other.maximum;
+        this.pattern = other.pattern;
+        this.not = other.not != null ? new ConditionSchema(other.not) : null;
+    }
+
+    /**
+     * Creates a schema that holds when the given schema does not.
+     */
+    public static ConditionSchema negate(ConditionSchema schema) {
+        ConditionSchema negated = new ConditionSchema();
+        negated.setNot(schema);
+        return negated;
+    }
+}
@@ -0,0 +1,27 @@
+package com.eainde.form_forge.models.uischema;
+
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Represents a Rule object in the UI Schema.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = FormModelSerializers.RuleSerializer.class)
+public class Rule {
+    private RuleEffect effect;
+    private Condition condition;
+
+    /**
+     * Creates a deep copy of a rule.
+     */
+    public Rule(Rule other) {
+        this.effect = other.effect;
+        this.condition = other.condition != null ? new Condition(other.condition) : null;
+    }
+}
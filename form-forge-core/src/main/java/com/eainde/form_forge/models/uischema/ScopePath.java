@@ -0,0 +1,185 @@
+package com.eainde.form_forge.models.uischema;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.Objects;
+
+/**
+ * A JSON Forms scope (e.g., "#/properties/employees_101/properties/email") stored as a chain of
+ * property names. Every path points to its parent, so the scopes of sibling and nested controls
+ * share their common prefix instead of each holding a copy of it.
+ * <p>
+ * Paths are immutable and compare by value; the hash code is computed once on creation, so paths
+ * can be used directly as keys of lookup tables. The string form is only built when the path is
+ * serialized or {@link #toString()} is called.
+ */
+public final class ScopePath {
+
+    private static final String ROOT_TOKEN = "#";
+    private static final String PROPERTIES_SEGMENT = "/properties/";
+
+    /**
+     * The scope of the root object ("#").
+     */
+    public static final ScopePath ROOT = new ScopePath(null, null);
+
+    private final ScopePath parent;
+    private final String property;
+    private final int depth;
+    private final int hash;
+
+    private ScopePath(ScopePath parent, String property) {
+        this.parent = parent;
+        this.property = property;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.hash = parent == null ? 0 : 31 * parent.hash + property.hashCode();
+    }
+
+    /**
+     * Parses the string form of a scope.
+     *
+     * @param scope A scope such as "#" or "#/properties/address/properties/city".
+     * @return The parsed path.
+     * @throws IllegalArgumentException if the string is not a properties-only scope.
+     */
+    @JsonCreator
+    public static ScopePath parse(String scope) {
+        if (scope == null || !scope.startsWith(ROOT_TOKEN)) {
+            throw new IllegalArgumentException("Scope must start with '#': " + scope);
+        }
+        ScopePath path = ROOT;
+        int position = ROOT_TOKEN.length();
+        while (position < scope.length()) {
+            if (!scope.startsWith(PROPERTIES_SEGMENT, position)) {
+                throw new IllegalArgumentException("Unsupported scope segment in '" + scope + "' at index " + position);
+            }
+            int start = position + PROPERTIES_SEGMENT.length();
+            int end = scope.indexOf('/', start);
+            if (end < 0) {
+                end = scope.length();
+            }
+            path = path.child(scope.substring(start, end));
+            position = end;
+        }
+        return path;
+    }
+
+    /**
+     * Returns the path of a property of the object this path points to.
+     *
+     * @param property The property name.
+     * @return The child path.
+     */
+    public ScopePath child(String property) {
+        return new ScopePath(this, Objects.requireNonNull(property, "property"));
+    }
+
+    /**
+     * Appends a path that is relative to the object this path points to. The result shares this
+     * path as its prefix.
+     *
+     * @param relative A path whose {@link #ROOT} stands for this path.
+     * @return The path of {@code relative} below this path.
+     */
+    public ScopePath resolve(ScopePath relative) {
+        if (relative.isRoot()) {
+            return this;
+        }
+        return resolve(relative.parent).child(relative.property);
+    }
+
+    /**
+     * @return The path of the enclosing object, or null for {@link #ROOT}.
+     */
+    public ScopePath parent() {
+        return parent;
+    }
+
+    /**
+     * @return The last property name of this path, or null for {@link #ROOT}.
+     */
+    public String property() {
+        return property;
+    }
+
+    /**
+     * @return The number of properties in this path, 0 for {@link #ROOT}.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    public boolean isRoot() {
+        return parent == null;
+    }
+
+    /**
+     * Checks whether this path is equal to or nested within another path.
+     *
+     * @param prefix The candidate ancestor.
+     * @return True if {@code prefix} is this path or one of its ancestors.
+     */
+    public boolean startsWith(ScopePath prefix) {
+        if (prefix.depth > depth) {
+            return false;
+        }
+        ScopePath current = this;
+        while (current.depth > prefix.depth) {
+            current = current.parent;
+        }
+        return current.equals(prefix);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ScopePath)) {
+            return false;
+        }
+        ScopePath left = this;
+        ScopePath right = (ScopePath) other;
+        if (left.hash != right.hash || left.depth != right.depth) {
+            return false;
+        }
+        while (left != right) {
+            if (!left.property.equals(right.property)) {
+                return false;
+            }
+            left = left.parent;
+            right = right.parent;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Renders the scope string, e.g. "#/properties/address/properties/city".
+     */
+    @JsonValue
+    @Override
+    public String toString() {
+        if (isRoot()) {
+            return ROOT_TOKEN;
+        }
+        String[] properties = new String[depth];
+        int length = ROOT_TOKEN.length();
+        ScopePath current = this;
+        for (int i = depth - 1; i >= 0; i--) {
+            properties[i] = current.property;
+            length += PROPERTIES_SEGMENT.length() + current.property.length();
+            current = current.parent;
+        }
+        StringBuilder builder = new StringBuilder(length).append(ROOT_TOKEN);
+        for (String name : properties) {
+            builder.append(PROPERTIES_SEGMENT).append(name);
+        }
+        return builder.toString();
+    }
+}
@@ -1,6 +1,8 @@
 package com.eainde.form_forge.models.uischema;
 
+import com.eainde.form_forge.models.json.FormModelSerializers;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import lombok.Data;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,6 +12,7 @@ import java.util.List;
  */
 @Data
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = FormModelSerializers.UiSchemaSerializer.class)
 public class UiSchema {
     private UiControlType type = UiControlType.VERTICAL_LAYOUT;
     private List<UiSchemaLayoutElement> elements = new ArrayList<>();
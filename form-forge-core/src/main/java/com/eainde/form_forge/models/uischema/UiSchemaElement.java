@@ -0,0 +1,86 @@
+package com.eainde.form_forge.models.uischema;
+
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a single element in the UI Schema's 'elements' array.
+ * This is typically a "Control" element.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonSerialize(using = FormModelSerializers.ControlSerializer.class)
+public class UiSchemaElement extends UiSchemaLayoutElement{
+    // ObjectMapper is thread-safe once configured, so one instance is shared by all controls.
+    private static final ObjectMapper OPTIONS_MAPPER = new ObjectMapper();
+
+    private ScopePath scope;
+    private String label;
+    private Map<String, Object> options;
+    private Rule rule; // <-- ADDED THIS LINE
+
+    /**
+     * Creates a deep copy of a control.
+     */
+    public UiSchemaElement(UiSchemaElement other) {
+        super(other);
+        this.scope = other.scope;
+        this.label = other.label;
+        this.options = other.options != null ? copyJson(other.options) : null;
+        this.rule = other.rule != null ? new Rule(other.rule) : null;
+    }
+
+    @Override
+    public UiSchemaElement copy() {
+        return new UiSchemaElement(this);
+    }
+
+    /**
+     * Copies parsed JSON options, keeping the iteration order of their objects.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T copyJson(T value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            map.forEach((key, entry) -> copy.put(key, copyJson(entry)));
+            return (T) copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object entry : list) {
+                copy.add(copyJson(entry));
+            }
+            return (T) copy;
+        }
+        return value;
+    }
+
+    /**
+     * Helper method to parse a JSON string into the options map.
+     * @param optionsJson JSON string for options.
+     */
+    public void setOptionsFromString(String optionsJson) {
+        if (optionsJson == null || optionsJson.isBlank()) {
+            return;
+        }
+        try {
+            this.options = OPTIONS_MAPPER.readValue(optionsJson, Map.class);
+        } catch (JsonProcessingException e) {
+            // Log this error in a real application
+            System.err.println("Failed to parse UI options JSON: " + optionsJson);
+        }
+    }
+}
+
+
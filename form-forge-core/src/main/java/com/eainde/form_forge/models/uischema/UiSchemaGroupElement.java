@@ -1,11 +1,15 @@
 package com.eainde.form_forge.models.uischema;
 
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Represents a 'Group' layout element in the UI schema.
  */
+@JsonSerialize(using = FormModelSerializers.GroupSerializer.class)
 public class UiSchemaGroupElement extends UiSchemaLayoutElement {
     private String label;
     private List<UiSchemaLayoutElement> elements = new ArrayList<>();
@@ -14,6 +18,22 @@ public class UiSchemaGroupElement extends UiSchemaLayoutElement {
         super.setType("Group");
     }
 
+    /**
+     * Creates a deep copy of a group and its elements.
+     */
+    public UiSchemaGroupElement(UiSchemaGroupElement other) {
+        super(other);
+        this.label = other.label;
+        for (UiSchemaLayoutElement element : other.elements) {
+            this.elements.add(element.copy());
+        }
+    }
+
+    @Override
+    public UiSchemaGroupElement copy() {
+        return new UiSchemaGroupElement(this);
+    }
+
     public String getLabel() {
         return label;
     }
@@ -23,6 +23,21 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 public abstract class UiSchemaLayoutElement {
     protected String type;
 
+    protected UiSchemaLayoutElement() {
+    }
+
+    /**
+     * Copies the fields of this base class.
+     */
+    protected UiSchemaLayoutElement(UiSchemaLayoutElement other) {
+        this.type = other.type;
+    }
+
+    /**
+     * @return A deep copy of this element and of the elements nested in it.
+     */
+    public abstract UiSchemaLayoutElement copy();
+
     /**
      * This getter is ignored for JSON serialization to prevent duplication.
      * The @JsonTypeInfo annotation is solely responsible for writing the 'type' field.
@@ -1,5 +1,8 @@
 package com.eainde.form_forge.models.uischema;
 
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -7,6 +10,7 @@ import java.util.List;
  * Represents a 'VerticalLayout' element in the UI schema. It contains a list
  * of nested elements to be rendered vertically.
  */
+@JsonSerialize(using = FormModelSerializers.VerticalLayoutSerializer.class)
 public class UiSchemaVerticalLayoutElement extends UiSchemaLayoutElement {
     private List<UiSchemaLayoutElement> elements = new ArrayList<>();
 
@@ -14,6 +18,21 @@ public class UiSchemaVerticalLayoutElement extends UiSchemaLayoutElement {
         this.type = "VerticalLayout";
     }
 
+    /**
+     * Creates a deep copy of a layout and its elements.
+     */
+    public UiSchemaVerticalLayoutElement(UiSchemaVerticalLayoutElement other) {
+        super(other);
+        for (UiSchemaLayoutElement element : other.elements) {
+            this.elements.add(element.copy());
+        }
+    }
+
+    @Override
+    public UiSchemaVerticalLayoutElement copy() {
+        return new UiSchemaVerticalLayoutElement(this);
+    }
+
     public List<UiSchemaLayoutElement> getElements() {
         return elements;
     }
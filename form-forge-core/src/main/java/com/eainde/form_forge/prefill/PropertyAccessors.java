@@ -0,0 +1,200 @@
+package com.eainde.form_forge.prefill;
+
+import com.eainde.form_forge.exception.JsonFormGenerationException;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Compiled read accessors for the properties of source classes, resolved once and cached per class.
+ * <p>
+ * A property is read, in order of preference, through a public no-argument getter ({@code getName()},
+ * {@code isName()} or the record-style {@code name()}) or directly from a field of the class hierarchy.
+ * Getters are bound with {@link LambdaMetafactory} into a {@link Function}, which the JIT can inline like
+ * a direct call; fields, and getters that cannot be bound that way, are read through a {@link MethodHandle}.
+ * Reflective {@code Field.get}/{@code Method.invoke} is never used on the read path.
+ * <p>
+ * {@link Map} sources are read with {@link Map#get(Object)}, so loosely typed data can be mixed with domain objects.
+ */
+public final class PropertyAccessors {
+
+    private static final ClassValue<PropertyAccessors> CACHE = new ClassValue<>() {
+        @Override
+        protected PropertyAccessors computeValue(Class<?> type) {
+            return new PropertyAccessors(type);
+        }
+    };
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class<?> type;
+    private final Map<String, Function<Object, Object>> accessors;
+
+    private PropertyAccessors(Class<?> type) {
+        this.type = type;
+        this.accessors = resolve(type);
+    }
+
+    /**
+     * Returns the cached accessors of a class, resolving them on first access.
+     *
+     * @param type The source class.
+     * @return The accessors of the class.
+     */
+    public static PropertyAccessors of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * Reads a property of a source object of any class.
+     *
+     * @param source   The source object or map; may be null.
+     * @param property The property name.
+     * @return The property value, or null if the source is null or has no such property.
+     */
+    public static Object read(Object source, String property) {
+        if (source == null) {
+            return null;
+        }
+        if (source instanceof Map<?, ?> map) {
+            return map.get(property);
+        }
+        return of(source.getClass()).get(source, property);
+    }
+
+    /**
+     * Checks whether a source object exposes a property, even if its current value is null.
+     *
+     * @param source   The source object or map.
+     * @param property The property name.
+     * @return True if the property can be read from the source.
+     */
+    public static boolean has(Object source, String property) {
+        if (source instanceof Map<?, ?> map) {
+            return map.containsKey(property);
+        }
+        return source != null && of(source.getClass()).accessors.containsKey(property);
+    }
+
+    /**
+     * Reads a property of an instance of this accessor's class.
+     *
+     * @param source   An instance of {@link #type()}.
+     * @param property The property name.
+     * @return The property value, or null if the class has no such property.
+     */
+    public Object get(Object source, String property) {
+        Function<Object, Object> accessor = accessors.get(property);
+        return accessor != null ? accessor.apply(source) : null;
+    }
+
+    public Class<?> type() {
+        return type;
+    }
+
+    private static Map<String, Function<Object, Object>> resolve(Class<?> type) {
+        Map<String, Function<Object, Object>> accessors = new HashMap<>();
+        // Fields first, so that getters of the same name replace them.
+        Deque<Class<?>> hierarchy = new ArrayDeque<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.push(current);
+        }
+        for (Class<?> declaringClass : hierarchy) {
+            for (Field field : declaringClass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    Function<Object, Object> accessor = fieldAccessor(field);
+                    if (accessor != null) {
+                        accessors.put(field.getName(), accessor);
+                    }
+                }
+            }
+        }
+        for (Method method : type.getMethods()) {
+            String property = propertyName(method);
+            if (property != null && (!method.getName().equals(property) || accessors.containsKey(property))) {
+                Function<Object, Object> accessor = getterAccessor(method);
+                if (accessor != null) {
+                    accessors.put(property, accessor);
+                }
+            }
+        }
+        return Map.copyOf(accessors);
+    }
+
+    private static String propertyName(Method method) {
+        if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0
+                || method.getReturnType() == void.class || method.getDeclaringClass() == Object.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2
+                && (method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class)) {
+            return decapitalize(name.substring(2));
+        }
+        // Record-style accessors are only used for names that are also fields (see resolve).
+        return name;
+    }
+
+    private static String decapitalize(String name) {
+        if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static Function<Object, Object> getterAccessor(Method method) {
+        MethodHandles.Lookup lookup;
+        MethodHandle handle;
+        try {
+            lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            handle = lookup.unreflect(method);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                    MethodType.methodType(Function.class), GETTER_TYPE.erase(), handle,
+                    MethodType.methodType(method.getReturnType(), method.getDeclaringClass()).wrap());
+            @SuppressWarnings("unchecked")
+            Function<Object, Object> function = (Function<Object, Object>) site.getTarget().invokeExact();
+            return function;
+        } catch (Throwable e) {
+            return handleAccessor(handle, method.getName());
+        }
+    }
+
+    private static Function<Object, Object> fieldAccessor(Field field) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return handleAccessor(lookup.unreflectGetter(field), field.getName());
+        } catch (IllegalAccessException | RuntimeException e) {
+            // Fields of classes in modules that are not open to us are simply not readable.
+            return null;
+        }
+    }
+
+    private static Function<Object, Object> handleAccessor(MethodHandle handle, String name) {
+        MethodHandle adapted = handle.asType(GETTER_TYPE);
+        return source -> {
+            try {
+                return (Object) adapted.invokeExact(source);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new JsonFormGenerationException("Failed to read property '" + name + "' of "
+                        + source.getClass().getName(), e);
+            }
+        };
+    }
+}
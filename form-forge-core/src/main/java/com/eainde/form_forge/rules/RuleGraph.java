@@ -0,0 +1,360 @@
+package com.eainde.form_forge.rules;
+
+import com.eainde.form_forge.models.uischema.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * The rules of a generated UI schema compiled for server-side evaluation.
+ * <p>
+ * Every control rule refers to a condition, and identical conditions are compiled once and shared.
+ * Schema-based conditions ({@code const}, {@code enum}, {@code minimum}, {@code maximum},
+ * {@code pattern}, {@code not}) and AND/OR composites are supported. Each rule condition is indexed
+ * by the scopes it reads and by every ancestor of those scopes, so that a change to a single
+ * property only re-evaluates the conditions that can observe it.
+ * A graph is immutable and can be shared between threads; evaluation results live in {@link RuleState}.
+ * <p>
+ * The semantics follow JSON Forms: a SHOW rule makes its control visible only while the condition
+ * holds, HIDE the opposite, and ENABLE/DISABLE do the same for enablement. A condition whose scope has
+ * no value in the data document holds unless it sets {@code failWhenUndefined}, as all generated
+ * conditions do. Controls without a rule are always visible and enabled.
+ */
+public final class RuleGraph {
+
+    private final List<ScopePath> controls;
+    private final Map<ScopePath, Integer> controlIndex;
+    private final RuleEffect[] controlEffects;
+    private final int[] controlConditions;
+    private final CompiledCondition[] conditions;
+    private final int[][] conditionControls;
+    private final Map<ScopePath, int[]> conditionsByScope;
+    private final Map<ScopePath, int[]> conditionsUnderScope;
+
+    private RuleGraph(List<ScopePath> controls, RuleEffect[] controlEffects, int[] controlConditions,
+                      List<CompiledCondition> conditions) {
+        this.controls = List.copyOf(controls);
+        this.controlIndex = new HashMap<>();
+        for (int i = 0; i < controls.size(); i++) {
+            controlIndex.put(controls.get(i), i);
+        }
+        this.controlEffects = controlEffects;
+        this.controlConditions = controlConditions;
+        this.conditions = conditions.toArray(new CompiledCondition[0]);
+
+        List<List<Integer>> dependents = new ArrayList<>();
+        for (int i = 0; i < this.conditions.length; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int control = 0; control < controlConditions.length; control++) {
+            if (controlConditions[control] >= 0) {
+                dependents.get(controlConditions[control]).add(control);
+            }
+        }
+        this.conditionControls = new int[this.conditions.length][];
+        for (int i = 0; i < this.conditions.length; i++) {
+            conditionControls[i] = dependents.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Map<ScopePath, Set<Integer>> byScope = new HashMap<>();
+        Map<ScopePath, Set<Integer>> underScope = new HashMap<>();
+        for (int i = 0; i < this.conditions.length; i++) {
+            Set<ScopePath> scopes = new HashSet<>();
+            this.conditions[i].collectScopes(scopes);
+            for (ScopePath scope : scopes) {
+                byScope.computeIfAbsent(scope, key -> new LinkedHashSet<>()).add(i);
+                for (ScopePath ancestor = scope; ancestor != null; ancestor = ancestor.parent()) {
+                    underScope.computeIfAbsent(ancestor, key -> new LinkedHashSet<>()).add(i);
+                }
+            }
+        }
+        this.conditionsByScope = toArrays(byScope);
+        this.conditionsUnderScope = toArrays(underScope);
+    }
+
+    /**
+     * Compiles the rules of a generated UI schema.
+     *
+     * @param uiSchema The UI schema of a generated form.
+     * @return The compiled rule graph.
+     */
+    public static RuleGraph compile(UiSchema uiSchema) {
+        List<ScopePath> controls = new ArrayList<>();
+        List<RuleEffect> effects = new ArrayList<>();
+        List<Integer> controlConditions = new ArrayList<>();
+        List<CompiledCondition> conditions = new ArrayList<>();
+        Map<Condition, Integer> conditionIds = new HashMap<>();
+
+        Deque<UiSchemaLayoutElement> pending = new ArrayDeque<>(uiSchema.getElements());
+        while (!pending.isEmpty()) {
+            UiSchemaLayoutElement element = pending.pop();
+            if (element instanceof UiSchemaElement control) {
+                if (control.getScope() == null) {
+                    continue;
+                }
+                Rule rule = control.getRule();
+                int conditionId = -1;
+                if (rule != null && rule.getCondition() != null) {
+                    conditionId = conditionIds.computeIfAbsent(rule.getCondition(), key -> {
+                        conditions.add(compileCondition(key));
+                        return conditions.size() - 1;
+                    });
+                }
+                controls.add(control.getScope());
+                effects.add(conditionId >= 0 ? rule.getEffect() : null);
+                controlConditions.add(conditionId);
+            } else {
+                List<UiSchemaLayoutElement> children = childrenOf(element);
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    pending.push(children.get(i));
+                }
+            }
+        }
+        return new RuleGraph(controls, effects.toArray(new RuleEffect[0]),
+                controlConditions.stream().mapToInt(Integer::intValue).toArray(), conditions);
+    }
+
+    /**
+     * Evaluates every rule against a data document.
+     *
+     * @param data The data document; the returned state keeps a reference to it for {@link RuleState#update}.
+     * @return The visibility and enablement of every control.
+     */
+    public RuleState evaluate(JsonNode data) {
+        boolean[] results = new boolean[conditions.length];
+        for (int i = 0; i < conditions.length; i++) {
+            results[i] = conditions[i].test(data);
+        }
+        boolean[] visible = new boolean[controls.size()];
+        boolean[] enabled = new boolean[controls.size()];
+        for (int control = 0; control < visible.length; control++) {
+            applyRule(control, results, visible, enabled);
+        }
+        return new RuleState(this, data, results, visible, enabled);
+    }
+
+    /**
+     * @return The scopes of all controls of the form, in UI schema order.
+     */
+    public List<ScopePath> controls() {
+        return controls;
+    }
+
+    /**
+     * @return The number of distinct conditions after deduplication.
+     */
+    public int conditionCount() {
+        return conditions.length;
+    }
+
+    Integer controlIndex(ScopePath scope) {
+        return controlIndex.get(scope);
+    }
+
+    ScopePath control(int index) {
+        return controls.get(index);
+    }
+
+    CompiledCondition condition(int index) {
+        return conditions[index];
+    }
+
+    int[] controlsOf(int condition) {
+        return conditionControls[condition];
+    }
+
+    int[] conditionsAt(ScopePath scope) {
+        return conditionsByScope.get(scope);
+    }
+
+    int[] conditionsUnder(ScopePath scope) {
+        return conditionsUnderScope.get(scope);
+    }
+
+    /**
+     * Recomputes the visibility and enablement of a control from the current condition results.
+     *
+     * @return True if either flag changed.
+     */
+    boolean applyRule(int control, boolean[] results, boolean[] visible, boolean[] enabled) {
+        boolean wasVisible = visible[control];
+        boolean wasEnabled = enabled[control];
+        boolean isVisible = true;
+        boolean isEnabled = true;
+        int condition = controlConditions[control];
+        if (condition >= 0) {
+            boolean holds = results[condition];
+            switch (controlEffects[control]) {
+                case SHOW -> isVisible = holds;
+                case HIDE -> isVisible = !holds;
+                case ENABLE -> isEnabled = holds;
+                case DISABLE -> isEnabled = !holds;
+            }
+        }
+        visible[control] = isVisible;
+        enabled[control] = isEnabled;
+        return wasVisible != isVisible || wasEnabled != isEnabled;
+    }
+
+    private static List<UiSchemaLayoutElement> childrenOf(UiSchemaLayoutElement element) {
+        if (element instanceof UiSchemaGroupElement group) {
+            return group.getElements();
+        }
+        if (element instanceof UiSchemaHorizontalLayoutElement horizontal) {
+            return horizontal.getElements();
+        }
+        if (element instanceof UiSchemaVerticalLayoutElement vertical) {
+            return vertical.getElements();
+        }
+        return List.of();
+    }
+
+    private static CompiledCondition compileCondition(Condition condition) {
+        if (condition.isComposite()) {
+            List<CompiledCondition> children = new ArrayList<>();
+            for (Condition child : condition.getConditions()) {
+                children.add(compileCondition(child));
+            }
+            return new CompositeCondition(Condition.AND.equals(condition.getType()), List.copyOf(children));
+        }
+        if (condition.getScope() == null) {
+            throw new IllegalArgumentException("Unsupported rule condition: " + condition);
+        }
+        return new SchemaCondition(condition.getScope(), compileSchema(condition.getSchema()),
+                Boolean.TRUE.equals(condition.getFailWhenUndefined()));
+    }
+
+    private static SchemaTest compileSchema(ConditionSchema schema) {
+        if (schema == null) {
+            return new SchemaTest(null, null, null, null, null, null);
+        }
+        List<JsonNode> enumValues = null;
+        if (schema.getEnumValues() != null) {
+            enumValues = new ArrayList<>();
+            for (Object value : schema.getEnumValues()) {
+                enumValues.add(toJsonNode(value));
+            }
+        }
+        return new SchemaTest(
+                schema.getConstantValue() != null ? toJsonNode(schema.getConstantValue()) : null,
+                enumValues,
+                schema.getMinimum() != null ? new BigDecimal(schema.getMinimum().toString()) : null,
+                schema.getMaximum() != null ? new BigDecimal(schema.getMaximum().toString()) : null,
+                schema.getPattern() != null ? Pattern.compile(schema.getPattern()) : null,
+                schema.getNot() != null ? compileSchema(schema.getNot()) : null);
+    }
+
+    private static JsonNode toJsonNode(Object value) {
+        JsonNodeFactory factory = JsonNodeFactory.instance;
+        if (value == null) return factory.nullNode();
+        if (value instanceof Boolean b) return factory.booleanNode(b);
+        if (value instanceof Integer i) return factory.numberNode(i);
+        if (value instanceof Long l) return factory.numberNode(l);
+        if (value instanceof Double d) return factory.numberNode(d);
+        if (value instanceof Number n) return factory.numberNode(new BigDecimal(n.toString()));
+        return factory.textNode(String.valueOf(value));
+    }
+
+    private static Map<ScopePath, int[]> toArrays(Map<ScopePath, Set<Integer>> index) {
+        Map<ScopePath, int[]> arrays = new HashMap<>();
+        index.forEach((scope, ids) -> arrays.put(scope, ids.stream().mapToInt(Integer::intValue).toArray()));
+        return arrays;
+    }
+
+    /**
+     * A compiled rule condition.
+     */
+    interface CompiledCondition {
+
+        boolean test(JsonNode data);
+
+        void collectScopes(Set<ScopePath> scopes);
+    }
+
+    /**
+     * An AND/OR combination of conditions.
+     */
+    record CompositeCondition(boolean and, List<CompiledCondition> children) implements CompiledCondition {
+
+        @Override
+        public boolean test(JsonNode data) {
+            for (CompiledCondition child : children) {
+                if (child.test(data) != and) {
+                    return !and;
+                }
+            }
+            return and;
+        }
+
+        @Override
+        public void collectScopes(Set<ScopePath> scopes) {
+            for (CompiledCondition child : children) {
+                child.collectScopes(scopes);
+            }
+        }
+    }
+
+    /**
+     * A condition validating the value at a scope against a schema.
+     */
+    record SchemaCondition(ScopePath scope, SchemaTest schema, boolean failWhenUndefined) implements CompiledCondition {
+
+        @Override
+        public boolean test(JsonNode data) {
+            JsonNode actual = resolve(data, scope);
+            if (actual == null || actual.isMissingNode()) {
+                return !failWhenUndefined;
+            }
+            return schema.test(actual);
+        }
+
+        @Override
+        public void collectScopes(Set<ScopePath> scopes) {
+            scopes.add(scope);
+        }
+
+        static JsonNode resolve(JsonNode data, ScopePath scope) {
+            if (scope.isRoot()) {
+                return data;
+            }
+            JsonNode parent = resolve(data, scope.parent());
+            return parent != null && parent.isObject() ? parent.get(scope.property()) : null;
+        }
+    }
+
+    /**
+     * The supported keywords of a condition schema; a null keyword is not checked.
+     */
+    record SchemaTest(JsonNode constant, List<JsonNode> enumValues, BigDecimal minimum, BigDecimal maximum,
+                      Pattern pattern, SchemaTest not) {
+
+        boolean test(JsonNode value) {
+            if (constant != null && !sameValue(value, constant)) {
+                return false;
+            }
+            if (enumValues != null && enumValues.stream().noneMatch(candidate -> sameValue(value, candidate))) {
+                return false;
+            }
+            if (minimum != null && value.isNumber() && value.decimalValue().compareTo(minimum) < 0) {
+                return false;
+            }
+            if (maximum != null && value.isNumber() && value.decimalValue().compareTo(maximum) > 0) {
+                return false;
+            }
+            if (pattern != null && value.isTextual() && !pattern.matcher(value.textValue()).find()) {
+                return false;
+            }
+            return not == null || !not.test(value);
+        }
+
+        private static boolean sameValue(JsonNode actual, JsonNode expected) {
+            if (actual.isNumber() && expected.isNumber()) {
+                return actual.decimalValue().compareTo(expected.decimalValue()) == 0;
+            }
+            return actual.equals(expected);
+        }
+    }
+}
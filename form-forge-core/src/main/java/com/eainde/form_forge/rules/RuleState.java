@@ -0,0 +1,122 @@
+package com.eainde.form_forge.rules;
+
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.*;
+
+/**
+ * The visibility and enablement of every control of a form for one data document, as computed by
+ * {@link RuleGraph#evaluate}. The state can be kept alongside an editing session and updated
+ * incrementally with {@link #update} as single values change.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public final class RuleState {
+
+    private final RuleGraph graph;
+    private final JsonNode data;
+    private final boolean[] conditionResults;
+    private final boolean[] visible;
+    private final boolean[] enabled;
+
+    RuleState(RuleGraph graph, JsonNode data, boolean[] conditionResults, boolean[] visible, boolean[] enabled) {
+        this.graph = graph;
+        this.data = data;
+        this.conditionResults = conditionResults;
+        this.visible = visible;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Checks whether the control at a scope is visible. Scopes that are not controls, such as
+     * groups, are always visible; a scope nested below a hidden control is hidden as well.
+     *
+     * @param scope The scope of a control.
+     * @return False if a rule hides the control.
+     */
+    public boolean isVisible(ScopePath scope) {
+        for (ScopePath current = scope; current != null; current = current.parent()) {
+            Integer index = graph.controlIndex(current);
+            if (index != null && !visible[index]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the control at a scope is enabled.
+     *
+     * @param scope The scope of a control.
+     * @return False if a rule disables the control.
+     */
+    public boolean isEnabled(ScopePath scope) {
+        Integer index = graph.controlIndex(scope);
+        return index == null || enabled[index];
+    }
+
+    /**
+     * Writes a new value into the evaluated data document and re-evaluates only the conditions that
+     * depend on it: conditions on the changed scope, on properties below it, and on objects above it.
+     *
+     * @param scope The scope of the changed property.
+     * @param value The new value, or null to remove the property.
+     * @return The scopes of the controls whose visibility or enablement changed.
+     * @throws IllegalStateException if the evaluated data document is not a JSON object.
+     */
+    public List<ScopePath> update(ScopePath scope, JsonNode value) {
+        if (scope.isRoot() || !(data instanceof ObjectNode root)) {
+            throw new IllegalStateException("Incremental updates require an object document and a property scope.");
+        }
+        write(root, scope, value);
+
+        Set<Integer> affected = new LinkedHashSet<>();
+        addAll(affected, graph.conditionsUnder(scope));
+        for (ScopePath ancestor = scope.parent(); ancestor != null; ancestor = ancestor.parent()) {
+            addAll(affected, graph.conditionsAt(ancestor));
+        }
+
+        List<ScopePath> changed = new ArrayList<>();
+        for (int condition : affected) {
+            boolean result = graph.condition(condition).test(data);
+            if (result == conditionResults[condition]) {
+                continue;
+            }
+            conditionResults[condition] = result;
+            for (int control : graph.controlsOf(condition)) {
+                if (graph.applyRule(control, conditionResults, visible, enabled)) {
+                    changed.add(graph.control(control));
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static void write(ObjectNode root, ScopePath scope, JsonNode value) {
+        Deque<String> path = new ArrayDeque<>();
+        for (ScopePath current = scope; !current.isRoot(); current = current.parent()) {
+            path.push(current.property());
+        }
+        ObjectNode target = root;
+        while (path.size() > 1) {
+            String property = path.pop();
+            JsonNode next = target.get(property);
+            target = next instanceof ObjectNode object ? object : target.putObject(property);
+        }
+        if (value == null) {
+            target.remove(path.pop());
+        } else {
+            target.set(path.pop(), value);
+        }
+    }
+
+    private static void addAll(Set<Integer> target, int[] ids) {
+        if (ids != null) {
+            for (int id : ids) {
+                target.add(id);
+            }
+        }
+    }
+}
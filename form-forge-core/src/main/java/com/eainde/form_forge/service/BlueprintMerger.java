@@ -0,0 +1,267 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.blueprint.DynamicItem;
+import com.eainde.form_forge.models.blueprint.DynamicPayload;
+import com.eainde.form_forge.models.blueprint.FormBlueprint;
+import com.eainde.form_forge.models.blueprint.SectionSlot;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.uischema.*;
+
+import java.util.*;
+
+/**
+ * Reconstructs a full form from a {@link FormBlueprint} and a {@link DynamicPayload}. This is the reference
+ * implementation of the merge that clients perform:
+ * <ol>
+ *     <li>Check that the payload's {@code blueprint} equals the blueprint's {@code version}.</li>
+ *     <li>Copy the blueprint's schema and UI schema.</li>
+ *     <li>Take the blueprint's sections in <em>reverse</em> order. For each section with items in the payload,
+ *     build every item: a full item is used as sent; a templated item is a copy of the section's
+ *     {@code itemSchema} and {@code itemGroup} with the schema's {@code title} and the group's {@code label}
+ *     set to the item's label, and every scope at or below {@code templateScope} rebased onto the item's scope
+ *     (the section's parent scope plus {@code /properties/<key>}). Add each item schema to the properties of
+ *     the object at the section's parent scope under its key, and insert the item groups, in order, into the
+ *     {@code container} list at {@code index}. Working backwards keeps the container paths and indexes of the
+ *     remaining sections valid.</li>
+ *     <li>Replace each schema property listed in {@code properties} and each control listed in
+ *     {@code controls} by the one with the same scope.</li>
+ *     <li>If the payload has {@code definitions}, replace the {@code $defs} of the root schema by them.</li>
+ *     <li>Take the {@code cursors} of the payload.</li>
+ * </ol>
+ * Blueprint parts that are not modified are shared with the result, so neither argument may be modified
+ * while the result is in use.
+ */
+public final class BlueprintMerger {
+
+    private BlueprintMerger() {
+    }
+
+    /**
+     * The schema and UI group of one dynamic-section item.
+     */
+    record Item(SchemaNode schema, UiSchemaGroupElement group) {
+    }
+
+    /**
+     * Merges a blueprint and a payload into the full form.
+     *
+     * @throws IllegalArgumentException if the payload was built for a different blueprint version.
+     */
+    public static JsonFormResponse merge(FormBlueprint blueprint, DynamicPayload payload) {
+        if (!Objects.equals(blueprint.getVersion(), payload.getBlueprint())) {
+            throw new IllegalArgumentException("The payload was built for blueprint " + payload.getBlueprint()
+                    + ", not " + blueprint.getVersion());
+        }
+        JsonSchema schema = copySchema(blueprint.getSchema());
+        UiSchema uischema = new UiSchema();
+        uischema.setType(blueprint.getUischema().getType());
+        for (UiSchemaLayoutElement element : blueprint.getUischema().getElements()) {
+            uischema.getElements().add(copyElement(element, null, null));
+        }
+
+        List<SectionSlot> slots = blueprint.getSections() != null ? blueprint.getSections() : List.of();
+        for (int i = slots.size() - 1; i >= 0; i--) {
+            SectionSlot slot = slots.get(i);
+            List<DynamicItem> items = payload.getSections().get(slot.getSection().toString());
+            if (items == null || items.isEmpty()) {
+                continue;
+            }
+            JsonSchema parent = findObject(schema, slot.getSection().parent());
+            List<UiSchemaGroupElement> groups = new ArrayList<>();
+            for (DynamicItem dynamicItem : items) {
+                Item item = dynamicItem.getSchema() != null
+                        ? new Item(dynamicItem.getSchema(), dynamicItem.getGroup())
+                        : expand(slot, dynamicItem.getKey(), dynamicItem.getLabel());
+                parent.getProperties().put(dynamicItem.getKey(), item.schema());
+                if (item.group() != null) {
+                    groups.add(item.group());
+                }
+            }
+            if (slot.getContainer() != null && !groups.isEmpty()) {
+                findContainer(uischema.getElements(), slot.getContainer()).addAll(slot.getIndex(), groups);
+            }
+        }
+
+        payload.getProperties().forEach((scope, property) -> {
+            ScopePath path = ScopePath.parse(scope);
+            findObject(schema, path.parent()).getProperties().put(path.property(), property);
+        });
+        if (!payload.getControls().isEmpty()) {
+            replaceControls(uischema.getElements(), payload.getControls());
+        }
+        if (payload.getDefinitions() != null) {
+            schema.setDefs(payload.getDefinitions().isEmpty() ? null : new TreeMap<>(payload.getDefinitions()));
+        }
+        return new JsonFormResponse(schema, uischema, payload.getCursors().isEmpty() ? null : payload.getCursors());
+    }
+
+    /**
+     * Builds an item of a section from the section's template.
+     *
+     * @param slot  The section, which must have a template.
+     * @param key   The property key of the item.
+     * @param label The label of the item.
+     */
+    static Item expand(SectionSlot slot, String key, String label) {
+        if (slot.getItemSchema() == null) {
+            throw new IllegalArgumentException("Section " + slot.getSection() + " has no item template; item '" + key
+                    + "' must be sent in full.");
+        }
+        ScopePath itemScope = slot.getSection().parent().child(key);
+        JsonSchema schema = copySchema(slot.getItemSchema());
+        schema.setTitle(label);
+        UiSchemaGroupElement group = (UiSchemaGroupElement) copyElement(slot.getItemGroup(), slot.getTemplateScope(), itemScope);
+        group.setLabel(label);
+        return new Item(schema, group);
+    }
+
+    /**
+     * Rebases a scope from one item onto another; scopes outside {@code from} are returned unchanged.
+     */
+    static ScopePath rebase(ScopePath scope, ScopePath from, ScopePath to) {
+        if (scope == null || from == null || !scope.startsWith(from)) {
+            return scope;
+        }
+        Deque<String> properties = new ArrayDeque<>();
+        for (ScopePath current = scope; current.depth() > from.depth(); current = current.parent()) {
+            properties.push(current.property());
+        }
+        ScopePath rebased = to;
+        for (String property : properties) {
+            rebased = rebased.child(property);
+        }
+        return rebased;
+    }
+
+    /**
+     * Copies the object nodes of a schema tree; property nodes are shared.
+     */
+    private static JsonSchema copySchema(JsonSchema source) {
+        JsonSchema copy = new JsonSchema();
+        copy.setType(source.getType());
+        copy.setTitle(source.getTitle());
+        copy.setDescription(source.getDescription());
+        copy.setRequired(source.getRequired() != null ? new ArrayList<>(source.getRequired()) : null);
+        copy.setDefs(source.getDefs() != null ? new TreeMap<>(source.getDefs()) : null);
+        Map<String, SchemaNode> properties = new HashMap<>();
+        source.getProperties().forEach((key, node) -> properties.put(key, node instanceof JsonSchema nested ? copySchema(nested) : node));
+        copy.setProperties(properties);
+        return copy;
+    }
+
+    /**
+     * Copies a UI element tree, rebasing the scopes at or below {@code from} onto {@code to}. Controls are
+     * shared when nothing is rebased.
+     */
+    private static UiSchemaLayoutElement copyElement(UiSchemaLayoutElement element, ScopePath from, ScopePath to) {
+        if (element instanceof UiSchemaElement control) {
+            if (from == null) {
+                return control;
+            }
+            UiSchemaElement copy = new UiSchemaElement();
+            copy.setScope(rebase(control.getScope(), from, to));
+            copy.setLabel(control.getLabel());
+            copy.setOptions(control.getOptions());
+            copy.setRule(rebaseRule(control.getRule(), from, to));
+            return copy;
+        }
+        UiSchemaLayoutElement copy;
+        if (element instanceof UiSchemaGroupElement group) {
+            UiSchemaGroupElement groupCopy = new UiSchemaGroupElement();
+            groupCopy.setLabel(group.getLabel());
+            copy = groupCopy;
+        } else if (element instanceof UiSchemaHorizontalLayoutElement) {
+            copy = new UiSchemaHorizontalLayoutElement();
+        } else if (element instanceof UiSchemaVerticalLayoutElement) {
+            copy = new UiSchemaVerticalLayoutElement();
+        } else {
+            throw new IllegalStateException("Unsupported UI schema element: " + element.getClass().getName());
+        }
+        List<UiSchemaLayoutElement> target = children(copy);
+        for (UiSchemaLayoutElement child : children(element)) {
+            target.add(copyElement(child, from, to));
+        }
+        return copy;
+    }
+
+    private static Rule rebaseRule(Rule rule, ScopePath from, ScopePath to) {
+        if (rule == null || rule.getCondition() == null) {
+            return rule;
+        }
+        Rule copy = new Rule();
+        copy.setEffect(rule.getEffect());
+        copy.setCondition(rebaseCondition(rule.getCondition(), from, to));
+        return copy;
+    }
+
+    private static Condition rebaseCondition(Condition condition, ScopePath from, ScopePath to) {
+        Condition copy = new Condition();
+        copy.setType(condition.getType());
+        copy.setScope(rebase(condition.getScope(), from, to));
+        copy.setSchema(condition.getSchema());
+        copy.setFailWhenUndefined(condition.getFailWhenUndefined());
+        if (condition.getConditions() != null) {
+            List<Condition> conditions = new ArrayList<>();
+            for (Condition nested : condition.getConditions()) {
+                conditions.add(rebaseCondition(nested, from, to));
+            }
+            copy.setConditions(conditions);
+        }
+        return copy;
+    }
+
+    /**
+     * @return The child elements of a layout or group, or an empty list for a control.
+     */
+    static List<UiSchemaLayoutElement> children(UiSchemaLayoutElement element) {
+        if (element instanceof UiSchemaGroupElement group) {
+            return group.getElements();
+        }
+        if (element instanceof UiSchemaHorizontalLayoutElement layout) {
+            return layout.getElements();
+        }
+        if (element instanceof UiSchemaVerticalLayoutElement layout) {
+            return layout.getElements();
+        }
+        return List.of();
+    }
+
+    /**
+     * @return The schema object at a scope below {@code root}.
+     * @throws IllegalArgumentException if there is no object at the scope.
+     */
+    static JsonSchema findObject(JsonSchema root, ScopePath scope) {
+        if (scope.isRoot()) {
+            return root;
+        }
+        SchemaNode node = findObject(root, scope.parent()).getProperties().get(scope.property());
+        if (!(node instanceof JsonSchema object)) {
+            throw new IllegalArgumentException("The blueprint has no schema object at " + scope);
+        }
+        return object;
+    }
+
+    private static List<UiSchemaLayoutElement> findContainer(List<UiSchemaLayoutElement> elements, List<Integer> path) {
+        List<UiSchemaLayoutElement> container = elements;
+        for (int index : path) {
+            container = children(container.get(index));
+        }
+        return container;
+    }
+
+    static void replaceControls(List<UiSchemaLayoutElement> elements, Map<String, UiSchemaElement> replacements) {
+        for (ListIterator<UiSchemaLayoutElement> it = elements.listIterator(); it.hasNext(); ) {
+            UiSchemaLayoutElement element = it.next();
+            if (element instanceof UiSchemaElement control) {
+                UiSchemaElement replacement = control.getScope() != null ? replacements.get(control.getScope().toString()) : null;
+                if (replacement != null) {
+                    it.set(replacement);
+                }
+            } else {
+                replaceControls(children(element), replacements);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.eainde.form_forge.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded pool of reusable per-call objects, such as the scratch state of a generation.
+ * <p>
+ * Unlike a ThreadLocal, the pool does not tie an object to a thread: virtual threads, of which there can be
+ * many more than generations running at the same time, share the few pooled objects instead of each keeping
+ * its own. Acquiring and releasing are lock-free and allocate nothing. If the pool is empty, the caller creates
+ * a new object, and an object released into a full pool is left to the garbage collector.
+ */
+final class ContextPool<T> {
+
+    private final AtomicReferenceArray<T> slots;
+
+    /**
+     * @param capacity The maximum number of idle objects kept.
+     */
+    ContextPool(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @return An idle object, which the caller owns until it releases it, or null if there is none.
+     */
+    T acquire() {
+        int length = slots.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            T pooled = slots.get(index);
+            if (pooled != null && slots.compareAndSet(index, pooled, null)) {
+                return pooled;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns an object to the pool. The caller must have reset it and must not use it afterwards.
+     */
+    void release(T object) {
+        int length = slots.length();
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            int index = (start + i) % length;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, object)) {
+                return;
+            }
+        }
+    }
+}
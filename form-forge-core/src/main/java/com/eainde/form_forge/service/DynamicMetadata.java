@@ -0,0 +1,734 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.exception.InvalidDynamicMetadataException;
+import com.eainde.form_forge.exception.JsonFormGenerationException;
+import com.eainde.form_forge.metadata.DynamicSectionSpec;
+import com.eainde.form_forge.metadata.FieldMetadata;
+import com.eainde.form_forge.metadata.FormClassMetadata;
+import com.eainde.form_forge.models.uischema.Rule;
+import com.eainde.form_forge.models.uischema.RuleEffect;
+
+import java.util.*;
+
+/**
+ * The dynamic metadata of one form class in typed form, checked against the class when it is built.
+ * <p>
+ * Build it with {@link #builder(Class)}, or convert a metadata map with {@link #of(Class, Map)}. Both report
+ * every problem at once with an {@link InvalidDynamicMetadataException}: fields or dynamic sections the form
+ * does not have, unknown keys, rules on unknown fields or with expected values that do not fit the condition
+ * field's type, and duplicate item keys. Rules are parsed once, when the metadata is built, and are only
+ * placed at their scope during generation. An instance is immutable and can be reused for any number of
+ * generations of its form class.
+ * <pre>{@code
+ * DynamicMetadata metadata = DynamicMetadata.builder(UserProfileDto.class)
+ *         .label("country", "Country of Residence")
+ *         .options("country", List.of("US", "CA"), List.of("United States", "Canada"))
+ *         .dictionary("department", "departments")
+ *         .rule("bio", RuleEffect.SHOW, "active", true)
+ *         .build();
+ * }</pre>
+ * The metadata maps accepted by {@link JsonFormGenerator#generate(Class, Map)} are converted to this form
+ * without checks, so that they keep ignoring what does not apply.
+ */
+public final class DynamicMetadata {
+
+    private static final Set<String> FIELD_KEYS = Set.of("dictionary", "enum", "enumNames", "label", "rule");
+    private static final Set<String> SECTION_KEYS = Set.of("data", "pageSize");
+
+    /**
+     * The dynamic sections reachable from a form class through groups and dynamic-section items, by the name
+     * of their placeholder field. Dynamic metadata is keyed by that name wherever the section is declared.
+     */
+    private static final ClassValue<Map<String, Set<DynamicSectionSpec>>> SECTIONS = new ClassValue<>() {
+        @Override
+        protected Map<String, Set<DynamicSectionSpec>> computeValue(Class<?> type) {
+            Map<String, Set<DynamicSectionSpec>> sections = new HashMap<>();
+            Deque<FormClassMetadata> pending = new ArrayDeque<>();
+            Set<FormClassMetadata> visited = new HashSet<>();
+            pending.push(FormClassMetadata.of(type));
+            while (!pending.isEmpty()) {
+                FormClassMetadata metadata = pending.pop();
+                if (!visited.add(metadata)) {
+                    continue;
+                }
+                for (FieldMetadata field : metadata.fields()) {
+                    if (field.group() != null) {
+                        pending.push(FormClassMetadata.of(field.type()));
+                    } else if (field.field() == null && field.dynamicSection() != null) {
+                        sections.computeIfAbsent(field.name(), name -> new LinkedHashSet<>()).add(field.dynamicSection());
+                        pending.push(FormClassMetadata.of(field.dynamicSection().itemDto()));
+                    }
+                }
+            }
+            return Map.copyOf(sections);
+        }
+    };
+
+    private final Class<?> formClass;
+    private final Map<String, FieldOverride> fields;
+    private final Map<String, Section> sections;
+
+    private DynamicMetadata(Class<?> formClass, Map<String, FieldOverride> fields, Map<String, Section> sections) {
+        this.formClass = formClass;
+        this.fields = fields;
+        this.sections = sections;
+    }
+
+    /**
+     * The overrides of a top-level field.
+     *
+     * @param label      The label of the field's control and the title of its schema, or null.
+     * @param enumValues The allowed values, or null.
+     * @param enumNames  The display names of the allowed values, one per value, or null.
+     * @param dictionary The name of the option dictionary listing the allowed values, or null.
+     * @param rule       The rule of the field's control relative to the root, or null.
+     */
+    record FieldOverride(String label, List<String> enumValues, List<String> enumNames, String dictionary, Rule rule) {
+    }
+
+    /**
+     * One item of a dynamic section.
+     *
+     * @param key        The item key, without the section's property key prefix.
+     * @param label      The item label.
+     * @param fieldRules The rules of the item's fields by field name, relative to the item.
+     */
+    record Item(String key, String label, Map<String, Rule> fieldRules) {
+    }
+
+    /**
+     * The items of a dynamic section, resolved for each declaration of the section.
+     *
+     * @param pageSize The page size overriding the declared one, or null.
+     */
+    record Section(Integer pageSize, Map<DynamicSectionSpec, List<Item>> items) {
+
+        List<Item> items(DynamicSectionSpec spec) {
+            return items.getOrDefault(spec, List.of());
+        }
+    }
+
+    /**
+     * @return The form class the metadata was built for.
+     */
+    public Class<?> getFormClass() {
+        return formClass;
+    }
+
+    Map<String, FieldOverride> fields() {
+        return fields;
+    }
+
+    /**
+     * @return The section with the given placeholder field name, or null.
+     */
+    Section section(String placeholderFieldName) {
+        return sections.get(placeholderFieldName);
+    }
+
+    /**
+     * Ends a metadata event and records it with the size of this metadata, if it is enabled and above its threshold.
+     */
+    void commitEvent(DynamicMetadataEvent event, String phase) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.formClass = formClass;
+        event.phase = phase;
+        event.fieldOverrides = fields.size();
+        event.sections = sections.size();
+        for (Section section : sections.values()) {
+            // Every declaration of a section has the same items.
+            event.sectionItems += section.items().values().stream().findFirst().map(List::size).orElse(0);
+        }
+        event.commit();
+    }
+
+    /**
+     * @return Metadata without overrides and without dynamic-section items.
+     */
+    public static DynamicMetadata empty(Class<?> formClass) {
+        return new DynamicMetadata(formClass, Map.of(), Map.of());
+    }
+
+    public static Builder builder(Class<?> formClass) {
+        return new Builder(formClass);
+    }
+
+    /**
+     * Creates a dynamic-section item for {@link Builder#section}.
+     *
+     * @param key   The item key; the section's property key prefix is prepended to it in the schema.
+     * @param label The label of the item's group.
+     */
+    public static SectionItem item(String key, String label) {
+        return new SectionItem(key, label);
+    }
+
+    /**
+     * Converts and checks a metadata map in the format of {@link JsonFormGenerator#generate(Class, Map)}.
+     * Unlike the generator, it rejects keys that do not apply to the form.
+     *
+     * @throws InvalidDynamicMetadataException if the map does not fit the form.
+     */
+    public static DynamicMetadata of(Class<?> formClass, Map<String, Map<String, Object>> metadata) {
+        Builder builder = new Builder(formClass);
+        if (metadata == null) {
+            return builder.build();
+        }
+        FormClassMetadata root = FormClassMetadata.of(formClass);
+        Map<String, Set<DynamicSectionSpec>> sections = SECTIONS.get(formClass);
+        metadata.forEach((name, properties) -> {
+            if (properties == null) {
+                return;
+            }
+            if (sections.containsKey(name)) {
+                builder.sectionFromMap(name, properties, sections.get(name));
+                return;
+            }
+            FieldMetadata field = root.field(name);
+            if (field == null || field.field() == null || field.group() != null) {
+                builder.problems.add("'" + name + "' is neither a top-level @JsonFormField nor a dynamic section of the form");
+                return;
+            }
+            for (Map.Entry<String, Object> entry : properties.entrySet()) {
+                Object value = entry.getValue();
+                switch (entry.getKey()) {
+                    case "label" -> builder.label(name, String.valueOf(value));
+                    case "dictionary" -> builder.dictionary(name, String.valueOf(value));
+                    case "enum" -> builder.options(name, strings(value, name + ".enum", builder.problems),
+                            strings(properties.get("enumNames"), name + ".enumNames", builder.problems));
+                    case "enumNames" -> {
+                        if (!properties.containsKey("enum")) {
+                            builder.problems.add(name + ".enumNames is set without enum");
+                        }
+                    }
+                    case "rule" -> builder.rule(name, ruleMap(value, name + ".rule", builder.problems));
+                    default -> builder.problems.add("Unknown key '" + entry.getKey() + "' for field '" + name
+                            + "'; expected one of " + new TreeSet<>(FIELD_KEYS));
+                }
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Converts a metadata map the way the generator has always read it: entries that do not apply are ignored,
+     * and rules that cannot be parsed fail as they would have during generation.
+     */
+    @SuppressWarnings("unchecked")
+    static DynamicMetadata lenient(Class<?> formClass, Map<String, Map<String, Object>> metadata) {
+        if (metadata == null || metadata.isEmpty()) {
+            return empty(formClass);
+        }
+        DynamicMetadataEvent event = new DynamicMetadataEvent();
+        event.begin();
+        RuleBuilder rules = new RuleBuilder();
+        FormClassMetadata root = FormClassMetadata.of(formClass);
+        Map<String, Set<DynamicSectionSpec>> declaredSections = SECTIONS.get(formClass);
+        Map<String, FieldOverride> fields = new HashMap<>();
+        Map<String, Section> sections = new HashMap<>();
+        metadata.forEach((name, properties) -> {
+            if (properties == null) {
+                return;
+            }
+            FieldMetadata field = root.field(name);
+            if (field != null && field.field() != null && field.group() == null) {
+                String label = properties.containsKey("label") ? String.valueOf(properties.get("label")) : null;
+                List<String> enumValues = properties.get("enum") instanceof List ? (List<String>) properties.get("enum") : null;
+                List<String> enumNames = enumValues != null && properties.get("enumNames") instanceof List<?> names
+                        && names.size() == enumValues.size() ? (List<String>) names : null;
+                String dictionary = properties.get("dictionary") instanceof String dictionaryName ? dictionaryName : null;
+                Rule rule = properties.get("rule") instanceof Map
+                        ? rules.fromMetadata((Map<String, Object>) properties.get("rule"), formClass) : null;
+                if (label != null || enumValues != null || dictionary != null || rule != null) {
+                    fields.put(name, new FieldOverride(label, enumValues, enumNames, dictionary, rule));
+                }
+            }
+            Set<DynamicSectionSpec> specs = declaredSections.get(name);
+            if (specs != null && properties.get("data") instanceof List<?> data) {
+                Map<DynamicSectionSpec, List<Item>> items = new HashMap<>();
+                for (DynamicSectionSpec spec : specs) {
+                    List<Item> specItems = new ArrayList<>(data.size());
+                    for (Object element : data) {
+                        Map<String, Object> itemData = (Map<String, Object>) element;
+                        Map<String, Rule> fieldRules = new HashMap<>();
+                        if (itemData.get("fieldRules") instanceof Map<?, ?> ruleData) {
+                            ruleData.forEach((fieldName, fieldRule) -> {
+                                Rule rule = fieldRule instanceof Map
+                                        ? rules.fromMetadata((Map<String, Object>) fieldRule, spec.itemDto()) : null;
+                                if (rule != null) {
+                                    fieldRules.put((String) fieldName, rule);
+                                }
+                            });
+                        }
+                        specItems.add(new Item(String.valueOf(itemData.get(spec.propertyKeyField())),
+                                String.valueOf(itemData.get(spec.labelField())), fieldRules));
+                    }
+                    items.put(spec, specItems);
+                }
+                Integer pageSize = properties.get("pageSize") instanceof Number size ? size.intValue() : null;
+                sections.put(name, new Section(pageSize, items));
+            }
+        });
+        DynamicMetadata dynamicMetadata = new DynamicMetadata(formClass, fields, sections);
+        dynamicMetadata.commitEvent(event, DynamicMetadataEvent.PARSE);
+        return dynamicMetadata;
+    }
+
+    private static List<String> strings(Object value, String path, List<String> problems) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof List<?> list && list.stream().allMatch(String.class::isInstance)) {
+            return list.stream().map(String.class::cast).toList();
+        }
+        problems.add(path + " must be a list of strings, got: " + value);
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> ruleMap(Object value, String path, List<String> problems) {
+        if (value instanceof Map<?, ?> map) {
+            return (Map<String, Object>) map;
+        }
+        problems.add(path + " must be a map, got: " + value);
+        return null;
+    }
+
+    /**
+     * A dynamic-section item under construction, with the rules of its fields.
+     */
+    public static final class SectionItem {
+
+        private final String key;
+        private final String label;
+        private final Map<String, Map<String, Object>> fieldRules = new LinkedHashMap<>();
+
+        private SectionItem(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        /**
+         * Adds a rule to a field of the item, with a condition on a field of the same item.
+         */
+        public SectionItem rule(String field, RuleEffect effect, String conditionField, Object expectedValue) {
+            fieldRules.put(field, simpleRule(effect, conditionField, expectedValue));
+            return this;
+        }
+
+        /**
+         * Adds a rule to a field of the item, with a condition map as described in {@link RuleBuilder}.
+         */
+        public SectionItem rule(String field, RuleEffect effect, Map<String, Object> condition) {
+            fieldRules.put(field, conditionRule(effect, condition));
+            return this;
+        }
+    }
+
+    /**
+     * Collects the dynamic metadata of a form and checks it against the form class in {@link #build()}.
+     */
+    public static final class Builder {
+
+        private final Class<?> formClass;
+        private final Map<String, String> labels = new LinkedHashMap<>();
+        private final Map<String, List<String>> enumValues = new LinkedHashMap<>();
+        private final Map<String, List<String>> enumNames = new LinkedHashMap<>();
+        private final Map<String, String> dictionaries = new LinkedHashMap<>();
+        private final Map<String, Map<String, Object>> rules = new LinkedHashMap<>();
+        private final Map<String, List<SectionItem>> sectionItems = new LinkedHashMap<>();
+        private final Map<String, Integer> pageSizes = new LinkedHashMap<>();
+        private final List<String> problems = new ArrayList<>();
+
+        private Builder(Class<?> formClass) {
+            this.formClass = formClass;
+        }
+
+        /**
+         * Sets the label of a top-level field's control and the title of its schema.
+         */
+        public Builder label(String field, String label) {
+            labels.put(field, label);
+            return this;
+        }
+
+        /**
+         * Restricts a top-level field to a list of values.
+         */
+        public Builder options(String field, List<String> values) {
+            return options(field, values, null);
+        }
+
+        /**
+         * Restricts a top-level field to a list of values with display names, one per value.
+         */
+        public Builder options(String field, List<String> values, List<String> names) {
+            enumValues.put(field, values);
+            if (names != null) {
+                enumNames.put(field, names);
+            }
+            return this;
+        }
+
+        /**
+         * Restricts a top-level field to the options of a shared dictionary, see
+         * {@link com.eainde.form_forge.dictionary.OptionDictionaryRegistry}. The dictionary is resolved when the
+         * form is generated, so it does not need to be registered yet.
+         */
+        public Builder dictionary(String field, String dictionary) {
+            dictionaries.put(field, dictionary);
+            return this;
+        }
+
+        /**
+         * Sets the rule of a top-level field's control, with a condition on another top-level field.
+         */
+        public Builder rule(String field, RuleEffect effect, String conditionField, Object expectedValue) {
+            rules.put(field, simpleRule(effect, conditionField, expectedValue));
+            return this;
+        }
+
+        /**
+         * Sets the rule of a top-level field's control, with a condition map as described in {@link RuleBuilder}.
+         */
+        public Builder rule(String field, RuleEffect effect, Map<String, Object> condition) {
+            rules.put(field, conditionRule(effect, condition));
+            return this;
+        }
+
+        private Builder rule(String field, Map<String, Object> ruleData) {
+            if (ruleData != null) {
+                rules.put(field, ruleData);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the items of a dynamic section.
+         *
+         * @param placeholderField The name of the field annotated with @JsonFormDynamicSection.
+         */
+        public Builder section(String placeholderField, List<SectionItem> items) {
+            sectionItems.put(placeholderField, List.copyOf(items));
+            return this;
+        }
+
+        /**
+         * Overrides the page size of a dynamic section; 0 generates all items at once.
+         */
+        public Builder pageSize(String placeholderField, int pageSize) {
+            pageSizes.put(placeholderField, pageSize);
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void sectionFromMap(String name, Map<String, Object> properties, Set<DynamicSectionSpec> specs) {
+            for (String key : properties.keySet()) {
+                if (!SECTION_KEYS.contains(key)) {
+                    problems.add("Unknown key '" + key + "' for dynamic section '" + name + "'; expected one of "
+                            + new TreeSet<>(SECTION_KEYS));
+                }
+            }
+            if (properties.get("pageSize") != null) {
+                if (properties.get("pageSize") instanceof Number size) {
+                    pageSize(name, size.intValue());
+                } else {
+                    problems.add(name + ".pageSize must be a number, got: " + properties.get("pageSize"));
+                }
+            }
+            Object data = properties.get("data");
+            if (data == null) {
+                return;
+            }
+            DynamicSectionSpec spec = specs.iterator().next();
+            boolean sameFields = specs.stream().allMatch(other -> other.propertyKeyField().equals(spec.propertyKeyField())
+                    && other.labelField().equals(spec.labelField()));
+            if (!sameFields) {
+                problems.add("Dynamic sections named '" + name + "' read their key and label from different fields");
+                return;
+            }
+            if (!(data instanceof List<?> list)) {
+                problems.add(name + ".data must be a list, got: " + data);
+                return;
+            }
+            List<SectionItem> items = new ArrayList<>(list.size());
+            for (int i = 0; i < list.size(); i++) {
+                String path = name + ".data[" + i + "]";
+                if (!(list.get(i) instanceof Map<?, ?> itemData)) {
+                    problems.add(path + " must be a map, got: " + list.get(i));
+                    continue;
+                }
+                Object key = itemData.get(spec.propertyKeyField());
+                if (key == null) {
+                    problems.add(path + " has no '" + spec.propertyKeyField() + "'");
+                    continue;
+                }
+                Object label = itemData.get(spec.labelField());
+                SectionItem item = new SectionItem(String.valueOf(key), label != null ? String.valueOf(label) : null);
+                if (itemData.get("fieldRules") instanceof Map<?, ?> fieldRules) {
+                    fieldRules.forEach((field, ruleData) -> {
+                        Map<String, Object> rule = ruleMap(ruleData, path + ".fieldRules." + field, problems);
+                        if (rule != null) {
+                            item.fieldRules.put(String.valueOf(field), rule);
+                        }
+                    });
+                } else if (itemData.get("fieldRules") != null) {
+                    problems.add(path + ".fieldRules must be a map, got: " + itemData.get("fieldRules"));
+                }
+                items.add(item);
+            }
+            section(name, items);
+        }
+
+        /**
+         * Checks the collected metadata against the form class and resolves it.
+         *
+         * @throws InvalidDynamicMetadataException if anything does not fit the form.
+         */
+        public DynamicMetadata build() {
+            DynamicMetadataEvent event = new DynamicMetadataEvent();
+            event.begin();
+            List<String> problems = new ArrayList<>(this.problems);
+            FormClassMetadata root = FormClassMetadata.of(formClass);
+            if (root.form() == null) {
+                problems.add(formClass.getName() + " is not annotated with @JsonForm");
+                throw new InvalidDynamicMetadataException(formClass, problems);
+            }
+            RuleBuilder ruleBuilder = new RuleBuilder();
+
+            Set<String> overridden = new LinkedHashSet<>();
+            overridden.addAll(labels.keySet());
+            overridden.addAll(enumValues.keySet());
+            overridden.addAll(dictionaries.keySet());
+            overridden.addAll(rules.keySet());
+            Map<String, FieldOverride> fields = new HashMap<>();
+            for (String name : overridden) {
+                FieldMetadata field = root.field(name);
+                if (field == null || field.field() == null || field.group() != null) {
+                    problems.add("'" + name + "' is not a top-level @JsonFormField of " + formClass.getSimpleName());
+                    continue;
+                }
+                List<String> values = enumValues.get(name);
+                List<String> names = enumNames.get(name);
+                if (values != null && values.isEmpty()) {
+                    problems.add("Options of '" + name + "' must not be empty");
+                }
+                if (values != null && names != null && names.size() != values.size()) {
+                    problems.add("'" + name + "' has " + values.size() + " options but " + names.size() + " names");
+                }
+                String dictionary = dictionaries.get(name);
+                if (values != null && dictionary != null) {
+                    problems.add("'" + name + "' has both options and the dictionary '" + dictionary + "'");
+                }
+                Rule rule = rules.containsKey(name)
+                        ? checkedRule(ruleBuilder, rules.get(name), formClass, "Rule of '" + name + "'", problems) : null;
+                fields.put(name, new FieldOverride(labels.get(name), values != null ? List.copyOf(values) : null,
+                        names != null ? List.copyOf(names) : null, dictionary, rule));
+            }
+
+            Map<String, Set<DynamicSectionSpec>> declaredSections = SECTIONS.get(formClass);
+            Set<String> sectionNames = new LinkedHashSet<>(sectionItems.keySet());
+            sectionNames.addAll(pageSizes.keySet());
+            Map<String, Section> sections = new HashMap<>();
+            for (String name : sectionNames) {
+                Set<DynamicSectionSpec> specs = declaredSections.get(name);
+                if (specs == null) {
+                    problems.add("'" + name + "' is not a dynamic section of " + formClass.getSimpleName());
+                    continue;
+                }
+                Integer pageSize = pageSizes.get(name);
+                if (pageSize != null && pageSize < 0) {
+                    problems.add("Page size of '" + name + "' must not be negative");
+                }
+                Set<Class<?>> itemDtos = new HashSet<>();
+                specs.forEach(spec -> itemDtos.add(spec.itemDto()));
+                List<SectionItem> items = sectionItems.getOrDefault(name, List.of());
+                if (itemDtos.size() > 1 && items.stream().anyMatch(item -> !item.fieldRules.isEmpty())) {
+                    problems.add("Dynamic sections named '" + name + "' have different item classes, so their field rules are ambiguous");
+                    continue;
+                }
+                Class<?> itemDto = itemDtos.iterator().next();
+                Set<String> itemFields = itemFields(itemDto);
+                Set<String> keys = new HashSet<>();
+                List<Item> resolved = new ArrayList<>(items.size());
+                for (SectionItem item : items) {
+                    String path = name + "[" + item.key + "]";
+                    if (item.key == null) {
+                        problems.add("An item of '" + name + "' has no key");
+                        continue;
+                    }
+                    if (!keys.add(item.key)) {
+                        problems.add("Duplicate item key '" + item.key + "' in '" + name + "'");
+                    }
+                    Map<String, Rule> fieldRules = new HashMap<>();
+                    item.fieldRules.forEach((field, ruleData) -> {
+                        if (!itemFields.contains(field)) {
+                            problems.add(path + " has a rule for '" + field + "', which is not a @JsonFormField of "
+                                    + itemDto.getSimpleName());
+                            return;
+                        }
+                        Rule rule = checkedRule(ruleBuilder, ruleData, itemDto, path + " rule of '" + field + "'", problems);
+                        if (rule != null) {
+                            fieldRules.put(field, rule);
+                        }
+                    });
+                    resolved.add(new Item(item.key, String.valueOf(item.label), Map.copyOf(fieldRules)));
+                }
+                List<Item> sectionList = List.copyOf(resolved);
+                Map<DynamicSectionSpec, List<Item>> bySpec = new HashMap<>();
+                specs.forEach(spec -> bySpec.put(spec, sectionList));
+                sections.put(name, new Section(pageSize, Map.copyOf(bySpec)));
+            }
+
+            if (!problems.isEmpty()) {
+                throw new InvalidDynamicMetadataException(formClass, problems);
+            }
+            DynamicMetadata dynamicMetadata = new DynamicMetadata(formClass, Map.copyOf(fields), Map.copyOf(sections));
+            dynamicMetadata.commitEvent(event, DynamicMetadataEvent.PARSE);
+            return dynamicMetadata;
+        }
+    }
+
+    /**
+     * Parses a rule after checking its effect and the fields and values of its condition against the class
+     * the condition fields belong to.
+     *
+     * @return The rule, or null if a problem was found.
+     */
+    private static Rule checkedRule(RuleBuilder ruleBuilder, Map<String, Object> ruleData, Class<?> baseClass,
+                                    String path, List<String> problems) {
+        int problemCount = problems.size();
+        Object effect = ruleData.get("effect");
+        if (effect == null) {
+            problems.add(path + " has no effect");
+        } else if (effect instanceof String name && Arrays.stream(RuleEffect.values()).noneMatch(value -> value.name().equalsIgnoreCase(name))) {
+            problems.add(path + " has an unknown effect '" + effect + "'; expected one of " + Arrays.toString(RuleEffect.values()));
+        } else if (!(effect instanceof String) && !(effect instanceof RuleEffect)) {
+            problems.add(path + " has an invalid effect: " + effect);
+        }
+        for (String key : ruleData.keySet()) {
+            if (!Set.of("effect", "condition", "conditionField", "expectedValue").contains(key)) {
+                problems.add(path + " has an unknown key '" + key + "'");
+            }
+        }
+        if (ruleData.get("condition") instanceof Map<?, ?> condition) {
+            checkConditionFields(condition, baseClass, path, problems);
+        } else if (ruleData.get("conditionField") instanceof String conditionField) {
+            if (ruleData.get("expectedValue") == null) {
+                problems.add(path + " has no expectedValue");
+            } else {
+                checkValue(ruleData.get("expectedValue"), baseClass, conditionField, path, problems);
+            }
+        } else {
+            problems.add(path + " needs a condition map or a conditionField");
+        }
+        if (problems.size() > problemCount) {
+            return null;
+        }
+        try {
+            return ruleBuilder.fromMetadata(ruleData, baseClass);
+        } catch (JsonFormGenerationException e) {
+            problems.add(path + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void checkConditionFields(Map<?, ?> condition, Class<?> baseClass, String path, List<String> problems) {
+        for (String composite : List.of("and", "or")) {
+            if (condition.get(composite) instanceof List<?> children) {
+                for (Object child : children) {
+                    if (child instanceof Map<?, ?> childMap) {
+                        checkConditionFields(childMap, baseClass, path, problems);
+                    }
+                }
+            }
+        }
+        if (condition.get("not") instanceof Map<?, ?> negated) {
+            checkConditionFields(negated, baseClass, path, problems);
+        }
+        if (condition.get("field") instanceof String field) {
+            checkValue(condition.get("const"), baseClass, field, path, problems);
+            if (condition.get("enum") instanceof List<?> values) {
+                for (Object value : values) {
+                    checkValue(value, baseClass, field, path, problems);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that a condition field exists and that an expected value, if given, can be parsed into its type.
+     */
+    private static void checkValue(Object value, Class<?> baseClass, String field, String path, List<String> problems) {
+        FieldMetadata conditionField = FormClassMetadata.of(baseClass).field(field);
+        if (conditionField == null) {
+            problems.add(path + " depends on '" + field + "', which is not a field of " + baseClass.getSimpleName());
+            return;
+        }
+        if (value == null || !(value instanceof String) && !(value instanceof Boolean) && !(value instanceof Number)) {
+            return;
+        }
+        String text = String.valueOf(value);
+        Class<?> type = conditionField.type();
+        boolean valid = true;
+        try {
+            if (type == boolean.class || type == Boolean.class) {
+                valid = text.equalsIgnoreCase("true") || text.equalsIgnoreCase("false");
+            } else if (type == int.class || type == Integer.class) {
+                Integer.parseInt(text);
+            } else if (type == long.class || type == Long.class) {
+                Long.parseLong(text);
+            } else if (type == double.class || type == Double.class) {
+                Double.parseDouble(text);
+            }
+        } catch (NumberFormatException e) {
+            valid = false;
+        }
+        if (!valid) {
+            problems.add(path + " expects '" + value + "' for '" + field + "', which is not a valid " + type.getSimpleName());
+        }
+    }
+
+    /**
+     * @return The @JsonFormField names of a dynamic-section item class and its nested groups, the fields that
+     * per-item rules can apply to.
+     */
+    private static Set<String> itemFields(Class<?> itemDto) {
+        Set<String> names = new HashSet<>();
+        Deque<FormClassMetadata> pending = new ArrayDeque<>();
+        Set<FormClassMetadata> visited = new HashSet<>();
+        pending.push(FormClassMetadata.of(itemDto));
+        while (!pending.isEmpty()) {
+            FormClassMetadata metadata = pending.pop();
+            if (!visited.add(metadata)) {
+                continue;
+            }
+            for (FieldMetadata field : metadata.fields()) {
+                if (field.group() != null) {
+                    pending.push(FormClassMetadata.of(field.type()));
+                } else if (field.field() != null) {
+                    names.add(field.name());
+                }
+            }
+        }
+        return names;
+    }
+
+    private static Map<String, Object> simpleRule(RuleEffect effect, String conditionField, Object expectedValue) {
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("effect", effect);
+        rule.put("conditionField", conditionField);
+        rule.put("expectedValue", expectedValue);
+        return rule;
+    }
+
+    private static Map<String, Object> conditionRule(RuleEffect effect, Map<String, Object> condition) {
+        Map<String, Object> rule = new HashMap<>();
+        rule.put("effect", effect);
+        rule.put("condition", condition);
+        return rule;
+    }
+}
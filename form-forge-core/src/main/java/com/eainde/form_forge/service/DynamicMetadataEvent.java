@@ -0,0 +1,38 @@
+package com.eainde.form_forge.service;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event for a dynamic-metadata phase: parsing a map or builder into {@link DynamicMetadata},
+ * or applying its field overrides to a generated form.
+ * <p>
+ * Disabled by default; the detailed mode of {@code form-forge.jfc} enables it with stack traces.
+ */
+@Name(DynamicMetadataEvent.NAME)
+@Label("Dynamic Metadata")
+@Category({"Form Forge", "Generation"})
+@Description("Dynamic metadata parsed or applied to a form")
+@Enabled(false)
+@StackTrace(false)
+final class DynamicMetadataEvent extends Event {
+
+    static final String NAME = "com.eainde.formforge.DynamicMetadata";
+
+    static final String PARSE = "parse";
+    static final String APPLY = "apply";
+
+    @Label("Form Class")
+    Class<?> formClass;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Field Overrides")
+    int fieldOverrides;
+
+    @Label("Sections")
+    int sections;
+
+    @Label("Section Items")
+    int sectionItems;
+}
@@ -0,0 +1,39 @@
+package com.eainde.form_forge.service;
+
+import jdk.jfr.*;
+
+/**
+ * JDK Flight Recorder event for one dynamic section of a generation, from the creation of its item groups
+ * until its last item and everything nested in it has been generated.
+ * <p>
+ * Disabled by default; the detailed mode of {@code form-forge.jfc} enables it with stack traces.
+ */
+@Name(DynamicSectionEvent.NAME)
+@Label("Dynamic Section")
+@Category({"Form Forge", "Generation"})
+@Description("The items of a dynamic section expanded by JsonFormGenerator")
+@Enabled(false)
+@StackTrace(false)
+final class DynamicSectionEvent extends Event {
+
+    static final String NAME = "com.eainde.formforge.DynamicSection";
+
+    @Label("Form Class")
+    Class<?> formClass;
+
+    @Label("Section")
+    @Description("The scope of the section's placeholder field")
+    String section;
+
+    @Label("Items")
+    @Description("Items generated in this call")
+    int items;
+
+    @Label("Total Items")
+    @Description("Items in the dynamic metadata of the section")
+    int totalItems;
+
+    @Label("Page Size")
+    @Description("The page size of the section, 0 if it is not paginated")
+    int pageSize;
+}
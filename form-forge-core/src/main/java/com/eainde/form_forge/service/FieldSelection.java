@@ -0,0 +1,108 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.models.uischema.ScopePath;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The subtrees of a form requested by field paths. A path is either a dotted list of property names
+ * ({@code personalDetails.email}, {@code emp_101}) or a scope ({@code #/properties/personalDetails}).
+ * <p>
+ * A scope is <em>covered</em> if it is a requested path or lies below one, and <em>included</em> if it is
+ * covered or lies on the way to a requested path. Covered objects are generated completely; objects that are
+ * only included are generated with just the children that are included themselves. Both are answered from the
+ * ancestors of the scope, so the cost does not depend on the number of paths.
+ */
+final class FieldSelection {
+
+    private final List<ScopePath> paths;
+    private final Set<ScopePath> covered;
+    private final Set<ScopePath> ancestors;
+
+    private FieldSelection(List<ScopePath> paths, Set<ScopePath> covered, Set<ScopePath> ancestors) {
+        this.paths = paths;
+        this.covered = covered;
+        this.ancestors = ancestors;
+    }
+
+    /**
+     * @return The selection of the given paths, or null if no paths are given, which selects the whole form.
+     * @throws IllegalArgumentException if a path is blank or malformed.
+     */
+    static FieldSelection of(Collection<String> paths) {
+        if (paths == null || paths.isEmpty()) {
+            return null;
+        }
+        List<ScopePath> scopes = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            scopes.add(parse(path));
+        }
+        return new FieldSelection(List.copyOf(scopes), new HashSet<>(), new HashSet<>()).cover(scopes);
+    }
+
+    /**
+     * Dynamic-section items are generated next to the section's placeholder field rather than below it, so a
+     * covered section covers its items through this selection.
+     *
+     * @return A selection that also covers the given scopes; its {@link #paths()} are unchanged.
+     */
+    FieldSelection withCovered(Collection<ScopePath> scopes) {
+        return new FieldSelection(paths, new HashSet<>(covered), new HashSet<>(ancestors)).cover(scopes);
+    }
+
+    private FieldSelection cover(Collection<ScopePath> scopes) {
+        for (ScopePath scope : scopes) {
+            covered.add(scope);
+            for (ScopePath ancestor = scope; !ancestor.isRoot(); ) {
+                ancestor = ancestor.parent();
+                if (!ancestors.add(ancestor)) {
+                    break;
+                }
+            }
+        }
+        return this;
+    }
+
+    private static ScopePath parse(String path) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Field paths must not be blank");
+        }
+        if (path.startsWith("#")) {
+            return ScopePath.parse(path);
+        }
+        ScopePath scope = ScopePath.ROOT;
+        for (String property : path.split("\\.", -1)) {
+            if (property.isEmpty()) {
+                throw new IllegalArgumentException("Malformed field path: '" + path + "'");
+            }
+            scope = scope.child(property);
+        }
+        return scope;
+    }
+
+    /**
+     * @return The requested paths, as parsed.
+     */
+    List<ScopePath> paths() {
+        return paths;
+    }
+
+    boolean covers(ScopePath scope) {
+        for (ScopePath current = scope; ; current = current.parent()) {
+            if (covered.contains(current)) {
+                return true;
+            }
+            if (current.isRoot()) {
+                return false;
+            }
+        }
+    }
+
+    boolean includes(ScopePath scope) {
+        return ancestors.contains(scope) || covers(scope);
+    }
+}
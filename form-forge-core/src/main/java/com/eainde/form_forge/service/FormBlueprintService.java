@@ -0,0 +1,521 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.metadata.DynamicSectionSpec;
+import com.eainde.form_forge.metadata.FieldMetadata;
+import com.eainde.form_forge.metadata.FormClassMetadata;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.blueprint.DynamicItem;
+import com.eainde.form_forge.models.blueprint.DynamicPayload;
+import com.eainde.form_forge.models.blueprint.FormBlueprint;
+import com.eainde.form_forge.models.blueprint.SectionSlot;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.schema.SchemaReference;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.models.uischema.UiSchemaElement;
+import com.eainde.form_forge.models.uischema.UiSchemaGroupElement;
+import com.eainde.form_forge.models.uischema.UiSchemaLayoutElement;
+import com.eainde.form_forge.service.JsonFormGenerator.GeneratedItem;
+import com.eainde.form_forge.store.BlueprintStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Splits forms into a static {@link FormBlueprint} and a per-request {@link DynamicPayload}, which
+ * {@link BlueprintMerger} combines back into the full form.
+ * <p>
+ * The blueprint is the form generated without dynamic metadata. The insertion point and item template of
+ * each dynamic section are found by generating the form once more with a single placeholder item per section
+ * and locating the placeholder items in the result. A section gets no template if its item type contains
+ * dynamic sections or recursive references, because its items then differ in more than their key and label.
+ * <p>
+ * A payload is built from the full generation: controls and schema properties that differ from the blueprint
+ * are sent as replacements, and each dynamic-section item is compared node by node with its section's template
+ * by an {@link ItemTemplateMatcher}, without expanding or serializing the template. Items that only differ in
+ * controls or properties are sent as key and label plus those replacements; any other item is sent in full. The merged form therefore always equals the generated one.
+ * <p>
+ * {@link #stream} delivers the same payload progressively, one item at a time, after the blueprint.
+ * <p>
+ * Blueprints are cached per form class. A blueprint contains the option dictionaries its static fields use,
+ * so it is rebuilt when one of them changes, see {@link #invalidateDictionary}; dictionaries that only
+ * dynamic-section items or dynamic metadata refer to are sent with the payload.
+ * <p>
+ * With a {@link BlueprintStore}, blueprints built by one service, e.g. on another node of the deployment or
+ * before a restart, are reused instead of being built again. The store key is derived from the
+ * {@link FormCodeDigest} of the form, so a changed class, library build or dictionary leads to a new key, and
+ * an entry is only used if its version matches its content.
+ */
+public class FormBlueprintService {
+
+    private static final String PLACEHOLDER_KEY = "{item}";
+    private static final String PLACEHOLDER_LABEL = "{label}";
+    private static final String STORE_FORMAT = "form-forge-blueprint/2";
+    private static final System.Logger LOGGER = System.getLogger(FormBlueprintService.class.getName());
+
+    private final JsonFormGenerator generator;
+    private final BlueprintStore store;
+    private final ObjectMapper canonicalMapper;
+    /**
+     * Writes and reads stored blueprints in their generated key order, so they serialize to the same bytes as
+     * a freshly built blueprint.
+     */
+    private final ObjectMapper storeMapper = new ObjectMapper();
+    private final Map<Class<?>, CompletableFuture<FormBlueprint>> blueprints = new ConcurrentHashMap<>();
+
+    /**
+     * @param generator The generator the blueprints and payloads are generated with.
+     */
+    public FormBlueprintService(JsonFormGenerator generator) {
+        this(generator, null);
+    }
+
+    /**
+     * @param generator The generator the blueprints and payloads are generated with.
+     * @param store     The store blueprints are shared through, or null to build every blueprint locally.
+     */
+    public FormBlueprintService(JsonFormGenerator generator, BlueprintStore store) {
+        this.generator = generator;
+        this.store = store;
+        this.canonicalMapper = new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    /**
+     * Returns the cached blueprint of a form. The first caller loads it, outside of the cache's locks, since
+     * loading reads the store and hashes class files; concurrent callers wait for that blueprint.
+     *
+     * @param formClass The @JsonForm-annotated class.
+     * @return The cached blueprint of the form.
+     */
+    public FormBlueprint blueprint(Class<?> formClass) {
+        CompletableFuture<FormBlueprint> blueprint = blueprints.get(formClass);
+        if (blueprint == null) {
+            CompletableFuture<FormBlueprint> loading = new CompletableFuture<>();
+            blueprint = blueprints.putIfAbsent(formClass, loading);
+            if (blueprint == null) {
+                try {
+                    loading.complete(loadBlueprint(formClass));
+                } catch (RuntimeException | Error e) {
+                    // Let the next caller try again.
+                    blueprints.remove(formClass, loading);
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+                return loading.join();
+            }
+        }
+        try {
+            return blueprint.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached blueprints that contain an option dictionary, e.g. when it was replaced, so that they
+     * are rebuilt with its new version on their next use. Blueprints that are still being loaded are dropped
+     * as well, since they may have been built with the previous version.
+     *
+     * @return The number of dropped blueprints that contained the dictionary.
+     */
+    public int invalidateDictionary(String dictionary) {
+        int removed = 0;
+        for (Map.Entry<Class<?>, CompletableFuture<FormBlueprint>> entry : blueprints.entrySet()) {
+            CompletableFuture<FormBlueprint> blueprint = entry.getValue();
+            if (!blueprint.isDone() || blueprint.isCompletedExceptionally()) {
+                blueprints.remove(entry.getKey(), blueprint);
+                continue;
+            }
+            Map<String, SchemaNode> definitions = blueprint.join().getSchema().getDefs();
+            if (definitions != null && definitions.containsKey(dictionary) && blueprints.remove(entry.getKey(), blueprint)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Generates a form with the given dynamic metadata and returns what differs from its blueprint.
+     *
+     * @param formClass       The @JsonForm-annotated class.
+     * @param dynamicMetadata The dynamic metadata, as for {@link JsonFormGenerator#generate}.
+     * @return The payload that turns {@link #blueprint(Class)} into the generated form.
+     */
+    public DynamicPayload payload(Class<?> formClass, Map<String, Map<String, Object>> dynamicMetadata) {
+        return payload(formClass, DynamicMetadata.lenient(formClass, dynamicMetadata));
+    }
+
+    /**
+     * Like {@link #payload(Class, Map)}, with dynamic metadata that has already been checked and parsed.
+     */
+    public DynamicPayload payload(Class<?> formClass, DynamicMetadata dynamicMetadata) {
+        List<DynamicPayload> items = new ArrayList<>();
+        DynamicPayload payload = generatePayload(formClass, dynamicMetadata, items::add);
+        for (DynamicPayload item : items) {
+            item.getSections().forEach((section, sectionItems) ->
+                    payload.getSections().computeIfAbsent(section, key -> new ArrayList<>()).addAll(sectionItems));
+            payload.getControls().putAll(item.getControls());
+            payload.getProperties().putAll(item.getProperties());
+        }
+        return payload;
+    }
+
+    /**
+     * Sends a form to a listener as its blueprint, followed by each dynamic-section item as soon as it has been
+     * generated and finally the rest of the payload. The blueprint is sent before generation starts, so the
+     * time until the client can render the form does not depend on its size.
+     *
+     * @param formClass       The @JsonForm-annotated class.
+     * @param dynamicMetadata The dynamic metadata, as for {@link JsonFormGenerator#generate}.
+     * @param listener        Receives the pieces of the form.
+     */
+    public void stream(Class<?> formClass, Map<String, Map<String, Object>> dynamicMetadata, FormStreamListener listener) {
+        stream(formClass, DynamicMetadata.lenient(formClass, dynamicMetadata), listener);
+    }
+
+    /**
+     * Like {@link #stream(Class, Map, FormStreamListener)}, with dynamic metadata that has already been checked
+     * and parsed.
+     */
+    public void stream(Class<?> formClass, DynamicMetadata dynamicMetadata, FormStreamListener listener) {
+        listener.blueprint(blueprint(formClass));
+        streamPayload(formClass, dynamicMetadata, listener);
+    }
+
+    /**
+     * Like {@link #stream(Class, Map, FormStreamListener)}, for a caller that has already sent the listener the
+     * {@link #blueprint(Class)}, e.g. before waiting for admission: only the items and the rest of the payload
+     * are sent.
+     */
+    public void streamPayload(Class<?> formClass, Map<String, Map<String, Object>> dynamicMetadata, FormStreamListener listener) {
+        streamPayload(formClass, DynamicMetadata.lenient(formClass, dynamicMetadata), listener);
+    }
+
+    /**
+     * Like {@link #streamPayload(Class, Map, FormStreamListener)}, with dynamic metadata that has already been
+     * checked and parsed.
+     */
+    public void streamPayload(Class<?> formClass, DynamicMetadata dynamicMetadata, FormStreamListener listener) {
+        listener.complete(generatePayload(formClass, dynamicMetadata, listener::item));
+    }
+
+    /**
+     * Generates a form and passes each item of a blueprint section to {@code items} as a single-item payload
+     * once it is complete. Items of sections nested in other items are part of the enclosing item.
+     *
+     * @return The controls and properties that differ from the blueprint, and the cursors.
+     */
+    private DynamicPayload generatePayload(Class<?> formClass, DynamicMetadata dynamicMetadata,
+                                           Consumer<DynamicPayload> items) {
+        FormBlueprint blueprint = blueprint(formClass);
+        Map<ScopePath, SectionSlot> slots = new HashMap<>();
+        for (SectionSlot slot : blueprint.getSections()) {
+            slots.put(slot.getSection(), slot);
+        }
+        JsonFormResponse form = generator.generate(formClass, dynamicMetadata, item -> {
+            SectionSlot slot = slots.get(item.section());
+            if (slot != null) {
+                DynamicPayload itemPayload = new DynamicPayload(blueprint.getVersion());
+                DynamicItem dynamicItem = templated(slot, item, itemPayload);
+                if (dynamicItem == null) {
+                    dynamicItem = DynamicItem.full(item.key(), item.schema(), item.group());
+                }
+                itemPayload.getSections().put(item.section().toString(), List.of(dynamicItem));
+                items.accept(itemPayload);
+            }
+        });
+        DynamicPayload payload = new DynamicPayload(blueprint.getVersion());
+
+        Map<ScopePath, UiSchemaElement> controls = controls(form.getUischema().getElements());
+        controls(blueprint.getUischema().getElements()).forEach((scope, control) -> {
+            UiSchemaElement generated = controls.get(scope);
+            if (generated != null && !generated.equals(control)) {
+                payload.getControls().put(scope.toString(), generated);
+            }
+        });
+        Map<ScopePath, SchemaProperty> properties = properties(form.getSchema(), ScopePath.ROOT);
+        properties(blueprint.getSchema(), ScopePath.ROOT).forEach((scope, property) -> {
+            SchemaProperty generated = properties.get(scope);
+            if (generated != null && !generated.equals(property)) {
+                payload.getProperties().put(scope.toString(), generated);
+            }
+        });
+        if (form.getCursors() != null) {
+            payload.getCursors().putAll(form.getCursors());
+        }
+        Map<String, SchemaNode> definitions = form.getSchema().getDefs() != null ? form.getSchema().getDefs() : Map.of();
+        Map<String, SchemaNode> blueprintDefinitions = blueprint.getSchema().getDefs() != null ? blueprint.getSchema().getDefs() : Map.of();
+        if (!definitions.equals(blueprintDefinitions)) {
+            payload.setDefinitions(new TreeMap<>(definitions));
+        }
+        return payload;
+    }
+
+    /**
+     * Describes an item by its key and label if it equals its expanded template with some controls and
+     * properties replaced. The replacements are added to the payload only in that case.
+     *
+     * @return The templated item, or null if the item has to be sent in full.
+     */
+    private DynamicItem templated(SectionSlot slot, GeneratedItem item, DynamicPayload payload) {
+        if (slot.getItemSchema() == null || item.group() == null || !(item.schema() instanceof JsonSchema schema)) {
+            return null;
+        }
+        ItemTemplateMatcher matcher = new ItemTemplateMatcher(slot, item.section().parent().child(item.key()));
+        if (!matcher.matches(slot, schema, item.group())) {
+            return null;
+        }
+        payload.getControls().putAll(matcher.controls());
+        payload.getProperties().putAll(matcher.properties());
+        return DynamicItem.templated(item.key(), item.group().getLabel());
+    }
+
+    /**
+     * Reads a blueprint from the store, or builds it and adds it to the store. A failing store is reported and
+     * otherwise ignored, since the blueprint can always be built.
+     */
+    private FormBlueprint loadBlueprint(Class<?> formClass) {
+        if (store == null) {
+            return buildBlueprint(formClass);
+        }
+        String key = null;
+        try {
+            key = storeKey(formClass);
+            byte[] stored = key != null ? store.get(key) : null;
+            if (stored != null) {
+                FormBlueprint blueprint = readBlueprint(stored);
+                if (blueprint != null) {
+                    return blueprint;
+                }
+                LOGGER.log(System.Logger.Level.WARNING, "Stored blueprint " + key + " of form '" + formClass.getName()
+                        + "' does not match its version and will be rebuilt");
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to read the blueprint of form '" + formClass.getName()
+                    + "' from the blueprint store", e);
+        }
+        FormBlueprint blueprint = buildBlueprint(formClass);
+        if (key != null) {
+            try {
+                store.put(key, storeMapper.writeValueAsBytes(blueprint));
+            } catch (JsonProcessingException | RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to add the blueprint of form '" + formClass.getName()
+                        + "' to the blueprint store", e);
+            }
+        }
+        return blueprint;
+    }
+
+    /**
+     * @return The stored blueprint, or null if it cannot be read or its version is not the hash of its content.
+     */
+    private FormBlueprint readBlueprint(byte[] stored) {
+        FormBlueprint blueprint;
+        try {
+            blueprint = storeMapper.readValue(stored, FormBlueprint.class);
+        } catch (IOException e) {
+            return null;
+        }
+        String version = blueprint.getVersion();
+        blueprint.setVersion(null);
+        if (version == null || !version.equals(sha256(canonicalJson(blueprint)))) {
+            return null;
+        }
+        blueprint.setVersion(version);
+        return blueprint;
+    }
+
+    /**
+     * @return The store key of the form's blueprint, or null if the code it depends on cannot be read.
+     */
+    private String storeKey(Class<?> formClass) {
+        MessageDigest digest = newSha256();
+        digest.update(STORE_FORMAT.getBytes(StandardCharsets.UTF_8));
+        return FormCodeDigest.update(digest, formClass, generator.dictionaries()) ? HexFormat.of().formatHex(digest.digest()) : null;
+    }
+
+    private FormBlueprint buildBlueprint(Class<?> formClass) {
+        JsonFormResponse form = generator.generate(formClass, Map.of());
+
+        List<GeneratedItem> placeholders = new ArrayList<>();
+        JsonFormResponse placeholderForm = generator.generate(formClass,
+                DynamicMetadata.lenient(formClass, placeholderMetadata(formClass)), placeholders::add);
+        List<SectionSlot> slots = new ArrayList<>();
+        Set<UiSchemaGroupElement> placeholderGroups = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GeneratedItem item : placeholders) {
+            if (item.group() != null) {
+                placeholderGroups.add(item.group());
+            }
+        }
+        for (GeneratedItem item : placeholders) {
+            ScopePath itemScope = item.section().parent().child(item.key());
+            boolean nested = placeholders.stream().anyMatch(other -> other != item
+                    && item.section().startsWith(other.section().parent().child(other.key())));
+            if (nested) {
+                continue;
+            }
+            boolean templatable = item.group() != null && item.schema() instanceof JsonSchema schema
+                    && !containsReference(schema)
+                    && placeholders.stream().noneMatch(other -> other != item && other.section().startsWith(itemScope));
+            SectionSlot slot = new SectionSlot();
+            slot.setSection(item.section());
+            slot.setTemplateScope(itemScope);
+            if (templatable) {
+                slot.setItemSchema((JsonSchema) item.schema());
+                slot.setItemGroup(item.group());
+            }
+            slots.add(slot);
+        }
+        // Locate the insertion points; the slots are ordered as their placeholder groups appear in the UI.
+        Map<UiSchemaGroupElement, SectionSlot> slotsByGroup = new IdentityHashMap<>();
+        for (GeneratedItem item : placeholders) {
+            for (SectionSlot slot : slots) {
+                if (slot.getSection().equals(item.section()) && item.group() != null) {
+                    slotsByGroup.put(item.group(), slot);
+                }
+            }
+        }
+        List<SectionSlot> ordered = new ArrayList<>();
+        locate(placeholderForm.getUischema().getElements(), new ArrayList<>(), placeholderGroups, slotsByGroup, ordered);
+        for (SectionSlot slot : slots) {
+            if (!ordered.contains(slot)) {
+                ordered.add(slot);
+            }
+        }
+
+        FormBlueprint blueprint = new FormBlueprint(null, form.getSchema(), form.getUischema(), ordered);
+        blueprint.setVersion(sha256(canonicalJson(blueprint)));
+        return blueprint;
+    }
+
+    /**
+     * Walks the UI tree of the placeholder form, recording for each placeholder group its container path and
+     * its index among the elements that are not placeholder groups, which are the blueprint's coordinates.
+     */
+    private static void locate(List<UiSchemaLayoutElement> elements, List<Integer> path, Set<UiSchemaGroupElement> placeholders,
+                               Map<UiSchemaGroupElement, SectionSlot> slots, List<SectionSlot> ordered) {
+        int index = 0;
+        for (UiSchemaLayoutElement element : elements) {
+            if (element instanceof UiSchemaGroupElement group && placeholders.contains(group)) {
+                SectionSlot slot = slots.get(group);
+                if (slot != null && !ordered.contains(slot)) {
+                    slot.setContainer(List.copyOf(path));
+                    slot.setIndex(index);
+                    ordered.add(slot);
+                }
+                continue;
+            }
+            path.add(index);
+            locate(BlueprintMerger.children(element), path, placeholders, slots, ordered);
+            path.remove(path.size() - 1);
+            index++;
+        }
+    }
+
+    /**
+     * @return Dynamic metadata with one placeholder item for every dynamic section reachable from the class.
+     */
+    private static Map<String, Map<String, Object>> placeholderMetadata(Class<?> formClass) {
+        Map<String, Map<String, Object>> items = new HashMap<>();
+        Deque<FormClassMetadata> pending = new ArrayDeque<>();
+        Set<FormClassMetadata> visited = new HashSet<>();
+        pending.push(FormClassMetadata.of(formClass));
+        while (!pending.isEmpty()) {
+            FormClassMetadata type = pending.pop();
+            if (!visited.add(type)) {
+                continue;
+            }
+            for (FieldMetadata field : type.fields()) {
+                if (field.group() != null) {
+                    pending.push(FormClassMetadata.of(field.type()));
+                } else if (field.field() == null && field.dynamicSection() != null) {
+                    DynamicSectionSpec section = field.dynamicSection();
+                    Map<String, Object> item = items.computeIfAbsent(field.name(), name -> new HashMap<>());
+                    item.put(section.labelField(), PLACEHOLDER_LABEL);
+                    item.put(section.propertyKeyField(), PLACEHOLDER_KEY);
+                    pending.push(FormClassMetadata.of(section.itemDto()));
+                }
+            }
+        }
+        Map<String, Map<String, Object>> metadata = new HashMap<>();
+        items.forEach((name, item) -> metadata.put(name, Map.of("data", List.of(item))));
+        return metadata;
+    }
+
+    private static boolean containsReference(JsonSchema schema) {
+        for (SchemaNode node : schema.getProperties().values()) {
+            if (node instanceof SchemaReference || node instanceof JsonSchema nested && containsReference(nested)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The controls of a UI tree by scope.
+     */
+    private static Map<ScopePath, UiSchemaElement> controls(List<UiSchemaLayoutElement> elements) {
+        Map<ScopePath, UiSchemaElement> controls = new LinkedHashMap<>();
+        Deque<UiSchemaLayoutElement> pending = new ArrayDeque<>(elements);
+        while (!pending.isEmpty()) {
+            UiSchemaLayoutElement element = pending.pop();
+            if (element instanceof UiSchemaElement control) {
+                if (control.getScope() != null) {
+                    controls.put(control.getScope(), control);
+                }
+            } else {
+                pending.addAll(BlueprintMerger.children(element));
+            }
+        }
+        return controls;
+    }
+
+    /**
+     * @return The property (leaf) nodes of a schema tree by scope.
+     */
+    private static Map<ScopePath, SchemaProperty> properties(JsonSchema schema, ScopePath scope) {
+        Map<ScopePath, SchemaProperty> properties = new LinkedHashMap<>();
+        schema.getProperties().forEach((key, node) -> {
+            if (node instanceof SchemaProperty property) {
+                properties.put(scope.child(key), property);
+            } else if (node instanceof JsonSchema nested) {
+                properties.putAll(properties(nested, scope.child(key)));
+            }
+        });
+        return properties;
+    }
+
+    private byte[] canonicalJson(Object value) {
+        try {
+            return canonicalMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize a form blueprint", e);
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(newSha256().digest(bytes));
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.dictionary.OptionDictionary;
+import com.eainde.form_forge.dictionary.OptionDictionaryRegistry;
+import com.eainde.form_forge.metadata.FieldMetadata;
+import com.eainde.form_forge.metadata.FormClassMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * The digest of everything a form generated without dynamic metadata is derived from: the code of form-forge
+ * itself, i.e. the content of the jar or classes directory this class was loaded from, the class files of every
+ * class the form is built from, and the name and version of every option dictionary its fields declare. A
+ * changed class, library build or dictionary therefore changes the digest.
+ * <p>
+ * {@link FormBlueprintService} keys its blueprint store entries with it, and the static form export records it,
+ * so that forms are only reused by code that would generate them the same way.
+ */
+public final class FormCodeDigest {
+
+    private static final String FORMAT = "form-forge-code/1";
+    private static final String META_INF = "META-INF/";
+    private static final System.Logger LOGGER = System.getLogger(FormCodeDigest.class.getName());
+
+    /**
+     * The digest of the form-forge code, computed on first use; empty if the code cannot be read.
+     */
+    private static final class LibraryDigest {
+        static final Optional<byte[]> VALUE = libraryDigest();
+    }
+
+    private FormCodeDigest() {
+    }
+
+    /**
+     * @param formClass The @JsonForm class.
+     * @param generator The generator, whose option dictionaries are part of the digest.
+     * @return The digest as 64 lowercase hex digits, or null if the code the form depends on cannot be read.
+     */
+    public static String of(Class<?> formClass, JsonFormGenerator generator) {
+        MessageDigest digest = newSha256();
+        digest.update(FORMAT.getBytes(StandardCharsets.UTF_8));
+        return update(digest, formClass, generator.dictionaries()) ? HexFormat.of().formatHex(digest.digest()) : null;
+    }
+
+    /**
+     * Adds the code a form depends on to a digest.
+     *
+     * @return False if that code cannot be read; the digest is then incomplete.
+     */
+    static boolean update(MessageDigest digest, Class<?> formClass, OptionDictionaryRegistry dictionaries) {
+        if (LibraryDigest.VALUE.isEmpty()) {
+            return false;
+        }
+        digest.update(LibraryDigest.VALUE.get());
+        Map<String, Class<?>> classes = new TreeMap<>();
+        Set<String> dictionaryNames = new TreeSet<>();
+        Deque<FormClassMetadata> pending = new ArrayDeque<>();
+        Set<FormClassMetadata> visited = new HashSet<>();
+        pending.push(FormClassMetadata.of(formClass));
+        while (!pending.isEmpty()) {
+            FormClassMetadata type = pending.pop();
+            if (!visited.add(type)) {
+                continue;
+            }
+            for (Class<?> current = type.type(); current != null && current != Object.class; current = current.getSuperclass()) {
+                classes.put(current.getName(), current);
+            }
+            for (FieldMetadata field : type.fields()) {
+                if (field.group() != null) {
+                    pending.push(FormClassMetadata.of(field.type()));
+                } else if (field.field() != null) {
+                    if (!field.field().dictionary().isBlank()) {
+                        dictionaryNames.add(field.field().dictionary());
+                    }
+                } else if (field.dynamicSection() != null) {
+                    pending.push(FormClassMetadata.of(field.dynamicSection().itemDto()));
+                }
+            }
+        }
+        for (Class<?> type : classes.values()) {
+            byte[] classFile = classFile(type);
+            if (classFile == null) {
+                return false;
+            }
+            digest.update(("\nclass " + type.getName() + " " + classFile.length + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(classFile);
+        }
+        for (String name : dictionaryNames) {
+            OptionDictionary dictionary = dictionaries.get(name);
+            String version = dictionary != null ? dictionary.version() : "";
+            digest.update(("\ndictionary " + name + " " + version).getBytes(StandardCharsets.UTF_8));
+        }
+        return true;
+    }
+
+    /**
+     * Hashes the entries of the jar or the files of the classes directory that this class was loaded from, by
+     * name and content, so that the digest only changes with the code, wherever it is loaded from. Entries below
+     * META-INF are skipped, since build tools may write build-specific data there.
+     *
+     * @return The digest, or empty if the code source cannot be read.
+     */
+    private static Optional<byte[]> libraryDigest() {
+        CodeSource codeSource = FormCodeDigest.class.getProtectionDomain().getCodeSource();
+        URL location = codeSource != null ? codeSource.getLocation() : null;
+        try {
+            MessageDigest digest = newSha256();
+            if (location == null) {
+                throw new IOException("the code source is unknown");
+            } else if ("jar".equals(location.getProtocol())) {
+                JarURLConnection connection = (JarURLConnection) location.openConnection();
+                connection.setUseCaches(false);
+                try (JarFile jar = connection.getJarFile()) {
+                    digestJar(jar, digest);
+                }
+            } else if (Files.isDirectory(Path.of(location.toURI()))) {
+                Path directory = Path.of(location.toURI());
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(directory)) {
+                    files = walk.filter(Files::isRegularFile).sorted().toList();
+                }
+                for (Path file : files) {
+                    String name = directory.relativize(file).toString().replace('\\', '/');
+                    if (!name.startsWith(META_INF)) {
+                        digestEntry(name, Files.readAllBytes(file), digest);
+                    }
+                }
+            } else {
+                try (JarFile jar = new JarFile(Path.of(location.toURI()).toFile())) {
+                    digestJar(jar, digest);
+                }
+            }
+            return Optional.of(digest.digest());
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Cannot read the form-forge code from " + location
+                    + "; blueprints are built without the blueprint store and static forms are not served", e);
+            return Optional.empty();
+        }
+    }
+
+    private static void digestJar(JarFile jar, MessageDigest digest) throws IOException {
+        List<JarEntry> entries = jar.stream()
+                .filter(entry -> !entry.isDirectory() && !entry.getName().startsWith(META_INF))
+                .sorted(Comparator.comparing(JarEntry::getName))
+                .toList();
+        for (JarEntry entry : entries) {
+            try (InputStream in = jar.getInputStream(entry)) {
+                digestEntry(entry.getName(), in.readAllBytes(), digest);
+            }
+        }
+    }
+
+    private static void digestEntry(String name, byte[] content, MessageDigest digest) {
+        digest.update(("\nentry " + name + " " + content.length + "\n").getBytes(StandardCharsets.UTF_8));
+        digest.update(content);
+    }
+
+    private static byte[] classFile(Class<?> type) {
+        try (InputStream in = type.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+            return in != null ? in.readAllBytes() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
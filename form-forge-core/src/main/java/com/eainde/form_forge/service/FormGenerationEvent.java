@@ -0,0 +1,92 @@
+package com.eainde.form_forge.service;
+
+import jdk.jfr.*;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * JDK Flight Recorder event for one {@link JsonFormGenerator} call: a form, a partial form or a page of a
+ * dynamic section. The recorded allocation lets slow forms be told apart from forms that were merely
+ * interrupted by a GC. Generations that throw, e.g. because they exceed the {@link GenerationLimits}, are
+ * recorded as well, marked as failed.
+ * <p>
+ * Enabled by default above 10 ms, without stack traces; {@code form-forge.jfc} configures it.
+ */
+@Name(FormGenerationEvent.NAME)
+@Label("Form Generation")
+@Category({"Form Forge", "Generation"})
+@Description("A form, partial form or dynamic-section page generated by JsonFormGenerator")
+@StackTrace(false)
+@Threshold("10 ms")
+final class FormGenerationEvent extends Event {
+
+    static final String NAME = "com.eainde.formforge.FormGeneration";
+
+    static final String FORM = "form";
+    static final String PARTIAL_FORM = "partial form";
+    static final String SECTION_PAGE = "section page";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                    && threads.isThreadAllocatedMemorySupported() ? threads : null;
+
+    @Label("Form Class")
+    Class<?> formClass;
+
+    @Label("Kind")
+    String kind;
+
+    @Label("Fields")
+    @Description("Fields and groups generated, including those of cached group fragments")
+    int fields;
+
+    @Label("Dynamic Items")
+    int dynamicItems;
+
+    @Label("Cursors")
+    @Description("Dynamic sections left with a further page")
+    int cursors;
+
+    @Label("Allocated")
+    @Description("Heap allocated by the generating thread during the generation, or -1 if unknown")
+    @DataAmount
+    long allocated;
+
+    @Label("Failed")
+    @Description("The generation threw an exception; the counts are those reached until then")
+    boolean failed;
+
+    // Stays -1 if the event was not enabled at the start, e.g. when a recording began during the generation.
+    private transient long allocatedAtStart = -1;
+
+    /**
+     * Starts timing and allocation tracking if the event is enabled.
+     */
+    void start() {
+        if (isEnabled()) {
+            allocatedAtStart = allocatedBytes();
+            begin();
+        }
+    }
+
+    /**
+     * Records the event if it is enabled and above its threshold.
+     */
+    void finish(Class<?> formClass, String kind, int fields, int dynamicItems, int cursors, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.formClass = formClass;
+            this.kind = kind;
+            this.fields = fields;
+            this.dynamicItems = dynamicItems;
+            this.cursors = cursors;
+            this.failed = failed;
+            this.allocated = allocatedAtStart >= 0 ? allocatedBytes() - allocatedAtStart : -1;
+            commit();
+        }
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+}
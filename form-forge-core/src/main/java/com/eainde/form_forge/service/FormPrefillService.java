@@ -0,0 +1,179 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.exception.JsonFormGenerationException;
+import com.eainde.form_forge.metadata.DynamicSectionSpec;
+import com.eainde.form_forge.metadata.FieldMetadata;
+import com.eainde.form_forge.metadata.FormClassMetadata;
+import com.eainde.form_forge.prefill.PropertyAccessors;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Builds the initial data document of a generated form from domain objects, so that a form can be
+ * rendered prefilled without a hand-written mapper per form.
+ * <p>
+ * Properties are matched by name against the fields of the form class: every @JsonFormField is read from
+ * the source object, every @JsonFormGroup becomes a nested object read from the source property of the same
+ * name (or from the source itself if it has no such property, so flat domain objects can fill grouped forms),
+ * and every @JsonFormDynamicSection writes one object per item under {@code propertyKeyPrefix + key}, the same
+ * keys {@link JsonFormGenerator} uses in the schema. Null values are omitted rather than written as null, which
+ * JSON Forms treats as "not filled in".
+ * <p>
+ * Documents are written straight to a {@link JsonGenerator}; nothing is buffered per document.
+ */
+public class FormPrefillService {
+
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final ObjectMapper objectMapper;
+    private final GenerationLimits limits = GenerationLimits.DEFAULTS;
+
+    public FormPrefillService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The data of one form document.
+     *
+     * @param source   The object the form's fields are read from.
+     * @param sections The items of the form's dynamic sections, keyed by the placeholder field name
+     *                 (the same key as the section's "data" in the generator's dynamic metadata). A section
+     *                 that is not listed here is read from the source property of the same name.
+     */
+    public record PrefillSource(Object source, Map<String, ? extends Iterable<?>> sections) {
+
+        public PrefillSource(Object source) {
+            this(source, Collections.emptyMap());
+        }
+    }
+
+    /**
+     * Writes the data documents of many forms as newline-delimited JSON, one line per source.
+     *
+     * @param formClass The @JsonForm-annotated class the documents are for.
+     * @param sources   The sources, consumed lazily.
+     * @param output    The stream receiving the documents.
+     * @return The number of documents written.
+     * @throws IOException if writing the output fails.
+     */
+    public long writeAll(Class<?> formClass, Iterator<PrefillSource> sources, OutputStream output) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            while (sources.hasNext()) {
+                write(formClass, sources.next(), generator);
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the data document of one form.
+     *
+     * @param formClass The @JsonForm-annotated class the document is for.
+     * @param source    The source of the document.
+     * @param generator The generator receiving the document as one root-level object.
+     * @throws IOException if writing fails.
+     */
+    public void write(Class<?> formClass, PrefillSource source, JsonGenerator generator) throws IOException {
+        Map<String, ? extends Iterable<?>> sections = source.sections() != null ? source.sections() : Collections.emptyMap();
+        generator.writeStartObject();
+        writeFields(FormClassMetadata.of(formClass), source.source(), sections, generator, 0);
+        generator.writeEndObject();
+    }
+
+    private void writeFields(FormClassMetadata metadata, Object source, Map<String, ? extends Iterable<?>> sections,
+                             JsonGenerator generator, int depth) throws IOException {
+        if (depth >= limits.maxDepth()) {
+            throw new JsonFormGenerationException("Prefill data of " + metadata.type().getName()
+                    + " exceeds the maximum nesting depth of " + limits.maxDepth() + ".");
+        }
+        for (FieldMetadata field : metadata.fields()) {
+            if (field.group() != null) {
+                Object groupSource = PropertyAccessors.has(source, field.name())
+                        ? PropertyAccessors.read(source, field.name()) : source;
+                if (groupSource != null) {
+                    generator.writeFieldName(field.name());
+                    generator.writeStartObject();
+                    writeFields(FormClassMetadata.of(field.type()), groupSource, Collections.emptyMap(), generator, depth + 1);
+                    generator.writeEndObject();
+                }
+            } else if (field.field() != null) {
+                Object value = PropertyAccessors.read(source, field.name());
+                if (value != null) {
+                    generator.writeFieldName(field.name());
+                    writeValue(value, generator);
+                }
+            } else if (field.dynamicSection() != null) {
+                Iterable<?> items = sections.containsKey(field.name())
+                        ? sections.get(field.name()) : asItems(PropertyAccessors.read(source, field.name()));
+                if (items != null) {
+                    writeItems(field.dynamicSection(), items, generator, depth);
+                }
+            }
+        }
+    }
+
+    private void writeItems(DynamicSectionSpec section, Iterable<?> items, JsonGenerator generator, int depth) throws IOException {
+        FormClassMetadata itemMetadata = FormClassMetadata.of(section.itemDto());
+        for (Object item : items) {
+            Object key = PropertyAccessors.read(item, section.propertyKeyField());
+            if (key == null) {
+                throw new JsonFormGenerationException("Dynamic section item " + item + " has no value for its key field '"
+                        + section.propertyKeyField() + "'.");
+            }
+            generator.writeFieldName(section.propertyKeyPrefix() + key);
+            generator.writeStartObject();
+            writeFields(itemMetadata, item, Collections.emptyMap(), generator, depth + 1);
+            generator.writeEndObject();
+        }
+    }
+
+    private static Iterable<?> asItems(Object value) {
+        if (value instanceof Iterable<?> iterable) {
+            return iterable;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return map.values();
+        }
+        return null;
+    }
+
+    private static void writeValue(Object value, JsonGenerator generator) throws IOException {
+        if (value instanceof String string) {
+            generator.writeString(string);
+        } else if (value instanceof Boolean bool) {
+            generator.writeBoolean(bool);
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof BigDecimal decimal) {
+            generator.writeNumber(decimal);
+        } else if (value instanceof BigInteger integer) {
+            generator.writeNumber(integer);
+        } else if (value instanceof Enum<?> constant) {
+            generator.writeString(constant.name());
+        } else if (value instanceof CharSequence || value instanceof Character) {
+            generator.writeString(value.toString());
+        } else {
+            // Dates and other value types are written the way the application's ObjectMapper serializes them.
+            generator.writeObject(value);
+        }
+    }
+}
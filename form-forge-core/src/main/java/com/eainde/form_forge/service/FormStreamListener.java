@@ -0,0 +1,33 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.models.blueprint.DynamicPayload;
+import com.eainde.form_forge.models.blueprint.FormBlueprint;
+
+/**
+ * Receives a form from {@link FormBlueprintService#stream} piece by piece, on the generating thread.
+ * <p>
+ * The blueprint comes first. Then each dynamic-section item is sent as soon as it has been generated, as a
+ * payload with that single item and any control or property replacements inside it. A final payload holds
+ * the remaining replacements and the cursors. Merging the blueprint with all payloads, in the order they were
+ * received, yields the generated form. Each item can be rendered on arrival: it goes after the items already
+ * received for its section, at the section's position in the blueprint.
+ * <p>
+ * A listener that throws stops the generation, e.g. when the client has disconnected.
+ */
+public interface FormStreamListener {
+
+    /**
+     * Receives the static part of the form. It is cached per form class, so it arrives before any generation work.
+     */
+    void blueprint(FormBlueprint blueprint);
+
+    /**
+     * Receives one generated dynamic-section item.
+     */
+    void item(DynamicPayload item);
+
+    /**
+     * Receives the replacements outside dynamic-section items and the cursors once the form has been generated.
+     */
+    void complete(DynamicPayload remainder);
+}
@@ -0,0 +1,25 @@
+package com.eainde.form_forge.service;
+
+/**
+ * Upper bounds applied while generating a single form. They protect the generator from
+ * malformed DTO structures and oversized dynamic metadata by failing fast with a
+ * {@link com.eainde.form_forge.exception.JsonFormGenerationException}.
+ *
+ * @param maxDepth        The maximum nesting depth of groups and dynamic-section items.
+ * @param maxFields       The maximum number of fields processed for one form.
+ * @param maxDynamicItems The maximum number of dynamic-section items expanded for one form.
+ */
+public record GenerationLimits(int maxDepth, int maxFields, int maxDynamicItems) {
+
+    /**
+     * The limits used when none are configured explicitly.
+     */
+    public static final GenerationLimits DEFAULTS = new GenerationLimits(32, 50_000, 10_000);
+
+    public GenerationLimits {
+        if (maxDepth < 1 || maxFields < 1 || maxDynamicItems < 0) {
+            throw new IllegalArgumentException("Generation limits must be positive: depth=" + maxDepth
+                    + ", fields=" + maxFields + ", dynamicItems=" + maxDynamicItems);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.metadata.FormClassMetadata;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.models.uischema.UiSchemaElement;
+import com.eainde.form_forge.models.uischema.UiSchemaLayoutElement;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * The generated content of a group DTO, relative to the group's own scope, cached so that embedding
+ * the same DTO in other groups and forms does not regenerate it.
+ * <p>
+ * The cached nodes are never handed out: every embedding gets a deep copy of the schema and of the UI
+ * elements, made by the models' copy constructors, with the scopes resolved against the embedding scope,
+ * so a form that is modified after it was returned does not change the fragment or other forms.
+ *
+ * @param schema     The schema of the group, without a title.
+ * @param elements   The UI elements inside the group, with scopes relative to the group ({@link ScopePath#ROOT}).
+ * @param fieldCount The number of fields the group counts against {@link GenerationLimits#maxFields()}.
+ * @param depth      The nesting depth the group adds, 1 for a group without nested groups.
+ * @param types      The group DTO and every group DTO nested in it.
+ */
+record GroupFragment(JsonSchema schema, List<UiSchemaLayoutElement> elements, int fieldCount, int depth,
+                     Set<FormClassMetadata> types) {
+
+    /**
+     * Creates the schema node of the group for one embedding.
+     *
+     * @param label The label of the embedding @JsonFormGroup.
+     */
+    JsonSchema newSchema(String label) {
+        JsonSchema copy = new JsonSchema(schema);
+        copy.setTitle(label);
+        return copy;
+    }
+
+    /**
+     * Copies the group's UI elements into a list, resolving their scopes against the group's scope.
+     *
+     * @param scope    The scope the group is embedded at.
+     * @param target   The list receiving the copies.
+     * @param controls Receives every copied control with its resolved scope.
+     */
+    void relocate(ScopePath scope, List<UiSchemaLayoutElement> target, BiConsumer<ScopePath, UiSchemaElement> controls) {
+        for (UiSchemaLayoutElement element : elements) {
+            UiSchemaLayoutElement copy = element.copy();
+            resolveScopes(copy, scope, controls);
+            target.add(copy);
+        }
+    }
+
+    private static void resolveScopes(UiSchemaLayoutElement element, ScopePath scope,
+                                      BiConsumer<ScopePath, UiSchemaElement> controls) {
+        if (element instanceof UiSchemaElement control) {
+            if (control.getScope() != null) {
+                control.setScope(scope.resolve(control.getScope()));
+                controls.accept(control.getScope(), control);
+            }
+            return;
+        }
+        for (UiSchemaLayoutElement child : BlueprintMerger.children(element)) {
+            resolveScopes(child, scope, controls);
+        }
+    }
+}
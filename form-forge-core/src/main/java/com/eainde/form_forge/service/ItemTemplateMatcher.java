@@ -0,0 +1,173 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.models.blueprint.SectionSlot;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.uischema.Condition;
+import com.eainde.form_forge.models.uischema.Rule;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.models.uischema.UiSchemaElement;
+import com.eainde.form_forge.models.uischema.UiSchemaGroupElement;
+import com.eainde.form_forge.models.uischema.UiSchemaLayoutElement;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compares a generated dynamic-section item with its section's template, node by node, as if the template
+ * had been expanded for the item by {@link BlueprintMerger#expand}: the template's scopes are rebased onto the
+ * item's scope and its title and label are the item's label. Schema properties and controls whose content
+ * differs are collected as replacements, since the merge replaces them by scope; any other difference means
+ * the item cannot be built from the template.
+ * <p>
+ * A matcher is used for a single item.
+ */
+final class ItemTemplateMatcher {
+
+    private final ScopePath templateScope;
+    private final ScopePath itemScope;
+    private final Map<String, SchemaNode> properties = new LinkedHashMap<>();
+    private final Map<String, UiSchemaElement> controls = new LinkedHashMap<>();
+
+    /**
+     * @param slot      The section, which must have a template.
+     * @param itemScope The scope of the item.
+     */
+    ItemTemplateMatcher(SectionSlot slot, ScopePath itemScope) {
+        this.templateScope = slot.getTemplateScope();
+        this.itemScope = itemScope;
+    }
+
+    /**
+     * @return True if the item equals the expanded template once the collected replacements are applied.
+     */
+    boolean matches(SectionSlot slot, JsonSchema schema, UiSchemaGroupElement group) {
+        UiSchemaGroupElement template = slot.getItemGroup();
+        return Objects.equals(schema.getTitle(), group.getLabel())
+                && sameObject(slot.getItemSchema(), schema, itemScope)
+                && Objects.equals(template.getType(), group.getType())
+                && sameElements(template.getElements(), group.getElements());
+    }
+
+    /**
+     * @return The generated schema properties that differ from the template, by scope.
+     */
+    Map<String, SchemaNode> properties() {
+        return properties;
+    }
+
+    /**
+     * @return The generated controls that differ from the template, by scope.
+     */
+    Map<String, UiSchemaElement> controls() {
+        return controls;
+    }
+
+    /**
+     * Compares two object nodes apart from their titles, which the callers compare.
+     */
+    private boolean sameObject(JsonSchema template, JsonSchema generated, ScopePath scope) {
+        if (!Objects.equals(template.getType(), generated.getType())
+                || !Objects.equals(template.getDescription(), generated.getDescription())
+                || !Objects.equals(template.getRequired(), generated.getRequired())
+                || !Objects.equals(template.getDefs(), generated.getDefs())
+                || template.getProperties().size() != generated.getProperties().size()) {
+            return false;
+        }
+        for (Map.Entry<String, SchemaNode> entry : generated.getProperties().entrySet()) {
+            SchemaNode templateNode = template.getProperties().get(entry.getKey());
+            SchemaNode node = entry.getValue();
+            if (templateNode instanceof JsonSchema templateObject && node instanceof JsonSchema object) {
+                if (!Objects.equals(templateObject.getTitle(), object.getTitle())
+                        || !sameObject(templateObject, object, scope.child(entry.getKey()))) {
+                    return false;
+                }
+            } else if (templateNode instanceof SchemaProperty && node instanceof SchemaProperty) {
+                if (!templateNode.equals(node)) {
+                    properties.put(scope.child(entry.getKey()).toString(), node);
+                }
+            } else if (templateNode == null || !templateNode.equals(node)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameElements(List<UiSchemaLayoutElement> template, List<UiSchemaLayoutElement> generated) {
+        if (template.size() != generated.size()) {
+            return false;
+        }
+        for (int i = 0; i < template.size(); i++) {
+            if (!sameElement(template.get(i), generated.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameElement(UiSchemaLayoutElement template, UiSchemaLayoutElement generated) {
+        if (template.getClass() != generated.getClass() || !Objects.equals(template.getType(), generated.getType())) {
+            return false;
+        }
+        if (template instanceof UiSchemaElement templateControl) {
+            UiSchemaElement control = (UiSchemaElement) generated;
+            if (!Objects.equals(rebase(templateControl.getScope()), control.getScope())) {
+                return false;
+            }
+            boolean same = Objects.equals(templateControl.getLabel(), control.getLabel())
+                    && Objects.equals(templateControl.getOptions(), control.getOptions())
+                    && sameRule(templateControl.getRule(), control.getRule());
+            if (!same) {
+                // Only controls with a scope can be replaced.
+                if (control.getScope() == null) {
+                    return false;
+                }
+                controls.put(control.getScope().toString(), control);
+            }
+            return true;
+        }
+        if (template instanceof UiSchemaGroupElement templateGroup
+                && !Objects.equals(templateGroup.getLabel(), ((UiSchemaGroupElement) generated).getLabel())) {
+            return false;
+        }
+        return sameElements(BlueprintMerger.children(template), BlueprintMerger.children(generated));
+    }
+
+    private boolean sameRule(Rule template, Rule generated) {
+        if (template == null || generated == null || template.getCondition() == null) {
+            return Objects.equals(template, generated);
+        }
+        return template.getEffect() == generated.getEffect() && sameCondition(template.getCondition(), generated.getCondition());
+    }
+
+    private boolean sameCondition(Condition template, Condition generated) {
+        if (generated == null
+                || !Objects.equals(template.getType(), generated.getType())
+                || !Objects.equals(rebase(template.getScope()), generated.getScope())
+                || !Objects.equals(template.getSchema(), generated.getSchema())
+                || !Objects.equals(template.getFailWhenUndefined(), generated.getFailWhenUndefined())) {
+            return false;
+        }
+        List<Condition> templates = template.getConditions();
+        List<Condition> conditions = generated.getConditions();
+        if (templates == null || conditions == null) {
+            return templates == conditions;
+        }
+        if (templates.size() != conditions.size()) {
+            return false;
+        }
+        for (int i = 0; i < templates.size(); i++) {
+            if (!sameCondition(templates.get(i), conditions.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ScopePath rebase(ScopePath scope) {
+        return BlueprintMerger.rebase(scope, templateScope, itemScope);
+    }
+}
@@ -0,0 +1,1220 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.annotations.*;
+import com.eainde.form_forge.dictionary.OptionDictionary;
+import com.eainde.form_forge.dictionary.OptionDictionaryRegistry;
+import com.eainde.form_forge.exception.JsonFormGenerationException;
+import com.eainde.form_forge.metadata.*;
+import com.eainde.form_forge.models.DynamicSectionPage;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.schema.SchemaOption;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.schema.SchemaReference;
+import com.eainde.form_forge.models.uischema.*;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * The core service that generates JSON Form schema and UI schema from annotated Java classes.
+ * This class reads the annotations of DTOs (including inherited fields) through the
+ * {@link FormClassMetadata} cache and builds a JSON structure that is compatible with the
+ * JSON Forms library.
+ * <p>
+ * Nested groups and dynamic-section items are expanded from an explicit work stack rather than
+ * by recursion, so the thread stack depth does not grow with the DTO nesting depth. Types that
+ * reference themselves are emitted as a JSON Schema {@code $ref} to their enclosing node, and the
+ * configured {@link GenerationLimits} are enforced while the form is being built.
+ * <p>
+ * Group DTOs without rules and dynamic sections are generated once per class into a {@link GroupFragment}
+ * and embedded into every group that uses them by relocating the fragment's scopes, so forms that share
+ * group DTOs do not regenerate them and the cached content grows with the number of group types only.
+ * <p>
+ * Dynamic sections with a page size only generate their first page; the response carries a cursor
+ * per incomplete section, and {@link #generateSectionPage} generates the following pages on demand.
+ * <p>
+ * Fields that use a shared option dictionary refer to it with a {@code $ref}, and every dictionary a form
+ * refers to is emitted once, from the {@link OptionDictionaryRegistry}, in the {@code $defs} of the form's
+ * root schema. Section pages refer to the definitions of the form they belong to.
+ * <p>
+ * The generator is safe for concurrent use: all state of a {@link #generate} call lives in a
+ * {@link GenerationState} that only this call uses, the only shared state is the immutable limits and the
+ * thread-safe {@link FormClassMetadata} cache and dictionary registry, and every call returns a newly built model.
+ * The states, with their work stack, lookup tables and scratch lists, are cleared and reused through a
+ * {@link ContextPool} rather than created per call, which saves their allocation of a few kilobytes per call;
+ * what a generation still allocates is mostly the model it returns, plus per-field temporaries.
+ * <p>
+ * The generator has no framework dependencies and can be created with {@code new} anywhere; in Spring Boot
+ * applications, the form-forge auto-configuration provides it as a bean configured from {@code form-forge.limits.*}.
+ */
+public class JsonFormGenerator {
+
+    /**
+     * The number of idle generation states kept per generator. Declared before
+     * {@link #FRAGMENT_GENERATOR}, which is initialized with a pool of this size.
+     */
+    private static final int POOLED_STATES = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    /**
+     * States that processed more fields than this are not pooled, so that a very large form does not keep
+     * its oversized lookup tables alive.
+     */
+    private static final int MAX_POOLED_FIELDS = 4096;
+
+    /**
+     * Generates the cached group fragments. Its limits are unbounded because fragments are checked
+     * against the limits of the embedding generator when they are used.
+     */
+    private static final JsonFormGenerator FRAGMENT_GENERATOR =
+            new JsonFormGenerator(new GenerationLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, 0));
+
+    /**
+     * The generated content of group DTOs, empty for DTOs that cannot be cached. The layout of a group
+     * is declared on its DTO class, so the class alone identifies the fragment.
+     */
+    private static final ClassValue<Optional<GroupFragment>> FRAGMENTS = new ClassValue<>() {
+        @Override
+        protected Optional<GroupFragment> computeValue(Class<?> type) {
+            return FRAGMENT_GENERATOR.buildFragment(FormClassMetadata.of(type));
+        }
+    };
+
+    private static final String DICTIONARY_REF = "#/$defs/";
+
+    private static final System.Logger LOGGER = System.getLogger(JsonFormGenerator.class.getName());
+
+    /**
+     * The number of form class and unknown dictionary pairs remembered as reported. Dictionary names can come
+     * from request metadata, so the set is bounded; pairs beyond it are only logged at debug level.
+     */
+    private static final int MAX_REPORTED_UNKNOWN_DICTIONARIES = 1024;
+
+    private final GenerationLimits limits;
+    private final OptionDictionaryRegistry dictionaries;
+    private final ContextPool<GenerationState> states = new ContextPool<>(POOLED_STATES);
+    private final Set<String> reportedUnknownDictionaries = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a generator that uses {@link GenerationLimits#DEFAULTS}.
+     */
+    public JsonFormGenerator() {
+        this(GenerationLimits.DEFAULTS);
+    }
+
+    /**
+     * Creates a generator that enforces the given limits and has no option dictionaries.
+     *
+     * @param limits The limits applied to every generated form.
+     */
+    public JsonFormGenerator(GenerationLimits limits) {
+        this(limits, new OptionDictionaryRegistry());
+    }
+
+    /**
+     * Creates a generator that enforces the given limits and resolves option dictionaries from a registry.
+     *
+     * @param limits       The limits applied to every generated form.
+     * @param dictionaries The option dictionaries fields can refer to.
+     */
+    public JsonFormGenerator(GenerationLimits limits, OptionDictionaryRegistry dictionaries) {
+        this.limits = Objects.requireNonNull(limits, "limits");
+        this.dictionaries = Objects.requireNonNull(dictionaries, "dictionaries");
+    }
+
+    /**
+     * @return The option dictionaries fields can refer to.
+     */
+    OptionDictionaryRegistry dictionaries() {
+        return dictionaries;
+    }
+
+    /**
+     * The main entry point for generating a JSON Form response. It orchestrates the
+     * entire process of schema and UI schema generation.
+     *
+     * @param targetClass     The DTO class annotated with @JsonForm. This class defines the
+     * structure of the form.
+     * @param dynamicMetadata A map for providing dynamic data (e.g., for dropdowns) at runtime.
+     * The outer key is the field name, and the inner map contains
+     * properties like "enum" and "enumNames". Entries that do not apply to the form are ignored;
+     * {@link DynamicMetadata#of(Class, Map)} reports them instead.
+     * @return A {@link JsonFormResponse} containing the generated schema and uischema.
+     * @throws IllegalArgumentException if the target class is not annotated with @JsonForm.
+     * @throws JsonFormGenerationException if the form exceeds the configured {@link GenerationLimits}.
+     */
+    public JsonFormResponse generate(Class<?> targetClass, Map<String, Map<String, Object>> dynamicMetadata) {
+        return generate(targetClass, DynamicMetadata.lenient(targetClass, dynamicMetadata), null, null, true);
+    }
+
+    /**
+     * Generates a form from dynamic metadata that has already been checked and parsed, see {@link DynamicMetadata}.
+     *
+     * @param targetClass     The DTO class annotated with @JsonForm.
+     * @param dynamicMetadata The dynamic metadata built for the target class.
+     * @return A {@link JsonFormResponse} containing the generated schema and uischema.
+     * @throws IllegalArgumentException if the target class is not annotated with @JsonForm, or the metadata was
+     * built for another class.
+     * @throws JsonFormGenerationException if the form exceeds the configured {@link GenerationLimits}.
+     */
+    public JsonFormResponse generate(Class<?> targetClass, DynamicMetadata dynamicMetadata) {
+        return generate(targetClass, checked(targetClass, dynamicMetadata), null, null, true);
+    }
+
+    /**
+     * Generates a form like {@link #generate(Class, Map)}, but with every item of its paginated dynamic
+     * sections, so that the result has no cursors. Use it where the whole form is needed at once, such as
+     * for compiling the {@link com.eainde.form_forge.validation.FormConstraints} of submissions.
+     */
+    public JsonFormResponse generateUnpaginated(Class<?> targetClass, Map<String, Map<String, Object>> dynamicMetadata) {
+        return generate(targetClass, DynamicMetadata.lenient(targetClass, dynamicMetadata), null, null, false);
+    }
+
+    /**
+     * Like {@link #generateUnpaginated(Class, Map)}, from dynamic metadata that has already been checked and parsed.
+     */
+    public JsonFormResponse generateUnpaginated(Class<?> targetClass, DynamicMetadata dynamicMetadata) {
+        return generate(targetClass, checked(targetClass, dynamicMetadata), null, null, false);
+    }
+
+    /**
+     * Generates only the requested subtrees of a form. A path is a dotted list of property names, such as
+     * {@code personalDetails.email} or {@code emp_101}, or a scope such as {@code #/properties/personalDetails}.
+     * The name of a dynamic section's placeholder field selects all of its items, paginated as in the whole form;
+     * items selected by their own property keys are generated without pagination.
+     * <p>
+     * The result contains the requested fields and groups with everything nested in them, and the groups,
+     * layouts and required entries on the way to them. Fields that rules of the result depend on are added to
+     * the schema, but not to the UI schema or the required list.
+     *
+     * @param targetClass     The DTO class annotated with @JsonForm.
+     * @param dynamicMetadata Dynamic metadata as for {@link #generate(Class, Map)}.
+     * @param paths           The paths of the subtrees to generate; null or empty generates the whole form.
+     * @throws IllegalArgumentException if the target class is not annotated with @JsonForm, or a path is
+     * malformed or does not exist in the form.
+     * @throws JsonFormGenerationException if the form exceeds the configured {@link GenerationLimits}.
+     */
+    public JsonFormResponse generate(Class<?> targetClass, Map<String, Map<String, Object>> dynamicMetadata, Collection<String> paths) {
+        return generate(targetClass, DynamicMetadata.lenient(targetClass, dynamicMetadata), FieldSelection.of(paths), null, true);
+    }
+
+    /**
+     * Generates only the requested subtrees of a form like {@link #generate(Class, Map, Collection)}, from dynamic
+     * metadata that has already been checked and parsed.
+     *
+     * @throws IllegalArgumentException if the target class is not annotated with @JsonForm, a path is malformed
+     * or does not exist in the form, or the metadata was built for another class.
+     */
+    public JsonFormResponse generate(Class<?> targetClass, DynamicMetadata dynamicMetadata, Collection<String> paths) {
+        return generate(targetClass, checked(targetClass, dynamicMetadata), FieldSelection.of(paths), null, true);
+    }
+
+    /**
+     * A dynamic-section item as it was generated.
+     *
+     * @param section The scope of the section's placeholder field.
+     * @param key     The property key of the item in the schema of the section's parent object.
+     * @param schema  The schema node of the item, a {@link SchemaReference} for a recursive item.
+     * @param group   The UI group of the item, or null for a recursive item.
+     */
+    record GeneratedItem(ScopePath section, String key, SchemaNode schema, UiSchemaGroupElement group) {
+    }
+
+    /**
+     * Generates a form like {@link #generate(Class, DynamicMetadata)} and reports every dynamic-section item to a listener
+     * as soon as the item, including everything nested in it, has been generated. Items of a section are
+     * reported in the order of their UI groups; an item of a nested section is reported before the item
+     * that contains it. Reported items are not modified afterwards.
+     *
+     * @param items Receives the generated items, or null.
+     */
+    JsonFormResponse generate(Class<?> targetClass, DynamicMetadata dynamicMetadata, Consumer<GeneratedItem> items) {
+        return generate(targetClass, dynamicMetadata, null, items, true);
+    }
+
+    private JsonFormResponse generate(Class<?> targetClass, DynamicMetadata dynamicMetadata, FieldSelection selection,
+                                      Consumer<GeneratedItem> items, boolean paginated) {
+        FormGenerationEvent event = new FormGenerationEvent();
+        event.start();
+        GenerationState state = null;
+        boolean failed = true;
+        try {
+            FormClassMetadata classMetadata = FormClassMetadata.of(targetClass);
+            FormSpec classAnnotation = classMetadata.form();
+            if (classAnnotation == null) {
+                throw new IllegalArgumentException("The target class must be annotated with @JsonForm.");
+            }
+
+            JsonSchema schema = new JsonSchema();
+            schema.setType("object");
+            schema.setTitle(classAnnotation.title());
+            schema.setDescription(classAnnotation.description());
+
+            UiSchema uischema = new UiSchema();
+            state = acquireState(targetClass, dynamicMetadata);
+            state.itemListener = items;
+            state.selection = selection;
+            state.paginated = paginated;
+            if (selection != null) {
+                checkSelection(classMetadata, selection, state);
+            }
+
+            // The root DTO class is kept in the state for rule parsing context.
+            state.workStack.push(new Frame(classMetadata, classAnnotation.layout(), schema, uischema.getElements(), ScopePath.ROOT, null, null, null, 0));
+            expand(state);
+
+            if (selection != null) {
+                addRuleDependencies(schema, classMetadata, state);
+            }
+            applyDynamicMetadata(schema, state);
+            addDictionaryDefinitions(schema, state);
+            JsonFormResponse response = new JsonFormResponse(schema, uischema, state.cursors);
+            failed = false;
+            return response;
+        } finally {
+            finish(event, targetClass, selection != null ? FormGenerationEvent.PARTIAL_FORM : FormGenerationEvent.FORM,
+                    state, failed);
+        }
+    }
+
+    /**
+     * Generates a later page of a paginated dynamic section. The dynamic metadata should be the same as
+     * for the {@link #generate} call that issued the cursor; the items of the page are located by the key
+     * of the last item delivered, so items added or removed on earlier pages do not shift the page.
+     *
+     * @param targetClass     The DTO class annotated with @JsonForm.
+     * @param dynamicMetadata The dynamic metadata of the form, including the section's "data".
+     * @param cursor          A cursor from {@link JsonFormResponse#getCursors()} or {@link DynamicSectionPage#getCursors()}.
+     * @return The schema properties and UI elements of the page, with the cursor of the next page if there is one.
+     * @throws IllegalArgumentException if the cursor is malformed or does not refer to a dynamic section of the class.
+     * @throws JsonFormGenerationException if the page exceeds the configured {@link GenerationLimits}.
+     */
+    public DynamicSectionPage generateSectionPage(Class<?> targetClass, Map<String, Map<String, Object>> dynamicMetadata, String cursor) {
+        return generateSectionPage(targetClass, DynamicMetadata.lenient(targetClass, dynamicMetadata), cursor);
+    }
+
+    /**
+     * Generates a later page of a paginated dynamic section like {@link #generateSectionPage(Class, Map, String)},
+     * from dynamic metadata that has already been checked and parsed.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or does not refer to a dynamic section of the
+     * class, or the metadata was built for another class.
+     */
+    public DynamicSectionPage generateSectionPage(Class<?> targetClass, DynamicMetadata dynamicMetadata, String cursor) {
+        dynamicMetadata = checked(targetClass, dynamicMetadata);
+        FormGenerationEvent event = new FormGenerationEvent();
+        event.start();
+        GenerationState state = null;
+        boolean failed = true;
+        try {
+            FormClassMetadata classMetadata = FormClassMetadata.of(targetClass);
+            if (classMetadata.form() == null) {
+                throw new IllegalArgumentException("The target class must be annotated with @JsonForm.");
+            }
+            SectionCursor position = SectionCursor.decode(cursor);
+            state = acquireState(targetClass, dynamicMetadata);
+            state.continuation = position;
+
+            Frame container = locateFrame(classMetadata, position.section().parent(), state);
+            FieldMetadata field = container.metadata().field(position.section().property());
+            if (field == null || field.dynamicSection() == null || field.group() != null || field.field() != null) {
+                throw new IllegalArgumentException("Cursor does not refer to a dynamic section of " + targetClass.getName()
+                        + ": " + position.section());
+            }
+
+            // Generate into an empty container, so that only the page's items end up in the result.
+            JsonSchema pageSchema = new JsonSchema();
+            List<UiSchemaLayoutElement> pageElements = new ArrayList<>();
+            Frame pageFrame = new Frame(container.metadata(), container.layout(), pageSchema, pageElements, container.scope(),
+                    container.fieldRules(), container.enclosingItem(), container.parent(), container.depth());
+            List<Frame> children = state.children;
+            processDynamicSection(field.name(), field.dynamicSection(), pageFrame, pageElements, state, children);
+            for (int i = children.size() - 1; i >= 0; i--) {
+                state.workStack.push(children.get(i));
+            }
+            children.clear();
+            expand(state);
+
+            DynamicSectionPage page = new DynamicSectionPage(position.section(), container.scope(), pageSchema.getProperties(),
+                    pageElements, state.cursors);
+            failed = false;
+            return page;
+        } finally {
+            finish(event, targetClass, FormGenerationEvent.SECTION_PAGE, state, failed);
+        }
+    }
+
+    /**
+     * Records the generation event of a call, whether it succeeded or threw, and releases its state.
+     *
+     * @param state The state of the generation, or null if it failed before acquiring one.
+     */
+    private void finish(FormGenerationEvent event, Class<?> targetClass, String kind, GenerationState state, boolean failed) {
+        if (state == null) {
+            event.finish(targetClass, kind, 0, 0, 0, failed);
+            return;
+        }
+        try {
+            event.finish(targetClass, kind, state.fieldCount, state.dynamicItemCount, state.cursorCount(), failed);
+        } finally {
+            releaseState(state);
+        }
+    }
+
+    /**
+     * @return A pooled or new state for a generation, which must be passed to {@link #releaseState} when it ends.
+     */
+    private GenerationState acquireState(Class<?> rootDtoClass, DynamicMetadata dynamicMetadata) {
+        GenerationState state = states.acquire();
+        if (state == null) {
+            state = new GenerationState();
+        }
+        state.rootDtoClass = rootDtoClass;
+        state.dynamicMetadata = dynamicMetadata;
+        return state;
+    }
+
+    /**
+     * Clears a state, so that it keeps no part of the generated model alive, and returns it to the pool.
+     * Also called after a failed generation, whose state may still hold unprocessed frames.
+     */
+    private void releaseState(GenerationState state) {
+        boolean reusable = state.fieldCount <= MAX_POOLED_FIELDS;
+        state.clear();
+        if (reusable) {
+            states.release(state);
+        }
+    }
+
+    private static DynamicMetadata checked(Class<?> targetClass, DynamicMetadata dynamicMetadata) {
+        if (dynamicMetadata == null) {
+            return DynamicMetadata.empty(targetClass);
+        }
+        if (dynamicMetadata.getFormClass() != targetClass) {
+            throw new IllegalArgumentException("The dynamic metadata was built for " + dynamicMetadata.getFormClass().getName()
+                    + ", not " + targetClass.getName());
+        }
+        return dynamicMetadata;
+    }
+
+    /**
+     * Processes frames until the state's work stack is empty, pushing the nested classes each frame discovers.
+     */
+    private void expand(GenerationState state) {
+        Deque<Frame> workStack = state.workStack;
+        List<Frame> children = state.children;
+        Deque<Map.Entry<Runnable, Integer>> openFrames = state.openFrames;
+        List<String> requiredFields = state.requiredFields;
+        while (!workStack.isEmpty()) {
+            Frame frame = workStack.pop();
+            Runnable completion = state.pendingCompletions.isEmpty() ? null : state.pendingCompletions.remove(frame);
+            if (completion != null) {
+                openFrames.push(Map.entry(completion, workStack.size()));
+            }
+            processClassFields(frame, state, children);
+            if (!requiredFields.isEmpty()) {
+                frame.schema().setRequired(new ArrayList<>(requiredFields));
+                requiredFields.clear();
+            }
+            // Push in reverse so that nested classes are expanded in declaration order.
+            for (int i = children.size() - 1; i >= 0; i--) {
+                workStack.push(children.get(i));
+            }
+            children.clear();
+            while (!openFrames.isEmpty() && openFrames.peek().getValue() >= workStack.size()) {
+                openFrames.pop().getKey().run();
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the frame that generates the object at a scope, following the same groups and dynamic-section
+     * items as {@link #generate}. The frames carry empty schema nodes; they only provide the class, scope and
+     * ancestry needed to continue generation below them.
+     *
+     * @throws IllegalArgumentException if the form has no object at the scope.
+     */
+    private Frame locateFrame(FormClassMetadata rootMetadata, ScopePath scope, GenerationState state) {
+        Frame frame = findFrame(rootMetadata, scope, state);
+        if (frame == null) {
+            throw new IllegalArgumentException("Cursor scope '" + scope + "' does not exist in form " + rootMetadata.type().getName());
+        }
+        return frame;
+    }
+
+    /**
+     * @return The frame that generates the object at a scope, see {@link #locateFrame}, or null if there is none.
+     */
+    private Frame findFrame(FormClassMetadata rootMetadata, ScopePath scope, GenerationState state) {
+        Deque<String> properties = new ArrayDeque<>();
+        for (ScopePath current = scope; !current.isRoot(); current = current.parent()) {
+            properties.push(current.property());
+        }
+        Frame frame = new Frame(rootMetadata, rootMetadata.layout(), new JsonSchema(), new ArrayList<>(), ScopePath.ROOT, null, null, null, 0);
+        for (String property : properties) {
+            frame = locateChild(frame, property, state);
+            if (frame == null) {
+                return null;
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Checks that every path of a selection names a field, group, dynamic section or dynamic-section item.
+     *
+     * @throws IllegalArgumentException for the first path that does not exist in the form.
+     */
+    private void checkSelection(FormClassMetadata rootMetadata, FieldSelection selection, GenerationState state) {
+        for (ScopePath path : selection.paths()) {
+            if (path.isRoot()) {
+                continue;
+            }
+            Frame parent = findFrame(rootMetadata, path.parent(), state);
+            FieldMetadata field = parent != null ? parent.metadata().field(path.property()) : null;
+            boolean exists = field != null && (field.field() != null || field.group() != null || field.dynamicSection() != null)
+                    || parent != null && locateChild(parent, path.property(), state) != null;
+            if (!exists) {
+                throw new IllegalArgumentException("Field path '" + path + "' does not exist in form " + rootMetadata.type().getName());
+            }
+        }
+    }
+
+    /**
+     * Adds the fields that the rules of a partial form refer to, but which were not selected, to the schema.
+     * Objects on the way to such a field are added as plain objects; nothing is added to the UI schema or
+     * to the required lists.
+     */
+    private void addRuleDependencies(JsonSchema schema, FormClassMetadata rootMetadata, GenerationState state) {
+        Set<ScopePath> dependencies = new LinkedHashSet<>();
+        for (UiSchemaElement control : state.controls.values()) {
+            collectConditionScopes(control.getRule() != null ? control.getRule().getCondition() : null, dependencies);
+        }
+        state.dynamicMetadata.fields().forEach((fieldName, override) -> {
+            if (override.rule() != null && state.controls.containsKey(ScopePath.ROOT.child(fieldName))) {
+                collectConditionScopes(state.rules.relocate(override.rule(), ScopePath.ROOT).getCondition(), dependencies);
+            }
+        });
+        for (ScopePath dependency : dependencies) {
+            if (dependency.isRoot()) {
+                continue;
+            }
+            Deque<String> properties = new ArrayDeque<>();
+            for (ScopePath current = dependency.parent(); !current.isRoot(); current = current.parent()) {
+                properties.push(current.property());
+            }
+            Frame frame = new Frame(rootMetadata, rootMetadata.layout(), new JsonSchema(), new ArrayList<>(), ScopePath.ROOT, null, null, null, 0);
+            JsonSchema object = schema;
+            for (String property : properties) {
+                frame = locateChild(frame, property, state);
+                SchemaNode node = object.getProperties().get(property);
+                if (frame == null || node != null && !(node instanceof JsonSchema)) {
+                    object = null;
+                    break;
+                }
+                if (node == null) {
+                    JsonSchema nested = new JsonSchema();
+                    nested.setType("object");
+                    object.getProperties().put(property, nested);
+                    node = nested;
+                }
+                object = (JsonSchema) node;
+            }
+            if (object == null || object.getProperties().containsKey(dependency.property())) {
+                continue;
+            }
+            FieldMetadata field = frame.metadata().field(dependency.property());
+            if (field != null && field.field() != null) {
+                object.getProperties().put(dependency.property(), createSchemaProperty(field.field(), field.type()));
+            }
+        }
+    }
+
+    private static void collectConditionScopes(Condition condition, Set<ScopePath> scopes) {
+        if (condition == null) {
+            return;
+        }
+        if (condition.getScope() != null) {
+            scopes.add(condition.getScope());
+        }
+        if (condition.getConditions() != null) {
+            for (Condition nested : condition.getConditions()) {
+                collectConditionScopes(nested, scopes);
+            }
+        }
+    }
+
+    private Frame locateChild(Frame frame, String property, GenerationState state) {
+        ScopePath childScope = frame.scope().child(property);
+        FieldMetadata field = frame.metadata().field(property);
+        if (field != null && field.group() != null) {
+            FormClassMetadata nestedMetadata = FormClassMetadata.of(field.type());
+            if (frame.findAncestor(nestedMetadata) != null) {
+                return null;
+            }
+            return frame.child(nestedMetadata, new JsonSchema(), new ArrayList<>(), childScope, frame.fieldRules(), frame.dynamicItem(), limits);
+        }
+        for (FieldMetadata candidate : frame.metadata().fields()) {
+            DynamicSectionSpec section = candidate.dynamicSection();
+            if (section == null || candidate.group() != null || candidate.field() != null
+                    || !property.startsWith(section.propertyKeyPrefix())) {
+                continue;
+            }
+            for (DynamicMetadata.Item item : sectionItems(state, candidate.name(), section)) {
+                if (property.equals(section.propertyKeyPrefix() + item.key())) {
+                    FormClassMetadata itemMetadata = FormClassMetadata.of(section.itemDto());
+                    if (frame.findAncestor(itemMetadata) != null) {
+                        return null;
+                    }
+                    return frame.child(itemMetadata, new JsonSchema(), new ArrayList<>(), childScope, item.fieldRules(), null, limits);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The main dispatcher for processing fields within a class. It checks if a custom declarative
+     * layout is defined via the @Layout annotation and delegates to the appropriate processing method.
+     * Nested classes are not processed here; they are appended to {@code children} so the caller can
+     * expand them from its work stack.
+     *
+     * @param frame    The class being processed together with the schema, UI elements and scope it writes to.
+     * @param state    The per-generation state holding the dynamic metadata and the limit counters.
+     * @param children The list that receives a frame for every nested class discovered in this class.
+     */
+    private void processClassFields(Frame frame, GenerationState state, List<Frame> children) {
+        LayoutSpec layout = frame.layout();
+
+        if (layout != null) {
+            FormClassMetadata classMetadata = frame.metadata();
+            for (LayoutSpec.Item item : layout.items()) {
+                List<UiSchemaLayoutElement> currentContainer = frame.uiElements();
+                if (item.type() == LayoutType.HORIZONTAL) {
+                    UiSchemaHorizontalLayoutElement hLayout = new UiSchemaHorizontalLayoutElement();
+                    frame.uiElements().add(hLayout);
+                    currentContainer = hLayout.getElements();
+                }
+                for (String fieldName : item.fields()) {
+                    FieldMetadata field = classMetadata.field(fieldName);
+                    if (field != null) {
+                        processSingleField(field, frame, currentContainer, state, children);
+                    }
+                }
+                if (state.selection != null && currentContainer.isEmpty() && currentContainer != frame.uiElements()) {
+                    // None of the layout's fields were selected.
+                    frame.uiElements().remove(frame.uiElements().size() - 1);
+                }
+            }
+        } else {
+            processWithDefaultLayout(frame, state, children);
+        }
+    }
+
+    /**
+     * Processes fields in their default declaration order, creating a simple vertical list of controls.
+     * This is the fallback behavior when no custom @Layout is specified.
+     *
+     * @param frame    The class being processed.
+     * @param state    The per-generation state.
+     * @param children The list that receives frames for nested classes.
+     */
+    private void processWithDefaultLayout(Frame frame, GenerationState state, List<Frame> children) {
+        for (FieldMetadata field : frame.metadata().fields()) {
+            processSingleField(field, frame, frame.uiElements(), state, children);
+        }
+    }
+
+    /**
+     * Processes a single field, determining if it's a regular form field (@JsonFormField) or a
+     * nested group of fields (@JsonFormGroup) and calls the appropriate handler.
+     *
+     * @param field            The field to process.
+     * @param frame            The class the field belongs to.
+     * @param parentUiElements The list of UI elements where the new element for this field should be added.
+     * @param state            The per-generation state.
+     * @param children         The list that receives a frame when the field is a nested group.
+     */
+    private void processSingleField(FieldMetadata field, Frame frame, List<UiSchemaLayoutElement> parentUiElements, GenerationState state, List<Frame> children) {
+        FieldSpec fieldAnnotation = field.field();
+        GroupSpec groupAnnotation = field.group();
+        DynamicSectionSpec dynamicSectionAnnotation = field.dynamicSection();
+        JsonSchema parentSchema = frame.schema();
+        ScopePath currentScope = frame.scope();
+        if (state.selection != null && dynamicSectionAnnotation == null && !state.selection.includes(currentScope.child(field.name()))) {
+            return;
+        }
+
+        if (groupAnnotation != null) {
+            String fieldName = field.name();
+            FormClassMetadata nestedMetadata = FormClassMetadata.of(field.type());
+            state.countField(currentScope, fieldName);
+
+            Frame recursiveAncestor = frame.findAncestor(nestedMetadata);
+            if (recursiveAncestor != null) {
+                // A recursive type cannot be expanded; point back at the node that is already generating it.
+                parentSchema.getProperties().put(fieldName, new SchemaReference(recursiveAncestor.scope().toString()));
+                return;
+            }
+
+            ScopePath groupScope = currentScope.child(fieldName);
+            // A fragment holds the whole group, so it is only used if the group is covered by the selection.
+            GroupFragment fragment = state.selection == null || state.selection.covers(groupScope)
+                    ? findFragment(nestedMetadata, frame) : null;
+            if (fragment != null) {
+                state.countFields(groupScope, fragment.fieldCount());
+                parentSchema.getProperties().put(fieldName, fragment.newSchema(groupAnnotation.label()));
+                UiSchemaGroupElement uiGroup = new UiSchemaGroupElement();
+                uiGroup.setLabel(groupAnnotation.label());
+                fragment.relocate(groupScope, uiGroup.getElements(), state.controlIndex);
+                parentUiElements.add(uiGroup);
+                return;
+            }
+
+            JsonSchema groupSchema = new JsonSchema();
+            groupSchema.setType("object");
+            groupSchema.setTitle(groupAnnotation.label());
+            parentSchema.getProperties().put(fieldName, groupSchema);
+            UiSchemaGroupElement uiGroup = new UiSchemaGroupElement();
+            uiGroup.setLabel(groupAnnotation.label());
+            parentUiElements.add(uiGroup);
+            // Pass the fieldRules and the enclosing dynamic item down to the nested class.
+            children.add(frame.child(nestedMetadata, groupSchema, uiGroup.getElements(),
+                    groupScope, frame.fieldRules(), frame.dynamicItem(), limits));
+        } else if (fieldAnnotation != null) {
+            String fieldName = field.name();
+            state.countField(currentScope, fieldName);
+            SchemaProperty schemaProperty = createSchemaProperty(fieldAnnotation, field.type());
+            parentSchema.getProperties().put(fieldName, schemaProperty);
+            if (fieldAnnotation.required()) {
+                state.requiredFields.add(fieldName);
+            }
+            ScopePath controlScope = currentScope.child(fieldName);
+            UiSchemaElement uiElement = createUiElement(fieldAnnotation, field.rule(), controlScope, state);
+            parentUiElements.add(uiElement);
+            state.indexControl(controlScope, uiElement);
+
+            // --- NEW LOGIC FOR DYNAMIC RULES ---
+            // Check if a rule was passed down for this specific field.
+            Map<String, Rule> fieldRules = frame.fieldRules();
+            Rule itemRule = fieldRules != null ? fieldRules.get(field.name()) : null;
+            if (itemRule != null) {
+                // Item rules are relative to the dynamic-section item that declared them.
+                uiElement.setRule(state.rules.relocate(itemRule, frame.dynamicItem().scope()));
+            }
+
+        } else if (dynamicSectionAnnotation != null) {
+            state.countField(currentScope, field.name());
+            processDynamicSection(field.name(), dynamicSectionAnnotation, frame, parentUiElements, state, children);
+        }
+    }
+
+    /**
+     * Returns the cached fragment of a group DTO if it can be embedded below a frame: the DTO must be
+     * cacheable, the frame must not pass dynamic field rules down, the fragment must fit into the depth
+     * limit, and none of its DTOs may be an ancestor of the frame (which would make it recursive here).
+     */
+    private GroupFragment findFragment(FormClassMetadata groupMetadata, Frame frame) {
+        if (frame.fieldRules() != null && !frame.fieldRules().isEmpty()) {
+            return null;
+        }
+        GroupFragment fragment = FRAGMENTS.get(groupMetadata.type()).orElse(null);
+        if (fragment == null || frame.depth() + fragment.depth() > limits.maxDepth()) {
+            return null;
+        }
+        for (Frame ancestor = frame; ancestor != null; ancestor = ancestor.parent()) {
+            if (fragment.types().contains(ancestor.metadata())) {
+                return null;
+            }
+        }
+        return fragment;
+    }
+
+    /**
+     * Generates the fragment of a group DTO relative to {@link ScopePath#ROOT}. A DTO is only cacheable
+     * if neither it nor its nested groups declare rules or dynamic sections, whose output depends on the
+     * embedding form, and its groups are not recursive.
+     */
+    private Optional<GroupFragment> buildFragment(FormClassMetadata metadata) {
+        Set<FormClassMetadata> types = new HashSet<>();
+        int depth = fragmentDepth(metadata, new HashSet<>(), types);
+        if (depth < 0) {
+            return Optional.empty();
+        }
+        JsonSchema schema = new JsonSchema();
+        List<UiSchemaLayoutElement> elements = new ArrayList<>();
+        GenerationState state = acquireState(metadata.type(), DynamicMetadata.empty(metadata.type()));
+        try {
+            state.workStack.push(new Frame(metadata, metadata.layout(), schema, elements, ScopePath.ROOT, null, null, null, 0));
+            expand(state);
+            return Optional.of(new GroupFragment(schema, List.copyOf(elements), state.fieldCount, depth, Set.copyOf(types)));
+        } finally {
+            releaseState(state);
+        }
+    }
+
+    /**
+     * @return The nesting depth of a group DTO including its nested groups, or -1 if it is not cacheable.
+     */
+    private static int fragmentDepth(FormClassMetadata metadata, Set<FormClassMetadata> path, Set<FormClassMetadata> types) {
+        if (!path.add(metadata)) {
+            return -1;
+        }
+        types.add(metadata);
+        int depth = 1;
+        for (FieldMetadata field : metadata.fields()) {
+            if (field.group() != null) {
+                int nestedDepth = fragmentDepth(FormClassMetadata.of(field.type()), path, types);
+                if (nestedDepth < 0) {
+                    return -1;
+                }
+                depth = Math.max(depth, nestedDepth + 1);
+            } else if (field.field() != null ? field.rule() != null : field.dynamicSection() != null) {
+                return -1;
+            }
+        }
+        path.remove(metadata);
+        return depth;
+    }
+
+    /**
+     * Handles the generation of a dynamic form section based on the @JsonFormDynamicSection annotation.
+     * A group is created for every item immediately, while the item DTO's fields are expanded later
+     * from the frames appended to {@code children}.
+     * <p>
+     * If the section has a page size, only one page of items is generated: the first page, or the page
+     * requested by the state's continuation cursor. A cursor for the following page is recorded in the state.
+     * If the state has a selection that does not cover the section, the selected items are generated without pagination;
+     * if it covers the section, the generated items are covered as well.
+     */
+    private void processDynamicSection(String placeholderFieldName, DynamicSectionSpec dynamicSectionAnnotation, Frame frame, List<UiSchemaLayoutElement> parentUiElements, GenerationState state, List<Frame> children) {
+        List<DynamicMetadata.Item> items = sectionItems(state, placeholderFieldName, dynamicSectionAnnotation);
+        if (items.isEmpty()) return;
+
+        ScopePath sectionScope = frame.scope().child(placeholderFieldName);
+        DynamicSectionEvent event = new DynamicSectionEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            event.formClass = state.rootDtoClass;
+            event.section = sectionScope.toString();
+            event.totalItems = items.size();
+        }
+        if (state.selection != null && !state.selection.covers(sectionScope)) {
+            List<DynamicMetadata.Item> selected = new ArrayList<>();
+            for (DynamicMetadata.Item item : items) {
+                if (state.selection.includes(frame.scope().child(dynamicSectionAnnotation.propertyKeyPrefix() + item.key()))) {
+                    selected.add(item);
+                }
+            }
+            Frame last = addItems(selected, sectionScope, dynamicSectionAnnotation, frame, parentUiElements, state, children);
+            completeSection(event, selected.size(), 0, last, state);
+            return;
+        }
+        int start = 0;
+        if (state.continuation != null && state.continuation.section().equals(sectionScope)) {
+            start = state.continuation.resolveStart(items.stream().map(DynamicMetadata.Item::key).toList());
+        }
+        Integer pageSizeOverride = state.dynamicMetadata.section(placeholderFieldName).pageSize();
+        int pageSize = !state.paginated ? 0 : pageSizeOverride != null ? pageSizeOverride : dynamicSectionAnnotation.pageSize();
+        int end = pageSize > 0 ? Math.min(items.size(), start + pageSize) : items.size();
+        if (state.selection != null) {
+            List<ScopePath> itemScopes = new ArrayList<>(end - start);
+            for (DynamicMetadata.Item item : items.subList(start, end)) {
+                itemScopes.add(frame.scope().child(dynamicSectionAnnotation.propertyKeyPrefix() + item.key()));
+            }
+            state.selection = state.selection.withCovered(itemScopes);
+        }
+        Frame last = addItems(items.subList(start, end), sectionScope, dynamicSectionAnnotation, frame, parentUiElements, state, children);
+        completeSection(event, end - start, Math.max(pageSize, 0), last, state);
+
+        if (end < items.size()) {
+            SectionCursor next = new SectionCursor(sectionScope, end, items.get(end - 1).key());
+            state.addCursor(sectionScope.toString(), next.encode());
+        }
+    }
+
+    /**
+     * Records a section event once the section's last item frame, and everything nested in it, has been
+     * processed; at once if the section has no item frames.
+     */
+    private static void completeSection(DynamicSectionEvent event, int items, int pageSize, Frame lastItem, GenerationState state) {
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.items = items;
+        event.pageSize = pageSize;
+        if (lastItem == null) {
+            event.commit();
+        } else {
+            // Runs after the item's own completion, which was registered first.
+            state.pendingCompletions.merge(lastItem, event::commit, (first, second) -> () -> {
+                first.run();
+                second.run();
+            });
+        }
+    }
+
+    /**
+     * Creates the schema node and UI group of each item of a dynamic section, and a frame for the item DTO.
+     *
+     * @return The frame of the last item, or null if no item has a frame.
+     */
+    private Frame addItems(List<DynamicMetadata.Item> page, ScopePath sectionScope, DynamicSectionSpec dynamicSectionAnnotation,
+                          Frame frame, List<UiSchemaLayoutElement> parentUiElements, GenerationState state, List<Frame> children) {
+        if (page.isEmpty()) {
+            return null;
+        }
+        String placeholderFieldName = sectionScope.property();
+        state.countDynamicItems(frame.scope(), placeholderFieldName, page.size());
+        FormClassMetadata itemDto = FormClassMetadata.of(dynamicSectionAnnotation.itemDto());
+        Frame recursiveAncestor = frame.findAncestor(itemDto);
+
+        Frame last = null;
+        for (DynamicMetadata.Item item : page) {
+            String label = item.label();
+            String dynamicItemKey = dynamicSectionAnnotation.propertyKeyPrefix() + item.key();
+
+            if (recursiveAncestor != null) {
+                SchemaReference reference = new SchemaReference(recursiveAncestor.scope().toString());
+                frame.schema().getProperties().put(dynamicItemKey, reference);
+                if (state.itemListener != null) {
+                    state.itemListener.accept(new GeneratedItem(sectionScope, dynamicItemKey, reference, null));
+                }
+                continue;
+            }
+
+            JsonSchema itemSchema = new JsonSchema();
+            itemSchema.setType("object");
+            itemSchema.setTitle(label);
+            frame.schema().getProperties().put(dynamicItemKey, itemSchema);
+
+            UiSchemaGroupElement itemGroup = new UiSchemaGroupElement();
+            itemGroup.setLabel(label);
+            parentUiElements.add(itemGroup);
+
+            // Pass the item-specific rules down to the item DTO; the item frame becomes the rule base of its fields.
+            Frame itemFrame = frame.child(itemDto, itemSchema, itemGroup.getElements(), frame.scope().child(dynamicItemKey), item.fieldRules(), null, limits);
+            children.add(itemFrame);
+            last = itemFrame;
+            if (state.itemListener != null) {
+                // Reported by expand() once the item frame and everything nested in it has been processed.
+                GeneratedItem generated = new GeneratedItem(sectionScope, dynamicItemKey, itemSchema, itemGroup);
+                Consumer<GeneratedItem> listener = state.itemListener;
+                state.pendingCompletions.put(itemFrame, () -> listener.accept(generated));
+            }
+        }
+        return last;
+    }
+
+    /**
+     * @return The items of a dynamic section declared as {@code section}, or an empty list.
+     */
+    private static List<DynamicMetadata.Item> sectionItems(GenerationState state, String placeholderFieldName, DynamicSectionSpec section) {
+        DynamicMetadata.Section sectionData = state.dynamicMetadata.section(placeholderFieldName);
+        return sectionData != null ? sectionData.items(section) : List.of();
+    }
+
+    /**
+     * Creates a {@link SchemaProperty} object based on a field's @JsonFormField annotation and Java type.
+     *
+     * @param annotation The resolved @JsonFormField annotation on the field.
+     * @param fieldType  The Java {@link Class} type of the field.
+     * @return A configured {@link SchemaProperty} instance.
+     */
+    private SchemaProperty createSchemaProperty(FieldSpec annotation, Class<?> fieldType) {
+        SchemaProperty schemaProperty = new SchemaProperty();
+        schemaProperty.setType(mapJavaTypeToJsonType(fieldType));
+        schemaProperty.setTitle(annotation.label());
+        schemaProperty.setDescription(annotation.description().isBlank() ? null : annotation.description());
+        schemaProperty.setFormat(annotation.format().isBlank() ? null : annotation.format());
+        if (annotation.minLength() > -1) schemaProperty.setMinLength(annotation.minLength());
+        if (annotation.maxLength() > -1) schemaProperty.setMaxLength(annotation.maxLength());
+        if (!annotation.dictionary().isBlank()) schemaProperty.setRef(DICTIONARY_REF + annotation.dictionary());
+        return schemaProperty;
+    }
+
+    /**
+     * Creates a {@link UiSchemaElement} (a "Control") based on a field's annotations.
+     *
+     * @param fieldAnnotation The resolved @JsonFormField annotation on the field.
+     * @param ruleAnnotation  The resolved @JsonFormRule annotation on the field, or null.
+     * @param scope           The JSON scope path for this control (e.g., "#/properties/firstName").
+     * @param state           The per-generation state providing the rule builder and root class.
+     * @return A configured {@link UiSchemaElement} instance.
+     */
+    private UiSchemaElement createUiElement(FieldSpec fieldAnnotation, RuleSpec ruleAnnotation, ScopePath scope, GenerationState state) {
+        UiSchemaElement uiElement = new UiSchemaElement();
+        uiElement.setScope(scope);
+        uiElement.setLabel(fieldAnnotation.label());
+
+        if (fieldAnnotation.controlType() == UiControlType.TEXT_AREA) {
+            uiElement.setOptions(Map.of("multi", true));
+        }
+        uiElement.setOptionsFromString(fieldAnnotation.options());
+
+        if (ruleAnnotation != null) {
+            // Condition fields of static rules are resolved against the root DTO.
+            uiElement.setRule(state.rules.fromAnnotation(ruleAnnotation, state.rootDtoClass));
+        }
+        return uiElement;
+    }
+
+    /**
+     * Applies dynamic metadata to the already generated schema and UI schema. This is used
+     * to inject runtime values, such as enum lists from a database.
+     *
+     * @param schema The generated {@link JsonSchema}.
+     * @param state  The per-generation state with the dynamic metadata and the controls indexed by their scope.
+     */
+    private void applyDynamicMetadata(JsonSchema schema, GenerationState state) {
+        DynamicMetadataEvent event = new DynamicMetadataEvent();
+        event.begin();
+        state.dynamicMetadata.fields().forEach((fieldName, override) -> {
+            if (!(schema.getProperties().get(fieldName) instanceof SchemaProperty schemaProperty)) {
+                return;
+            }
+            UiSchemaElement control = state.controls.get(ScopePath.ROOT.child(fieldName));
+            if (override.dictionary() != null) {
+                schemaProperty.setRef(DICTIONARY_REF + override.dictionary());
+                schemaProperty.setEnumValues(null);
+            } else if (override.enumValues() != null) {
+                // Options given with the request replace a dictionary declared on the field.
+                schemaProperty.setRef(null);
+                if (override.enumNames() != null) {
+                    List<SchemaOption> options = new ArrayList<>(override.enumValues().size());
+                    for (int i = 0; i < override.enumValues().size(); i++) {
+                        options.add(new SchemaOption(override.enumValues().get(i), override.enumNames().get(i)));
+                    }
+                    schemaProperty.setOneOf(options);
+                } else {
+                    schemaProperty.setEnumValues(override.enumValues());
+                }
+            }
+            if (override.label() != null) {
+                if (control != null) {
+                    control.setLabel(override.label());
+                }
+                schemaProperty.setTitle(override.label());
+            }
+            if (override.rule() != null && control != null) {
+                control.setRule(state.rules.relocate(override.rule(), ScopePath.ROOT));
+            }
+        });
+        state.dynamicMetadata.commitEvent(event, DynamicMetadataEvent.APPLY);
+    }
+
+    /**
+     * Emits every option dictionary that a property of the form refers to in the {@code $defs} of the root
+     * schema. A dictionary that is not registered is emitted without options, so the field accepts any value.
+     *
+     * @param schema The generated root schema.
+     * @param state  The per-generation state with the form class, for the warning about unknown dictionaries.
+     */
+    private void addDictionaryDefinitions(JsonSchema schema, GenerationState state) {
+        Set<String> names = state.dictionaryNames;
+        Deque<JsonSchema> pending = state.pendingSchemas;
+        pending.push(schema);
+        while (!pending.isEmpty()) {
+            for (SchemaNode node : pending.pop().getProperties().values()) {
+                if (node instanceof JsonSchema nested) {
+                    pending.push(nested);
+                } else if (node instanceof SchemaProperty property && property.getRef() != null) {
+                    names.add(property.getRef().substring(DICTIONARY_REF.length()));
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        Map<String, SchemaNode> definitions = new TreeMap<>();
+        for (String name : names) {
+            OptionDictionary dictionary = dictionaries.get(name);
+            if (dictionary == null) {
+                reportUnknownDictionary(state.rootDtoClass, name);
+            }
+            definitions.put(name, dictionary != null ? dictionary.toDefinition() : new SchemaDictionary());
+        }
+        schema.setDefs(definitions);
+    }
+
+    /**
+     * Warns about an unknown dictionary the first time a form class refers to it, rather than on every generation.
+     */
+    private void reportUnknownDictionary(Class<?> formClass, String name) {
+        String key = formClass.getName() + '#' + name;
+        boolean first = reportedUnknownDictionaries.size() < MAX_REPORTED_UNKNOWN_DICTIONARIES && reportedUnknownDictionaries.add(key);
+        LOGGER.log(first ? System.Logger.Level.WARNING : System.Logger.Level.DEBUG, () -> "Form '" + formClass.getName()
+                + "' refers to the unknown option dictionary '" + name + "'. Its fields accept any value.");
+    }
+
+    /**
+     * Maps a Java {@link Class} type to its corresponding JSON schema type string.
+     *
+     * @param javaType The Java class.
+     * @return The JSON schema type as a String (e.g., "string", "integer").
+     */
+    private String mapJavaTypeToJsonType(Class<?> javaType) {
+        if (javaType == String.class) return "string";
+        if (javaType == Integer.class || javaType == int.class || javaType == Long.class || javaType == long.class) return "integer";
+        if (javaType == Double.class || javaType == double.class || javaType == Float.class || javaType == float.class) return "number";
+        if (javaType == Boolean.class || javaType == boolean.class) return "boolean";
+        if (javaType.isEnum()) return "string"; // Enums are represented as strings in JSON.
+        return "object"; // Default for complex types.
+    }
+
+    /**
+     * A unit of work on the generator's stack: one class whose fields are written into a schema
+     * node and a list of UI elements at a given scope.
+     *
+     * @param metadata              The cached metadata of the class whose fields are processed.
+     * @param layout                The custom layout for the class, or null for the default layout.
+     * @param schema                The schema node receiving the class's properties.
+     * @param uiElements            The UI elements receiving the class's controls.
+     * @param scope                 The JSON scope of the object the class is generated into (e.g., "#" for the root).
+     * @param fieldRules            Dynamic rules for fields of a dynamic-section item relative to the item, or null.
+     * @param enclosingItem         The frame of the enclosing dynamic-section item, or null outside dynamic sections.
+     * @param parent                The frame that discovered this class, or null for the root class.
+     * @param depth                 The nesting depth, 0 for the root class.
+     */
+    private record Frame(FormClassMetadata metadata, LayoutSpec layout, JsonSchema schema, List<UiSchemaLayoutElement> uiElements,
+                         ScopePath scope, Map<String, Rule> fieldRules, Frame enclosingItem, Frame parent, int depth) {
+
+        /**
+         * @return The frame of the dynamic-section item this frame belongs to; an item frame is its own item.
+         */
+        Frame dynamicItem() {
+            return enclosingItem != null ? enclosingItem : this;
+        }
+
+        /**
+         * Creates the frame of a nested class.
+         *
+         * @param nestedItem The enclosing dynamic-section item to inherit, or null if the nested class is itself an item.
+         */
+        Frame child(FormClassMetadata nestedMetadata, JsonSchema nestedSchema, List<UiSchemaLayoutElement> nestedUiElements,
+                    ScopePath nestedScope, Map<String, Rule> nestedFieldRules, Frame nestedItem, GenerationLimits limits) {
+            if (depth + 1 > limits.maxDepth()) {
+                throw new JsonFormGenerationException("Form exceeds the maximum nesting depth of " + limits.maxDepth()
+                        + " at scope '" + nestedScope + "'.");
+            }
+            return new Frame(nestedMetadata, nestedMetadata.layout(), nestedSchema, nestedUiElements, nestedScope, nestedFieldRules, nestedItem, this, depth + 1);
+        }
+
+        /**
+         * Finds the closest frame in this frame's ancestry (including itself) that processes the given class.
+         */
+        Frame findAncestor(FormClassMetadata type) {
+            for (Frame frame = this; frame != null; frame = frame.parent) {
+                if (frame.metadata == type) {
+                    return frame;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Mutable state of a single {@link #generate} call. Between calls it is cleared and kept in the
+     * generator's pool; its collections are scratch space that keeps its capacity, the model is never
+     * built into them.
+     */
+    private final class GenerationState {
+        private Class<?> rootDtoClass;
+        private DynamicMetadata dynamicMetadata;
+        // The controls that are looked up again after the fields were processed, see indexControl().
+        private final Map<ScopePath, UiSchemaElement> controls = new HashMap<>();
+        private final BiConsumer<ScopePath, UiSchemaElement> controlIndex = this::indexControl;
+        private final RuleBuilder rules = new RuleBuilder();
+        // Part of the result, so it is created per call, and only if a section is paginated.
+        private Map<String, String> cursors;
+        private SectionCursor continuation;
+        private FieldSelection selection;
+        private boolean paginated = true;
+        private Consumer<GeneratedItem> itemListener;
+        // Callbacks to run once a frame and everything nested in it has been processed.
+        private final Map<Frame, Runnable> pendingCompletions = new IdentityHashMap<>();
+        private int fieldCount;
+        private int dynamicItemCount;
+
+        private final Deque<Frame> workStack = new ArrayDeque<>();
+        private final List<Frame> children = new ArrayList<>();
+        // Completions of frames being generated, with the stack size at which everything nested in them has been processed.
+        private final Deque<Map.Entry<Runnable, Integer>> openFrames = new ArrayDeque<>();
+        // The required fields of the frame being processed; copied into its schema afterwards.
+        private final List<String> requiredFields = new ArrayList<>();
+        private final Set<String> dictionaryNames = new TreeSet<>();
+        private final Deque<JsonSchema> pendingSchemas = new ArrayDeque<>();
+
+        /**
+         * Records a control by its scope if it may be needed later: dynamic metadata only changes the controls
+         * of top-level fields, but the rules of every control of a partial form are scanned for dependencies.
+         */
+        void indexControl(ScopePath scope, UiSchemaElement control) {
+            if (selection != null || scope.depth() == 1) {
+                controls.put(scope, control);
+            }
+        }
+
+        void addCursor(String section, String cursor) {
+            if (cursors == null) {
+                cursors = new LinkedHashMap<>();
+            }
+            cursors.put(section, cursor);
+        }
+
+        int cursorCount() {
+            return cursors != null ? cursors.size() : 0;
+        }
+
+        /**
+         * Drops every reference to the finished generation and its model.
+         */
+        void clear() {
+            rootDtoClass = null;
+            dynamicMetadata = null;
+            controls.clear();
+            rules.clear();
+            cursors = null;
+            continuation = null;
+            selection = null;
+            paginated = true;
+            itemListener = null;
+            pendingCompletions.clear();
+            fieldCount = 0;
+            dynamicItemCount = 0;
+            workStack.clear();
+            children.clear();
+            openFrames.clear();
+            requiredFields.clear();
+            dictionaryNames.clear();
+            pendingSchemas.clear();
+        }
+
+        void countField(ScopePath parentScope, String fieldName) {
+            if (++fieldCount > limits.maxFields()) {
+                throw new JsonFormGenerationException("Form '" + rootDtoClass.getName() + "' exceeds the maximum of "
+                        + limits.maxFields() + " fields at scope '" + parentScope.child(fieldName) + "'.");
+            }
+        }
+
+        void countFields(ScopePath scope, int fields) {
+            fieldCount += fields;
+            if (fieldCount > limits.maxFields()) {
+                throw new JsonFormGenerationException("Form '" + rootDtoClass.getName() + "' exceeds the maximum of "
+                        + limits.maxFields() + " fields at scope '" + scope + "'.");
+            }
+        }
+
+        void countDynamicItems(ScopePath parentScope, String fieldName, int items) {
+            dynamicItemCount += items;
+            if (dynamicItemCount > limits.maxDynamicItems()) {
+                throw new JsonFormGenerationException("Form '" + rootDtoClass.getName() + "' exceeds the maximum of "
+                        + limits.maxDynamicItems() + " dynamic items at scope '" + parentScope.child(fieldName) + "'.");
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.annotations.ConditionOperator;
+import com.eainde.form_forge.exception.JsonFormGenerationException;
+import com.eainde.form_forge.metadata.ConditionSpec;
+import com.eainde.form_forge.metadata.FieldMetadata;
+import com.eainde.form_forge.metadata.FormClassMetadata;
+import com.eainde.form_forge.metadata.RuleSpec;
+import com.eainde.form_forge.models.uischema.*;
+
+import java.util.*;
+
+/**
+ * Builds UI schema rules from @JsonFormRule annotations and from dynamic metadata.
+ * <p>
+ * One builder is used per generation at a time. Every condition it creates is interned, so a condition or
+ * sub-condition that occurs on many controls is a single shared instance in the generated model.
+ * <p>
+ * Dynamic rules are maps with an "effect" and either the simple "conditionField"/"expectedValue"
+ * pair or a "condition" map. A condition map is one of:
+ * <ul>
+ *     <li>{@code {"and": [...]}} or {@code {"or": [...]}} with nested condition maps;</li>
+ *     <li>{@code {"not": {...}}} with one nested condition map;</li>
+ *     <li>{@code {"field": "country", "enum": ["US", "CA"]}}, where the field may be restricted with
+ *     "const", "enum", "minimum", "maximum" and "pattern".</li>
+ * </ul>
+ */
+final class RuleBuilder {
+
+    private static final Set<String> LEAF_KEYS = Set.of("field", "const", "enum", "minimum", "maximum", "pattern");
+
+    private final Map<Condition, Condition> interned = new HashMap<>();
+
+    /**
+     * Forgets the interned conditions, so that the builder can be used for another generation.
+     */
+    void clear() {
+        interned.clear();
+    }
+
+    /**
+     * Builds the rule of a @JsonFormRule annotation. Condition fields are resolved against the root form class.
+     */
+    Rule fromAnnotation(RuleSpec spec, Class<?> rootDtoClass) {
+        Condition condition;
+        if (!spec.conditions().isEmpty()) {
+            List<Condition> conditions = new ArrayList<>(spec.conditions().size());
+            for (ConditionSpec conditionSpec : spec.conditions()) {
+                conditions.add(leaf(conditionSpec, rootDtoClass));
+            }
+            condition = conditions.size() == 1 ? conditions.get(0)
+                    : intern(Condition.composite(spec.operator() == ConditionOperator.OR ? Condition.OR : Condition.AND, conditions));
+        } else if (!spec.conditionField().isBlank()) {
+            Object parsedValue = parseExpectedValue(spec.expectedValue(), rootDtoClass, spec.conditionField());
+            condition = intern(Condition.schemaBased(ScopePath.ROOT.child(spec.conditionField()), new ConditionSchema(parsedValue)));
+        } else {
+            throw new JsonFormGenerationException("@JsonFormRule in " + rootDtoClass.getName()
+                    + " must declare either conditionField or conditions.");
+        }
+        return rule(spec.effect(), condition);
+    }
+
+    /**
+     * Builds a rule from dynamic metadata. The condition fields are siblings within a base object: the root
+     * form for top-level rules, or the dynamic-section item for per-item field rules. The conditions of the
+     * returned rule are relative to that object, i.e. a condition field "active" has the scope
+     * {@code #/properties/active}; {@link #relocate} places the rule below the object's actual scope.
+     *
+     * @param ruleData  The rule map.
+     * @param baseClass The class of the base object, used to parse expected values.
+     * @return The rule, or null if the rule map has no effect or no condition.
+     */
+    Rule fromMetadata(Map<String, Object> ruleData, Class<?> baseClass) {
+        Object effectObj = ruleData.get("effect");
+        if (effectObj == null) {
+            return null;
+        }
+        Object conditionData = ruleData.get("condition");
+        Condition condition;
+        if (conditionData instanceof Map<?, ?> conditionMap) {
+            condition = fromMap(conditionMap, ScopePath.ROOT, baseClass);
+        } else {
+            String conditionField = (String) ruleData.get("conditionField");
+            Object expectedValue = ruleData.get("expectedValue");
+            if (conditionField == null || expectedValue == null) {
+                return null;
+            }
+            Object parsedValue = parseExpectedValue(String.valueOf(expectedValue), baseClass, conditionField);
+            condition = intern(Condition.schemaBased(ScopePath.ROOT.child(conditionField), new ConditionSchema(parsedValue)));
+        }
+
+        RuleEffect effect = null;
+        if (effectObj instanceof RuleEffect) {
+            effect = (RuleEffect) effectObj;
+        } else if (effectObj instanceof String) {
+            effect = RuleEffect.valueOf(((String) effectObj).toUpperCase());
+        }
+        return rule(effect, condition);
+    }
+
+    /**
+     * Copies a rule built by {@link #fromMetadata} for an object at {@code baseScope}. The conditions of the
+     * copy are interned in this builder.
+     */
+    Rule relocate(Rule rule, ScopePath baseScope) {
+        return rule(rule.getEffect(), relocate(rule.getCondition(), baseScope));
+    }
+
+    private Condition relocate(Condition condition, ScopePath baseScope) {
+        if (condition.isComposite()) {
+            List<Condition> conditions = new ArrayList<>(condition.getConditions().size());
+            for (Condition child : condition.getConditions()) {
+                conditions.add(relocate(child, baseScope));
+            }
+            return intern(Condition.composite(condition.getType(), conditions));
+        }
+        return intern(Condition.schemaBased(baseScope.resolve(condition.getScope()), condition.getSchema()));
+    }
+
+    private Rule rule(RuleEffect effect, Condition condition) {
+        Rule rule = new Rule();
+        rule.setEffect(effect);
+        rule.setCondition(condition);
+        return rule;
+    }
+
+    private Condition leaf(ConditionSpec spec, Class<?> rootDtoClass) {
+        ConditionSchema schema = new ConditionSchema();
+        if (spec.expectedValue() != null) {
+            schema.setConstantValue(parseExpectedValue(spec.expectedValue(), rootDtoClass, spec.field()));
+        }
+        if (spec.enumValues() != null) {
+            List<Object> values = new ArrayList<>(spec.enumValues().size());
+            for (String value : spec.enumValues()) {
+                values.add(parseExpectedValue(value, rootDtoClass, spec.field()));
+            }
+            schema.setEnumValues(values);
+        }
+        if (spec.minimum() != null) schema.setMinimum(compactNumber(spec.minimum()));
+        if (spec.maximum() != null) schema.setMaximum(compactNumber(spec.maximum()));
+        schema.setPattern(spec.pattern());
+        requireConstraint(schema, spec.field());
+        Condition condition = intern(Condition.schemaBased(ScopePath.ROOT.child(spec.field()), schema));
+        return spec.negated() ? negate(condition) : condition;
+    }
+
+    private Condition fromMap(Map<?, ?> data, ScopePath baseScope, Class<?> baseClass) {
+        if (data.size() == 1 && (data.containsKey("and") || data.containsKey("or"))) {
+            boolean and = data.containsKey("and");
+            Object children = data.get(and ? "and" : "or");
+            if (!(children instanceof List<?> list) || list.isEmpty()) {
+                throw new JsonFormGenerationException("Rule condition '" + (and ? "and" : "or") + "' must be a non-empty list.");
+            }
+            List<Condition> conditions = new ArrayList<>(list.size());
+            for (Object child : list) {
+                if (!(child instanceof Map<?, ?> childMap)) {
+                    throw new JsonFormGenerationException("Rule condition entries must be maps, got: " + child);
+                }
+                conditions.add(fromMap(childMap, baseScope, baseClass));
+            }
+            return intern(Condition.composite(and ? Condition.AND : Condition.OR, conditions));
+        }
+        if (data.size() == 1 && data.get("not") instanceof Map<?, ?> negated) {
+            return negate(fromMap(negated, baseScope, baseClass));
+        }
+
+        for (Object key : data.keySet()) {
+            if (!LEAF_KEYS.contains(key)) {
+                throw new JsonFormGenerationException("Unknown key '" + key + "' in rule condition " + data + ".");
+            }
+        }
+        if (!(data.get("field") instanceof String field)) {
+            throw new JsonFormGenerationException("Rule condition " + data + " must name a 'field'.");
+        }
+        ConditionSchema schema = new ConditionSchema();
+        if (data.containsKey("const")) {
+            schema.setConstantValue(toConditionValue(data.get("const"), baseClass, field));
+        }
+        if (data.get("enum") instanceof List<?> values) {
+            List<Object> parsed = new ArrayList<>(values.size());
+            for (Object value : values) {
+                parsed.add(toConditionValue(value, baseClass, field));
+            }
+            schema.setEnumValues(parsed);
+        }
+        schema.setMinimum(toNumber(data.get("minimum"), field));
+        schema.setMaximum(toNumber(data.get("maximum"), field));
+        if (data.get("pattern") != null) {
+            schema.setPattern(String.valueOf(data.get("pattern")));
+        }
+        requireConstraint(schema, field);
+        return intern(Condition.schemaBased(baseScope.child(field), schema));
+    }
+
+    /**
+     * Negates a condition. Schema-based conditions are wrapped in "not"; composite conditions are
+     * rewritten with De Morgan's laws, because JSON Forms has no negated composite condition.
+     */
+    private Condition negate(Condition condition) {
+        if (condition.isComposite()) {
+            List<Condition> negated = new ArrayList<>(condition.getConditions().size());
+            for (Condition child : condition.getConditions()) {
+                negated.add(negate(child));
+            }
+            return intern(Condition.composite(Condition.AND.equals(condition.getType()) ? Condition.OR : Condition.AND, negated));
+        }
+        ConditionSchema schema = condition.getSchema();
+        ConditionSchema negatedSchema = schema.getNot() != null && isOnlyNegation(schema) ? schema.getNot() : ConditionSchema.negate(schema);
+        return intern(Condition.schemaBased(condition.getScope(), negatedSchema));
+    }
+
+    private Condition intern(Condition condition) {
+        Condition existing = interned.putIfAbsent(condition, condition);
+        return existing != null ? existing : condition;
+    }
+
+    private static boolean isOnlyNegation(ConditionSchema schema) {
+        return schema.getConstantValue() == null && schema.getEnumValues() == null && schema.getMinimum() == null
+                && schema.getMaximum() == null && schema.getPattern() == null;
+    }
+
+    private static void requireConstraint(ConditionSchema schema, String field) {
+        if (isOnlyNegation(schema) && schema.getNot() == null) {
+            throw new JsonFormGenerationException("Rule condition on field '" + field
+                    + "' must set at least one of const, enum, minimum, maximum or pattern.");
+        }
+    }
+
+    private static Object toConditionValue(Object value, Class<?> baseClass, String field) {
+        return value instanceof String text ? parseExpectedValue(text, baseClass, field) : value;
+    }
+
+    private static Number toNumber(Object value, String field) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return number;
+        }
+        try {
+            return compactNumber(Double.parseDouble(String.valueOf(value)));
+        } catch (NumberFormatException e) {
+            throw new JsonFormGenerationException("Rule condition bound on field '" + field + "' is not a number: " + value, e);
+        }
+    }
+
+    /**
+     * Keeps whole numbers integral so that they are emitted as e.g. 18 rather than 18.0.
+     */
+    private static Number compactNumber(double value) {
+        return value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE ? (Number) (long) value : (Number) value;
+    }
+
+    /**
+     * Parses the string 'expectedValue' from a @JsonFormRule annotation into its correct
+     * primitive type (boolean, integer, etc.) by inspecting the type of the condition field.
+     *
+     * @param value        The string value from the annotation.
+     * @param dtoClass     The class containing the field (inherited fields are included).
+     * @param fieldName    The name of the field the rule depends on.
+     * @return The parsed value as an {@link Object} (e.g., a Boolean, Integer, or String).
+     */
+    static Object parseExpectedValue(String value, Class<?> dtoClass, String fieldName) {
+        try {
+            // Use the cached class metadata to find the type of the field the condition is based on.
+            FieldMetadata conditionField = FormClassMetadata.of(dtoClass).field(fieldName);
+            if (conditionField == null) {
+                System.err.println("Could not parse rule value for field '" + fieldName + "'. Defaulting to String type. Error: no such field in " + dtoClass.getName());
+                return value;
+            }
+            Class<?> fieldType = conditionField.type();
+
+            // Parse the string value into the correct type.
+            if (fieldType == boolean.class || fieldType == Boolean.class) return Boolean.parseBoolean(value);
+            if (fieldType == int.class || fieldType == Integer.class) return Integer.parseInt(value);
+            if (fieldType == long.class || fieldType == Long.class) return Long.parseLong(value);
+            if (fieldType == double.class || fieldType == Double.class) return Double.parseDouble(value);
+            // If it's not a recognized primitive, assume it's a string comparison.
+            return value;
+        } catch (NumberFormatException e) {
+            // Log an error and default to a string comparison if the value does not match the field type.
+            System.err.println("Could not parse rule value for field '" + fieldName + "'. Defaulting to String type. Error: " + e.getMessage());
+            return value;
+        }
+    }
+}
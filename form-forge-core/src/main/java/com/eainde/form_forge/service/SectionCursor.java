@@ -0,0 +1,64 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.models.uischema.ScopePath;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * The position of the next page of a paginated dynamic section.
+ * <p>
+ * Cursors are handed to clients as opaque URL-safe strings. They carry no server-side state: the next
+ * page is regenerated from the form class and the dynamic metadata of the continuation request. Besides
+ * the offset, a cursor records the key of the last item already delivered, so that a page still starts
+ * after that item when items have been added or removed in front of it in the meantime.
+ *
+ * @param section The scope of the section's placeholder field (e.g., "#/properties/employees").
+ * @param offset  The index of the first item of the next page.
+ * @param lastKey The key of the item before {@code offset}.
+ */
+record SectionCursor(ScopePath section, int offset, String lastKey) {
+
+    private static final String VERSION = "1";
+
+    String encode() {
+        String value = VERSION + '\n' + offset + '\n' + section + '\n' + lastKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the string is not a cursor issued by {@link #encode()}.
+     */
+    static SectionCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split("\n", 4);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unsupported cursor format");
+            }
+            int offset = Integer.parseInt(parts[1]);
+            ScopePath section = ScopePath.parse(parts[2]);
+            if (offset < 1 || section.isRoot()) {
+                throw new IllegalArgumentException("Cursor out of range");
+            }
+            return new SectionCursor(section, offset, parts[3]);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid dynamic section cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Finds the index at which the next page starts in the current items: directly after the item with
+     * {@link #lastKey}, or at {@link #offset} if that item no longer exists.
+     *
+     * @param keys The keys of the current items, in order.
+     */
+    int resolveStart(List<String> keys) {
+        if (offset <= keys.size() && keys.get(offset - 1).equals(lastKey)) {
+            return offset;
+        }
+        int index = keys.indexOf(lastKey);
+        return index >= 0 ? index + 1 : Math.min(offset, keys.size());
+    }
+}
@@ -0,0 +1,106 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.validation.ConstraintViolation;
+import com.eainde.form_forge.validation.FormConstraints;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Validates bulk form submissions as a stream. The input is either newline-delimited JSON (one data
+ * document per line) or a single JSON array of data documents; the output is newline-delimited JSON
+ * with one result per record, in input order.
+ * <p>
+ * Records are read one at a time with Jackson's streaming parser and results are written as soon as
+ * each record has been validated, so memory use is bounded by the largest single record rather than
+ * by the size of the upload.
+ */
+public class SubmissionIngestionService {
+
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final ObjectMapper objectMapper;
+
+    public SubmissionIngestionService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads, validates and reports every record of an upload.
+     * Each result line has the shape {@code {"index":0,"valid":false,"errors":[{"scope":..,"code":..,"message":..}]}}.
+     * If the input is not well-formed JSON, a result with the code "parse" is written for the record at which
+     * parsing failed and processing stops, because the remaining input cannot be split into records reliably.
+     *
+     * @param input       The uploaded records.
+     * @param output      The stream receiving the per-record results.
+     * @param constraints The compiled constraints of the target form.
+     * @return The number of records read.
+     * @throws IOException if reading the input or writing the output fails.
+     */
+    public long ingest(InputStream input, OutputStream output, FormConstraints constraints) throws IOException {
+        long index = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            try {
+                JsonToken token = parser.nextToken();
+                boolean array = token == JsonToken.START_ARRAY;
+                if (array) {
+                    token = parser.nextToken();
+                }
+                while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                    JsonNode record = parser.readValueAsTree();
+                    writeResult(generator, index++, constraints.validate(record));
+                    if (index % FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonProcessingException e) {
+                writeParseError(generator, index++, e.getOriginalMessage());
+            }
+            generator.writeRaw('\n');
+        }
+        return index;
+    }
+
+    private void writeResult(JsonGenerator generator, long index, List<ConstraintViolation> violations) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeBooleanField("valid", violations.isEmpty());
+        if (!violations.isEmpty()) {
+            generator.writeArrayFieldStart("errors");
+            for (ConstraintViolation violation : violations) {
+                generator.writeStartObject();
+                generator.writeStringField("scope", violation.scope().toString());
+                generator.writeStringField("code", violation.code());
+                generator.writeStringField("message", violation.message());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeParseError(JsonGenerator generator, long index, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeBooleanField("valid", false);
+        generator.writeArrayFieldStart("errors");
+        generator.writeStartObject();
+        generator.writeStringField("code", "parse");
+        generator.writeStringField("message", message);
+        generator.writeEndObject();
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,44 @@
+package com.eainde.form_forge.store;
+
+/**
+ * A store of compiled form blueprints that several {@link com.eainde.form_forge.service.FormBlueprintService}
+ * instances can share, e.g. the replicas of a deployment or a restarted instance, so that a blueprint is built
+ * once instead of on every node.
+ * <p>
+ * Entries are keyed by a content hash: the SHA-256, as 64 lowercase hex digits, of everything the stored bytes
+ * are derived from. An entry is therefore never replaced by different content, and a key that is not found
+ * simply means that the blueprint has to be built. Implementations must be safe for concurrent use, must never
+ * return partially written content, and should return null rather than content that fails an integrity check.
+ */
+public interface BlueprintStore {
+
+    /**
+     * @param key The content hash.
+     * @return The stored content, or null if there is none.
+     */
+    byte[] get(String key);
+
+    /**
+     * Stores content under its key. Since equal keys stand for equal content, an existing entry may be kept.
+     *
+     * @param key     The content hash.
+     * @param content The content; the store does not keep a reference to the array.
+     */
+    void put(String key, byte[] content);
+
+    /**
+     * @return The key, if it is 64 lowercase hex digits.
+     * @throws IllegalArgumentException If it is not.
+     */
+    static String requireValidKey(String key) {
+        boolean valid = key != null && key.length() == 64;
+        for (int i = 0; valid && i < key.length(); i++) {
+            char c = key.charAt(i);
+            valid = c >= '0' && c <= '9' || c >= 'a' && c <= 'f';
+        }
+        if (!valid) {
+            throw new IllegalArgumentException("Invalid blueprint store key: '" + key + "'");
+        }
+        return key;
+    }
+}
@@ -0,0 +1,152 @@
+package com.eainde.form_forge.store;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * A {@link BlueprintStore} in a directory, which can be on a volume shared by the nodes of a deployment.
+ * Each entry is a file {@code <first two key digits>/<key>.blueprint}.
+ * <p>
+ * An entry is written to a temporary file in its final directory, flushed to the device and then atomically
+ * renamed, so readers on any node see either the complete file or none. The file starts with a format marker
+ * and the SHA-256 of the content, which is checked on every read: a truncated or otherwise corrupted file is
+ * logged, deleted and treated as missing, so it is rebuilt and written again.
+ * <p>
+ * Another node may replace a corrupted file with a rebuilt one between the read and the delete, so the file is
+ * not deleted by its name. It is first renamed aside to a name no other node uses and checked again there: only
+ * a file that is still corrupted is deleted, and a valid one is renamed back.
+ */
+public class FileBlueprintStore implements BlueprintStore {
+
+    private static final String SUFFIX = ".blueprint";
+    private static final byte[] MAGIC = {'F', 'F', 'B', 'P', 0, 0, 0, 1};
+    private static final int DIGEST_LENGTH = 32;
+    private static final int HEADER_LENGTH = MAGIC.length + DIGEST_LENGTH;
+    private static final System.Logger LOGGER = System.getLogger(FileBlueprintStore.class.getName());
+
+    private final Path directory;
+
+    /**
+     * @param directory The directory of the store; it is created when the first entry is written.
+     */
+    public FileBlueprintStore(Path directory) {
+        this.directory = directory;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    @Override
+    public byte[] get(String key) {
+        Path file = file(key);
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read blueprint store entry " + file, e);
+        }
+        byte[] content = verified(bytes);
+        return content != null ? content : discardCorrupted(key, file);
+    }
+
+    /**
+     * Deletes a corrupted entry unless it has been replaced since it was read.
+     *
+     * @return The content of the entry that replaced the corrupted one, or null.
+     */
+    private static byte[] discardCorrupted(String key, Path file) {
+        Path aside = file.resolveSibling(key + "." + UUID.randomUUID() + ".corrupted");
+        try {
+            Files.move(file, aside, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            // Another reader removed it first.
+            return null;
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to remove corrupted blueprint store entry " + file, e);
+            return null;
+        }
+        try {
+            byte[] content = verified(Files.readAllBytes(aside));
+            if (content != null) {
+                // Rebuilt and written by another node after it was read.
+                Files.move(aside, file, StandardCopyOption.ATOMIC_MOVE);
+                return content;
+            }
+            LOGGER.log(System.Logger.Level.WARNING, "Blueprint store entry " + file + " is corrupted and will be rebuilt");
+            Files.delete(aside);
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Failed to remove corrupted blueprint store entry " + file
+                    + ", moved to " + aside, e);
+        }
+        return null;
+    }
+
+    /**
+     * @return The content of a stored file, or null if its header is missing or does not match the content.
+     */
+    private static byte[] verified(byte[] bytes) {
+        if (bytes.length >= HEADER_LENGTH && Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            byte[] content = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+            if (Arrays.equals(bytes, MAGIC.length, HEADER_LENGTH, sha256(content), 0, DIGEST_LENGTH)) {
+                return content;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(String key, byte[] content) {
+        Path file = file(key);
+        if (Files.exists(file)) {
+            return;
+        }
+        Path temp = file.resolveSibling(key + "." + UUID.randomUUID() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                    ByteBuffer[] buffers = {ByteBuffer.wrap(MAGIC), ByteBuffer.wrap(sha256(content)), ByteBuffer.wrap(content)};
+                    while (buffers[2].hasRemaining()) {
+                        channel.write(buffers);
+                    }
+                    channel.force(true);
+                }
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another node stored the same entry first.
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write blueprint store entry " + file, e);
+        }
+    }
+
+    private Path file(String key) {
+        BlueprintStore.requireValidKey(key);
+        return directory.resolve(key.substring(0, 2)).resolve(key + SUFFIX);
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
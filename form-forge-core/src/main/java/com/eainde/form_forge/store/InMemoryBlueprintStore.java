@@ -0,0 +1,32 @@
+package com.eainde.form_forge.store;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link BlueprintStore} that keeps its entries in memory, shared by the blueprint services of one process.
+ * The entries are never evicted; since every key stands for one build of one form class, their number is
+ * bounded by the forms and their revisions.
+ */
+public class InMemoryBlueprintStore implements BlueprintStore {
+
+    private final Map<String, byte[]> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public byte[] get(String key) {
+        byte[] content = entries.get(BlueprintStore.requireValidKey(key));
+        return content != null ? content.clone() : null;
+    }
+
+    @Override
+    public void put(String key, byte[] content) {
+        entries.putIfAbsent(BlueprintStore.requireValidKey(key), content.clone());
+    }
+
+    /**
+     * @return The number of stored entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+}
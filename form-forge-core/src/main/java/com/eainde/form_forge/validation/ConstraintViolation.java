@@ -0,0 +1,13 @@
+package com.eainde.form_forge.validation;
+
+import com.eainde.form_forge.models.uischema.ScopePath;
+
+/**
+ * A single failed constraint of a submitted data document.
+ *
+ * @param scope   The scope of the offending property, matching the scope of its UI control.
+ * @param code    A stable machine-readable code (e.g., "required", "maxLength", "format").
+ * @param message A human-readable description of the failure.
+ */
+public record ConstraintViolation(ScopePath scope, String code, String message) {
+}
@@ -0,0 +1,239 @@
+package com.eainde.form_forge.validation;
+
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.schema.SchemaOption;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.rules.RuleGraph;
+import com.eainde.form_forge.rules.RuleState;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+
+/**
+ * The validation constraints of a generated form, compiled once from its {@link JsonSchema} so that
+ * many submitted data documents can be checked without walking the schema model again.
+ * <p>
+ * The supported keywords are the ones the generator emits: {@code type}, {@code required},
+ * {@code minLength}, {@code maxLength}, {@code format} ("email", "date", "date-time", "uri"),
+ * {@code enum}, the {@code const} values of {@code oneOf}, and {@code $ref}s to the option dictionaries in
+ * the root schema's {@code $defs}. Unknown formats and properties that are not part of the form are accepted.
+ * When compiled from a whole {@link JsonFormResponse}, the UI schema rules are evaluated for every
+ * document first, and properties whose control is hidden are not validated, so a hidden
+ * {@code required} field does not fail a submission.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class FormConstraints {
+
+    private static final String DEFINITIONS = "#/$defs/";
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private final ObjectConstraint root;
+    private final RuleGraph rules;
+
+    private FormConstraints(ObjectConstraint root, RuleGraph rules) {
+        this.root = root;
+        this.rules = rules;
+    }
+
+    /**
+     * Compiles the constraints of a generated schema. No UI rules are taken into account.
+     *
+     * @param schema The root schema of a generated form.
+     * @return The compiled constraints.
+     */
+    public static FormConstraints compile(JsonSchema schema) {
+        return new FormConstraints(compileObject(schema, ScopePath.ROOT, schema.getDefs()), null);
+    }
+
+    /**
+     * Compiles the constraints of a generated form together with the rules of its UI schema. The form must
+     * contain every item of its dynamic sections, see
+     * {@link com.eainde.form_forge.service.JsonFormGenerator#generateUnpaginated}: items of later pages would
+     * otherwise be accepted without validation.
+     *
+     * @param form A generated form.
+     * @return The compiled constraints.
+     * @throws IllegalArgumentException if the form is paginated.
+     */
+    public static FormConstraints compile(JsonFormResponse form) {
+        if (form.getCursors() != null && !form.getCursors().isEmpty()) {
+            throw new IllegalArgumentException("Cannot compile the constraints of a paginated form; sections "
+                    + form.getCursors().keySet() + " have further pages");
+        }
+        return new FormConstraints(compileObject(form.getSchema(), ScopePath.ROOT, form.getSchema().getDefs()),
+                RuleGraph.compile(form.getUischema()));
+    }
+
+    /**
+     * Validates a data document against the form, skipping properties hidden by the form's rules.
+     *
+     * @param document The submitted data, expected to be a JSON object.
+     * @return The violations found, empty if the document is valid.
+     */
+    public List<ConstraintViolation> validate(JsonNode document) {
+        if (rules == null) {
+            return validate(document, scope -> false);
+        }
+        RuleState state = rules.evaluate(document);
+        return validate(document, scope -> !state.isVisible(scope));
+    }
+
+    /**
+     * Validates a data document against the form.
+     *
+     * @param document The submitted data, expected to be a JSON object.
+     * @param skipped  Selects the scopes that are excluded from validation, e.g. hidden controls.
+     * @return The violations found, empty if the document is valid.
+     */
+    public List<ConstraintViolation> validate(JsonNode document, Predicate<ScopePath> skipped) {
+        List<ConstraintViolation> violations = new ArrayList<>();
+        validateObject(root, document, skipped, violations);
+        return violations;
+    }
+
+    private static ObjectConstraint compileObject(JsonSchema schema, ScopePath scope, Map<String, SchemaNode> definitions) {
+        Map<String, ObjectConstraint> objects = new HashMap<>();
+        Map<String, FieldConstraint> fields = new HashMap<>();
+        for (Map.Entry<String, SchemaNode> entry : schema.getProperties().entrySet()) {
+            ScopePath propertyScope = scope.child(entry.getKey());
+            if (entry.getValue() instanceof JsonSchema nested) {
+                objects.put(entry.getKey(), compileObject(nested, propertyScope, definitions));
+            } else if (entry.getValue() instanceof SchemaProperty property) {
+                fields.put(entry.getKey(), compileField(property, propertyScope, definitions));
+            }
+            // References to recursive types are not expanded; their content is accepted as is.
+        }
+        List<String> required = schema.getRequired() != null ? List.copyOf(schema.getRequired()) : List.of();
+        return new ObjectConstraint(scope, Map.copyOf(objects), Map.copyOf(fields), required);
+    }
+
+    private static FieldConstraint compileField(SchemaProperty property, ScopePath scope, Map<String, SchemaNode> definitions) {
+        Set<String> enumValues = property.getEnumValues() != null ? Set.copyOf(property.getEnumValues()) : null;
+        List<SchemaOption> options = property.getOneOf();
+        if (property.getRef() != null && property.getRef().startsWith(DEFINITIONS) && definitions != null
+                && definitions.get(property.getRef().substring(DEFINITIONS.length())) instanceof SchemaDictionary dictionary) {
+            options = dictionary.getOneOf();
+        }
+        if (options != null) {
+            enumValues = options.stream().map(SchemaOption::getValue).collect(Collectors.toUnmodifiableSet());
+        }
+        return new FieldConstraint(scope, property.getType(), property.getMinLength(), property.getMaxLength(),
+                property.getFormat(), enumValues);
+    }
+
+    private static void validateObject(ObjectConstraint constraint, JsonNode node, Predicate<ScopePath> skipped, List<ConstraintViolation> violations) {
+        if (node == null || !node.isObject()) {
+            violations.add(new ConstraintViolation(constraint.scope(), "type", "Expected an object."));
+            return;
+        }
+        for (String name : constraint.required()) {
+            JsonNode value = node.get(name);
+            if (value == null || value.isNull()) {
+                ScopePath scope = constraint.scope().child(name);
+                if (!skipped.test(scope)) {
+                    violations.add(new ConstraintViolation(scope, "required", "Value is required."));
+                }
+            }
+        }
+        Iterator<Map.Entry<String, JsonNode>> properties = node.fields();
+        while (properties.hasNext()) {
+            Map.Entry<String, JsonNode> property = properties.next();
+            if (property.getValue().isNull()) {
+                continue;
+            }
+            FieldConstraint field = constraint.fields().get(property.getKey());
+            if (field != null) {
+                if (!skipped.test(field.scope())) {
+                    validateField(field, property.getValue(), violations);
+                }
+                continue;
+            }
+            ObjectConstraint nested = constraint.objects().get(property.getKey());
+            if (nested != null && !skipped.test(nested.scope())) {
+                validateObject(nested, property.getValue(), skipped, violations);
+            }
+        }
+    }
+
+    private static void validateField(FieldConstraint field, JsonNode value, List<ConstraintViolation> violations) {
+        if (!matchesType(field.type(), value)) {
+            violations.add(new ConstraintViolation(field.scope(), "type", "Expected a value of type '" + field.type() + "'."));
+            return;
+        }
+        if (!value.isTextual()) {
+            return;
+        }
+        String text = value.textValue();
+        int length = text.codePointCount(0, text.length());
+        if (field.minLength() != null && length < field.minLength()) {
+            violations.add(new ConstraintViolation(field.scope(), "minLength", "Must be at least " + field.minLength() + " characters."));
+        }
+        if (field.maxLength() != null && length > field.maxLength()) {
+            violations.add(new ConstraintViolation(field.scope(), "maxLength", "Must be at most " + field.maxLength() + " characters."));
+        }
+        if (field.format() != null && !matchesFormat(field.format(), text)) {
+            violations.add(new ConstraintViolation(field.scope(), "format", "Must be a valid '" + field.format() + "'."));
+        }
+        if (field.enumValues() != null && !field.enumValues().contains(text)) {
+            violations.add(new ConstraintViolation(field.scope(), "enum", "Must be one of the allowed values."));
+        }
+    }
+
+    private static boolean matchesType(String type, JsonNode value) {
+        if (type == null) {
+            return true;
+        }
+        switch (type) {
+            case "string":
+                return value.isTextual();
+            case "integer":
+                return value.isIntegralNumber();
+            case "number":
+                return value.isNumber();
+            case "boolean":
+                return value.isBoolean();
+            default:
+                return true;
+        }
+    }
+
+    private static boolean matchesFormat(String format, String text) {
+        try {
+            switch (format) {
+                case "email":
+                    return EMAIL.matcher(text).matches();
+                case "date":
+                    LocalDate.parse(text);
+                    return true;
+                case "date-time":
+                    OffsetDateTime.parse(text);
+                    return true;
+                case "uri":
+                    return URI.create(text).isAbsolute();
+                default:
+                    return true;
+            }
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private record ObjectConstraint(ScopePath scope, Map<String, ObjectConstraint> objects,
+                                    Map<String, FieldConstraint> fields, List<String> required) {
+    }
+
+    private record FieldConstraint(ScopePath scope, String type, Integer minLength, Integer maxLength,
+                                   String format, Set<String> enumValues) {
+    }
+}
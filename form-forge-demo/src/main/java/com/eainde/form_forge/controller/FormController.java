@@ -0,0 +1,534 @@
+package com.eainde.form_forge.controller;
+
+import com.eainde.form_forge.admission.AdmissionController;
+import com.eainde.form_forge.admission.GenerationCostEstimator;
+import com.eainde.form_forge.cache.CachedForm;
+import com.eainde.form_forge.cache.FormResponseCache;
+import com.eainde.form_forge.controller.dto.EmployeeFormDto;
+import com.eainde.form_forge.controller.dto.EmployeeTrainingFormDto;
+import com.eainde.form_forge.controller.dto.FeedbackFormDto;
+import com.eainde.form_forge.controller.dto.UserProfileDto;
+import com.eainde.form_forge.dictionary.OptionDictionary;
+import com.eainde.form_forge.dictionary.OptionDictionaryRegistry;
+import com.eainde.form_forge.exception.AdmissionRejectedException;
+import com.eainde.form_forge.exception.FormGenerationTimeoutException;
+import com.eainde.form_forge.export.StaticFormFile;
+import com.eainde.form_forge.export.StaticFormStore;
+import com.eainde.form_forge.models.DynamicSectionPage;
+import com.eainde.form_forge.models.blueprint.DynamicPayload;
+import com.eainde.form_forge.models.blueprint.FormBlueprint;
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.service.FormBlueprintService;
+import com.eainde.form_forge.service.FormPrefillService;
+import com.eainde.form_forge.service.FormPrefillService.PrefillSource;
+import com.eainde.form_forge.service.JsonFormGenerator;
+import com.eainde.form_forge.service.SubmissionIngestionService;
+import com.eainde.form_forge.validation.FormConstraints;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/forms")
+public class FormController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String TENANT_HEADER = "X-Tenant-Id";
+    private static final String DEFAULT_TENANT = "default";
+    private static final long STREAM_TIMEOUT_MILLIS = 60_000;
+    private static final int STREAM_BUFFERED_EVENTS = 256;
+    private static final Duration STREAM_WRITE_TIMEOUT = Duration.ofSeconds(5);
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private JsonFormGenerator jsonFormGenerator;
+
+    @Autowired
+    private SubmissionIngestionService submissionIngestionService;
+
+    @Autowired
+    private FormPrefillService formPrefillService;
+
+    @Autowired
+    private FormResponseCache formResponseCache;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private FormBlueprintService formBlueprintService;
+
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private OptionDictionaryRegistry optionDictionaryRegistry;
+
+    /**
+     * Sends the events of streamed forms. A writer task only runs while its stream has events to send, but then
+     * blocks on the client's network writes, so the pool grows with the streams that are writing rather than
+     * sharing the bounded task executor with the generations that wait for them.
+     */
+    private final ExecutorService streamWriters = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "form-stream-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Only available if form-forge.static-forms.location points to an export directory.
+     */
+    @Autowired
+    private ObjectProvider<StaticFormStore> staticFormStore;
+
+    /**
+     * The forms served by this controller, keyed by the path segment of their GET endpoint.
+     */
+    private final Map<String, FormDefinition> forms = Map.of(
+            "user-profile", new FormDefinition(UserProfileDto.class, this::getDynamicDataForUserProfile),
+            "employee-training", new FormDefinition(EmployeeTrainingFormDto.class, this::getDynamicDataForEmployeeTraining),
+            "employee-details", new FormDefinition(EmployeeFormDto.class, this::getDynamicDataForEmployeeDetails),
+            "employee-details-with-rules", new FormDefinition(EmployeeFormDto.class, this::getDynamicDataForEmployeeDetailsWithRules),
+            "feedback", new FormDefinition(FeedbackFormDto.class, Map::of)
+    );
+
+    /**
+     * A form class together with the source of its dynamic metadata.
+     */
+    private record FormDefinition(Class<?> type, Supplier<Map<String, Map<String, Object>>> dynamicMetadata) {
+    }
+
+    /**
+     * Mocks loading the shared option dictionaries from a database. Registering a new version of a dictionary
+     * drops the cached forms that contain it.
+     */
+    @PreDestroy
+    void stopStreamWriters() {
+        streamWriters.shutdownNow();
+    }
+
+    @PostConstruct
+    void registerDictionaries() {
+        Map<String, String> countries = new LinkedHashMap<>();
+        countries.put("US", "United States");
+        countries.put("CA", "Canada");
+        countries.put("UK", "United Kingdom");
+        countries.put("DE", "Germany");
+        optionDictionaryRegistry.register(OptionDictionary.of("countries", "1", countries));
+    }
+
+    /**
+     * Returns a shared option dictionary as it appears in the "$defs" of the forms that use it, so that clients
+     * can cache it by its version, which is sent as the entity tag.
+     */
+    @GetMapping("/dictionaries/{name}")
+    public ResponseEntity<SchemaDictionary> getDictionary(@PathVariable String name,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        OptionDictionary dictionary = optionDictionaryRegistry.get(name);
+        if (dictionary == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown dictionary: " + name);
+        }
+        String etag = '"' + dictionary.version() + '"';
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(dictionary.toDefinition());
+    }
+
+    @GetMapping("/user-profile")
+    public ResponseEntity<byte[]> getUserProfileForm(@RequestHeader(value = TENANT_HEADER, defaultValue = DEFAULT_TENANT) String tenant,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                     @RequestParam(value = "paths", required = false) List<String> paths) {
+        return serveForm("user-profile", tenant, ifNoneMatch, paths);
+    }
+
+    /**
+     * Mocks a call to a service that fetches dynamic form data from a database.
+     * This method prepares the data in the format required by the JsonFormGenerator.
+     *
+     * @return A map where the key is the field name and the value is a map of its dynamic properties.
+     */
+    private Map<String, Map<String, Object>> getDynamicDataForUserProfile() {
+        Map<String, Map<String, Object>> allDynamicData = new HashMap<>();
+
+        // The options of 'country' come from the shared "countries" dictionary; only the label is dynamic.
+        Map<String, Object> countryMetadata = new HashMap<>();
+        countryMetadata.put("label", "Country of Residence");
+        allDynamicData.put("country", countryMetadata);
+
+        // 2. Dynamic Rule for the 'bio' field
+        // This rule will make the 'bio' field appear only when 'Is Active' is checked.
+        Map<String, Object> bioProperties = new HashMap<>();
+        Map<String, Object> ruleData = new HashMap<>();
+        ruleData.put("effect", "SHOW");
+        ruleData.put("conditionField", "active");
+        ruleData.put("expectedValue", true);
+
+        bioProperties.put("rule", ruleData);
+        allDynamicData.put("bio", bioProperties);
+
+        return allDynamicData;
+    }
+
+    @GetMapping("/employee-training")
+    public ResponseEntity<byte[]> getEmployeeTrainingForm(@RequestHeader(value = TENANT_HEADER, defaultValue = DEFAULT_TENANT) String tenant,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                          @RequestParam(value = "paths", required = false) List<String> paths) {
+        return serveForm("employee-training", tenant, ifNoneMatch, paths);
+    }
+
+    private Map<String, Map<String, Object>> getDynamicDataForEmployeeTraining() {
+        // 1. In a real application, you would fetch this from a database.
+        List<Map<String, Object>> employeeList = List.of(
+                Map.of("employeeId", "emp_123", "employeeName", "Alice Smith"),
+                Map.of("employeeId", "emp_456", "employeeName", "Bob Johnson"),
+                Map.of("employeeId", "emp_789", "employeeName", "Charlie Brown")
+        );
+
+        // 2. Prepare the dynamic data for the generator.
+        Map<String, Map<String, Object>> dynamicMetadata = new HashMap<>();
+        // The key "employees" must match the placeholder field name in EmployeeTrainingFormDto.
+        dynamicMetadata.put("employees", Map.of("data", employeeList));
+        return dynamicMetadata;
+    }
+
+    /**
+     * Streams the prefilled data documents of the employee training form, one NDJSON line per course.
+     * The keys of the dynamic section items ("training_emp_123", ...) match the ones in the generated schema.
+     */
+    @GetMapping(path = "/employee-training/data", produces = NDJSON)
+    public void getEmployeeTrainingData(HttpServletResponse response) throws IOException {
+        // 1. In a real application, these would be streamed from a database.
+        List<Map<String, Object>> completions = List.of(
+                Map.of("employeeId", "emp_123", "employeeName", "Alice Smith", "completed", true),
+                Map.of("employeeId", "emp_456", "employeeName", "Bob Johnson", "completed", false),
+                Map.of("employeeId", "emp_789", "employeeName", "Charlie Brown", "completed", true)
+        );
+        List<PrefillSource> sources = new ArrayList<>();
+        for (String courseName : List.of("Workplace Safety", "Data Protection")) {
+            EmployeeTrainingFormDto course = new EmployeeTrainingFormDto();
+            course.setCourseName(courseName);
+            sources.add(new PrefillSource(course, Map.of("employees", completions)));
+        }
+
+        // 2. Write the documents while the response is being sent.
+        response.setContentType(NDJSON);
+        formPrefillService.writeAll(EmployeeTrainingFormDto.class, sources.iterator(), response.getOutputStream());
+    }
+
+    /**
+     * New endpoint to demonstrate a dynamic section with nested groups.
+     */
+    @GetMapping("/employee-details")
+    public ResponseEntity<byte[]> getEmployeeDetailsForm(@RequestHeader(value = TENANT_HEADER, defaultValue = DEFAULT_TENANT) String tenant,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                         @RequestParam(value = "paths", required = false) List<String> paths) {
+        return serveForm("employee-details", tenant, ifNoneMatch, paths);
+    }
+
+    private Map<String, Map<String, Object>> getDynamicDataForEmployeeDetails() {
+        // 1. Fetch employee data.
+        List<Map<String, Object>> employeeList = List.of(
+                Map.of("employeeId", "101", "employeeName", "Alice Smith"),
+                Map.of("employeeId", "102", "employeeName", "Bob Johnson")
+        );
+
+        // 2. Prepare the dynamic data.
+        Map<String, Map<String, Object>> dynamicMetadata = new HashMap<>();
+        // The key "employees" matches the placeholder field name in EmployeeFormDto.
+        dynamicMetadata.put("employees", Map.of("data", employeeList));
+        return dynamicMetadata;
+    }
+
+    /**
+     * New endpoint to demonstrate a dynamic section with nested groups.
+     */
+    @GetMapping("/employee-details-with-rules")
+    public ResponseEntity<byte[]> getEmployeeDetailsFormWithRules(@RequestHeader(value = TENANT_HEADER, defaultValue = DEFAULT_TENANT) String tenant,
+                                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                  @RequestParam(value = "paths", required = false) List<String> paths) {
+        return serveForm("employee-details-with-rules", tenant, ifNoneMatch, paths);
+    }
+
+    private Map<String, Map<String, Object>> getDynamicDataForEmployeeDetailsWithRules() {
+        Map<String, Map<String, Object>> dynamicMetadata = new HashMap<>();
+
+        List<Map<String, Object>> employeeList = new ArrayList<>();
+
+        // Employee 1: No special rules
+        Map<String, Object> alice = new HashMap<>();
+        alice.put("employeeId", "101");
+        alice.put("employeeName", "Alice Smith");
+        employeeList.add(alice);
+
+        // Employee 2: Has a special rule on one of their fields
+        Map<String, Object> bob = new HashMap<>();
+        bob.put("employeeId", "102");
+        bob.put("employeeName", "Bob Johnson");
+
+        // --- Define the rule for Bob ---
+        Map<String, Object> bobsRules = new HashMap<>();
+        Map<String, Object> emailRule = new HashMap<>();
+        emailRule.put("effect", "SHOW");
+        // The conditionField is also relative to the template DTO
+        emailRule.put("conditionField", "lastName");
+        emailRule.put("expectedValue", "Johnson");
+
+        // Attach the rule to the "email" field specifically for Bob
+        bobsRules.put("email", emailRule);
+
+        // Add the rules map to Bob's data
+        bob.put("fieldRules", bobsRules);
+        employeeList.add(bob);
+
+        // ... prepare dynamicMetadata as before ...
+        dynamicMetadata.put("employees", Map.of("data", employeeList));
+        return dynamicMetadata;
+    }
+
+    /**
+     * Returns the next page of a paginated dynamic section of one of the forms above. The cursor comes
+     * from the "cursors" of the form response or of the previous page.
+     */
+    @GetMapping("/{formName}/sections")
+    public DynamicSectionPage getSectionPage(@PathVariable String formName, @RequestParam String cursor) {
+        FormDefinition form = findForm(formName);
+        try {
+            Map<String, Map<String, Object>> dynamicMetadata = form.dynamicMetadata().get();
+            return admissionController.admit(form.type(), dynamicMetadata,
+                    () -> jsonFormGenerator.generateSectionPage(form.type(), dynamicMetadata, cursor));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A form without dynamic metadata, which can also be served pre-generated, see {@link #getStaticForm}.
+     */
+    @GetMapping("/feedback")
+    public ResponseEntity<byte[]> getFeedbackForm(@RequestHeader(value = TENANT_HEADER, defaultValue = DEFAULT_TENANT) String tenant,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                  @RequestParam(value = "paths", required = false) List<String> paths) {
+        return serveForm("feedback", tenant, ifNoneMatch, paths);
+    }
+
+    /**
+     * Serves one of the forms above from the files written by the static form export, without generating or
+     * serializing anything. Only forms without dynamic sections and runtime dictionaries are exported; the
+     * others answer 404, as does every form if no export directory is configured.
+     * <p>
+     * Clients that accept gzip get the pre-compressed copy. Tomcat sends the file itself with sendfile when
+     * the connector supports it; otherwise the file is copied into the response with FileChannel.transferTo.
+     */
+    @GetMapping("/{formName}/static")
+    public void getStaticForm(@PathVariable String formName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Class<?> formClass = findForm(formName).type();
+        StaticFormStore store = staticFormStore.getIfAvailable();
+        StaticFormFile form = store != null ? store.find(formClass) : null;
+        if (form == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Form not pre-generated: " + formName);
+        }
+        String etag = '"' + form.version() + '"';
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        long length = gzip ? form.gzipSize() : form.size();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLengthLong(length);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, store.path(form, gzip).toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+        } else {
+            store.transferTo(form, gzip, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            return Double.parseDouble(parameter.substring(2)) > 0;
+                        } catch (NumberFormatException e) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the static part of one of the forms above. It only changes when the form class does, so
+     * clients fetch it once and revalidate it with its version as the entity tag.
+     */
+    @GetMapping("/{formName}/blueprint")
+    public ResponseEntity<FormBlueprint> getBlueprint(@PathVariable String formName,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FormBlueprint blueprint = formBlueprintService.blueprint(findForm(formName).type());
+        String etag = '"' + blueprint.getVersion() + '"';
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(blueprint);
+    }
+
+    /**
+     * Returns the per-request part of one of the forms above, to be merged into its blueprint as described
+     * in {@link com.eainde.form_forge.service.BlueprintMerger}.
+     */
+    @GetMapping("/{formName}/payload")
+    public DynamicPayload getPayload(@PathVariable String formName) {
+        FormDefinition form = findForm(formName);
+        Map<String, Map<String, Object>> dynamicMetadata = form.dynamicMetadata().get();
+        return admissionController.admit(form.type(), dynamicMetadata,
+                () -> formBlueprintService.payload(form.type(), dynamicMetadata));
+    }
+
+    /**
+     * Streams one of the forms above as Server-Sent Events (see {@link SseFormStreamListener}): the cached
+     * blueprint first, so the client can render the form's structure right away, then each dynamic-section
+     * item as soon as it is generated. The blueprint is queued on the request thread, before the generation
+     * task waits for a thread and for admission. The events are written on {@link #streamWriters}, never on the
+     * generation's threads, so a client that receives nothing for {@link #STREAM_WRITE_TIMEOUT} stops its
+     * generation and releases its admission permit. A generation the admission controller rejects ends the
+     * stream with an "error" event whose retry time is the policy's retry delay.
+     */
+    @GetMapping(path = "/{formName}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamForm(@PathVariable String formName) {
+        FormDefinition form = findForm(formName);
+        Map<String, Map<String, Object>> dynamicMetadata = form.dynamicMetadata().get();
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        SseFormStreamListener listener = new SseFormStreamListener(emitter, streamWriters, STREAM_BUFFERED_EVENTS, STREAM_WRITE_TIMEOUT);
+        listener.blueprint(formBlueprintService.blueprint(form.type()));
+        applicationTaskExecutor.execute(() -> {
+            try {
+                admissionController.admit(form.type(), dynamicMetadata, () -> {
+                    formBlueprintService.streamPayload(form.type(), dynamicMetadata, listener);
+                    return null;
+                });
+                listener.finish(null);
+            } catch (AdmissionRejectedException e) {
+                listener.finish(SseEmitter.event().name("error").reconnectTime(e.getRetryAfter().toMillis()).data(e.getMessage()));
+            } catch (RuntimeException e) {
+                listener.fail(e);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Validates a bulk upload of submissions for one of the forms above. The body is either
+     * newline-delimited JSON or a JSON array of data documents; the response streams one
+     * NDJSON result line per record while the upload is still being read.
+     */
+    @PostMapping(path = "/{formName}/submissions", consumes = {NDJSON, MediaType.APPLICATION_JSON_VALUE}, produces = NDJSON)
+    public void ingestSubmissions(@PathVariable String formName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        FormDefinition form = findForm(formName);
+        Map<String, Map<String, Object>> dynamicMetadata = form.dynamicMetadata().get();
+        // Every item has to be validated, so the constraints come from the form with all pages of its sections.
+        FormConstraints constraints = FormConstraints.compile(admissionController.admit(
+                GenerationCostEstimator.estimate(form.type(), dynamicMetadata, false),
+                () -> jsonFormGenerator.generateUnpaginated(form.type(), dynamicMetadata)));
+        response.setContentType(NDJSON);
+        submissionIngestionService.ingest(request.getInputStream(), response.getOutputStream(), constraints);
+    }
+
+    private FormDefinition findForm(String formName) {
+        FormDefinition form = forms.get(formName);
+        if (form == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown form: " + formName);
+        }
+        return form;
+    }
+
+    /**
+     * Serves a form from the response cache. The form's hash is sent as its entity tag, so clients that
+     * already have the current version get a 304 without a body. Cache misses are generated only if the
+     * admission controller admits them; cached forms are served regardless of their cost.
+     * <p>
+     * The optional "paths" parameter restricts the form to some fields, groups and dynamic items, such as
+     * {@code ?paths=personalDetails.firstName,bio}; an unknown path is rejected with 400.
+     */
+    private ResponseEntity<byte[]> serveForm(String formName, String tenant, String ifNoneMatch, List<String> paths) {
+        FormDefinition form = findForm(formName);
+        Map<String, Map<String, Object>> dynamicMetadata = form.dynamicMetadata().get();
+        CachedForm cached;
+        try {
+            cached = formResponseCache.get(form.type(), tenant, dynamicMetadata, paths,
+                    () -> admissionController.admit(form.type(), dynamicMetadata,
+                            () -> jsonFormGenerator.generate(form.type(), dynamicMetadata, paths)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        String etag = '"' + cached.hash() + '"';
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).contentType(MediaType.APPLICATION_JSON).body(cached.body());
+    }
+
+    /**
+     * Sheds an expensive generation that could not be admitted with 503 and a Retry-After header.
+     */
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<String> handleAdmissionRejected(AdmissionRejectedException e) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+
+    /**
+     * Answers 503 to a request that gave up waiting for an identical generation started by another request.
+     */
+    @ExceptionHandler(FormGenerationTimeoutException.class)
+    public ResponseEntity<String> handleGenerationTimeout(FormGenerationTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+}
@@ -0,0 +1,160 @@
+package com.eainde.form_forge.controller;
+
+import com.eainde.form_forge.models.blueprint.DynamicPayload;
+import com.eainde.form_forge.models.blueprint.FormBlueprint;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.service.FormStreamListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the pieces of a streamed form as Server-Sent Events: a "blueprint" event with the blueprint version
+ * as its id, an "item" event per dynamic-section item with the item's scope as its id, and a "complete" event.
+ * <p>
+ * The events are buffered and sent by a task on the writer executor, which is only scheduled while there are
+ * events to send, so the generating thread, which holds an admission permit, does not block on the network
+ * writes of a slow client, and a stream that waits for admission holds no writer thread. When the buffer is
+ * full the generation waits for the writer to send an event, but for no longer than the write timeout each
+ * time. After such a stall, or after a failed send (usually a disconnected client), the listener throws, which
+ * stops the generation and releases its permit.
+ */
+class SseFormStreamListener implements FormStreamListener {
+
+    /**
+     * An event to send; the last one ends the stream.
+     */
+    private record Action(Runnable send, boolean last) {
+    }
+
+    private final SseEmitter emitter;
+    private final Executor writer;
+    private final Queue<Action> actions = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Semaphore space;
+    private final long writeTimeoutNanos;
+    private volatile RuntimeException failure;
+
+    /**
+     * @param emitter        The emitter the events are sent to.
+     * @param writer         Runs the tasks that send the events; it must not share its threads with the generation.
+     * @param bufferedEvents The number of events that can wait for the writer.
+     * @param writeTimeout   How long the generation may wait for the writer to send an event.
+     */
+    SseFormStreamListener(SseEmitter emitter, Executor writer, int bufferedEvents, Duration writeTimeout) {
+        this.emitter = emitter;
+        this.writer = writer;
+        this.space = new Semaphore(bufferedEvents);
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+    }
+
+    @Override
+    public void blueprint(FormBlueprint blueprint) {
+        enqueue(SseEmitter.event().name("blueprint").id(blueprint.getVersion()).data(blueprint));
+    }
+
+    @Override
+    public void item(DynamicPayload item) {
+        item.getSections().forEach((section, items) -> {
+            ScopePath scope = ScopePath.parse(section).parent().child(items.get(0).getKey());
+            enqueue(SseEmitter.event().name("item").id(scope.toString()).data(item));
+        });
+    }
+
+    @Override
+    public void complete(DynamicPayload remainder) {
+        enqueue(SseEmitter.event().name("complete").data(remainder));
+    }
+
+    /**
+     * Ends the stream once the buffered events have been sent.
+     *
+     * @param lastEvent An event to send before, or null.
+     */
+    void finish(SseEmitter.SseEventBuilder lastEvent) {
+        submit(new Action(() -> {
+            if (lastEvent != null) {
+                send(lastEvent);
+            }
+            emitter.complete();
+        }, true));
+    }
+
+    /**
+     * Ends the stream with an error once the buffered events have been sent.
+     */
+    void fail(Throwable error) {
+        submit(new Action(() -> emitter.completeWithError(error), true));
+    }
+
+    private void enqueue(SseEmitter.SseEventBuilder event) {
+        if (failure != null) {
+            throw new IllegalStateException("Failed to stream the form", failure);
+        }
+        boolean acquired;
+        try {
+            acquired = space.tryAcquire(writeTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming a form", e);
+        }
+        if (!acquired) {
+            throw new IllegalStateException("Stopped streaming the form after the client received nothing for "
+                    + TimeUnit.NANOSECONDS.toMillis(writeTimeoutNanos) + " ms");
+        }
+        submit(new Action(() -> send(event), false));
+    }
+
+    /**
+     * Adds an action and schedules the writer task unless it is already running; a single task sends the
+     * actions in order.
+     */
+    private void submit(Action action) {
+        actions.add(action);
+        if (pending.getAndIncrement() == 0) {
+            try {
+                writer.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                failure = e;
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    /**
+     * Sends the queued actions until none are left. After a failed send, the remaining events are discarded.
+     */
+    private void drain() {
+        do {
+            Action action = actions.poll();
+            if (failure == null) {
+                try {
+                    action.send().run();
+                } catch (RuntimeException e) {
+                    failure = e;
+                    emitter.completeWithError(e);
+                }
+            }
+            if (!action.last()) {
+                space.release();
+            }
+        } while (pending.decrementAndGet() != 0);
+    }
+
+    private void send(SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
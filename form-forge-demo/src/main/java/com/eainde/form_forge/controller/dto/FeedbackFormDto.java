@@ -0,0 +1,30 @@
+package com.eainde.form_forge.controller.dto;
+
+import com.eainde.form_forge.annotations.JsonForm;
+import com.eainde.form_forge.annotations.JsonFormField;
+import com.eainde.form_forge.models.uischema.UiControlType;
+import lombok.Data;
+
+/**
+ * An example of a fully static form: it needs no dynamic metadata, so it can be pre-generated at build time
+ * with the static form export and served from a file.
+ */
+@Data
+@JsonForm(
+        title = "Feedback",
+        description = "Tell us what you think of the service."
+)
+public class FeedbackFormDto {
+
+    @JsonFormField(label = "Name", maxLength = 100)
+    private String name;
+
+    @JsonFormField(label = "Email Address", format = "email", required = true)
+    private String email;
+
+    @JsonFormField(label = "Comments", controlType = UiControlType.TEXT_AREA, maxLength = 2000, required = true)
+    private String comments;
+
+    @JsonFormField(label = "May we contact you about your feedback?")
+    private boolean contactAllowed;
+}
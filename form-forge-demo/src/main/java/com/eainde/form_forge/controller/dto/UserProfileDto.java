@@ -57,7 +57,8 @@ public class UserProfileDto {
     private boolean active;
 
     // --- DYNAMIC DATA EXAMPLE ---
-    // This field's label and dropdown options will be provided dynamically from the controller.
-    @JsonFormField(label = "Country") // A static label can be provided as a fallback.
+    // This field's label will be provided dynamically from the controller; its options come from the
+    // shared "countries" dictionary, which is emitted once in the schema's $defs.
+    @JsonFormField(label = "Country", dictionary = "countries") // A static label can be provided as a fallback.
     private String country;
 }
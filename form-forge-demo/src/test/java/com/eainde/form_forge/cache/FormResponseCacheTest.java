@@ -0,0 +1,67 @@
+package com.eainde.form_forge.cache;
+
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.uischema.UiSchema;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the {@link FormResponseCache} evicts its least recently used entries and keeps its order of use
+ * in step with hits and invalidations.
+ */
+class FormResponseCacheTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntry() {
+        FormResponseCache cache = new FormResponseCache(MAPPER, 2);
+        get(cache, "a");
+        get(cache, "b");
+        get(cache, "a");
+        get(cache, "c");
+
+        assertThat(tenants(cache)).containsExactlyInAnyOrder("a", "c");
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidatedEntriesLeaveTheOrderOfUse() {
+        FormResponseCache cache = new FormResponseCache(MAPPER, 2);
+        get(cache, "a");
+        get(cache, "b");
+        assertThat(cache.invalidate(null, "a", null)).isEqualTo(1);
+        get(cache, "c");
+        get(cache, "d");
+
+        assertThat(tenants(cache)).containsExactlyInAnyOrder("c", "d");
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheMostRecentlyUsedEntriesBeyondTheMaximum() {
+        FormResponseCache cache = new FormResponseCache(MAPPER, 100);
+        for (int i = 0; i < 10_000; i++) {
+            get(cache, "t" + i);
+            get(cache, "t0");
+        }
+
+        List<String> tenants = tenants(cache);
+        assertThat(tenants).hasSize(100).contains("t0", "t9999").doesNotContain("t9900");
+        assertThat(cache.stats().evictions()).isEqualTo(9_900);
+    }
+
+    private static void get(FormResponseCache cache, String tenant) {
+        cache.get(FormResponseCacheTest.class, tenant, Map.of(), () -> new JsonFormResponse(new JsonSchema(), new UiSchema()));
+    }
+
+    private static List<String> tenants(FormResponseCache cache) {
+        return cache.entries().stream().map(form -> form.key().tenant()).toList();
+    }
+}
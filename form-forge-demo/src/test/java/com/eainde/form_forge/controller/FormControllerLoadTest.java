@@ -0,0 +1,163 @@
+package com.eainde.form_forge.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An in-process HTTP load test of the {@link FormController} endpoints. The application runs on a random port
+ * and platform threads send a mix of cached form, paginated section, blueprint and payload requests. Every
+ * response must equal the one a single request received before the load started.
+ * <p>
+ * The default build only checks this under contention. The scaling curve, which measures the throughput and
+ * latency percentiles at a growing number of threads and prints them, is tagged {@code benchmark} and runs
+ * with {@code -Pbenchmark}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class FormControllerLoadTest {
+
+    private static final int CONTENTION_THREADS = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+    private static final int CONTENTION_REQUESTS = 500;
+    private static final int REQUESTS_PER_LEVEL = 2_000;
+
+    /**
+     * The requested paths. The payloads are generated on every request; the forms come from the response
+     * cache once their tenant variant has been generated.
+     */
+    private static final List<String> PATHS = List.of(
+            "/api/forms/user-profile",
+            "/api/forms/user-profile?paths=personalDetails.firstName,bio",
+            "/api/forms/employee-training",
+            "/api/forms/employee-details",
+            "/api/forms/employee-details-with-rules",
+            "/api/forms/feedback",
+            "/api/forms/employee-details/blueprint",
+            "/api/forms/employee-details/payload",
+            "/api/forms/employee-details-with-rules/payload",
+            "/api/forms/user-profile/payload");
+
+    private static final List<String> TENANTS = List.of("tenant-a", "tenant-b", "tenant-c");
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * The result of sending requests from a number of threads.
+     *
+     * @param failures     The failed or inconsistent responses.
+     * @param sortedNanos  The latency of every request, sorted.
+     * @param elapsedNanos The time all requests took.
+     */
+    private record Level(List<String> failures, long[] sortedNanos, long elapsedNanos) {
+    }
+
+    @Test
+    void endpointsAnswerConsistentlyUnderContention() throws Exception {
+        Level level = sendConcurrently(CONTENTION_THREADS, CONTENTION_REQUESTS, golden());
+        assertThat(level.failures()).as("failed or inconsistent responses with %d threads", CONTENTION_THREADS).isEmpty();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void throughputAndLatencyScaling() throws Exception {
+        Map<String, String> golden = golden();
+        int processors = Runtime.getRuntime().availableProcessors();
+        System.out.printf("FormController load (%d processors, %d requests per level)%n", processors, REQUESTS_PER_LEVEL);
+        System.out.printf("%8s %12s %10s %10s %10s %10s%n", "threads", "requests/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (int threads = 1; threads <= processors * 4; threads *= 2) {
+            Level level = sendConcurrently(threads, REQUESTS_PER_LEVEL, golden);
+            long[] latencies = level.sortedNanos();
+            System.out.printf("%8d %12.0f %10.2f %10.2f %10.2f %10.2f%n", threads, REQUESTS_PER_LEVEL * 1e9 / level.elapsedNanos(),
+                    percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+                    latencies[latencies.length - 1] / 1e6);
+            assertThat(level.failures()).as("failed or inconsistent responses with %d threads", threads).isEmpty();
+        }
+    }
+
+    /**
+     * @return The response body of every path, from one request each before any load.
+     */
+    private Map<String, String> golden() throws Exception {
+        Map<String, String> golden = new HashMap<>();
+        for (String path : PATHS) {
+            HttpResponse<String> response = send(path, TENANTS.get(0));
+            assertThat(response.statusCode()).as(path).isEqualTo(200);
+            golden.put(path, response.body());
+        }
+        return golden;
+    }
+
+    /**
+     * Sends {@code requests} requests, cycling through the paths and tenants, from a number of threads that
+     * are released together, and compares every response with the golden one.
+     */
+    private Level sendConcurrently(int threads, int requests, Map<String, String> golden) throws Exception {
+        List<String> failures = new CopyOnWriteArrayList<>();
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        String path = PATHS.get(i % PATHS.size());
+                        long startNanos = System.nanoTime();
+                        HttpResponse<String> response = send(path, TENANTS.get(i % TENANTS.size()));
+                        latencies[i] = System.nanoTime() - startNanos;
+                        if (response.statusCode() != 200 || !response.body().equals(golden.get(path))) {
+                            failures.add(path + " answered " + response.statusCode());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            Arrays.sort(latencies);
+            return new Level(failures, latencies, elapsedNanos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpResponse<String> send(String path, String tenant) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("X-Tenant-Id", tenant)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * @return The percentile of sorted nanosecond latencies, in milliseconds.
+     */
+    private static double percentile(long[] sortedNanos, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1e6;
+    }
+}
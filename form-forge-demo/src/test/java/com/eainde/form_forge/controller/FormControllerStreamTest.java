@@ -0,0 +1,53 @@
+package com.eainde.form_forge.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Opens more concurrent form streams than the task executor, which runs their generations, has threads.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.task.execution.pool.core-size=2", "spring.task.execution.pool.max-size=2"})
+class FormControllerStreamTest {
+
+    private static final int STREAMS = 16;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @Test
+    void everyStreamCompletesWhenStreamsOutnumberTheExecutorThreads() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < STREAMS; i++) {
+            String form = i % 2 == 0 ? "employee-details" : "employee-details-with-rules";
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/forms/" + form + "/stream"))
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            String body = response.get(30, TimeUnit.SECONDS).body();
+            assertThat(body).startsWith("event:blueprint");
+            assertThat(body).contains("event:item").contains("event:complete").doesNotContain("event:error");
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.eainde.form_forge.controller;
+
+import com.eainde.form_forge.models.blueprint.DynamicPayload;
+import com.eainde.form_forge.models.blueprint.FormBlueprint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Streams through {@link SseFormStreamListener} with emitters that stand in for slow or stalled clients.
+ */
+class SseFormStreamListenerTest {
+
+    private final ExecutorService writers = Executors.newCachedThreadPool();
+    private final ExecutorService generators = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutDown() {
+        writers.shutdownNow();
+        generators.shutdownNow();
+    }
+
+    /**
+     * An emitter that takes {@code sendMillis} per event and records how the stream ended.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        final long sendMillis;
+        final AtomicInteger sent = new AtomicInteger();
+        final CompletableFuture<Throwable> completion = new CompletableFuture<>();
+
+        RecordingEmitter(long sendMillis) {
+            this.sendMillis = sendMillis;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            try {
+                Thread.sleep(sendMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completion.complete(null);
+        }
+
+        @Override
+        public void completeWithError(Throwable error) {
+            completion.complete(error);
+        }
+    }
+
+    @Test
+    void moreStreamsThanGenerationThreadsAllComplete() throws Exception {
+        int streams = 8;
+        int events = 50;
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        List<SseFormStreamListener> listeners = new ArrayList<>();
+        for (int i = 0; i < streams; i++) {
+            RecordingEmitter emitter = new RecordingEmitter(1);
+            SseFormStreamListener listener = new SseFormStreamListener(emitter, writers, 2, Duration.ofSeconds(5));
+            listener.blueprint(blueprint());
+            emitters.add(emitter);
+            listeners.add(listener);
+        }
+
+        // The generation threads are busy, yet every blueprint reaches its client.
+        CountDownLatch blueprintsSent = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            generators.execute(() -> {
+                try {
+                    blueprintsSent.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (emitters.stream().anyMatch(emitter -> emitter.sent.get() == 0) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(emitters).allMatch(emitter -> emitter.sent.get() == 1);
+        blueprintsSent.countDown();
+
+        for (SseFormStreamListener listener : listeners) {
+            generators.execute(() -> {
+                try {
+                    for (int i = 0; i < events; i++) {
+                        listener.complete(new DynamicPayload("v"));
+                    }
+                    listener.finish(null);
+                } catch (RuntimeException e) {
+                    listener.fail(e);
+                }
+            });
+        }
+        for (RecordingEmitter emitter : emitters) {
+            assertThat(emitter.completion.get(30, TimeUnit.SECONDS)).isNull();
+            assertThat(emitter.sent.get()).isEqualTo(events + 1);
+        }
+    }
+
+    @Test
+    void slowClientThatKeepsReceivingIsNotCutOff() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(20);
+        SseFormStreamListener listener = new SseFormStreamListener(emitter, writers, 1, Duration.ofMillis(200));
+        listener.blueprint(blueprint());
+        // 40 events of 20 ms take far longer than the write timeout in total.
+        for (int i = 0; i < 40; i++) {
+            listener.complete(new DynamicPayload("v"));
+        }
+        listener.finish(null);
+
+        assertThat(emitter.completion.get(10, TimeUnit.SECONDS)).isNull();
+        assertThat(emitter.sent.get()).isEqualTo(41);
+    }
+
+    @Test
+    void stalledClientStopsTheGeneration() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(2_000);
+        SseFormStreamListener listener = new SseFormStreamListener(emitter, writers, 1, Duration.ofMillis(200));
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> {
+            listener.blueprint(blueprint());
+            for (int i = 0; i < 10; i++) {
+                listener.complete(new DynamicPayload("v"));
+            }
+        }).isInstanceOf(IllegalStateException.class).satisfies(e -> failure.set((RuntimeException) e));
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+
+        listener.fail(failure.get());
+        assertThat(emitter.completion.get(10, TimeUnit.SECONDS)).isSameAs(failure.get());
+    }
+
+    private static FormBlueprint blueprint() {
+        FormBlueprint blueprint = new FormBlueprint();
+        blueprint.setVersion("v");
+        return blueprint;
+    }
+}
@@ -0,0 +1,95 @@
+package com.eainde.form_forge.export;
+
+import com.eainde.form_forge.annotations.JsonForm;
+import com.eainde.form_forge.annotations.JsonFormField;
+import com.eainde.form_forge.controller.dto.FeedbackFormDto;
+import com.eainde.form_forge.dictionary.OptionDictionary;
+import com.eainde.form_forge.dictionary.OptionDictionaryRegistry;
+import com.eainde.form_forge.service.GenerationLimits;
+import com.eainde.form_forge.service.JsonFormGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports forms and checks that a {@link StaticFormStore} only serves them to code with the code digest they
+ * were exported with.
+ */
+class StaticFormStoreTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @JsonForm(title = "Address")
+    public static class CountryForm {
+        @JsonFormField(label = "Country", dictionary = "countries")
+        String country;
+    }
+
+    @Test
+    void exportedFormsAreServedByTheCodeTheyWereExportedFrom() throws Exception {
+        StaticFormManifest manifest = new StaticFormExporter(new JsonFormGenerator(), MAPPER).export(List.of(FeedbackFormDto.class), directory);
+
+        StaticFormStore store = StaticFormStore.open(directory, MAPPER);
+
+        assertThat(manifest.forms().get(FeedbackFormDto.class.getName()).codeDigest()).hasSize(64);
+        assertThat(store.find(FeedbackFormDto.class)).isEqualTo(manifest.forms().get(FeedbackFormDto.class.getName()));
+        assertThat(store.refused()).isEmpty();
+    }
+
+    @Test
+    void formsWithAnotherOrNoCodeDigestAreRefused() throws Exception {
+        StaticFormManifest manifest = new StaticFormExporter(new JsonFormGenerator(), MAPPER).export(List.of(FeedbackFormDto.class), directory);
+        StaticFormFile form = manifest.forms().get(FeedbackFormDto.class.getName());
+
+        writeManifest(withCodeDigest(form, "0".repeat(64)));
+        StaticFormStore changed = StaticFormStore.open(directory, MAPPER);
+        writeManifest(withCodeDigest(form, null));
+        StaticFormStore missing = StaticFormStore.open(directory, MAPPER);
+
+        assertThat(changed.find(FeedbackFormDto.class)).isNull();
+        assertThat(changed.forms()).isEmpty();
+        assertThat(changed.refused()).containsOnlyKeys(FeedbackFormDto.class.getName());
+        assertThat(missing.find(FeedbackFormDto.class)).isNull();
+        assertThat(missing.refused()).containsOnlyKeys(FeedbackFormDto.class.getName());
+    }
+
+    @Test
+    void aNewDictionaryVersionRefusesTheFormsThatUseIt() throws Exception {
+        new StaticFormExporter(generator("1"), MAPPER).export(List.of(CountryForm.class, FeedbackFormDto.class), directory);
+
+        StaticFormStore same = StaticFormStore.open(directory, MAPPER, generator("1"));
+        StaticFormStore changed = StaticFormStore.open(directory, MAPPER, generator("2"));
+
+        assertThat(same.find(CountryForm.class)).isNotNull();
+        assertThat(changed.find(CountryForm.class)).isNull();
+        assertThat(changed.find(FeedbackFormDto.class)).isNotNull();
+        assertThat(changed.refused()).containsOnlyKeys(CountryForm.class.getName());
+    }
+
+    private static JsonFormGenerator generator(String countriesVersion) {
+        OptionDictionaryRegistry dictionaries = new OptionDictionaryRegistry();
+        dictionaries.register(OptionDictionary.of("countries", countriesVersion, Map.of("DE", "Germany")));
+        return new JsonFormGenerator(GenerationLimits.DEFAULTS, dictionaries);
+    }
+
+    private static StaticFormFile withCodeDigest(StaticFormFile form, String codeDigest) {
+        return new StaticFormFile(form.formClass(), form.version(), codeDigest, form.file(), form.size(),
+                form.gzipFile(), form.gzipSize());
+    }
+
+    private void writeManifest(StaticFormFile form) throws Exception {
+        Map<String, StaticFormFile> forms = new LinkedHashMap<>();
+        forms.put(form.formClass(), form);
+        MAPPER.writeValue(directory.resolve(StaticFormExporter.MANIFEST).toFile(), new StaticFormManifest(forms, Map.of()));
+    }
+}
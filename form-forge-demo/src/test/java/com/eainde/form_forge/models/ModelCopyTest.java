@@ -0,0 +1,143 @@
+package com.eainde.form_forge.models;
+
+import com.eainde.form_forge.models.schema.*;
+import com.eainde.form_forge.models.uischema.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.lang.reflect.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fills every field of a model, including fields added later, with a value, copies the model with its copy
+ * constructor, and checks that the copy has the same content and shares no mutable object with the original.
+ */
+class ModelCopyTest {
+
+    private static final int MAX_DEPTH = 3;
+
+    @ParameterizedTest
+    @ValueSource(classes = {SchemaProperty.class, JsonSchema.class, SchemaDictionary.class, SchemaReference.class,
+            SchemaOption.class, UiSchemaElement.class, UiSchemaGroupElement.class, UiSchemaHorizontalLayoutElement.class,
+            UiSchemaVerticalLayoutElement.class, Rule.class, Condition.class, ConditionSchema.class})
+    void copyConstructorCopiesEveryFieldDeeply(Class<?> type) throws Exception {
+        Object original = populate(type, 0);
+        Object copy = type.getConstructor(type).newInstance(original);
+
+        assertThat(copy).usingRecursiveComparison().withStrictTypeChecking().isEqualTo(original);
+        assertNothingShared(copy, original, type.getSimpleName());
+    }
+
+    /**
+     * Creates an instance of a model with every field set; nested models stop at {@link #MAX_DEPTH}, where
+     * model fields are null and collections of models are empty.
+     */
+    private static Object populate(Class<?> type, int depth) throws Exception {
+        Object instance = type.getConstructor().newInstance();
+        for (Field field : fields(type)) {
+            field.setAccessible(true);
+            field.set(instance, sample(field.getGenericType(), field.getName(), depth));
+        }
+        return instance;
+    }
+
+    private static Object sample(Type type, String name, int depth) throws Exception {
+        if (type instanceof ParameterizedType parameterized) {
+            Class<?> raw = (Class<?>) parameterized.getRawType();
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (List.class.isAssignableFrom(raw)) {
+                List<Object> list = new ArrayList<>();
+                Object element = sample(arguments[0], name, depth);
+                if (element != null) {
+                    list.add(element);
+                }
+                return list;
+            }
+            if (Map.class.isAssignableFrom(raw)) {
+                Map<String, Object> map = new HashMap<>();
+                Object value = arguments[1] == Object.class
+                        ? new LinkedHashMap<>(Map.of("nested", new ArrayList<>(List.of(name))))
+                        : sample(arguments[1], name, depth);
+                if (value != null) {
+                    map.put(name, value);
+                }
+                return map;
+            }
+            throw new IllegalArgumentException("Unsupported field type " + type);
+        }
+        Class<?> raw = (Class<?>) type;
+        if (raw == String.class) {
+            return name;
+        }
+        if (raw == Integer.class || raw == Number.class) {
+            return 7;
+        }
+        if (raw == Boolean.class) {
+            return Boolean.TRUE;
+        }
+        if (raw == Object.class) {
+            return "value-" + name;
+        }
+        if (raw == ScopePath.class) {
+            return ScopePath.ROOT.child(name);
+        }
+        if (raw.isEnum()) {
+            return raw.getEnumConstants()[0];
+        }
+        if (depth >= MAX_DEPTH) {
+            return null;
+        }
+        if (raw == SchemaNode.class) {
+            return populate(SchemaProperty.class, depth + 1);
+        }
+        if (raw == UiSchemaLayoutElement.class) {
+            return populate(UiSchemaElement.class, depth + 1);
+        }
+        return populate(raw, depth + 1);
+    }
+
+    private static void assertNothingShared(Object copy, Object original, String path) throws Exception {
+        if (original == null || isImmutable(original)) {
+            return;
+        }
+        assertThat(copy).as(path).isNotSameAs(original);
+        if (original instanceof List<?> originals) {
+            List<?> copies = (List<?>) copy;
+            for (int i = 0; i < originals.size(); i++) {
+                assertNothingShared(copies.get(i), originals.get(i), path + "[" + i + "]");
+            }
+        } else if (original instanceof Map<?, ?> originals) {
+            Map<?, ?> copies = (Map<?, ?>) copy;
+            for (Map.Entry<?, ?> entry : originals.entrySet()) {
+                assertNothingShared(copies.get(entry.getKey()), entry.getValue(), path + "." + entry.getKey());
+            }
+        } else {
+            for (Field field : fields(original.getClass())) {
+                field.setAccessible(true);
+                assertNothingShared(field.get(copy), field.get(original), path + "." + field.getName());
+            }
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Enum<?>
+                || value instanceof ScopePath;
+    }
+
+    /**
+     * @return The instance fields of a model and its superclasses.
+     */
+    private static List<Field> fields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+}
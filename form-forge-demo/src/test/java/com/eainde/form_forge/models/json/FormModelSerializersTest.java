@@ -0,0 +1,183 @@
+package com.eainde.form_forge.models.json;
+
+import com.eainde.form_forge.controller.dto.EmployeeFormDto;
+import com.eainde.form_forge.controller.dto.EmployeeTrainingFormDto;
+import com.eainde.form_forge.controller.dto.UserProfileDto;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.models.schema.SchemaOption;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.schema.SchemaReference;
+import com.eainde.form_forge.models.uischema.*;
+import com.eainde.form_forge.service.FormBlueprintService;
+import com.eainde.form_forge.service.JsonFormGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Serializes generated forms, blueprints, payloads and hand-built edge cases with the dedicated
+ * {@link FormModelSerializers} and with Jackson's bean serialization of the same models, and checks that
+ * both write the same bytes under each supported mapper configuration.
+ */
+class FormModelSerializersTest {
+
+    private static final List<Class<?>> SERIALIZED_MODELS = List.of(JsonSchema.class, SchemaProperty.class,
+            SchemaReference.class, SchemaDictionary.class, UiSchema.class, UiSchemaElement.class, UiSchemaGroupElement.class,
+            UiSchemaHorizontalLayoutElement.class, UiSchemaVerticalLayoutElement.class, Rule.class, Condition.class,
+            ConditionSchema.class);
+
+    private static Map<String, Object> fixtures;
+
+    /**
+     * Replaces the {@code @JsonSerialize} of a model, so that it is serialized as a bean.
+     */
+    @JsonSerialize(using = JsonSerializer.None.class)
+    private abstract static class BeanSerialization {
+    }
+
+    static Stream<Arguments> mappers() {
+        return Stream.of(
+                Arguments.of("default", new ObjectMapper()),
+                Arguments.of("sorted map entries", new ObjectMapper().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)),
+                Arguments.of("indented", new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)),
+                Arguments.of("Spring Boot", Jackson2ObjectMapperBuilder.json().build()));
+    }
+
+    @BeforeAll
+    static void createFixtures() {
+        JsonFormGenerator generator = new JsonFormGenerator();
+        FormBlueprintService blueprints = new FormBlueprintService(generator);
+        fixtures = new LinkedHashMap<>();
+
+        Map<String, Map<String, Object>> userProfile = Map.of(
+                "country", Map.of("label", "Country of Residence", "enum", List.of("US", "DE")),
+                "bio", Map.of("rule", Map.of("effect", "SHOW", "conditionField", "active", "expectedValue", true)));
+        Map<String, Map<String, Object>> training = Map.of("employees", Map.of("data", employees(3, false)));
+        Map<String, Map<String, Object>> employees = Map.of("employees", Map.of("data", employees(7, true)));
+        Map<String, Map<String, Object>> paged = Map.of("employees", Map.of("data", employees(300, true), "pageSize", 200));
+        addForm("user-profile", generator.generate(UserProfileDto.class, userProfile));
+        addForm("employee-training", generator.generate(EmployeeTrainingFormDto.class, training));
+        addForm("employee-details", generator.generate(EmployeeFormDto.class, employees));
+        JsonFormResponse firstPage = generator.generate(EmployeeFormDto.class, paged);
+        addForm("employee-details-paged", firstPage);
+        fixtures.put("employee-details-page", generator.generateSectionPage(EmployeeFormDto.class, paged,
+                firstPage.getCursors().values().iterator().next()));
+        fixtures.put("user-profile-blueprint", blueprints.blueprint(UserProfileDto.class));
+        fixtures.put("user-profile-payload", blueprints.payload(UserProfileDto.class, userProfile));
+        fixtures.put("employee-details-blueprint", blueprints.blueprint(EmployeeFormDto.class));
+        fixtures.put("employee-details-payload", blueprints.payload(EmployeeFormDto.class, employees));
+        addEdgeCases();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mappers")
+    void dedicatedSerializersWriteTheSameBytesAsBeanSerialization(String configuration, ObjectMapper mapper) throws Exception {
+        ObjectMapper beanMapper = mapper.copy();
+        for (Class<?> model : SERIALIZED_MODELS) {
+            beanMapper.addMixIn(model, BeanSerialization.class);
+        }
+        for (Map.Entry<String, Object> fixture : fixtures.entrySet()) {
+            assertThat(mapper.writeValueAsString(fixture.getValue())).as(fixture.getKey())
+                    .isEqualTo(beanMapper.writeValueAsString(fixture.getValue()));
+        }
+    }
+
+    private static void addForm(String name, JsonFormResponse form) {
+        fixtures.put(name, form);
+        fixtures.put(name + "-schema", form.getSchema());
+        fixtures.put(name + "-uischema", form.getUischema());
+        fixtures.put(name + "-elements", form.getUischema().getElements());
+    }
+
+    /**
+     * Models with null and empty values, nulls inside lists and maps, and values the generator does not produce.
+     */
+    private static void addEdgeCases() {
+        JsonSchema schema = new JsonSchema();
+        schema.setType(null);
+        schema.setProperties(new LinkedHashMap<>());
+        schema.getProperties().put("missing", null);
+        SchemaProperty property = new SchemaProperty();
+        property.setType("string");
+        property.setMinLength(0);
+        property.setMaxLength(10);
+        property.setEnumValues(Arrays.asList("a", null, " \"quoted\" é"));
+        property.setOneOf(List.of(new SchemaOption("DE", "Germany"), new SchemaOption(null, null)));
+        schema.getProperties().put("property", property);
+        schema.getProperties().put("reference", new SchemaReference((String) null));
+        schema.getProperties().put("self", new SchemaReference("#"));
+        SchemaDictionary dictionary = new SchemaDictionary();
+        dictionary.setOneOf(List.of(new SchemaOption("US", "United States")));
+        dictionary.setVersion("1");
+        schema.setDefs(new TreeMap<>(Map.of("countries", dictionary, "empty", new SchemaDictionary())));
+        schema.setRequired(List.of());
+        fixtures.put("edge-schema", schema);
+        fixtures.put("empty-schema", new JsonSchema());
+        fixtures.put("empty-property", new SchemaProperty());
+
+        ConditionSchema conditionSchema = new ConditionSchema();
+        conditionSchema.setConstantValue(3.5);
+        conditionSchema.setEnumValues(Arrays.asList(1, "x", null, true));
+        conditionSchema.setMinimum(new BigDecimal("1E+3"));
+        conditionSchema.setMaximum(7L);
+        conditionSchema.setPattern("^a$");
+        conditionSchema.setNot(new ConditionSchema(Map.of("k", List.of(1))));
+        Condition leaf = Condition.schemaBased(ScopePath.ROOT.child("a"), conditionSchema);
+        Condition composite = Condition.composite(Condition.OR,
+                Arrays.asList(leaf, null, Condition.composite(Condition.AND, List.of())));
+        Rule rule = new Rule();
+        rule.setEffect(RuleEffect.DISABLE);
+        rule.setCondition(composite);
+        UiSchemaElement control = new UiSchemaElement();
+        control.setOptions(new LinkedHashMap<>(Map.of("multi", true)));
+        control.getOptions().put("none", null);
+        control.setRule(rule);
+        UiSchemaGroupElement group = new UiSchemaGroupElement();
+        group.setElements(null);
+        UiSchemaVerticalLayoutElement layout = new UiSchemaVerticalLayoutElement();
+        layout.getElements().addAll(Arrays.asList(control, null, group, new UiSchemaHorizontalLayoutElement()));
+        UiSchema uischema = new UiSchema();
+        uischema.getElements().add(layout);
+        uischema.getElements().add(new UiSchemaElement());
+        UiSchema emptyUischema = new UiSchema();
+        emptyUischema.setType(null);
+        emptyUischema.setElements(null);
+        fixtures.put("edge-uischema", uischema);
+        fixtures.put("empty-uischema", emptyUischema);
+        fixtures.put("edge-control", control);
+        fixtures.put("edge-rule", rule);
+        fixtures.put("empty-rule", new Rule());
+        fixtures.put("elements-in-map", Map.of("control", control, "group", group));
+        fixtures.put("elements-in-list", List.of(layout, group));
+        fixtures.put("edge-response", new JsonFormResponse(schema, uischema));
+    }
+
+    private static List<Map<String, Object>> employees(int count, boolean rules) {
+        List<Map<String, Object>> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> employee = new HashMap<>();
+            employee.put("employeeId", String.valueOf(100 + i));
+            employee.put("employeeName", "Employee \"" + i + "\" é");
+            if (rules && i % 3 == 1) {
+                employee.put("fieldRules", Map.of("email",
+                        Map.of("effect", "HIDE", "conditionField", "lastName", "expectedValue", "x")));
+            }
+            employees.add(employee);
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,218 @@
+package com.eainde.form_forge.rules;
+
+import com.eainde.form_forge.models.uischema.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Evaluates hand-built rules with nested scopes and nested AND/OR conditions, and checks that incremental
+ * updates of a {@link RuleState} agree with a full evaluation of the same data after every change.
+ */
+class RuleGraphTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ScopePath NAME = scope("name");
+    private static final ScopePath AGE = scope("age");
+    private static final ScopePath GUARDIAN = scope("guardian");
+    private static final ScopePath LICENSE = scope("license");
+    private static final ScopePath ACCOUNT = scope("account");
+    private static final ScopePath COUNTRY = ACCOUNT.child("country");
+    private static final ScopePath BUSINESS = ACCOUNT.child("business");
+    private static final ScopePath VAT = ACCOUNT.child("vat");
+    private static final ScopePath ADDRESS = scope("address");
+    private static final ScopePath STREET = ADDRESS.child("street");
+    private static final ScopePath CITY = ADDRESS.child("city");
+    private static final ScopePath LATITUDE = ADDRESS.child("geo").child("latitude");
+
+    private static final Map<ScopePath, List<String>> VALUES = new LinkedHashMap<>();
+
+    static {
+        VALUES.put(NAME, Arrays.asList("\"Ann\"", "\"hidden\"", null));
+        VALUES.put(AGE, Arrays.asList("10", "17", "18", "30.5", "\"18\"", null));
+        VALUES.put(GUARDIAN, Arrays.asList("\"Bob\"", "\"bob\"", null));
+        VALUES.put(ACCOUNT, Arrays.asList("{}", "{\"country\":\"US\"}", "{\"country\":\"CA\",\"business\":true}", "[]", null));
+        VALUES.put(COUNTRY, Arrays.asList("\"US\"", "\"CA\"", "\"DE\"", null));
+        VALUES.put(BUSINESS, Arrays.asList("true", "false", "\"true\"", null));
+        VALUES.put(ADDRESS, Arrays.asList("{}", "{\"street\":\" \"}", "{\"geo\":{\"latitude\":-1}}", null));
+        VALUES.put(STREET, Arrays.asList("\"\"", "\"Main\"", " \" \" ", null));
+        VALUES.put(LATITUDE, Arrays.asList("1", "-1", null));
+    }
+
+    private final RuleGraph graph = RuleGraph.compile(uiSchema());
+
+    @Test
+    void sharedConditionsAreCompiledOnce() {
+        assertThat(graph.controls()).hasSize(13);
+        assertThat(graph.conditionCount()).isEqualTo(7);
+    }
+
+    @Test
+    void compositeConditionsFollowTheirOperands() throws Exception {
+        RuleState state = graph.evaluate(data("{\"age\":17,\"guardian\":\"Bob\",\"account\":{\"country\":\"CA\",\"business\":true}}"));
+        assertThat(state.isVisible(VAT)).isTrue();
+        assertThat(state.isEnabled(LICENSE)).isTrue();
+
+        assertThat(state.update(GUARDIAN, MAPPER.readTree("\"bob\""))).containsExactly(LICENSE);
+        assertThat(state.isEnabled(LICENSE)).isFalse();
+        assertThat(state.update(AGE, MAPPER.readTree("18"))).containsExactly(LICENSE);
+        assertThat(state.isEnabled(LICENSE)).isTrue();
+
+        assertThat(state.update(COUNTRY, MAPPER.readTree("\"DE\""))).containsExactlyInAnyOrder(BUSINESS, VAT);
+        assertThat(state.isVisible(VAT)).isFalse();
+        assertThat(state.isEnabled(BUSINESS)).isFalse();
+    }
+
+    @Test
+    void hidingAParentScopeHidesItsDescendants() throws Exception {
+        RuleState state = graph.evaluate(data("{\"name\":\"hidden\",\"age\":30,\"address\":{\"street\":\"Main\",\"geo\":{\"latitude\":1}}}"));
+        for (ScopePath scope : List.of(ADDRESS, STREET, CITY, LATITUDE, LATITUDE.parent())) {
+            assertThat(state.isVisible(scope)).as(scope.toString()).isFalse();
+        }
+        assertThat(state.isVisible(NAME)).isTrue();
+        assertThat(state.isEnabled(CITY)).isTrue();
+
+        assertThat(state.update(NAME, MAPPER.readTree("\"Ann\""))).containsExactly(ADDRESS);
+        for (ScopePath scope : List.of(ADDRESS, STREET, CITY, LATITUDE)) {
+            assertThat(state.isVisible(scope)).as(scope.toString()).isTrue();
+        }
+
+        // A descendant's own rule still applies below a visible parent.
+        assertThat(state.update(LATITUDE, MAPPER.readTree("-1"))).containsExactly(LATITUDE);
+        assertThat(state.isVisible(LATITUDE)).isFalse();
+    }
+
+    @Test
+    void replacingOrRemovingAnObjectReevaluatesTheConditionsBelowIt() throws Exception {
+        RuleState state = graph.evaluate(data("{\"account\":{\"country\":\"US\",\"business\":true}}"));
+        assertThat(state.isVisible(VAT)).isTrue();
+
+        assertThat(state.update(ACCOUNT, null)).containsExactlyInAnyOrder(ACCOUNT, BUSINESS, VAT);
+        assertThat(state.isVisible(ACCOUNT)).isFalse();
+        assertThat(state.isVisible(COUNTRY)).isFalse();
+
+        // Writing below a missing object creates it, which the condition on the object observes.
+        assertThat(state.update(COUNTRY, MAPPER.readTree("\"CA\""))).containsExactlyInAnyOrder(ACCOUNT, BUSINESS);
+        assertThat(state.isVisible(COUNTRY)).isTrue();
+        assertThat(state.isEnabled(BUSINESS)).isTrue();
+    }
+
+    @Test
+    void incrementalUpdatesEqualFullEvaluation() throws Exception {
+        Random random = new Random(42);
+        List<ScopePath> scopes = new ArrayList<>(VALUES.keySet());
+        for (int run = 0; run < 20; run++) {
+            ObjectNode document = MAPPER.createObjectNode();
+            RuleState state = graph.evaluate(document);
+            RuleState previous = graph.evaluate(document.deepCopy());
+            for (int step = 0; step < 200; step++) {
+                ScopePath scope = scopes.get(random.nextInt(scopes.size()));
+                List<String> values = VALUES.get(scope);
+                String value = values.get(random.nextInt(values.size()));
+
+                Set<ScopePath> changed = new HashSet<>(state.update(scope, value != null ? MAPPER.readTree(value) : null));
+                RuleState expected = graph.evaluate(document.deepCopy());
+                String context = "run " + run + " step " + step + ": " + scope + " = " + value + " in " + document;
+                for (ScopePath control : graph.controls()) {
+                    assertThat(state.isVisible(control)).as("visibility of %s, %s", control, context).isEqualTo(expected.isVisible(control));
+                    assertThat(state.isEnabled(control)).as("enablement of %s, %s", control, context).isEqualTo(expected.isEnabled(control));
+                    if (previous.isEnabled(control) != expected.isEnabled(control)) {
+                        assertThat(changed).as("changed controls, %s", context).contains(control);
+                    }
+                    if (previous.isVisible(control) != expected.isVisible(control)) {
+                        assertThat(changedAtOrAbove(changed, control)).as("changed controls for %s, %s", control, context).isTrue();
+                    }
+                }
+                previous = expected;
+            }
+        }
+    }
+
+    private static boolean changedAtOrAbove(Set<ScopePath> changed, ScopePath control) {
+        for (ScopePath scope = control; scope != null; scope = scope.parent()) {
+            if (changed.contains(scope)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A form whose address object is hidden for one name, with a nested latitude control, an account object
+     * shown only while it has a value, and nested AND/OR conditions over the account and the age.
+     */
+    private static UiSchema uiSchema() {
+        Condition northAmerica = Condition.schemaBased(COUNTRY, enumSchema("US", "CA"));
+        ConditionSchema adult = new ConditionSchema();
+        adult.setMinimum(18);
+        ConditionSchema minor = new ConditionSchema();
+        minor.setMaximum(17);
+        ConditionSchema capitalized = new ConditionSchema();
+        capitalized.setPattern("^[A-Z]");
+        ConditionSchema blank = new ConditionSchema();
+        blank.setNot(new ConditionSchema());
+        blank.getNot().setPattern("\\S");
+        ConditionSchema notNegative = new ConditionSchema();
+        notNegative.setMinimum(0);
+
+        UiSchemaVerticalLayoutElement account = new UiSchemaVerticalLayoutElement();
+        account.getElements().addAll(List.of(
+                control(ACCOUNT, RuleEffect.SHOW, Condition.schemaBased(ACCOUNT, new ConditionSchema())),
+                control(COUNTRY, null, null),
+                control(BUSINESS, RuleEffect.ENABLE, northAmerica),
+                control(VAT, RuleEffect.SHOW, Condition.composite(Condition.AND, List.of(
+                        new Condition(northAmerica), Condition.schemaBased(BUSINESS, new ConditionSchema(true)))))));
+        UiSchemaGroupElement address = new UiSchemaGroupElement();
+        address.setLabel("Address");
+        address.getElements().addAll(List.of(
+                control(ADDRESS, RuleEffect.HIDE, Condition.schemaBased(NAME, new ConditionSchema("hidden"))),
+                control(STREET, null, null),
+                control(CITY, RuleEffect.DISABLE, Condition.schemaBased(STREET, blank)),
+                control(LATITUDE.parent(), null, null),
+                control(LATITUDE, RuleEffect.SHOW, Condition.schemaBased(LATITUDE, notNegative))));
+
+        UiSchema uiSchema = new UiSchema();
+        uiSchema.getElements().addAll(List.of(
+                control(NAME, null, null),
+                control(AGE, null, null),
+                control(GUARDIAN, null, null),
+                control(LICENSE, RuleEffect.ENABLE, Condition.composite(Condition.OR, List.of(
+                        Condition.schemaBased(AGE, adult),
+                        Condition.composite(Condition.AND, List.of(
+                                Condition.schemaBased(AGE, minor), Condition.schemaBased(GUARDIAN, capitalized)))))),
+                account,
+                address));
+        return uiSchema;
+    }
+
+    private static UiSchemaElement control(ScopePath scope, RuleEffect effect, Condition condition) {
+        UiSchemaElement control = new UiSchemaElement();
+        control.setScope(scope);
+        if (effect != null) {
+            Rule rule = new Rule();
+            rule.setEffect(effect);
+            rule.setCondition(condition);
+            control.setRule(rule);
+        }
+        return control;
+    }
+
+    private static ConditionSchema enumSchema(Object... values) {
+        ConditionSchema schema = new ConditionSchema();
+        schema.setEnumValues(List.of(values));
+        return schema;
+    }
+
+    private static ScopePath scope(String property) {
+        return ScopePath.ROOT.child(property);
+    }
+
+    private static JsonNode data(String json) throws Exception {
+        return MAPPER.readTree(json);
+    }
+}
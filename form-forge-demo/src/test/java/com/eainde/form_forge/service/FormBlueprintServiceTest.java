@@ -0,0 +1,167 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.annotations.*;
+import com.eainde.form_forge.controller.dto.AddressDto;
+import com.eainde.form_forge.controller.dto.EmployeeFormDto;
+import com.eainde.form_forge.controller.dto.EmployeeTrainingFormDto;
+import com.eainde.form_forge.controller.dto.UserProfileDto;
+import com.eainde.form_forge.models.blueprint.DynamicItem;
+import com.eainde.form_forge.models.blueprint.DynamicPayload;
+import com.eainde.form_forge.models.blueprint.FormBlueprint;
+import com.eainde.form_forge.models.uischema.RuleEffect;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Splits forms into blueprints and payloads and checks that {@link BlueprintMerger} rebuilds the generated form
+ * from them, whether the items are built from their section's template or sent in full.
+ */
+class FormBlueprintServiceTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonFormGenerator generator = new JsonFormGenerator();
+    private final FormBlueprintService service = new FormBlueprintService(generator);
+
+    public static class Item {
+        @JsonFormField(label = "Email")
+        String email;
+        @JsonFormField(label = "Name")
+        String name;
+        @JsonFormRule(effect = RuleEffect.SHOW, conditionField = "active", expectedValue = "true")
+        @JsonFormField(label = "Note")
+        String note;
+        @JsonFormGroup(label = "Address")
+        AddressDto address;
+    }
+
+    public static class Nested {
+        @JsonFormField(label = "Nested")
+        String nested;
+        @JsonFormDynamicSection(itemDto = Item.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "g_")
+        Object inner;
+    }
+
+    public static class Recursive {
+        @JsonFormField(label = "Value")
+        String value;
+        @JsonFormDynamicSection(itemDto = Recursive.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "r_")
+        Object children;
+    }
+
+    @JsonForm(title = "Sections", layout = @Layout({
+            @LayoutItem(type = LayoutType.HORIZONTAL, fields = {"first", "paged", "country"}),
+            @LayoutItem(fields = {"active", "outer"})}))
+    public static class SectionsForm {
+        @JsonFormField(label = "First")
+        String first;
+        @JsonFormDynamicSection(itemDto = Item.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "p_", pageSize = 3)
+        Object paged;
+        @JsonFormField(label = "Country")
+        String country;
+        @JsonFormField(label = "Active")
+        Boolean active;
+        @JsonFormDynamicSection(itemDto = Nested.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "o_")
+        Object outer;
+        @JsonFormDynamicSection(itemDto = Recursive.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "rr_")
+        Object recursive;
+    }
+
+    @Test
+    void mergedBlueprintAndPayloadEqualTheGeneratedForm() throws Exception {
+        assertMergeEqualsGenerate(UserProfileDto.class, Map.of(
+                "country", Map.of("label", "Country of Residence"),
+                "bio", Map.of("rule", Map.of("effect", "SHOW", "conditionField", "active", "expectedValue", true))));
+        assertMergeEqualsGenerate(UserProfileDto.class, Map.of());
+        assertMergeEqualsGenerate(EmployeeTrainingFormDto.class, Map.of("employees", Map.of("data", items("employeeId", "employeeName", 3, false))));
+        assertMergeEqualsGenerate(EmployeeFormDto.class, Map.of("employees", Map.of("data", items("employeeId", "employeeName", 7, true))));
+        assertMergeEqualsGenerate(SectionsForm.class, sectionsMetadata());
+        assertMergeEqualsGenerate(SectionsForm.class, Map.of());
+    }
+
+    @Test
+    void itemsThatDifferInControlsOnlyAreTemplated() {
+        DynamicPayload payload = service.payload(EmployeeFormDto.class,
+                Map.of("employees", Map.of("data", items("employeeId", "employeeName", 7, true))));
+
+        List<DynamicItem> items = payload.getSections().values().iterator().next();
+        assertThat(items).hasSize(7).allMatch(item -> item.getSchema() == null && item.getGroup() == null);
+        // Every third employee has a rule on its email control, which is sent as a replacement.
+        assertThat(payload.getControls()).hasSize(2).allSatisfy((scope, control) -> {
+            assertThat(scope).endsWith("/properties/email");
+            assertThat(control.getRule()).isNotNull();
+        });
+    }
+
+    @Test
+    void itemsWithNestedSectionsAreSentInFull() {
+        DynamicPayload payload = service.payload(SectionsForm.class, sectionsMetadata());
+
+        assertThat(payload.getSections().get("#/properties/outer")).hasSize(2)
+                .allMatch(item -> item.getSchema() != null && item.getGroup() != null);
+        assertThat(payload.getSections().get("#/properties/paged")).hasSize(3)
+                .allMatch(item -> item.getSchema() == null);
+    }
+
+    @Test
+    void concurrentCallersShareOneBlueprint() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<FormBlueprint>> blueprints = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                blueprints.add(executor.submit(() -> {
+                    start.await();
+                    return service.blueprint(SectionsForm.class);
+                }));
+            }
+            start.countDown();
+            FormBlueprint first = blueprints.get(0).get(1, TimeUnit.MINUTES);
+            for (Future<FormBlueprint> blueprint : blueprints) {
+                assertThat(blueprint.get(1, TimeUnit.MINUTES)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void assertMergeEqualsGenerate(Class<?> formClass, Map<String, Map<String, Object>> metadata) throws Exception {
+        JsonNode generated = MAPPER.valueToTree(generator.generate(formClass, metadata));
+        JsonNode merged = MAPPER.valueToTree(BlueprintMerger.merge(service.blueprint(formClass), service.payload(formClass, metadata)));
+        assertThat(merged).as(formClass.getSimpleName() + " " + metadata.keySet()).isEqualTo(generated);
+    }
+
+    private static Map<String, Map<String, Object>> sectionsMetadata() {
+        Map<String, Map<String, Object>> metadata = new HashMap<>();
+        metadata.put("paged", Map.of("data", items("id", "name", 5, true)));
+        metadata.put("outer", Map.of("data", items("id", "name", 2, false)));
+        metadata.put("inner", Map.of("data", items("id", "name", 2, true)));
+        metadata.put("recursive", Map.of("data", items("id", "name", 2, false)));
+        metadata.put("country", Map.of("enum", List.of("A", "B"), "label", "Land"));
+        return metadata;
+    }
+
+    /**
+     * @return {@code count} items; with {@code rules}, every third item shows its email only for a given name.
+     */
+    private static List<Map<String, Object>> items(String keyField, String labelField, int count, boolean rules) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> item = new HashMap<>();
+            item.put(keyField, String.valueOf(100 + i));
+            item.put(labelField, "Item " + i);
+            if (rules && i % 3 == 1) {
+                item.put("fieldRules", Map.of("email", Map.of("effect", "SHOW", "conditionField", labelField, "expectedValue", "x")));
+            }
+            items.add(item);
+        }
+        return items;
+    }
+}
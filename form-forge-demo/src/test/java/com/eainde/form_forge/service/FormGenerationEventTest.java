@@ -0,0 +1,74 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.controller.dto.EmployeeFormDto;
+import com.eainde.form_forge.controller.dto.FeedbackFormDto;
+import com.eainde.form_forge.exception.JsonFormGenerationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Records {@link FormGenerationEvent}s for generations that succeed and generations that throw, and checks
+ * that a failed generation is recorded as such and leaves the generator usable.
+ */
+class FormGenerationEventTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void failedGenerationsAreRecordedAsFailed() throws Exception {
+        JsonFormGenerator generator = new JsonFormGenerator(new GenerationLimits(32, 50_000, 2));
+        Map<String, Map<String, Object>> employees = Map.of("employees", Map.of("data", List.of(
+                Map.of("employeeId", "1", "employeeName", "One"), Map.of("employeeId", "2", "employeeName", "Two"),
+                Map.of("employeeId", "3", "employeeName", "Three"))));
+        Path file = directory.resolve("generation.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(FormGenerationEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+            generator.generate(FeedbackFormDto.class, Map.of());
+            assertThatThrownBy(() -> generator.generate(EmployeeFormDto.class, employees))
+                    .isInstanceOf(JsonFormGenerationException.class);
+            assertThatThrownBy(() -> generator.generate(String.class, Map.of()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> generator.generateSectionPage(FeedbackFormDto.class, Map.of(), "not a cursor"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        long thread = Thread.currentThread().getId();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(FormGenerationEvent.NAME))
+                .filter(event -> event.getThread() != null && event.getThread().getJavaThreadId() == thread)
+                .toList();
+        assertThat(events).extracting(event -> event.getClass("formClass").getName(), event -> event.getString("kind"),
+                        event -> event.getBoolean("failed"))
+                .containsExactly(
+                        tuple(FeedbackFormDto.class.getName(), FormGenerationEvent.FORM, false),
+                        tuple(EmployeeFormDto.class.getName(), FormGenerationEvent.FORM, true),
+                        tuple(String.class.getName(), FormGenerationEvent.FORM, true),
+                        tuple(FeedbackFormDto.class.getName(), FormGenerationEvent.SECTION_PAGE, true));
+        assertThat(events.get(0).getInt("fields")).isPositive();
+        assertThat(events.get(1).getInt("dynamicItems")).isEqualTo(3);
+        assertThat(events.get(2).getInt("fields")).isZero();
+
+        // The failed generations released their state.
+        assertThat(MAPPER.writeValueAsString(generator.generate(EmployeeFormDto.class, Map.of())))
+                .isEqualTo(MAPPER.writeValueAsString(new JsonFormGenerator().generate(EmployeeFormDto.class, Map.of())));
+    }
+}
@@ -0,0 +1,70 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.controller.dto.EmployeeFormDto;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.uischema.UiSchemaGroupElement;
+import com.eainde.form_forge.models.uischema.UiSchemaLayoutElement;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares groups embedded from a cached {@link GroupFragment} with the same groups generated field by field.
+ */
+class GroupFragmentTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonFormGenerator generator = new JsonFormGenerator();
+
+    /**
+     * Field rules of a dynamic item are passed down to its nested groups, so the item's "Contact Info" group is
+     * generated field by field when the item has rules, and embedded from its fragment when it has none. A
+     * rule on a field outside the group leaves the group's content unchanged.
+     */
+    @Test
+    void relocatedFragmentSerializesLikeAFreshlyGeneratedGroup() throws Exception {
+        Map<String, Object> rules = Map.of("firstName",
+                Map.of("effect", "SHOW", "conditionField", "lastName", "expectedValue", "Johnson"));
+        JsonFormResponse fresh = generator.generate(EmployeeFormDto.class, employees(rules));
+        JsonFormResponse relocated = generator.generate(EmployeeFormDto.class, employees(null));
+
+        assertThat(MAPPER.writeValueAsString(relocated.getSchema())).isEqualTo(MAPPER.writeValueAsString(fresh.getSchema()));
+        List<UiSchemaGroupElement> freshGroups = groups(fresh.getUischema().getElements(), "Contact Info", new ArrayList<>());
+        List<UiSchemaGroupElement> relocatedGroups = groups(relocated.getUischema().getElements(), "Contact Info", new ArrayList<>());
+        assertThat(relocatedGroups).hasSize(2);
+        assertThat(MAPPER.writeValueAsString(relocatedGroups)).isEqualTo(MAPPER.writeValueAsString(freshGroups));
+        assertThat(MAPPER.writeValueAsString(relocated.getUischema())).isNotEqualTo(MAPPER.writeValueAsString(fresh.getUischema()));
+    }
+
+    private static Map<String, Map<String, Object>> employees(Map<String, Object> fieldRules) {
+        List<Map<String, Object>> employees = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> employee = new HashMap<>();
+            employee.put("employeeId", String.valueOf(100 + i));
+            employee.put("employeeName", "Employee " + i);
+            if (fieldRules != null) {
+                employee.put("fieldRules", fieldRules);
+            }
+            employees.add(employee);
+        }
+        return Map.of("employees", Map.of("data", employees));
+    }
+
+    private static List<UiSchemaGroupElement> groups(List<UiSchemaLayoutElement> elements, String label,
+                                                     List<UiSchemaGroupElement> found) {
+        for (UiSchemaLayoutElement element : elements) {
+            if (element instanceof UiSchemaGroupElement group && label.equals(group.getLabel())) {
+                found.add(group);
+            }
+            groups(BlueprintMerger.children(element), label, found);
+        }
+        return found;
+    }
+}
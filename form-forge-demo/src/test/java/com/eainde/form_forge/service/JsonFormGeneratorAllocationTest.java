@@ -0,0 +1,94 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.controller.dto.EmployeeFormDto;
+import com.eainde.form_forge.controller.dto.FeedbackFormDto;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.uischema.UiSchema;
+import com.eainde.form_forge.models.uischema.UiSchemaLayoutElement;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks how much a warmed-up generation allocates beyond the model it returns, which is measured by copying
+ * the model with its copy constructors. The bounds are well above the measured values (about 200 bytes for the
+ * feedback form and 400 bytes per dynamic-section item) but below what a generation allocates when its state
+ * is not pooled (about 1.4 KB for the feedback form), so they catch a generator that stops reusing its state or
+ * starts allocating per field.
+ */
+class JsonFormGeneratorAllocationTest {
+
+    private static final int WARM_UP = 20_000;
+    private static final int ROUNDS = 20;
+    private static final int GENERATIONS_PER_ROUND = 200;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static Object sink;
+
+    private final JsonFormGenerator generator = new JsonFormGenerator();
+
+    @BeforeAll
+    static void requireAllocationCounters() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    @Test
+    void aSmallFormAllocatesLittleBeyondItsModel() {
+        assertThat(allocatedBeyondModel(FeedbackFormDto.class, Map.of())).isLessThan(1024);
+    }
+
+    @Test
+    void dynamicSectionItemsAllocateLittleBeyondTheirModel() {
+        List<Map<String, Object>> employees = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            employees.add(Map.of("employeeId", String.valueOf(100 + i), "employeeName", "Employee " + i));
+        }
+        long allocated = allocatedBeyondModel(EmployeeFormDto.class, Map.of("employees", Map.of("data", employees)));
+        assertThat(allocated / 50).isLessThan(1024);
+    }
+
+    /**
+     * @return The bytes a generation allocates minus the bytes a copy of its result allocates, the lowest of
+     * several rounds after warm-up.
+     */
+    private long allocatedBeyondModel(Class<?> formClass, Map<String, Map<String, Object>> metadata) {
+        JsonFormResponse form = generator.generate(formClass, metadata);
+        long generation = allocatedPerCall(() -> sink = generator.generate(formClass, metadata));
+        long model = allocatedPerCall(() -> sink = copy(form));
+        return generation - model;
+    }
+
+    private static long allocatedPerCall(Runnable call) {
+        for (int i = 0; i < WARM_UP; i++) {
+            call.run();
+        }
+        long lowest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < GENERATIONS_PER_ROUND; i++) {
+                call.run();
+            }
+            lowest = Math.min(lowest, (threads.getCurrentThreadAllocatedBytes() - start) / GENERATIONS_PER_ROUND);
+        }
+        return lowest;
+    }
+
+    private static JsonFormResponse copy(JsonFormResponse form) {
+        UiSchema uischema = new UiSchema();
+        uischema.setType(form.getUischema().getType());
+        for (UiSchemaLayoutElement element : form.getUischema().getElements()) {
+            uischema.getElements().add(element.copy());
+        }
+        return new JsonFormResponse(new JsonSchema(form.getSchema()), uischema, form.getCursors());
+    }
+}
@@ -0,0 +1,226 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.controller.dto.EmployeeFormDto;
+import com.eainde.form_forge.controller.dto.EmployeeTrainingFormDto;
+import com.eainde.form_forge.controller.dto.FeedbackFormDto;
+import com.eainde.form_forge.controller.dto.UserProfileDto;
+import com.eainde.form_forge.dictionary.OptionDictionary;
+import com.eainde.form_forge.dictionary.OptionDictionaryRegistry;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generates a mix of forms, dynamic metadata and field selections from many platform threads sharing one
+ * {@link JsonFormGenerator}, and compares every result byte for byte with the golden result of a
+ * single-threaded generation. The scaling curve, which prints the throughput at each thread count, is tagged
+ * {@code benchmark} and runs with {@code -Pbenchmark}.
+ */
+class JsonFormGeneratorConcurrencyTest {
+
+    private static final int CONTENTION_THREADS = Math.max(8, 4 * Runtime.getRuntime().availableProcessors());
+    private static final int CONTENTION_GENERATIONS = 1_000;
+    private static final int GENERATIONS_PER_LEVEL = 4_000;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static JsonFormGenerator generator;
+    private static List<GenerationCase> cases;
+    private static List<byte[]> golden;
+
+    /**
+     * One generation: a form class with its dynamic metadata and optional field selection.
+     */
+    private record GenerationCase(String name, Class<?> formClass, Map<String, Map<String, Object>> dynamicMetadata,
+                                  List<String> paths) {
+
+        byte[] generate() throws Exception {
+            return MAPPER.writeValueAsBytes(paths == null
+                    ? generator.generate(formClass, dynamicMetadata)
+                    : generator.generate(formClass, dynamicMetadata, paths));
+        }
+    }
+
+    @BeforeAll
+    static void generateGoldenResults() throws Exception {
+        OptionDictionaryRegistry dictionaries = new OptionDictionaryRegistry();
+        dictionaries.register(OptionDictionary.of("countries", "1", Map.of("US", "United States", "DE", "Germany")));
+        generator = new JsonFormGenerator(GenerationLimits.DEFAULTS, dictionaries);
+
+        cases = List.of(
+                new GenerationCase("feedback", FeedbackFormDto.class, Map.of(), null),
+                new GenerationCase("user-profile", UserProfileDto.class, userProfileMetadata(), null),
+                new GenerationCase("user-profile-empty", UserProfileDto.class, Map.of(), null),
+                new GenerationCase("user-profile-partial", UserProfileDto.class, userProfileMetadata(),
+                        List.of("personalDetails.firstName", "bio")),
+                new GenerationCase("employee-training", EmployeeTrainingFormDto.class, employeeMetadata("emp_", 3, false), null),
+                new GenerationCase("employee-details", EmployeeFormDto.class, employeeMetadata("", 2, false), null),
+                new GenerationCase("employee-details-rules", EmployeeFormDto.class, employeeMetadata("", 5, true), null),
+                new GenerationCase("employee-details-section", EmployeeFormDto.class, employeeMetadata("", 5, true),
+                        List.of("employees")),
+                new GenerationCase("employee-details-large", EmployeeFormDto.class, employeeMetadata("", 300, true), null));
+        golden = new ArrayList<>();
+        for (GenerationCase generationCase : cases) {
+            golden.add(generationCase.generate());
+        }
+    }
+
+    @Test
+    void repeatedSingleThreadedGenerationMatchesGolden() throws Exception {
+        for (int i = 0; i < cases.size(); i++) {
+            assertThat(cases.get(i).generate()).as(cases.get(i).name()).isEqualTo(golden.get(i));
+        }
+    }
+
+    @Test
+    void modifyingAGeneratedFormDoesNotAffectLaterForms() throws Exception {
+        JsonFormResponse form = generator.generate(UserProfileDto.class, userProfileMetadata());
+        JsonSchema personalDetails = (JsonSchema) form.getSchema().getProperties().get("personalDetails");
+        personalDetails.getProperties().values().stream()
+                .filter(SchemaProperty.class::isInstance)
+                .forEach(node -> ((SchemaProperty) node).setTitle("modified"));
+
+        assertThat(cases.get(1).generate()).isEqualTo(golden.get(1));
+    }
+
+    @Test
+    void selectingADynamicSectionGeneratesItsItemsCompletely() {
+        Map<String, Map<String, Object>> metadata = employeeMetadata("", 3, true);
+        JsonFormResponse full = generator.generate(EmployeeFormDto.class, metadata);
+        JsonFormResponse section = generator.generate(EmployeeFormDto.class, metadata, List.of("employees"));
+
+        Map<String, ?> expected = new HashMap<>(full.getSchema().getProperties());
+        expected.remove("departmentName");
+        assertThat(section.getSchema().getProperties()).isEqualTo(expected);
+    }
+
+    @Test
+    void concurrentGenerationMatchesGolden() throws Exception {
+        List<String> mismatches = new CopyOnWriteArrayList<>();
+        runConcurrently(CONTENTION_THREADS, CONTENTION_GENERATIONS, compareWithGolden(mismatches));
+        assertThat(mismatches).as("outputs differing from the golden result with %d threads", CONTENTION_THREADS).isEmpty();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void generationScaling() throws Exception {
+        int processors = Runtime.getRuntime().availableProcessors();
+        List<Integer> threadCounts = new ArrayList<>();
+        for (int threads = 1; threads < processors * 4; threads *= 2) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(processors * 4);
+
+        System.out.printf("JsonFormGenerator scaling (%d processors, %d generations per level)%n", processors, GENERATIONS_PER_LEVEL);
+        System.out.printf("%8s %14s%n", "threads", "generations/s");
+        for (int threads : threadCounts) {
+            List<String> mismatches = new CopyOnWriteArrayList<>();
+            long nanos = runConcurrently(threads, GENERATIONS_PER_LEVEL, compareWithGolden(mismatches));
+            System.out.printf("%8d %14.0f%n", threads, GENERATIONS_PER_LEVEL * 1e9 / nanos);
+            assertThat(mismatches).as("outputs differing from the golden result with %d threads", threads).isEmpty();
+        }
+    }
+
+    /**
+     * @return A task that runs the cases in turn, offset by thread, and records the results that differ from
+     * the golden ones.
+     */
+    private static Task compareWithGolden(List<String> mismatches) {
+        return (thread, i) -> {
+            int index = (thread + i) % cases.size();
+            GenerationCase generationCase = cases.get(index);
+            if (!Arrays.equals(generationCase.generate(), golden.get(index))) {
+                mismatches.add(generationCase.name() + " on thread " + thread);
+            }
+        };
+    }
+
+    @Test
+    void concurrentSectionPagesMatchSingleThreadedPages() throws Exception {
+        List<?> employees = (List<?>) employeeMetadata("", 300, false).get("employees").get("data");
+        Map<String, Map<String, Object>> metadata = Map.of("employees", Map.of("data", employees, "pageSize", 50));
+        String cursor = generator.generate(EmployeeFormDto.class, metadata).getCursors().values().iterator().next();
+        byte[] expected = MAPPER.writeValueAsBytes(generator.generateSectionPage(EmployeeFormDto.class, metadata, cursor));
+
+        List<String> mismatches = new CopyOnWriteArrayList<>();
+        runConcurrently(Runtime.getRuntime().availableProcessors() * 2, 1_000, (thread, i) -> {
+            byte[] page = MAPPER.writeValueAsBytes(generator.generateSectionPage(EmployeeFormDto.class, metadata, cursor));
+            if (!Arrays.equals(page, expected)) {
+                mismatches.add("page on thread " + thread);
+            }
+        });
+        assertThat(mismatches).isEmpty();
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run(int thread, int iteration) throws Exception;
+    }
+
+    /**
+     * Runs {@code total} iterations of a task spread over a number of platform threads, which are released
+     * together so that they contend from the first iteration.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    private static long runConcurrently(int threads, int total, Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                int threadIndex = thread;
+                int iterations = total / threads + (thread < total % threads ? 1 : 0);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < iterations; i++) {
+                        task.run(threadIndex, i);
+                    }
+                    return null;
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            return System.nanoTime() - startNanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<String, Map<String, Object>> userProfileMetadata() {
+        Map<String, Map<String, Object>> metadata = new HashMap<>();
+        metadata.put("country", Map.of("label", "Country of Residence"));
+        metadata.put("bio", Map.of("rule", Map.of("effect", "SHOW", "conditionField", "active", "expectedValue", true)));
+        return metadata;
+    }
+
+    /**
+     * @return Metadata with {@code count} employees for the "employees" section; with {@code rules}, every
+     * third employee shows its email only for a given last name.
+     */
+    private static Map<String, Map<String, Object>> employeeMetadata(String idPrefix, int count, boolean rules) {
+        List<Map<String, Object>> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> employee = new HashMap<>();
+            employee.put("employeeId", idPrefix + (100 + i));
+            employee.put("employeeName", "Employee " + i);
+            if (rules && i % 3 == 1) {
+                employee.put("fieldRules", Map.of("email",
+                        Map.of("effect", "SHOW", "conditionField", "lastName", "expectedValue", "Johnson")));
+            }
+            employees.add(employee);
+        }
+        return Map.of("employees", Map.of("data", employees));
+    }
+}
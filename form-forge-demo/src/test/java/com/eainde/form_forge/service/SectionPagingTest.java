@@ -0,0 +1,158 @@
+package com.eainde.form_forge.service;
+
+import com.eainde.form_forge.annotations.*;
+import com.eainde.form_forge.controller.dto.AddressDto;
+import com.eainde.form_forge.models.DynamicSectionPage;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.uischema.RuleEffect;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.models.uischema.UiSchemaElement;
+import com.eainde.form_forge.models.uischema.UiSchemaLayoutElement;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pages through every cursor of a form with a paginated section and a paginated section nested in the items
+ * of another, slots each page into the first response as {@link DynamicSectionPage} describes, and checks
+ * that the result equals the unpaginated form: every item delivered once, in order, with nothing missing.
+ */
+class SectionPagingTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Map<String, String> PREFIXES = Map.of("entries", "e_", "teams", "t_", "members", "m_");
+
+    private final JsonFormGenerator generator = new JsonFormGenerator();
+
+    public static class Entry {
+        @JsonFormField(label = "Name")
+        String name;
+        @JsonFormRule(effect = RuleEffect.SHOW, conditionField = "name", expectedValue = "x")
+        @JsonFormField(label = "Email")
+        String email;
+        @JsonFormGroup(label = "Address")
+        AddressDto address;
+    }
+
+    public static class Team {
+        @JsonFormField(label = "Team")
+        String team;
+        @JsonFormDynamicSection(itemDto = Entry.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "m_", pageSize = 2)
+        Object members;
+    }
+
+    @JsonForm(title = "Paged", layout = @Layout({
+            @LayoutItem(type = LayoutType.HORIZONTAL, fields = {"first", "entries", "last"}),
+            @LayoutItem(fields = {"teams"})}))
+    public static class PagedForm {
+        @JsonFormField(label = "First")
+        String first;
+        @JsonFormDynamicSection(itemDto = Entry.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "e_", pageSize = 3)
+        Object entries;
+        @JsonFormField(label = "Last")
+        String last;
+        @JsonFormDynamicSection(itemDto = Team.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "t_", pageSize = 2)
+        Object teams;
+    }
+
+    @ParameterizedTest(name = "{0} entries, {1} teams of {2} members")
+    @CsvSource({"1, 0, 0", "3, 0, 0", "9, 1, 2", "10, 5, 5", "0, 3, 7"})
+    void pagingThroughEveryCursorRebuildsTheUnpaginatedForm(int entries, int teams, int members) {
+        Map<String, Map<String, Object>> metadata = new HashMap<>();
+        metadata.put("entries", Map.of("data", items(entries)));
+        metadata.put("teams", Map.of("data", items(teams)));
+        metadata.put("members", Map.of("data", items(members)));
+
+        JsonFormResponse form = generator.generate(PagedForm.class, metadata);
+        Deque<String> cursors = new ArrayDeque<>(form.getCursors() != null ? form.getCursors().values() : List.of());
+        int pages = 0;
+        while (!cursors.isEmpty()) {
+            String cursor = cursors.poll();
+            SectionCursor position = SectionCursor.decode(cursor);
+            DynamicSectionPage page = generator.generateSectionPage(PagedForm.class, metadata, cursor);
+            assertThat(page.getSection()).isEqualTo(position.section());
+            assertThat(page.getProperties()).isNotEmpty();
+
+            JsonSchema object = BlueprintMerger.findObject(form.getSchema(), page.getScope());
+            assertThat(object.getProperties()).as("items delivered twice").doesNotContainKeys(
+                    page.getProperties().keySet().toArray(String[]::new));
+            object.getProperties().putAll(page.getProperties());
+            ScopePath previousItem = page.getScope().child(PREFIXES.get(position.section().property()) + position.lastKey());
+            assertThat(insertAfter(form.getUischema().getElements(), previousItem, page.getElements()))
+                    .as("the item before %s", cursor).isTrue();
+            if (page.getCursors() != null) {
+                cursors.addAll(page.getCursors().values());
+            }
+            pages++;
+        }
+        form.setCursors(null);
+
+        assertThat(pages).isEqualTo(pages(entries, 3) + pages(teams, 2) + teams * pages(members, 2));
+        JsonNode unpaginated = MAPPER.valueToTree(generator.generateUnpaginated(PagedForm.class, metadata));
+        assertThat(MAPPER.<JsonNode>valueToTree(form)).isEqualTo(unpaginated);
+    }
+
+    @Test
+    void aPageStartsAfterTheLastDeliveredItemWhenEarlierItemsChange() {
+        List<Map<String, Object>> items = items(10);
+        JsonFormResponse form = generator.generate(PagedForm.class, Map.of("entries", Map.of("data", items)));
+        String cursor = form.getCursors().get("#/properties/entries");
+
+        List<Map<String, Object>> changed = new ArrayList<>(items);
+        changed.remove(1);
+        changed.add(0, Map.of("id", "99", "name", "Item new"));
+        DynamicSectionPage page = generator.generateSectionPage(PagedForm.class, Map.of("entries", Map.of("data", changed)), cursor);
+
+        assertThat(page.getProperties()).containsOnlyKeys("e_103", "e_104", "e_105");
+        assertThat(SectionCursor.decode(page.getCursors().get("#/properties/entries")).lastKey()).isEqualTo("105");
+    }
+
+    /**
+     * Inserts a page's elements after the UI group of the item at a scope, in the list that holds that group.
+     *
+     * @return False if no group holds the item's controls.
+     */
+    private static boolean insertAfter(List<UiSchemaLayoutElement> elements, ScopePath item, List<UiSchemaLayoutElement> page) {
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            List<ScopePath> scopes = new ArrayList<>();
+            collectScopes(elements.get(i), scopes);
+            if (scopes.stream().noneMatch(scope -> scope.startsWith(item))) {
+                continue;
+            }
+            if (scopes.stream().allMatch(scope -> scope.startsWith(item))) {
+                elements.addAll(i + 1, page);
+                return true;
+            }
+            return insertAfter(BlueprintMerger.children(elements.get(i)), item, page);
+        }
+        return false;
+    }
+
+    private static void collectScopes(UiSchemaLayoutElement element, List<ScopePath> scopes) {
+        if (element instanceof UiSchemaElement control && control.getScope() != null) {
+            scopes.add(control.getScope());
+        }
+        for (UiSchemaLayoutElement child : BlueprintMerger.children(element)) {
+            collectScopes(child, scopes);
+        }
+    }
+
+    private static int pages(int items, int pageSize) {
+        return Math.max(0, (items + pageSize - 1) / pageSize - 1);
+    }
+
+    private static List<Map<String, Object>> items(int count) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(Map.of("id", String.valueOf(100 + i), "name", "Item " + i));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,159 @@
+package com.eainde.form_forge.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the integrity header of {@link FileBlueprintStore} entries, the recovery from corrupted entries, also
+ * while other threads rebuild them, and that concurrent readers never see a partially written entry.
+ */
+class FileBlueprintStoreTest {
+
+    private static final String KEY = "ab" + "0".repeat(62);
+    private static final byte[] CONTENT = "{\"blueprint\":true}".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesStartWithAFormatMarkerAndTheDigestOfTheirContent() throws Exception {
+        FileBlueprintStore store = new FileBlueprintStore(directory);
+        assertThat(store.get(KEY)).isNull();
+        store.put(KEY, CONTENT);
+
+        byte[] file = Files.readAllBytes(entry());
+        assertThat(Arrays.copyOfRange(file, 0, 8)).containsExactly('F', 'F', 'B', 'P', 0, 0, 0, 1);
+        assertThat(Arrays.copyOfRange(file, 8, 40)).containsExactly(MessageDigest.getInstance("SHA-256").digest(CONTENT));
+        assertThat(Arrays.copyOfRange(file, 40, file.length)).containsExactly(CONTENT);
+        assertThat(store.get(KEY)).containsExactly(CONTENT);
+        assertThat(files()).containsExactly(entry());
+    }
+
+    @Test
+    void corruptedEntriesAreDeletedAndCanBeStoredAgain() throws Exception {
+        FileBlueprintStore store = new FileBlueprintStore(directory);
+        List<UnaryOperator<byte[]>> corruptions = List.of(
+                bytes -> Arrays.copyOf(bytes, bytes.length - 1),
+                bytes -> Arrays.copyOf(bytes, 20),
+                bytes -> new byte[0],
+                bytes -> flip(bytes, 0),
+                bytes -> flip(bytes, 8),
+                bytes -> flip(bytes, bytes.length - 1),
+                bytes -> Arrays.copyOfRange(bytes, 40, bytes.length));
+        for (UnaryOperator<byte[]> corruption : corruptions) {
+            store.put(KEY, CONTENT);
+            Files.write(entry(), corruption.apply(Files.readAllBytes(entry())));
+
+            assertThat(store.get(KEY)).isNull();
+            assertThat(files()).isEmpty();
+            store.put(KEY, CONTENT);
+            assertThat(store.get(KEY)).containsExactly(CONTENT);
+        }
+    }
+
+    @Test
+    void aRebuiltEntryIsKeptWhileReadersDiscardTheCorruptedOne() throws Exception {
+        FileBlueprintStore store = new FileBlueprintStore(directory);
+        store.put(KEY, CONTENT);
+        byte[] corrupted = flip(Files.readAllBytes(entry()), 8);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                Files.write(entry(), corrupted);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> tasks = new ArrayList<>();
+                for (int reader = 0; reader < 3; reader++) {
+                    tasks.add(executor.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < 5; i++) {
+                            byte[] content = store.get(KEY);
+                            assertThat(content == null || Arrays.equals(content, CONTENT)).isTrue();
+                        }
+                        return null;
+                    }));
+                }
+                tasks.add(executor.submit(() -> {
+                    start.await();
+                    // Rebuilds the entry as soon as it is reported missing, like a FormBlueprintService.
+                    while (store.get(KEY) == null) {
+                        store.put(KEY, CONTENT);
+                    }
+                    return null;
+                }));
+                start.countDown();
+                for (Future<?> task : tasks) {
+                    task.get(1, TimeUnit.MINUTES);
+                }
+                assertThat(store.get(KEY)).as("round %d", round).containsExactly(CONTENT);
+                assertThat(files()).as("round %d", round).containsExactly(entry());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void readersNeverSeeAPartiallyWrittenEntry() throws Exception {
+        FileBlueprintStore store = new FileBlueprintStore(directory);
+        byte[] large = new byte[4 << 20];
+        new Random(1).nextBytes(large);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            keys.add(String.format("%064x", i + 1));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            tasks.add(executor.submit(() -> keys.forEach(key -> store.put(key, large)), null));
+            for (int reader = 0; reader < 3; reader++) {
+                tasks.add(executor.submit(() -> {
+                    Set<String> found = new HashSet<>();
+                    while (found.size() < keys.size()) {
+                        for (String key : keys) {
+                            byte[] content = store.get(key);
+                            if (content != null) {
+                                assertThat(content).isEqualTo(large);
+                                found.add(key);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // No temporary files are left behind.
+        assertThat(files()).hasSize(keys.size()).allMatch(file -> file.toString().endsWith(".blueprint"));
+    }
+
+    private Path entry() {
+        return directory.resolve(KEY.substring(0, 2)).resolve(KEY + ".blueprint");
+    }
+
+    private List<Path> files() throws Exception {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).toList();
+        }
+    }
+
+    private static byte[] flip(byte[] bytes, int index) {
+        byte[] copy = bytes.clone();
+        copy[index] ^= 1;
+        return copy;
+    }
+}
@@ -0,0 +1,185 @@
+package com.eainde.form_forge.validation;
+
+import com.eainde.form_forge.annotations.JsonForm;
+import com.eainde.form_forge.annotations.JsonFormDynamicSection;
+import com.eainde.form_forge.annotations.JsonFormField;
+import com.eainde.form_forge.annotations.JsonFormRule;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.schema.SchemaOption;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.uischema.*;
+import com.eainde.form_forge.service.JsonFormGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Validates documents against hand-built schemas covering each supported keyword, and against generated
+ * forms whose rules hide required fields or whose dynamic sections are paginated.
+ */
+class FormConstraintsTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final JsonFormGenerator generator = new JsonFormGenerator();
+
+    @JsonForm(title = "Account")
+    public static class AccountForm {
+        @JsonFormField(label = "Name", required = true, minLength = 2, maxLength = 5)
+        String name;
+        @JsonFormField(label = "Business")
+        Boolean business;
+        @JsonFormRule(effect = RuleEffect.SHOW, conditionField = "business", expectedValue = "true")
+        @JsonFormField(label = "Company", required = true)
+        String company;
+        @JsonFormDynamicSection(itemDto = Member.class, propertyKeyField = "id", labelField = "name", propertyKeyPrefix = "m_", pageSize = 2)
+        Object members;
+    }
+
+    public static class Member {
+        @JsonFormField(label = "Email", format = "email", required = true)
+        String email;
+    }
+
+    @Test
+    void eachSupportedKeywordIsValidated() throws Exception {
+        FormConstraints constraints = FormConstraints.compile(schema());
+
+        assertThat(validate(constraints, """
+                {"name": "Ann", "email": "ann@example.com", "born": "2000-02-29", "at": "2024-01-01T10:00:00Z",
+                 "site": "https://example.com", "age": 30, "score": 1.5, "active": true, "color": "red", "size": "M",
+                 "country": "DE", "address": {"street": "Main"}, "unknown": [1], "code": "anything"}""")).isEmpty();
+        // Lengths count code points.
+        assertThat(validate(constraints, "{\"name\": \"😀😀\"}")).isEmpty();
+        // Null values count as absent.
+        assertThat(validate(constraints, "{\"name\": \"Ann\", \"email\": null, \"address\": null}")).isEmpty();
+
+        assertThat(validate(constraints, """
+                {"email": "ann@", "born": "2000-02-30", "at": "2024-01-01", "site": "example.com", "age": 1.5,
+                 "score": "1", "active": "true", "color": "blue", "size": "XL", "country": "FR", "address": {}}"""))
+                .containsExactlyInAnyOrder(
+                        "#/properties/name required", "#/properties/email format", "#/properties/born format",
+                        "#/properties/at format", "#/properties/site format", "#/properties/age type",
+                        "#/properties/score type", "#/properties/active type", "#/properties/color enum",
+                        "#/properties/size enum", "#/properties/country enum", "#/properties/address/properties/street required");
+        assertThat(validate(constraints, "{\"name\": \"A\"}")).containsExactly("#/properties/name minLength");
+        assertThat(validate(constraints, "{\"name\": \"Annabel\", \"address\": \"Main\"}"))
+                .containsExactlyInAnyOrder("#/properties/name maxLength", "#/properties/address type");
+        assertThat(validate(constraints, "[]")).containsExactly("# type");
+    }
+
+    @Test
+    void fieldsHiddenByARuleAreNotValidated() throws Exception {
+        FormConstraints constraints = FormConstraints.compile(generator.generate(AccountForm.class, Map.of()));
+
+        assertThat(validate(constraints, "{\"name\": \"Ann\"}")).isEmpty();
+        assertThat(validate(constraints, "{\"name\": \"Ann\", \"business\": false, \"company\": 7}")).isEmpty();
+        assertThat(validate(constraints, "{\"name\": \"Ann\", \"business\": true}")).containsExactly("#/properties/company required");
+        assertThat(validate(constraints, "{\"name\": \"Ann\", \"business\": true, \"company\": 7}")).containsExactly("#/properties/company type");
+
+        // Without the UI schema, no rule hides the field.
+        assertThat(validate(FormConstraints.compile(generator.generate(AccountForm.class, Map.of()).getSchema()), "{\"name\": \"Ann\"}"))
+                .containsExactly("#/properties/company required");
+    }
+
+    @Test
+    void propertiesBelowAHiddenControlAreNotValidated() throws Exception {
+        ConditionSchema hidden = new ConditionSchema("hide");
+        UiSchemaElement address = new UiSchemaElement();
+        address.setScope(ScopePath.parse("#/properties/address"));
+        Rule rule = new Rule();
+        rule.setEffect(RuleEffect.HIDE);
+        rule.setCondition(Condition.schemaBased(ScopePath.parse("#/properties/name"), hidden));
+        address.setRule(rule);
+        UiSchema uiSchema = new UiSchema();
+        uiSchema.getElements().add(address);
+        FormConstraints constraints = FormConstraints.compile(new JsonFormResponse(schema(), uiSchema));
+
+        assertThat(validate(constraints, "{\"name\": \"hide\", \"address\": {\"street\": 1}}")).isEmpty();
+        assertThat(validate(constraints, "{\"name\": \"Ann\", \"address\": {\"street\": 1}}"))
+                .containsExactly("#/properties/address/properties/street type");
+        assertThat(validate(constraints, "{\"name\": \"Ann\", \"address\": {}}"))
+                .containsExactly("#/properties/address/properties/street required");
+    }
+
+    @Test
+    void paginatedFormsAreRejected() throws Exception {
+        Map<String, Map<String, Object>> metadata = Map.of("members", Map.of("data", List.of(
+                Map.of("id", "1", "name", "One"), Map.of("id", "2", "name", "Two"), Map.of("id", "3", "name", "Three"))));
+        JsonFormResponse paginated = generator.generate(AccountForm.class, metadata);
+        assertThat(paginated.getCursors()).isNotEmpty();
+        assertThatThrownBy(() -> FormConstraints.compile(paginated))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("#/properties/members");
+
+        // The unpaginated form validates the items of later pages as well.
+        FormConstraints constraints = FormConstraints.compile(generator.generateUnpaginated(AccountForm.class, metadata));
+        assertThat(validate(constraints, "{\"name\": \"Ann\", \"m_3\": {\"email\": \"three\"}}"))
+                .containsExactly("#/properties/m_3/properties/email format");
+    }
+
+    /**
+     * @return The violations as "scope code".
+     */
+    private static List<String> validate(FormConstraints constraints, String document) throws Exception {
+        JsonNode data = MAPPER.readTree(document);
+        return constraints.validate(data).stream().map(violation -> violation.scope() + " " + violation.code()).toList();
+    }
+
+    private static JsonSchema schema() {
+        JsonSchema address = new JsonSchema();
+        address.getProperties().put("street", property("string"));
+        address.setRequired(List.of("street"));
+
+        SchemaProperty name = property("string");
+        name.setMinLength(2);
+        name.setMaxLength(5);
+        SchemaProperty color = property("string");
+        color.setEnumValues(List.of("red", "green"));
+        SchemaProperty size = property("string");
+        size.setOneOf(List.of(new SchemaOption("S", "Small"), new SchemaOption("M", "Medium")));
+        SchemaProperty country = new SchemaProperty();
+        country.setRef("#/$defs/countries");
+        SchemaDictionary countries = new SchemaDictionary();
+        countries.setOneOf(List.of(new SchemaOption("US", "United States"), new SchemaOption("DE", "Germany")));
+
+        JsonSchema schema = new JsonSchema();
+        Map<String, SchemaNode> properties = schema.getProperties();
+        properties.put("name", name);
+        properties.put("email", format("email"));
+        properties.put("born", format("date"));
+        properties.put("at", format("date-time"));
+        properties.put("site", format("uri"));
+        properties.put("code", format("hostname"));
+        properties.put("age", property("integer"));
+        properties.put("score", property("number"));
+        properties.put("active", property("boolean"));
+        properties.put("color", color);
+        properties.put("size", size);
+        properties.put("country", country);
+        properties.put("address", address);
+        schema.setRequired(List.of("name"));
+        schema.setDefs(Map.of("countries", countries));
+        return schema;
+    }
+
+    private static SchemaProperty property(String type) {
+        SchemaProperty property = new SchemaProperty();
+        property.setType(type);
+        return property;
+    }
+
+    private static SchemaProperty format(String format) {
+        SchemaProperty property = property("string");
+        property.setFormat(format);
+        return property;
+    }
+}
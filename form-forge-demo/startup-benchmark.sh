@@ -0,0 +1,90 @@
+#!/usr/bin/env bash
+#
+# Measures the time from JVM launch to the first successful GET /api/forms/user-profile of the demo app.
+#
+#   ./startup-benchmark.sh [mode...]     modes: jit cds aot aot-cds (default: jit cds aot)
+#
+# Environment: RUNS (default 5), PORT (default 18080), SKIP_BUILD=1 to reuse the built jar,
+# JAVA_OPTS for extra JVM flags applied to every mode.
+#
+# All modes start the extracted application (java -Djarmode=tools ... extract), because CDS cannot archive
+# classes loaded from nested jars; jit is therefore the same layout without an archive. The CDS archive is
+# recorded by a training run that serves one form request before shutting down, so the generator and
+# Jackson serializer classes used on the request path are archived together with the startup classes.
+#
+set -euo pipefail
+
+cd "$(dirname "$0")"
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+MODES=("$@")
+[ ${#MODES[@]} -eq 0 ] && MODES=(jit cds aot)
+
+JAR=target/form-forge-demo-1.0-SNAPSHOT.jar
+WORK=target/startup-benchmark
+URL="http://localhost:$PORT/api/forms/user-profile"
+TIMEOUT_SECONDS=120
+
+if [ "${SKIP_BUILD:-0}" != 1 ]; then
+    # The aot profile adds the AOT initializers to the jar; they are only used with -Dspring.aot.enabled=true.
+    (cd .. && mvn -B -q -Paot -pl form-forge-demo -am package -DskipTests)
+fi
+
+rm -rf "$WORK"
+mkdir -p "$WORK"
+java -Djarmode=tools -jar "$JAR" extract --destination "$WORK/app" > /dev/null
+APP="$WORK/app/$(basename "$JAR")"
+
+jvm_flags() {
+    case "$1" in
+        jit)     echo "" ;;
+        cds)     echo "-XX:SharedArchiveFile=$WORK/app.jsa" ;;
+        aot)     echo "-Dspring.aot.enabled=true" ;;
+        aot-cds) echo "-Dspring.aot.enabled=true -XX:SharedArchiveFile=$WORK/app-aot.jsa" ;;
+        *)       echo "unknown mode: $1" >&2; exit 2 ;;
+    esac
+}
+
+# Starts the app with the given flags and prints the milliseconds until the form endpoint answers 200.
+time_to_first_response() {
+    local start end pid
+    start=$(date +%s%N)
+    # shellcheck disable=SC2086
+    java ${JAVA_OPTS:-} $1 -jar "$APP" --server.port="$PORT" > "$WORK/app.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2> /dev/null || [ $(( ($(date +%s%N) - start) / 1000000000 )) -ge $TIMEOUT_SECONDS ]; then
+            echo "application did not serve $URL, see $WORK/app.log" >&2
+            kill "$pid" 2> /dev/null || true
+            exit 1
+        fi
+        sleep 0.01
+    done
+    end=$(date +%s%N)
+    kill -TERM "$pid"
+    wait "$pid" || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+train() {
+    local archive=$1 flags=$2
+    if [ ! -f "$archive" ]; then
+        echo "recording $(basename "$archive") ..." >&2
+        time_to_first_response "$flags -XX:ArchiveClassesAtExit=$archive" > /dev/null
+    fi
+}
+
+printf '%-8s %5s %10s %10s\n' mode runs median_ms min_ms
+for mode in "${MODES[@]}"; do
+    case "$mode" in
+        cds)     train "$WORK/app.jsa" "" ;;
+        aot-cds) train "$WORK/app-aot.jsa" "-Dspring.aot.enabled=true" ;;
+    esac
+    flags=$(jvm_flags "$mode")
+    samples=()
+    for _ in $(seq "$RUNS"); do
+        samples+=("$(time_to_first_response "$flags")")
+    done
+    sorted=($(printf '%s\n' "${samples[@]}" | sort -n))
+    printf '%-8s %5d %10d %10d\n' "$mode" "$RUNS" "${sorted[$(( RUNS / 2 ))]}" "${sorted[0]}"
+done
@@ -0,0 +1,66 @@
+package com.eainde.form_forge.autoconfigure;
+
+import com.eainde.form_forge.admission.AdmissionController;
+import com.eainde.form_forge.admission.AdmissionStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Exposes the decisions of the {@link AdmissionController} as Micrometer meters:
+ * <ul>
+ *     <li>{@code formforge.admission.decisions} counts admissions and rejections, tagged with
+ *     {@code decision} ({@code light}, {@code heavy}, {@code rejected}) and, for rejections,
+ *     {@code reason} ({@code queue-full}, {@code timeout});</li>
+ *     <li>{@code formforge.admission.queued} counts heavy generations that had to wait;</li>
+ *     <li>{@code formforge.admission.wait} is the total time spent waiting for a permit;</li>
+ *     <li>{@code formforge.admission.active} and {@code formforge.admission.waiting} are the heavy
+ *     generations running and waiting now.</li>
+ * </ul>
+ */
+public class AdmissionMetrics implements MeterBinder {
+
+    private final AdmissionController admissionController;
+
+    public AdmissionMetrics(AdmissionController admissionController) {
+        this.admissionController = admissionController;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        decisions(registry, "light", "none", AdmissionStats::admittedLight);
+        decisions(registry, "heavy", "none", AdmissionStats::admittedHeavy);
+        decisions(registry, "rejected", "queue-full", AdmissionStats::rejectedFull);
+        decisions(registry, "rejected", "timeout", AdmissionStats::rejectedTimeout);
+        FunctionCounter.builder("formforge.admission.queued", admissionController, stat(AdmissionStats::queuedHeavy))
+                .description("Heavy form generations that waited for a permit")
+                .register(registry);
+        FunctionCounter.builder("formforge.admission.wait", admissionController,
+                        controller -> controller.stats().totalWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .description("Total time heavy form generations waited for a permit")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("formforge.admission.active", admissionController, stat(AdmissionStats::activeHeavy))
+                .description("Heavy form generations running")
+                .register(registry);
+        Gauge.builder("formforge.admission.waiting", admissionController, stat(AdmissionStats::waitingHeavy))
+                .description("Heavy form generations waiting for a permit")
+                .register(registry);
+    }
+
+    private void decisions(MeterRegistry registry, String decision, String reason, ToDoubleFunction<AdmissionStats> counter) {
+        FunctionCounter.builder("formforge.admission.decisions", admissionController, stat(counter))
+                .description("Admission decisions for form generations")
+                .tag("decision", decision)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private static ToDoubleFunction<AdmissionController> stat(ToDoubleFunction<AdmissionStats> counter) {
+        return controller -> counter.applyAsDouble(controller.stats());
+    }
+}
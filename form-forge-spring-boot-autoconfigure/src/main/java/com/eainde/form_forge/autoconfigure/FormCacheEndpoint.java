@@ -0,0 +1,65 @@
+package com.eainde.form_forge.autoconfigure;
+
+import com.eainde.form_forge.cache.CachedForm;
+import com.eainde.form_forge.cache.FormCacheStats;
+import com.eainde.form_forge.cache.FormResponseCache;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Actuator endpoint for operating the {@link FormResponseCache}.
+ * <ul>
+ *     <li>{@code GET /actuator/formcache} lists the cached variants with their hashes and sizes, plus the cache counters;</li>
+ *     <li>{@code DELETE /actuator/formcache?formClass=&tenant=&metadataKey=} invalidates the matching entries
+ *     (all of them if no parameter is given).</li>
+ * </ul>
+ */
+@Endpoint(id = "formcache")
+public class FormCacheEndpoint {
+
+    private final FormResponseCache cache;
+
+    public FormCacheEndpoint(FormResponseCache cache) {
+        this.cache = cache;
+    }
+
+    @ReadOperation
+    public CacheReport report() {
+        List<EntryReport> entries = cache.entries().stream()
+                .map(EntryReport::of)
+                .sorted(Comparator.comparing(EntryReport::formClass).thenComparing(EntryReport::tenant))
+                .toList();
+        FormCacheStats stats = cache.stats();
+        return new CacheReport(stats, stats.averageLoadMillis(), entries);
+    }
+
+    @DeleteOperation
+    public InvalidationReport invalidate(@Nullable String formClass, @Nullable String tenant,
+                                         @Nullable String metadataKey) {
+        return new InvalidationReport(cache.invalidate(formClass, tenant, metadataKey));
+    }
+
+    public record CacheReport(FormCacheStats stats, double averageLoadMillis, List<EntryReport> entries) {
+    }
+
+    public record EntryReport(String formClass, String tenant, String fingerprint, List<String> paths, String hash, int size,
+                              long hits, Instant createdAt, double loadMillis, Set<String> metadataKeys,
+                              Set<String> dictionaries) {
+
+        static EntryReport of(CachedForm form) {
+            return new EntryReport(form.key().formClass().getName(), form.key().tenant(), form.key().fingerprint(),
+                    form.key().paths(), form.hash(), form.body().length, form.hits(), form.createdAt(), form.loadNanos() / 1_000_000.0,
+                    form.metadataKeys(), form.dictionaries());
+        }
+    }
+
+    public record InvalidationReport(int removed) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.eainde.form_forge.autoconfigure;
+
+import com.eainde.form_forge.admission.AdmissionController;
+import com.eainde.form_forge.cache.FormResponseCache;
+import com.eainde.form_forge.dictionary.OptionDictionaryRegistry;
+import com.eainde.form_forge.export.StaticFormStore;
+import com.eainde.form_forge.service.FormBlueprintService;
+import com.eainde.form_forge.service.FormPrefillService;
+import com.eainde.form_forge.service.JsonFormGenerator;
+import com.eainde.form_forge.service.SubmissionIngestionService;
+import com.eainde.form_forge.store.BlueprintStore;
+import com.eainde.form_forge.store.FileBlueprintStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.io.IOException;
+
+/**
+ * Provides the form-forge core services as beans. Every bean backs off if the application defines its own.
+ * The services use the application's {@link ObjectMapper} when there is one.
+ * <p>
+ * The response cache and the blueprint service drop the forms that contain an option dictionary whenever it
+ * is registered, replaced or removed in the {@link OptionDictionaryRegistry}.
+ * <p>
+ * A {@link StaticFormStore} is only provided if {@code form-forge.static-forms.location} points to an export
+ * directory; the application fails to start if its manifest cannot be read, and forms exported from other code
+ * are not served. Likewise, a {@link FileBlueprintStore}
+ * is only provided if {@code form-forge.blueprint-store.directory} is set, and the blueprint service shares its
+ * blueprints through any {@link BlueprintStore} bean.
+ * <p>
+ * For AOT processing, {@link FormForgeRuntimeHints} covers the response model and {@link JsonFormAotProcessor}
+ * covers the application's {@code @JsonForm} DTOs.
+ */
+@AutoConfiguration(after = JacksonAutoConfiguration.class)
+@EnableConfigurationProperties(FormForgeProperties.class)
+@ImportRuntimeHints(FormForgeRuntimeHints.class)
+public class FormForgeAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OptionDictionaryRegistry optionDictionaryRegistry() {
+        return new OptionDictionaryRegistry();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JsonFormGenerator jsonFormGenerator(FormForgeProperties properties, OptionDictionaryRegistry optionDictionaryRegistry) {
+        return new JsonFormGenerator(properties.limits().toGenerationLimits(), optionDictionaryRegistry);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FormResponseCache formResponseCache(ObjectProvider<ObjectMapper> objectMapper, FormForgeProperties properties,
+                                               OptionDictionaryRegistry optionDictionaryRegistry) {
+        FormResponseCache cache = new FormResponseCache(objectMapper.getIfAvailable(ObjectMapper::new),
+                properties.cache().maxEntries(), properties.cache().coalesceTimeout());
+        optionDictionaryRegistry.addListener(cache::invalidateDictionary);
+        return cache;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AdmissionController admissionController(FormForgeProperties properties) {
+        return new AdmissionController(properties.admission().toAdmissionPolicy());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FormBlueprintService formBlueprintService(JsonFormGenerator jsonFormGenerator,
+                                                     OptionDictionaryRegistry optionDictionaryRegistry,
+                                                     ObjectProvider<BlueprintStore> blueprintStore) {
+        FormBlueprintService blueprintService = new FormBlueprintService(jsonFormGenerator, blueprintStore.getIfAvailable());
+        optionDictionaryRegistry.addListener(blueprintService::invalidateDictionary);
+        return blueprintService;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public FormPrefillService formPrefillService(ObjectProvider<ObjectMapper> objectMapper) {
+        return new FormPrefillService(objectMapper.getIfAvailable(ObjectMapper::new));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public SubmissionIngestionService submissionIngestionService(ObjectProvider<ObjectMapper> objectMapper) {
+        return new SubmissionIngestionService(objectMapper.getIfAvailable(ObjectMapper::new));
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty("form-forge.static-forms.location")
+    public StaticFormStore staticFormStore(FormForgeProperties properties, ObjectProvider<ObjectMapper> objectMapper,
+                                           JsonFormGenerator jsonFormGenerator) throws IOException {
+        return StaticFormStore.open(properties.staticForms().location(), objectMapper.getIfAvailable(ObjectMapper::new),
+                jsonFormGenerator);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty("form-forge.blueprint-store.directory")
+    public FileBlueprintStore fileBlueprintStore(FormForgeProperties properties) {
+        return new FileBlueprintStore(properties.blueprintStore().directory());
+    }
+
+    /**
+     * Publishes the admission decisions as metrics if Micrometer is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class AdmissionMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public AdmissionMetrics admissionMetrics(AdmissionController admissionController) {
+            return new AdmissionMetrics(admissionController);
+        }
+    }
+
+    /**
+     * Registers the cache endpoint only if Actuator is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class FormCacheEndpointConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnAvailableEndpoint
+        public FormCacheEndpoint formCacheEndpoint(FormResponseCache formResponseCache) {
+            return new FormCacheEndpoint(formResponseCache);
+        }
+    }
+}
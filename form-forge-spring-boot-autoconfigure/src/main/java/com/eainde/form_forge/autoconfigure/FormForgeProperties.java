@@ -0,0 +1,73 @@
+package com.eainde.form_forge.autoconfigure;
+
+import com.eainde.form_forge.admission.AdmissionPolicy;
+import com.eainde.form_forge.service.GenerationLimits;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the form-forge beans, bound from the {@code form-forge.*} properties.
+ *
+ * @param limits         The generation limits ({@code form-forge.limits.*}).
+ * @param cache          The response cache settings ({@code form-forge.cache.*}).
+ * @param admission      The admission control of expensive generations ({@code form-forge.admission.*}).
+ * @param staticForms    The pre-generated forms served from files ({@code form-forge.static-forms.*}).
+ * @param blueprintStore The store blueprints are shared through ({@code form-forge.blueprint-store.*}).
+ */
+@ConfigurationProperties("form-forge")
+public record FormForgeProperties(@DefaultValue Limits limits, @DefaultValue Cache cache, @DefaultValue Admission admission,
+                                  @DefaultValue StaticForms staticForms, @DefaultValue BlueprintStore blueprintStore) {
+
+    /**
+     * @param maxDepth        The maximum nesting depth of groups and dynamic-section items.
+     * @param maxFields       The maximum number of fields processed for one form.
+     * @param maxDynamicItems The maximum number of dynamic-section items expanded for one form.
+     */
+    public record Limits(@DefaultValue("32") int maxDepth, @DefaultValue("50000") int maxFields,
+                         @DefaultValue("10000") int maxDynamicItems) {
+
+        public GenerationLimits toGenerationLimits() {
+            return new GenerationLimits(maxDepth, maxFields, maxDynamicItems);
+        }
+    }
+
+    /**
+     * @param maxEntries      The maximum number of cached form responses.
+     * @param coalesceTimeout How long a request waits for an identical generation started by another request.
+     */
+    public record Cache(@DefaultValue("1000") int maxEntries, @DefaultValue("10s") Duration coalesceTimeout) {
+    }
+
+    /**
+     * @param heavyCostThreshold The estimated cost (processed fields) from which a generation counts as heavy.
+     * @param maxConcurrentHeavy The maximum number of heavy generations running at the same time.
+     * @param maxQueuedHeavy     The maximum number of heavy generations waiting for a permit.
+     * @param queueTimeout       How long a heavy generation waits for a permit before it is rejected.
+     * @param retryAfter         The delay sent in the Retry-After header of rejected requests.
+     */
+    public record Admission(@DefaultValue("5000") long heavyCostThreshold, @DefaultValue("2") int maxConcurrentHeavy,
+                            @DefaultValue("8") int maxQueuedHeavy, @DefaultValue("500ms") Duration queueTimeout,
+                            @DefaultValue("2s") Duration retryAfter) {
+
+        public AdmissionPolicy toAdmissionPolicy() {
+            return new AdmissionPolicy(heavyCostThreshold, maxConcurrentHeavy, maxQueuedHeavy, queueTimeout, retryAfter);
+        }
+    }
+
+    /**
+     * @param location The directory written by the {@link com.eainde.form_forge.export.StaticFormExporter},
+     *                 or null to serve no pre-generated forms.
+     */
+    public record StaticForms(Path location) {
+    }
+
+    /**
+     * @param directory The directory of a {@link com.eainde.form_forge.store.FileBlueprintStore}, typically on a
+     *                  volume shared by all instances, or null to build every blueprint locally.
+     */
+    public record BlueprintStore(Path directory) {
+    }
+}
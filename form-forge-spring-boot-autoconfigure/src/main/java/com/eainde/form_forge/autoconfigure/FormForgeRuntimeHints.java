@@ -0,0 +1,72 @@
+package com.eainde.form_forge.autoconfigure;
+
+import com.eainde.form_forge.export.StaticFormFile;
+import com.eainde.form_forge.export.StaticFormManifest;
+import com.eainde.form_forge.models.DynamicSectionPage;
+import com.eainde.form_forge.models.JsonFormResponse;
+import com.eainde.form_forge.models.blueprint.DynamicItem;
+import com.eainde.form_forge.models.blueprint.DynamicPayload;
+import com.eainde.form_forge.models.blueprint.FormBlueprint;
+import com.eainde.form_forge.models.blueprint.SectionSlot;
+import com.eainde.form_forge.models.json.FormModelDeserializers;
+import com.eainde.form_forge.models.json.FormModelSerializers;
+import com.eainde.form_forge.models.schema.JsonSchema;
+import com.eainde.form_forge.models.schema.SchemaDictionary;
+import com.eainde.form_forge.models.schema.SchemaNode;
+import com.eainde.form_forge.models.schema.SchemaOption;
+import com.eainde.form_forge.models.schema.SchemaProperty;
+import com.eainde.form_forge.models.schema.SchemaReference;
+import com.eainde.form_forge.models.uischema.Condition;
+import com.eainde.form_forge.models.uischema.ConditionSchema;
+import com.eainde.form_forge.models.uischema.Rule;
+import com.eainde.form_forge.models.uischema.RuleEffect;
+import com.eainde.form_forge.models.uischema.ScopePath;
+import com.eainde.form_forge.models.uischema.UiControlType;
+import com.eainde.form_forge.models.uischema.UiSchema;
+import com.eainde.form_forge.models.uischema.UiSchemaElement;
+import com.eainde.form_forge.models.uischema.UiSchemaGroupElement;
+import com.eainde.form_forge.models.uischema.UiSchemaHorizontalLayoutElement;
+import com.eainde.form_forge.models.uischema.UiSchemaLayoutElement;
+import com.eainde.form_forge.models.uischema.UiSchemaVerticalLayoutElement;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Registers the schema and UI schema model classes for Jackson serialization. The element lists are typed
+ * with their base classes, so every concrete subclass is listed explicitly rather than discovered by
+ * walking the properties of {@link JsonFormResponse}. The models' dedicated serializers are instantiated by
+ * Jackson through their public constructors, and so are the deserializers and the {@link ScopePath} creator that
+ * read blueprints back from a blueprint store. The manifest of pre-generated forms is read with Jackson as well.
+ */
+class FormForgeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final Class<?>[] MODEL_TYPES = {
+            JsonFormResponse.class, DynamicSectionPage.class,
+            FormBlueprint.class, SectionSlot.class, DynamicPayload.class, DynamicItem.class,
+            JsonSchema.class, SchemaNode.class, SchemaProperty.class, SchemaReference.class,
+            SchemaDictionary.class, SchemaOption.class,
+            UiSchema.class, UiSchemaLayoutElement.class, UiSchemaElement.class, UiSchemaGroupElement.class,
+            UiSchemaHorizontalLayoutElement.class, UiSchemaVerticalLayoutElement.class,
+            Rule.class, RuleEffect.class, Condition.class, ConditionSchema.class, ScopePath.class, UiControlType.class,
+            StaticFormManifest.class, StaticFormFile.class
+    };
+
+    private static final Class<?>[] SERIALIZER_TYPES = FormModelSerializers.class.getClasses();
+    private static final Class<?>[] DESERIALIZER_TYPES = FormModelDeserializers.class.getClasses();
+
+    private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        bindingRegistrar.registerReflectionHints(hints.reflection(), MODEL_TYPES);
+        for (Class<?> serializerType : SERIALIZER_TYPES) {
+            hints.reflection().registerType(serializerType, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        for (Class<?> deserializerType : DESERIALIZER_TYPES) {
+            hints.reflection().registerType(deserializerType, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+        hints.reflection().registerType(ScopePath.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
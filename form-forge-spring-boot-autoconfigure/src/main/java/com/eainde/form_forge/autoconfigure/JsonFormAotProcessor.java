@@ -0,0 +1,86 @@
+package com.eainde.form_forge.autoconfigure;
+
+import com.eainde.form_forge.annotations.JsonForm;
+import com.eainde.form_forge.metadata.FieldMetadata;
+import com.eainde.form_forge.metadata.FormClassMetadata;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.ReflectionHints;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Registers reflection hints for the form DTOs during AOT processing.
+ * <p>
+ * The application's auto-configuration packages are scanned for {@code @JsonForm} classes, and the group and
+ * dynamic-section item classes they reference are followed from there. Each DTO and its superclasses get
+ * their declared fields (read by the generator) and declared methods (bound by the prefill accessors).
+ * Resolving the metadata here also reports invalid annotations at build time rather than on the first request.
+ */
+class JsonFormAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    private static final MemberCategory[] DTO_MEMBERS = {
+            MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_METHODS,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS
+    };
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        if (!AutoConfigurationPackages.has(beanFactory)) {
+            return null;
+        }
+        Set<Class<?>> types = findFormTypes(AutoConfigurationPackages.get(beanFactory), beanFactory.getBeanClassLoader());
+        if (types.isEmpty()) {
+            return null;
+        }
+        return (generationContext, code) -> {
+            ReflectionHints reflection = generationContext.getRuntimeHints().reflection();
+            for (Class<?> type : types) {
+                for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                    reflection.registerType(current, DTO_MEMBERS);
+                }
+            }
+        };
+    }
+
+    /**
+     * Collects the {@code @JsonForm} classes in the given packages and every DTO reachable from them
+     * through groups and dynamic sections.
+     */
+    static Set<Class<?>> findFormTypes(Iterable<String> packages, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(JsonForm.class));
+
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> pending = new ArrayDeque<>();
+        for (String basePackage : packages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+                pending.push(ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+            }
+        }
+        while (!pending.isEmpty()) {
+            Class<?> type = pending.pop();
+            if (!types.add(type)) {
+                continue;
+            }
+            for (FieldMetadata field : FormClassMetadata.of(type).fields()) {
+                if (field.group() != null) {
+                    pending.push(field.type());
+                } else if (field.dynamicSection() != null) {
+                    pending.push(field.dynamicSection().itemDto());
+                }
+            }
+        }
+        return types;
+    }
+}
@@ -1,4 +0,0 @@
-package com.eainde.form_forge.exception;
-
-public class JsonFormGenerationException {
-}